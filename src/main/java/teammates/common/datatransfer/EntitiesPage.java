@@ -0,0 +1,37 @@
+package teammates.common.datatransfer;
+
+import java.util.List;
+
+/**
+ * One page of the entities matching a query, together with the cursor from which the next page can be fetched.
+ */
+public class EntitiesPage<T extends EntityAttributes> {
+
+    private final List<T> entities;
+    private final String nextCursor;
+
+    public EntitiesPage(List<T> entities, String nextCursor) {
+        this.entities = entities;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getEntities() {
+        return entities;
+    }
+
+    /**
+     * @return an opaque string to be passed back to the same query to get the next page,
+     *         or null if there are no more entities. It only contains URL-safe characters.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Note that the next page can still turn out to be empty if the last page ended exactly
+     * at the last entity.
+     */
+    public boolean hasNextPage() {
+        return nextCursor != null;
+    }
+}
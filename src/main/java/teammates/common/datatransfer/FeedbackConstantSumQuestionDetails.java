@@ -4,7 +4,6 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -359,7 +358,8 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
         StringBuilder fragments = new StringBuilder();
         List<String> options = constSumOptions;
         
-        Map<String, List<Integer>> optionPoints = generateOptionPointsMapping(responses);
+        Map<String, List<Integer>> optionPoints =
+                getComputedStatistics(createStatistics(), responses, question, bundle).getOptionPoints();
 
         DecimalFormat df = new DecimalFormat("#.##");
         
@@ -411,7 +411,8 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
         
         StringBuilder fragments = new StringBuilder();
         List<String> options = constSumOptions;
-        Map<String, List<Integer>> optionPoints = generateOptionPointsMapping(responses);
+        Map<String, List<Integer>> optionPoints =
+                getComputedStatistics(createStatistics(), responses, question, bundle).getOptionPoints();
 
         DecimalFormat df = new DecimalFormat("#.##");
         
@@ -436,47 +437,9 @@ public class FeedbackConstantSumQuestionDetails extends FeedbackQuestionDetails
                + fragments + Const.EOL;
     }
 
-    /**
-     * From the feedback responses, generate a mapping of the option to a list of points received for that option.
-     * The key of the map returned is the option name / recipient's participant identifier.
-     * The values of the map are list of points received by the key.
-     * @param responses  a list of responses
-     */
-    private Map<String, List<Integer>> generateOptionPointsMapping(
-            List<FeedbackResponseAttributes> responses) {
-        
-        Map<String, List<Integer>> optionPoints = new HashMap<String, List<Integer>>();
-        for (FeedbackResponseAttributes response : responses) {
-            FeedbackConstantSumResponseDetails frd = (FeedbackConstantSumResponseDetails) response.getResponseDetails();
-            
-            for (int i = 0; i < frd.getAnswerList().size(); i++) {
-                String optionReceivingPoints =
-                        distributeToRecipients ? response.recipient : String.valueOf(i);
-                
-                int pointsReceived = frd.getAnswerList().get(i);
-                updateOptionPointsMapping(optionPoints, optionReceivingPoints, pointsReceived);
-            }
-        }
-        return optionPoints;
-    }
-
-    /**
-     * Used to update the OptionPointsMapping for the option optionReceivingPoints
-     * 
-     * @param optionPoints
-     * @param optionReceivingPoints
-     * @param pointsReceived
-     */
-    private void updateOptionPointsMapping(
-            Map<String, List<Integer>> optionPoints,
-            String optionReceivingPoints, int pointsReceived) {
-        List<Integer> points = optionPoints.get(optionReceivingPoints);
-        if (points == null) {
-            points = new ArrayList<Integer>();
-            optionPoints.put(optionReceivingPoints, points);
-        }
-        
-        points.add(pointsReceived);
+    @Override
+    public FeedbackConstantSumQuestionStatistics createStatistics() {
+        return new FeedbackConstantSumQuestionStatistics(distributeToRecipients);
     }
 
     /**
@@ -0,0 +1,45 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The points received by each option of a constant sum question,
+ * or by each recipient if the points are distributed among recipients.
+ */
+public class FeedbackConstantSumQuestionStatistics implements FeedbackQuestionStatistics {
+
+    /** Keyed by the index of the option, or by the recipient if the points are distributed among recipients. */
+    private final Map<String, List<Integer>> optionPoints = new HashMap<String, List<Integer>>();
+    private final boolean isDistributedToRecipients;
+
+    public FeedbackConstantSumQuestionStatistics(boolean isDistributedToRecipients) {
+        this.isDistributedToRecipients = isDistributedToRecipients;
+    }
+
+    @Override
+    public void add(FeedbackResponseAttributes response) {
+        FeedbackConstantSumResponseDetails frd = (FeedbackConstantSumResponseDetails) response.getResponseDetails();
+        List<Integer> answers = frd.getAnswerList();
+        for (int i = 0; i < answers.size(); i++) {
+            String optionReceivingPoints = isDistributedToRecipients ? response.recipient : String.valueOf(i);
+            List<Integer> points = optionPoints.get(optionReceivingPoints);
+            if (points == null) {
+                points = new ArrayList<Integer>();
+                optionPoints.put(optionReceivingPoints, points);
+            }
+            points.add(answers.get(i));
+        }
+    }
+
+    /**
+     * @return the points received by each option, keyed by the index of the option,
+     *         or by each recipient if the points are distributed among recipients
+     */
+    public Map<String, List<Integer>> getOptionPoints() {
+        return Collections.unmodifiableMap(optionPoints);
+    }
+}
@@ -1,9 +1,12 @@
 package teammates.common.datatransfer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -168,28 +171,15 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
         //List of teams with at least one response
         List<String> teamNames = getTeamsWithAtLeastOneResponse(actualResponses, bundle);
         
-        //Each team's member(email) list
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
-        //Each team's responses
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                actualResponses, bundle, teamNames);
-        
-        //Get each team's submission array. -> int[teamSize][teamSize]
-        //Where int[0][1] refers points from student 0 to student 1
-        //Where student 0 is the 0th student in the list in teamMembersEmail
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
         //Each team's contribution question results.
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
+        Map<String, TeamEvalResult> teamResults = getTeamResults(bundle, question, teamNames);
 
         TeamEvalResult currentUserTeamResults = teamResults.get(currentUserTeam);
         if (currentUserTeamResults == null) {
             return "";
         }
 
-        int currentUserIndex = teamMembersEmail.get(currentUserTeam).indexOf(studentEmail);
+        int currentUserIndex = currentUserTeamResults.studentEmails.indexOf(studentEmail);
         int selfClaim = currentUserTeamResults.claimed[currentUserIndex][currentUserIndex];
         int teamClaim = currentUserTeamResults.denormalizedAveragePerceived[currentUserIndex][currentUserIndex];
         
@@ -227,25 +217,11 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
         //List of teams visible to the instructor and in the selected section
         List<String> teamNames = getTeamNames(bundle);
         
-        //Each team's member(email) list
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
-        //Each team's responses
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                actualResponses, bundle, teamNames);
-        
-        //Get each team's submission array. -> int[teamSize][teamSize]
-        //Where int[0][1] refers points from student 0 to student 1
-        //Where student 0 is the 0th student in the list in teamMembersEmail
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
         //Each team's eval results.
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
+        Map<String, TeamEvalResult> teamResults = getTeamResults(bundle, question, teamNames);
         
         //Each person's results summary
-        Map<String, StudentResultSummary> studentResults = getStudentResults(
-                teamMembersEmail, teamResults);
+        Map<String, StudentResultSummary> studentResults = getStudentResults(teamResults);
 
         //Check visibility of recipient
         boolean hideRecipient = false;
@@ -266,9 +242,8 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
             String name = bundle.roster.getStudentForEmail(email).name;
             String team = bundle.roster.getStudentForEmail(email).team;
             
-            List<String> teamEmails = teamMembersEmail.get(team);
             TeamEvalResult teamResult = teamResults.get(team);
-            int studentIndx = teamEmails.indexOf(email);
+            int studentIndx = teamResult.studentEmails.indexOf(email);
             
             String displayName = name;
             String displayTeam = team;
@@ -316,25 +291,11 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
         //List of teams visible to the instructor and in the selected section
         List<String> teamNames = getTeamNames(bundle);
         
-        //Each team's member(email) list
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-
-        //Each team's responses
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                actualResponses, bundle, teamNames);
-        
-        //Get each team's submission array. -> int[teamSize][teamSize]
-        //Where int[0][1] refers points from student 0 to student 1
-        //Where student 0 is the 0th student in the list in teamMembersEmail
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
         //Each team's eval results.
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
+        Map<String, TeamEvalResult> teamResults = getTeamResults(bundle, question, teamNames);
         
         //Each person's results summary
-        Map<String, StudentResultSummary> studentResults = getStudentResults(
-                teamMembersEmail, teamResults);
+        Map<String, StudentResultSummary> studentResults = getStudentResults(teamResults);
         
         //Check visibility of recipient
         boolean hideRecipient = false;
@@ -358,9 +319,8 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
             String name = bundle.roster.getStudentForEmail(email).name;
             String team = bundle.roster.getStudentForEmail(email).team;
             
-            List<String> teamEmails = teamMembersEmail.get(team);
             TeamEvalResult teamResult = teamResults.get(team);
-            int studentIndx = teamEmails.indexOf(email);
+            int studentIndx = teamResult.studentEmails.indexOf(email);
             
             String displayName;
             String displayTeam;
@@ -426,26 +386,12 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
      */
     Map<String, StudentResultSummary> getStudentResults(FeedbackSessionResultsBundle bundle,
             FeedbackQuestionAttributes question) {
-        
-        List<FeedbackResponseAttributes> responses = getActualResponses(question, bundle);
-
-        List<String> teamNames = getTeamsWithAtLeastOneResponse(responses, bundle);
-        
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                responses, bundle, teamNames);
-        
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
-        
-        return getStudentResults(teamMembersEmail, teamResults);
+        return getStudentResults(getTeamEvalResults(bundle, question));
     }
     
     /**
-     * @return A Map with student email as key and TeamEvalResult as value for the specified question.
+     * @return A Map with team name as key and TeamEvalResult as value for the specified question,
+     *         for the teams with at least one response.
      */
     Map<String, TeamEvalResult> getTeamEvalResults(FeedbackSessionResultsBundle bundle,
             FeedbackQuestionAttributes question) {
@@ -454,28 +400,22 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
 
         List<String> teamNames = getTeamsWithAtLeastOneResponse(responses, bundle);
         
-        Map<String, List<String>> teamMembersEmail = getTeamMembersEmail(bundle, teamNames);
-        
-        Map<String, List<FeedbackResponseAttributes>> teamResponses = getTeamResponses(
-                responses, bundle, teamNames);
-        
-        Map<String, int[][]> teamSubmissionArray = getTeamSubmissionArray(
-                teamNames, teamMembersEmail, teamResponses);
-        
-        Map<String, TeamEvalResult> teamResults = getTeamResults(teamNames, teamSubmissionArray, teamMembersEmail);
-        
-        return teamResults;
+        return getTeamResults(bundle, question, teamNames);
+    }
+    
+    /**
+     * @return the TeamEvalResult of {@code teamName} for the specified question
+     */
+    TeamEvalResult getTeamEvalResult(FeedbackSessionResultsBundle bundle,
+            FeedbackQuestionAttributes question, String teamName) {
+        return getTeamResults(bundle, question, Arrays.asList(teamName)).get(teamName);
     }
 
-    private Map<String, StudentResultSummary> getStudentResults(
-            Map<String, List<String>> teamMembersEmail,
-            Map<String, TeamEvalResult> teamResults) {
+    private Map<String, StudentResultSummary> getStudentResults(Map<String, TeamEvalResult> teamResults) {
         Map<String, StudentResultSummary> studentResults = new LinkedHashMap<String, StudentResultSummary>();
-        for (Map.Entry<String, TeamEvalResult> entry : teamResults.entrySet()) {
-            TeamEvalResult teamResult = entry.getValue();
-            List<String> teamEmails = teamMembersEmail.get(entry.getKey());
+        for (TeamEvalResult teamResult : teamResults.values()) {
             int i = 0;
-            for (String studentEmail : teamEmails) {
+            for (String studentEmail : teamResult.studentEmails) {
                 StudentResultSummary summary = new StudentResultSummary();
                 summary.claimedFromStudent = teamResult.claimed[i][i];
                 summary.claimedToInstructor = teamResult.normalizedClaimed[i][i];
@@ -490,86 +430,107 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
         return studentResults;
     }
     
-    @SuppressWarnings("PMD.UnusedPrivateMethod") // false positive by PMD.
-    private Map<String, TeamEvalResult> getTeamResults(List<String> teamNames,
-            Map<String, int[][]> teamSubmissionArray, Map<String, List<String>> teamMembersEmail) {
+    /**
+     * Gets the results of each of {@code teamNames}. The results of a team only depend on the responses
+     * given within the team, so they are computed once per question and kept in {@code bundle} for
+     * all the views of the question, which show different sets of teams.
+     * @return A Map with team name as key and TeamEvalResult as value, in the order of {@code teamNames}.
+     */
+    private Map<String, TeamEvalResult> getTeamResults(FeedbackSessionResultsBundle bundle,
+            FeedbackQuestionAttributes question, List<String> teamNames) {
+        Map<String, TeamEvalResult> computedTeamResults =
+                bundle.contributionQuestionTeamEvalResults.get(question.getId());
+        if (computedTeamResults == null) {
+            computedTeamResults = new HashMap<String, TeamEvalResult>();
+            bundle.contributionQuestionTeamEvalResults.put(question.getId(), computedTeamResults);
+        }
+        
+        List<String> teamsToCompute = new ArrayList<String>();
+        for (String team : teamNames) {
+            if (!computedTeamResults.containsKey(team)) {
+                teamsToCompute.add(team);
+            }
+        }
+        if (!teamsToCompute.isEmpty()) {
+            computedTeamResults.putAll(computeTeamResults(bundle, question, teamsToCompute));
+        }
+        
         Map<String, TeamEvalResult> teamResults = new LinkedHashMap<String, TeamEvalResult>();
         for (String team : teamNames) {
-            TeamEvalResult teamEvalResult = new TeamEvalResult(teamSubmissionArray.get(team));
-            teamEvalResult.studentEmails = teamMembersEmail.get(team);
-            teamResults.put(team, teamEvalResult);
+            teamResults.put(team, computedTeamResults.get(team));
         }
         return teamResults;
     }
-
-    private Map<String, int[][]> getTeamSubmissionArray(List<String> teamNames,
-            Map<String, List<String>> teamMembersEmail,
-            Map<String, List<FeedbackResponseAttributes>> teamResponses) {
-        Map<String, int[][]> teamSubmissionArray = new LinkedHashMap<String, int[][]>();
+    
+    /**
+     * Computes the results of {@code teamNames} from their submission arrays, which are filled
+     * in one pass over the responses to the question.
+     */
+    private Map<String, TeamEvalResult> computeTeamResults(FeedbackSessionResultsBundle bundle,
+            FeedbackQuestionAttributes question, List<String> teamNames) {
+        // Each team's submission array -> int[teamSize][teamSize]
+        // Where int[0][1] refers points from student 0 to student 1
+        // Where student 0 is the 0th student in the sorted list of the team's member emails
+        Map<String, int[][]> teamSubmissionArrays = new HashMap<String, int[][]>();
+        Map<String, List<String>> teamMembersEmail = new HashMap<String, List<String>>();
+        Map<String, Map<String, Integer>> teamMemberIndexes = new HashMap<String, Map<String, Integer>>();
         for (String team : teamNames) {
-            int teamSize = teamMembersEmail.get(team).size();
-            teamSubmissionArray.put(team, new int[teamSize][teamSize]);
-            //Initialize all as not submitted.
-            for (int i = 0; i < teamSize; i++) {
-                for (int j = 0; j < teamSize; j++) {
-                    teamSubmissionArray.get(team)[i][j] = Const.POINTS_NOT_SUBMITTED;
-                }
+            List<String> memberEmails = new ArrayList<String>(bundle.rosterTeamNameMembersTable.get(team));
+            Collections.sort(memberEmails);
+            teamMembersEmail.put(team, memberEmails);
+            Map<String, Integer> memberIndexes = new HashMap<String, Integer>();
+            for (int i = 0; i < memberEmails.size(); i++) {
+                memberIndexes.put(memberEmails.get(i), i);
             }
-            //Fill in submitted points
-            List<FeedbackResponseAttributes> teamResponseList = teamResponses.get(team);
-            List<String> memberEmailList = teamMembersEmail.get(team);
-            for (FeedbackResponseAttributes response : teamResponseList) {
-                int giverIndx = memberEmailList.indexOf(response.giver);
-                int recipientIndx = memberEmailList.indexOf(response.recipient);
-                if (giverIndx == -1 || recipientIndx == -1) {
-                    continue;
-                }
-                int points = ((FeedbackContributionResponseDetails) response.getResponseDetails()).getAnswer();
-                teamSubmissionArray.get(team)[giverIndx][recipientIndx] = points;
+            teamMemberIndexes.put(team, memberIndexes);
+            
+            int teamSize = memberEmails.size();
+            int[][] submissionArray = new int[teamSize][teamSize];
+            //Initialize all as not submitted.
+            for (int[] row : submissionArray) {
+                Arrays.fill(row, Const.POINTS_NOT_SUBMITTED);
             }
+            teamSubmissionArrays.put(team, submissionArray);
         }
-        return teamSubmissionArray;
-    }
-
-    private Map<String, List<FeedbackResponseAttributes>> getTeamResponses(
-            List<FeedbackResponseAttributes> responses,
-            FeedbackSessionResultsBundle bundle, List<String> teamNames) {
-        Map<String, List<FeedbackResponseAttributes>> teamResponses =
-                new LinkedHashMap<String, List<FeedbackResponseAttributes>>();
-        for (String teamName : teamNames) {
-            teamResponses.put(teamName, new ArrayList<FeedbackResponseAttributes>());
-        }
-        for (FeedbackResponseAttributes response : responses) {
+        
+        //Fill in submitted points
+        String questionId = question.getId();
+        for (FeedbackResponseAttributes response : bundle.actualResponses) {
+            if (!response.feedbackQuestionId.equals(questionId)) {
+                continue;
+            }
             String team = bundle.emailTeamNameTable.get(response.giver);
-            if (teamResponses.containsKey(team)) {
-                teamResponses.get(team).add(response);
+            int[][] submissionArray = teamSubmissionArrays.get(team);
+            if (submissionArray == null) {
+                continue;
+            }
+            Map<String, Integer> memberIndexes = teamMemberIndexes.get(team);
+            Integer giverIndx = memberIndexes.get(response.giver);
+            Integer recipientIndx = memberIndexes.get(response.recipient);
+            if (giverIndx == null || recipientIndx == null) {
+                continue;
             }
+            int points = ((FeedbackContributionResponseDetails) response.getResponseDetails()).getAnswer();
+            submissionArray[giverIndx][recipientIndx] = points;
         }
-        return teamResponses;
-    }
-
-    private Map<String, List<String>> getTeamMembersEmail(
-            FeedbackSessionResultsBundle bundle, List<String> teamNames) {
-        Map<String, List<String>> teamMembersEmail = new LinkedHashMap<String, List<String>>();
-        for (String teamName : teamNames) {
-            List<String> memberEmails = new ArrayList<String>(bundle.rosterTeamNameMembersTable.get(teamName));
-            Collections.sort(memberEmails);
-            teamMembersEmail.put(teamName, memberEmails);
+        
+        Map<String, TeamEvalResult> teamResults = new HashMap<String, TeamEvalResult>();
+        for (String team : teamNames) {
+            TeamEvalResult teamEvalResult = new TeamEvalResult(teamSubmissionArrays.get(team));
+            teamEvalResult.studentEmails = teamMembersEmail.get(team);
+            teamResults.put(team, teamEvalResult);
         }
-        return teamMembersEmail;
+        return teamResults;
     }
-
+    
     private List<String> getTeamsWithAtLeastOneResponse(
             List<FeedbackResponseAttributes> responses,
             FeedbackSessionResultsBundle bundle) {
-        List<String> teamNames = new ArrayList<String>();
+        Set<String> teamNames = new LinkedHashSet<String>();
         for (FeedbackResponseAttributes response : responses) {
-            String teamNameOfResponseGiver = bundle.getTeamNameForEmail(response.giver);
-            if (!teamNames.contains(teamNameOfResponseGiver)) {
-                teamNames.add(teamNameOfResponseGiver);
-            }
+            teamNames.add(bundle.getTeamNameForEmail(response.giver));
         }
-        return teamNames;
+        return new ArrayList<String>(teamNames);
     }
 
     private List<FeedbackResponseAttributes> getActualResponses(
@@ -0,0 +1,79 @@
+package teammates.common.datatransfer;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The number of times each choice of an MCQ question was chosen.
+ */
+public class FeedbackMcqQuestionStatistics implements IncrementalFeedbackQuestionStatistics {
+
+    /** The choice counting the answers given for the "other" option. */
+    public static final String OTHER_CHOICE = "Other";
+
+    /** The choices of the question come first, in their order, then the other answers given. */
+    private final Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
+    /** The choices which are shown even if they were never chosen. */
+    private final Set<String> choices = new HashSet<String>();
+    private int numOfResponses;
+
+    public FeedbackMcqQuestionStatistics(List<String> choices, boolean isOtherEnabled) {
+        for (String choice : choices) {
+            answerFrequency.put(choice, 0);
+        }
+        if (isOtherEnabled) {
+            answerFrequency.put(OTHER_CHOICE, 0);
+        }
+        this.choices.addAll(answerFrequency.keySet());
+    }
+
+    @Override
+    public void add(FeedbackResponseAttributes response) {
+        FeedbackMcqResponseDetails frd = (FeedbackMcqResponseDetails) response.getResponseDetails();
+        String answer = frd.isOtherOptionAnswer() ? OTHER_CHOICE : frd.getAnswerString();
+        Integer frequency = answerFrequency.get(answer);
+        answerFrequency.put(answer, frequency == null ? 1 : frequency + 1);
+        numOfResponses++;
+    }
+
+    @Override
+    public boolean remove(FeedbackResponseAttributes response) {
+        FeedbackMcqResponseDetails frd = (FeedbackMcqResponseDetails) response.getResponseDetails();
+        String answer = frd.isOtherOptionAnswer() ? OTHER_CHOICE : frd.getAnswerString();
+        Integer oldFrequency = answerFrequency.get(answer);
+        if (oldFrequency == null || oldFrequency == 0) {
+            // the response was not added
+            return false;
+        }
+        int frequency = oldFrequency - 1;
+        if (frequency == 0 && !choices.contains(answer)) {
+            answerFrequency.remove(answer);
+        } else {
+            answerFrequency.put(answer, frequency);
+        }
+        numOfResponses--;
+        return true;
+    }
+
+    /**
+     * @return the number of times each choice was chosen
+     */
+    public Map<String, Integer> getAnswerFrequency() {
+        return Collections.unmodifiableMap(answerFrequency);
+    }
+
+    /**
+     * @return the percentage of the responses which chose a choice chosen {@code frequency} times
+     */
+    public double getPercentage(int frequency) {
+        return 100 * (double) frequency / numOfResponses;
+    }
+
+    public int getNumOfResponses() {
+        return numOfResponses;
+    }
+}
@@ -0,0 +1,122 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The number of times each choice of an MSQ question was chosen.
+ */
+public class FeedbackMsqQuestionStatistics implements IncrementalFeedbackQuestionStatistics {
+
+    /** The choice counting the answers given for the "other" option. */
+    public static final String OTHER_CHOICE = "Other";
+
+    /** The choices of the question come first, in their order, then the other answers given. */
+    private final Map<String, Integer> answerFrequency = new LinkedHashMap<String, Integer>();
+    /** The choices which are shown even if they were never chosen. */
+    private final Set<String> choices = new HashSet<String>();
+    private int numOfChoicesSelected;
+    /** The number of responses which chose at least one choice other than the "other" option. */
+    private int numOfNonEmptyResponses;
+
+    public FeedbackMsqQuestionStatistics(List<String> choices, boolean isOtherEnabled) {
+        for (String choice : choices) {
+            answerFrequency.put(choice, 0);
+        }
+        if (isOtherEnabled) {
+            answerFrequency.put(OTHER_CHOICE, 0);
+        }
+        this.choices.addAll(answerFrequency.keySet());
+    }
+
+    @Override
+    public void add(FeedbackResponseAttributes response) {
+        FeedbackMsqResponseDetails frd = (FeedbackMsqResponseDetails) response.getResponseDetails();
+        List<String> chosenChoices = getChosenChoices(frd);
+        for (String choice : chosenChoices) {
+            Integer frequency = answerFrequency.get(choice);
+            answerFrequency.put(choice, frequency == null ? 1 : frequency + 1);
+            numOfChoicesSelected++;
+        }
+        if (isNonEmpty(frd, chosenChoices)) {
+            numOfNonEmptyResponses++;
+        }
+    }
+
+    @Override
+    public boolean remove(FeedbackResponseAttributes response) {
+        FeedbackMsqResponseDetails frd = (FeedbackMsqResponseDetails) response.getResponseDetails();
+        List<String> chosenChoices = getChosenChoices(frd);
+        for (String choice : chosenChoices) {
+            Integer frequency = answerFrequency.get(choice);
+            if (frequency == null || frequency < Collections.frequency(chosenChoices, choice)) {
+                // the response was not added
+                return false;
+            }
+        }
+        for (String choice : chosenChoices) {
+            int frequency = answerFrequency.get(choice) - 1;
+            if (frequency == 0 && !choices.contains(choice)) {
+                answerFrequency.remove(choice);
+            } else {
+                answerFrequency.put(choice, frequency);
+            }
+            numOfChoicesSelected--;
+        }
+        if (isNonEmpty(frd, chosenChoices)) {
+            numOfNonEmptyResponses--;
+        }
+        return true;
+    }
+
+    /**
+     * @return the choices counted for the response, where the answer for the "other" option,
+     *         which is the last one, is counted as "Other" only
+     */
+    private static List<String> getChosenChoices(FeedbackMsqResponseDetails frd) {
+        List<String> answerStrings = frd.getAnswerStrings();
+        List<String> chosenChoices = new ArrayList<String>();
+        int numOfChosenOptions = answerStrings.size();
+        if (frd.isOtherOptionAnswer()) {
+            chosenChoices.add(OTHER_CHOICE);
+            numOfChosenOptions--;
+        }
+        for (String answerString : answerStrings.subList(0, numOfChosenOptions)) {
+            if (!answerString.isEmpty()) {
+                chosenChoices.add(answerString);
+            }
+        }
+        return chosenChoices;
+    }
+
+    private static boolean isNonEmpty(FeedbackMsqResponseDetails frd, List<String> chosenChoices) {
+        return chosenChoices.size() > (frd.isOtherOptionAnswer() ? 1 : 0);
+    }
+
+    /**
+     * @return the number of times each choice was chosen
+     */
+    public Map<String, Integer> getAnswerFrequency() {
+        return Collections.unmodifiableMap(answerFrequency);
+    }
+
+    /**
+     * @return the percentage of all the choices selected which a choice chosen {@code frequency} times makes up
+     */
+    public double getPercentage(int frequency) {
+        return 100 * (double) frequency / numOfChoicesSelected;
+    }
+
+    /**
+     * @return true if a choice other than the "other" option was chosen in at least one response.
+     *         The statistics are only shown if so.
+     */
+    public boolean hasNonEmptyResponse() {
+        return numOfNonEmptyResponses > 0;
+    }
+}
@@ -0,0 +1,188 @@
+package teammates.common.datatransfer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The minimum, maximum and average of the answers received by each recipient of a numerical scale question,
+ * with and without the recipient's own answer. All the maps are keyed by the recipient. <br>
+ * A recipient who only received their own answer may be absent from the maps of the averages and totals
+ * excluding self instead of having a null value, as null values are not kept when the statistics are stored.
+ */
+public class FeedbackNumericalScaleQuestionStatistics implements IncrementalFeedbackQuestionStatistics {
+
+    private static final double TOTAL_PRECISION = 1e9;
+
+    private final Map<String, Double> min = new HashMap<String, Double>();
+    private final Map<String, Double> max = new HashMap<String, Double>();
+    private final Map<String, Double> average = new HashMap<String, Double>();
+    private final Map<String, Double> averageExcludingSelf = new HashMap<String, Double>();
+    private final Map<String, Double> total = new HashMap<String, Double>();
+    private final Map<String, Double> totalExcludingSelf = new HashMap<String, Double>();
+    private final Map<String, Integer> numResponses = new HashMap<String, Integer>();
+    private final Map<String, Integer> numResponsesExcludingSelf = new HashMap<String, Integer>();
+
+    @Override
+    public void add(FeedbackResponseAttributes response) {
+        FeedbackNumericalScaleResponseDetails responseDetails =
+                (FeedbackNumericalScaleResponseDetails) response.getResponseDetails();
+        double answer = responseDetails.getAnswer();
+        String giverEmail = response.giver;
+        String recipientEmail = response.recipient;
+
+        // Compute number of responses including user's self response
+        if (!numResponses.containsKey(recipientEmail)) {
+            numResponses.put(recipientEmail, 0);
+        }
+        int numOfResponses = numResponses.get(recipientEmail) + 1;
+        numResponses.put(recipientEmail, numOfResponses);
+
+        // Compute number of responses excluding user's self response
+        if (!numResponsesExcludingSelf.containsKey(recipientEmail)) {
+            numResponsesExcludingSelf.put(recipientEmail, 0);
+        }
+        boolean isSelfResponse = giverEmail.equalsIgnoreCase(recipientEmail);
+        if (!isSelfResponse) {
+            int numOfResponsesExcludingSelf = numResponsesExcludingSelf.get(recipientEmail) + 1;
+            numResponsesExcludingSelf.put(recipientEmail, numOfResponsesExcludingSelf);
+        }
+
+        // Compute minimum score received
+        if (!min.containsKey(recipientEmail)) {
+            min.put(recipientEmail, answer);
+        }
+        double minScoreReceived = Math.min(answer, min.get(recipientEmail));
+        min.put(recipientEmail, minScoreReceived);
+
+        // Compute maximum score received
+        if (!max.containsKey(recipientEmail)) {
+            max.put(recipientEmail, answer);
+        }
+        double maxScoreReceived = Math.max(answer, max.get(recipientEmail));
+        max.put(recipientEmail, maxScoreReceived);
+
+        // Compute total score received
+        if (!total.containsKey(recipientEmail)) {
+            total.put(recipientEmail, 0.0);
+        }
+        double totalScore = total.get(recipientEmail) + answer;
+        total.put(recipientEmail, totalScore);
+
+        // Compute total score received excluding self
+        if (!totalExcludingSelf.containsKey(recipientEmail)) {
+            totalExcludingSelf.put(recipientEmail, null);
+        }
+        if (!isSelfResponse) {
+            Double totalScoreExcludingSelf = totalExcludingSelf.get(recipientEmail);
+
+            // totalScoreExcludingSelf == null when the user has only self response
+            totalExcludingSelf.put(recipientEmail,
+                                   totalScoreExcludingSelf == null ? answer : totalScoreExcludingSelf + answer);
+        }
+
+        // Compute average score received
+        if (!average.containsKey(recipientEmail)) {
+            average.put(recipientEmail, 0.0);
+        }
+        double averageReceived = total.get(recipientEmail) / numResponses.get(recipientEmail);
+        average.put(recipientEmail, averageReceived);
+
+        // Compute average score received excluding self
+        if (!averageExcludingSelf.containsKey(recipientEmail)) {
+            averageExcludingSelf.put(recipientEmail, null);
+        }
+        if (!isSelfResponse && totalExcludingSelf.get(recipientEmail) != null) {
+            double averageReceivedExcludingSelf =
+                    totalExcludingSelf.get(recipientEmail) / numResponsesExcludingSelf.get(recipientEmail);
+            averageExcludingSelf.put(recipientEmail, averageReceivedExcludingSelf);
+        }
+    }
+
+    @Override
+    public boolean remove(FeedbackResponseAttributes response) {
+        FeedbackNumericalScaleResponseDetails responseDetails =
+                (FeedbackNumericalScaleResponseDetails) response.getResponseDetails();
+        double answer = responseDetails.getAnswer();
+        String giverEmail = response.giver;
+        String recipientEmail = response.recipient;
+
+        Integer numOfResponses = numResponses.get(recipientEmail);
+        if (numOfResponses == null) {
+            // the response was not added
+            return false;
+        }
+        if (numOfResponses == 1) {
+            min.remove(recipientEmail);
+            max.remove(recipientEmail);
+            average.remove(recipientEmail);
+            averageExcludingSelf.remove(recipientEmail);
+            total.remove(recipientEmail);
+            totalExcludingSelf.remove(recipientEmail);
+            numResponses.remove(recipientEmail);
+            numResponsesExcludingSelf.remove(recipientEmail);
+            return true;
+        }
+        if (answer <= min.get(recipientEmail) || answer >= max.get(recipientEmail)) {
+            // the new minimum or maximum can only be found among the other answers
+            return false;
+        }
+
+        numResponses.put(recipientEmail, numOfResponses - 1);
+        double totalScore = roundAfterSubtraction(total.get(recipientEmail) - answer);
+        total.put(recipientEmail, totalScore);
+        average.put(recipientEmail, totalScore / (numOfResponses - 1));
+
+        boolean isSelfResponse = giverEmail.equalsIgnoreCase(recipientEmail);
+        if (!isSelfResponse) {
+            int numOfResponsesExcludingSelf = numResponsesExcludingSelf.get(recipientEmail) - 1;
+            numResponsesExcludingSelf.put(recipientEmail, numOfResponsesExcludingSelf);
+            if (numOfResponsesExcludingSelf == 0) {
+                totalExcludingSelf.put(recipientEmail, null);
+                averageExcludingSelf.put(recipientEmail, null);
+            } else {
+                double totalScoreExcludingSelf =
+                        roundAfterSubtraction(totalExcludingSelf.get(recipientEmail) - answer);
+                totalExcludingSelf.put(recipientEmail, totalScoreExcludingSelf);
+                averageExcludingSelf.put(recipientEmail, totalScoreExcludingSelf / numOfResponsesExcludingSelf);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Answers only have a few decimal places, so rounding a total from which an answer was subtracted
+     * removes the error of the subtraction, e.g. 0.3 - 0.1 gives 0.2 instead of 0.19999999999999998,
+     * which would be shown as 0.19999 as the statistics are rounded down.
+     */
+    private static double roundAfterSubtraction(double total) {
+        return Math.round(total * TOTAL_PRECISION) / TOTAL_PRECISION;
+    }
+
+    public Map<String, Double> getMin() {
+        return Collections.unmodifiableMap(min);
+    }
+
+    public Map<String, Double> getMax() {
+        return Collections.unmodifiableMap(max);
+    }
+
+    public Map<String, Double> getAverage() {
+        return Collections.unmodifiableMap(average);
+    }
+
+    /**
+     * @return the averages of the answers received excluding the recipient's own answer,
+     *         which are null (or absent) for recipients who only received their own answer
+     */
+    public Map<String, Double> getAverageExcludingSelf() {
+        return Collections.unmodifiableMap(averageExcludingSelf);
+    }
+
+    /**
+     * @return the number of answers received by each recipient, which has every recipient as a key
+     */
+    public Map<String, Integer> getNumResponses() {
+        return Collections.unmodifiableMap(numResponses);
+    }
+}
@@ -26,6 +26,8 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
      * To get the question text use {@code getQuestionDetails().questionText}
      */
     public Text questionMetaData;
+    /** The details last parsed from {@link #questionMetaData}, see {@link #getQuestionDetails()}. */
+    private transient ParsedDetails<FeedbackQuestionDetails> parsedQuestionDetails;
     public Text questionDescription;
     public int questionNumber;
     public FeedbackQuestionType questionType;
@@ -73,6 +75,7 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
         this.courseId = other.getCourseId();
         this.creatorEmail = other.getCreatorEmail();
         this.questionMetaData = other.getQuestionMetaData();
+        this.parsedQuestionDetails = other.parsedQuestionDetails;
         this.questionNumber = other.getQuestionNumber();
         this.questionType = other.getQuestionType();
         this.giverType = other.getGiverType();
@@ -571,11 +574,24 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
     }
 
     /** 
-     * This method retrieves the Feedback*QuestionDetails object for this question
+     * This method retrieves the Feedback*QuestionDetails object for this question.
+     * The JSON is only parsed again if {@link #questionMetaData} has changed since the last call,
+     * so the object returned is shared between calls and should not be modified;
+     * use {@link #setQuestionDetails} to change the details of the question.
      * 
      * @return The Feedback*QuestionDetails object representing the question's details
      */
     public FeedbackQuestionDetails getQuestionDetails() {
+        ParsedDetails<FeedbackQuestionDetails> parsed = parsedQuestionDetails;
+        if (parsed == null || !parsed.isParsedFrom(questionMetaData, questionType)) {
+            parsed = new ParsedDetails<FeedbackQuestionDetails>(questionMetaData, questionType,
+                                                                parseQuestionDetails());
+            parsedQuestionDetails = parsed;
+        }
+        return parsed.getDetails();
+    }
+
+    private FeedbackQuestionDetails parseQuestionDetails() {
         final String questionMetaDataValue = questionMetaData.getValue();
         // For old Text questions, the questionText simply contains the question, not a JSON
         if (questionType == FeedbackQuestionType.TEXT && !isValidJsonString(questionMetaDataValue)) {
@@ -58,6 +58,97 @@ public abstract class FeedbackQuestionDetails {
                                                           FeedbackQuestionAttributes question,
                                                           FeedbackSessionResultsBundle bundle);
 
+    /**
+     * Creates the statistics of the question with no responses, to which the responses can be added
+     * one at a time. Override in question types whose statistics are shown by
+     * {@link #getQuestionResultStatisticsHtml} and {@link #getQuestionResultStatisticsCsv}.
+     * @return null if the statistics of the question type are not computed one response at a time
+     */
+    public FeedbackQuestionStatistics createStatistics() {
+        return null;
+    }
+
+    /**
+     * Adds all of {@code responses} to {@code statistics}.
+     * @return {@code statistics}
+     */
+    protected static <S extends FeedbackQuestionStatistics> S addResponses(
+            S statistics, List<FeedbackResponseAttributes> responses) {
+        for (FeedbackResponseAttributes response : responses) {
+            statistics.add(response);
+        }
+        return statistics;
+    }
+
+    /**
+     * Gets the statistics of {@code responses}, the responses to {@code question} in {@code bundle}.
+     * The statistics stored for the question in {@code bundle} are used if they were computed from
+     * the same responses, instead of adding all of {@code responses} to {@code emptyStatistics}.
+     * The statistics are computed once per bundle, see {@link FeedbackSessionResultsBundle#getQuestionStatistics}.
+     * @param emptyStatistics statistics of the question with no responses, see {@link #createStatistics}
+     */
+    protected <S extends FeedbackQuestionStatistics> S getStatistics(
+            S emptyStatistics, List<FeedbackResponseAttributes> responses,
+            FeedbackQuestionAttributes question, FeedbackSessionResultsBundle bundle) {
+        return getStatistics(emptyStatistics, responses, question, bundle, true);
+    }
+
+    /**
+     * Gets the statistics of {@code responses} like {@link #getStatistics}, but always computed
+     * from {@code responses}. For question types whose stored statistics may not match the
+     * responses as they are shown.
+     */
+    protected <S extends FeedbackQuestionStatistics> S getComputedStatistics(
+            S emptyStatistics, List<FeedbackResponseAttributes> responses,
+            FeedbackQuestionAttributes question, FeedbackSessionResultsBundle bundle) {
+        return getStatistics(emptyStatistics, responses, question, bundle, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends FeedbackQuestionStatistics> S getStatistics(
+            S emptyStatistics, List<FeedbackResponseAttributes> responses, FeedbackQuestionAttributes question,
+            FeedbackSessionResultsBundle bundle, boolean isStoredStatisticsUsed) {
+        if (bundle == null) {
+            return addResponses(emptyStatistics, responses);
+        }
+        FeedbackQuestionStatistics statistics = bundle.getQuestionStatistics(question.getId(), responses);
+        if (emptyStatistics.getClass().isInstance(statistics)) {
+            return (S) statistics;
+        }
+        S computedStatistics = isStoredStatisticsUsed
+                             ? getStoredOrComputedStatistics(emptyStatistics, responses, question, bundle)
+                             : addResponses(emptyStatistics, responses);
+        bundle.putQuestionStatistics(question.getId(), responses, computedStatistics);
+        return computedStatistics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends FeedbackQuestionStatistics> S getStoredOrComputedStatistics(
+            S emptyStatistics, List<FeedbackResponseAttributes> responses,
+            FeedbackQuestionAttributes question, FeedbackSessionResultsBundle bundle) {
+        FeedbackQuestionResultStatisticsAttributes storedStatistics =
+                bundle.storedQuestionStatistics.get(question.getId());
+        // the responses of the bundle are some of the responses to the question,
+        // so they are all of them if there are as many as the stored statistics were computed from
+        if (storedStatistics != null && storedStatistics.getNumOfResponses() == responses.size()
+                && isStoredStatisticsApplicable(responses, question, bundle)) {
+            return storedStatistics.getStatistics((Class<S>) emptyStatistics.getClass());
+        }
+        return addResponses(emptyStatistics, responses);
+    }
+
+    /**
+     * Override in question types whose statistics depend on the identities of the givers or recipients,
+     * which may be hidden or changed in the responses of {@code bundle} but not in the stored statistics.
+     * @return true if the statistics stored for {@code question}, computed from the same responses as
+     *         {@code responses} but as they are stored, are the statistics of {@code responses}
+     */
+    protected boolean isStoredStatisticsApplicable(List<FeedbackResponseAttributes> responses,
+                                                   FeedbackQuestionAttributes question,
+                                                   FeedbackSessionResultsBundle bundle) {
+        return true;
+    }
+
     public abstract boolean isChangesRequiresResponseDeletion(FeedbackQuestionDetails newDetails);
 
     public abstract String getCsvHeader();
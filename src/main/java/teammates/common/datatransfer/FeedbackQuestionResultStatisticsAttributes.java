@@ -0,0 +1,198 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.Utils;
+import teammates.storage.entity.FeedbackQuestionResultStatistics;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * The data transfer object for FeedbackQuestionResultStatistics entities. <br>
+ * The statistics are kept as JSON, as their class depends on the type of the question:
+ * it is the class of the statistics created by {@link FeedbackQuestionDetails#createStatistics}.
+ */
+public class FeedbackQuestionResultStatisticsAttributes extends EntityAttributes {
+
+    private String feedbackQuestionId;
+    private String feedbackSessionName;
+    private String courseId;
+    private int numOfResponses;
+    private String statistics;
+    private long version;
+
+    /**
+     * @param numOfResponses the number of responses added to {@code statistics}
+     */
+    public FeedbackQuestionResultStatisticsAttributes(FeedbackQuestionAttributes question,
+                                                      IncrementalFeedbackQuestionStatistics statistics,
+                                                      int numOfResponses) {
+        this.feedbackQuestionId = question.getId();
+        this.feedbackSessionName = question.feedbackSessionName;
+        this.courseId = question.courseId;
+        this.numOfResponses = numOfResponses;
+        this.statistics = Utils.getTeammatesGson().toJson(statistics);
+    }
+
+    public FeedbackQuestionResultStatisticsAttributes(FeedbackQuestionResultStatistics statistics) {
+        this.feedbackQuestionId = statistics.getFeedbackQuestionId();
+        this.feedbackSessionName = statistics.getFeedbackSessionName();
+        this.courseId = statistics.getCourseId();
+        this.numOfResponses = statistics.getNumOfResponses() == null ? 0 : statistics.getNumOfResponses();
+        this.statistics = statistics.getStatistics() == null ? null : statistics.getStatistics().getValue();
+        this.version = statistics.getVersion();
+    }
+
+    public String getFeedbackQuestionId() {
+        return feedbackQuestionId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    /**
+     * @return false if the statistics have to be computed again from all the responses
+     */
+    public boolean isStatisticsKnown() {
+        return statistics != null;
+    }
+
+    /**
+     * @return the version of the stored statistics when they were read, see {@link #isStatisticsKnown()}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the number of responses the statistics are computed from
+     */
+    public int getNumOfResponses() {
+        return numOfResponses;
+    }
+
+    /**
+     * @param numOfResponsesShown    the number of responses to the question in the results to be shown,
+     *                               which are some of the responses to the question
+     * @param numOfResponsesInTotal  the number of responses to the question if known, null otherwise
+     * @return true if the statistics are known and may have been computed from the current responses.
+     *         They missed some responses if there are more responses shown than they were computed from,
+     *         and they counted responses which no longer exist if there are fewer responses in total.
+     */
+    public boolean isMatchingResponses(int numOfResponsesShown, Integer numOfResponsesInTotal) {
+        if (!isStatisticsKnown() || numOfResponsesShown > numOfResponses) {
+            return false;
+        }
+        return numOfResponsesInTotal == null || numOfResponsesInTotal == numOfResponses;
+    }
+
+    /**
+     * @param statisticsClass the class of the statistics of the question,
+     *                        i.e. of those created by {@link FeedbackQuestionDetails#createStatistics}
+     * @return a copy of the statistics, which can be changed without changing these attributes
+     */
+    public <S extends FeedbackQuestionStatistics> S getStatistics(Class<S> statisticsClass) {
+        return Utils.getTeammatesGson().fromJson(statistics, statisticsClass);
+    }
+
+    /**
+     * Removes {@code oldResponse} from the statistics, then adds {@code newResponse} to them.
+     * @param oldResponse the response before it was updated or deleted, or null if it was created
+     * @param newResponse the response after it was created or updated, or null if it was deleted
+     * @return false if the statistics cannot be kept up to date and have to be computed again
+     *         from all the responses, in which case they are left unchanged
+     * @see IncrementalFeedbackQuestionStatistics#remove
+     */
+    public boolean updateStatistics(Class<? extends IncrementalFeedbackQuestionStatistics> statisticsClass,
+                                    FeedbackResponseAttributes oldResponse, FeedbackResponseAttributes newResponse) {
+        IncrementalFeedbackQuestionStatistics updatedStatistics = getStatistics(statisticsClass);
+        int updatedNumOfResponses = numOfResponses;
+        if (oldResponse != null) {
+            if (!updatedStatistics.remove(oldResponse)) {
+                return false;
+            }
+            updatedNumOfResponses--;
+        }
+        if (newResponse != null) {
+            updatedStatistics.add(newResponse);
+            updatedNumOfResponses++;
+        }
+        this.statistics = Utils.getTeammatesGson().toJson(updatedStatistics);
+        this.numOfResponses = updatedNumOfResponses;
+        return true;
+    }
+
+    /**
+     * @return the JSON representation of the statistics as stored in the entity, or null if they are unknown
+     */
+    public Text getStatisticsAsText() {
+        return statistics == null ? null : new Text(statistics);
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+        String error;
+
+        error = validator.getInvalidityInfoForFeedbackSessionName(feedbackSessionName);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getInvalidityInfoForCourseId(courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public FeedbackQuestionResultStatistics toEntity() {
+        return new FeedbackQuestionResultStatistics(feedbackQuestionId, feedbackSessionName, courseId,
+                                                    numOfResponses, getStatisticsAsText());
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return feedbackQuestionId;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Feedback Question Result Statistics";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return Utils.getTeammatesGson().toJson(this, FeedbackQuestionResultStatisticsAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // nothing to sanitize, the statistics are sanitized when they are shown
+    }
+
+    @Override
+    public String toString() {
+        return "FeedbackQuestionResultStatisticsAttributes [feedbackQuestionId=" + feedbackQuestionId
+               + ", feedbackSessionName=" + feedbackSessionName + ", courseId=" + courseId
+               + ", numOfResponses=" + numOfResponses + ", statistics=" + statistics
+               + ", version=" + version + "]";
+    }
+}
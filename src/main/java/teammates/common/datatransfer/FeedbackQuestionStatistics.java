@@ -0,0 +1,18 @@
+package teammates.common.datatransfer;
+
+/**
+ * The statistics of the responses to a question, which are shown in the results of the question
+ * both as HTML and as CSV. <br>
+ * Responses are added to the statistics one at a time, so the responses are read once however the statistics
+ * are shown, and the statistics of a growing set of responses can be kept without reading the earlier ones again.
+ * Each question type whose statistics are computed this way has its own class of statistics,
+ * created by {@link FeedbackQuestionDetails#createStatistics}.
+ */
+public interface FeedbackQuestionStatistics {
+
+    /**
+     * Adds {@code response}, a response to the question, to the statistics.
+     */
+    void add(FeedbackResponseAttributes response);
+
+}
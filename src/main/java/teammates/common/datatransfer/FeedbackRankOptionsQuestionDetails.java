@@ -3,7 +3,6 @@ package teammates.common.datatransfer;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -247,7 +246,8 @@ public class FeedbackRankOptionsQuestionDetails extends FeedbackRankQuestionDeta
         
         StringBuilder fragments = new StringBuilder(100);
         
-        Map<String, List<Integer>> optionRanks = generateOptionRanksMapping(responses);
+        Map<String, List<Integer>> optionRanks =
+                getComputedStatistics(createStatistics(), responses, question, bundle).getOptionRanks();
 
         DecimalFormat df = new DecimalFormat("#.##");
         
@@ -281,7 +281,8 @@ public class FeedbackRankOptionsQuestionDetails extends FeedbackRankQuestionDeta
         }
         
         StringBuilder fragments = new StringBuilder();
-        Map<String, List<Integer>> optionRanks = generateOptionRanksMapping(responses);
+        Map<String, List<Integer>> optionRanks =
+                getComputedStatistics(createStatistics(), responses, question, bundle).getOptionRanks();
 
         DecimalFormat df = new DecimalFormat("#.##");
         
@@ -297,42 +298,9 @@ public class FeedbackRankOptionsQuestionDetails extends FeedbackRankQuestionDeta
         return "Option, Average Rank" + Const.EOL + fragments.toString() + Const.EOL;
     }
 
-    /**
-     * From the feedback responses, generate a mapping of the option to a list of
-     * ranks received for that option.
-     * The key of the map returned is the option name.
-     * The values of the map are list of ranks received by the key.
-     * @param responses  a list of responses
-     */
-    private Map<String, List<Integer>> generateOptionRanksMapping(
-                                            List<FeedbackResponseAttributes> responses) {
-        Map<String, List<Integer>> optionRanks = new HashMap<>();
-        for (FeedbackResponseAttributes response : responses) {
-            FeedbackRankOptionsResponseDetails frd = (FeedbackRankOptionsResponseDetails) response.getResponseDetails();
-            
-            List<Integer> answers = frd.getAnswerList();
-            Map<String, Integer> mapOfOptionToRank = new HashMap<>();
-            
-            Assumption.assertEquals(answers.size(), options.size());
-
-            for (int i = 0; i < options.size(); i++) {
-                int rankReceived = answers.get(i);
-                mapOfOptionToRank.put(options.get(i), rankReceived);
-            }
-            
-            Map<String, Integer> normalisedRankForOption =
-                    obtainMappingToNormalisedRanksForRanking(mapOfOptionToRank, options);
-
-            for (int i = 0; i < options.size(); i++) {
-                String optionReceivingRanks = options.get(i);
-                int rankReceived = normalisedRankForOption.get(optionReceivingRanks);
-                
-                if (rankReceived != Const.POINTS_NOT_SUBMITTED) {
-                    updateOptionRanksMapping(optionRanks, optionReceivingRanks, rankReceived);
-                }
-            }
-        }
-        return optionRanks;
+    @Override
+    public FeedbackRankOptionsQuestionStatistics createStatistics() {
+        return new FeedbackRankOptionsQuestionStatistics(this);
     }
 
     @Override
@@ -0,0 +1,53 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+
+/**
+ * The ranks received by each option of a rank options question, with ties in a ranking
+ * normalised as by {@link FeedbackRankQuestionDetails#obtainMappingToNormalisedRanksForRanking}.
+ */
+public class FeedbackRankOptionsQuestionStatistics implements FeedbackQuestionStatistics {
+
+    private final FeedbackRankOptionsQuestionDetails questionDetails;
+    private final Map<String, List<Integer>> optionRanks = new HashMap<String, List<Integer>>();
+
+    public FeedbackRankOptionsQuestionStatistics(FeedbackRankOptionsQuestionDetails questionDetails) {
+        this.questionDetails = questionDetails;
+    }
+
+    @Override
+    public void add(FeedbackResponseAttributes response) {
+        FeedbackRankOptionsResponseDetails frd = (FeedbackRankOptionsResponseDetails) response.getResponseDetails();
+        List<String> options = questionDetails.options;
+        List<Integer> answers = frd.getAnswerList();
+        Assumption.assertEquals(answers.size(), options.size());
+
+        Map<String, Integer> mapOfOptionToRank = new HashMap<String, Integer>();
+        for (int i = 0; i < options.size(); i++) {
+            mapOfOptionToRank.put(options.get(i), answers.get(i));
+        }
+        Map<String, Integer> normalisedRankForOption =
+                questionDetails.obtainMappingToNormalisedRanksForRanking(mapOfOptionToRank, options);
+
+        for (String optionReceivingRanks : options) {
+            int rankReceived = normalisedRankForOption.get(optionReceivingRanks);
+            if (rankReceived != Const.POINTS_NOT_SUBMITTED) {
+                questionDetails.updateOptionRanksMapping(optionRanks, optionReceivingRanks, rankReceived);
+            }
+        }
+    }
+
+    /**
+     * @return the ranks received by each option which was ranked at least once
+     */
+    public Map<String, List<Integer>> getOptionRanks() {
+        return Collections.unmodifiableMap(optionRanks);
+    }
+}
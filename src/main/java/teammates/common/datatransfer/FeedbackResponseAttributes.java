@@ -39,6 +39,9 @@ public class FeedbackResponseAttributes extends EntityAttributes {
      * This is set to null to represent a missing response.
      */
     public Text responseMetaData;
+    
+    /** The details last parsed from {@link #responseMetaData}, see {@link #getResponseDetails()}. */
+    private transient ParsedDetails<FeedbackResponseDetails> parsedResponseDetails;
     protected transient Date createdAt;
     protected transient Date updatedAt;
     private String feedbackResponseId;
@@ -88,6 +91,7 @@ public class FeedbackResponseAttributes extends EntityAttributes {
         this.recipient = copy.recipient;
         this.recipientSection = copy.recipientSection;
         this.responseMetaData = copy.responseMetaData;
+        this.parsedResponseDetails = copy.parsedResponseDetails;
         this.createdAt = copy.createdAt;
         this.updatedAt = copy.updatedAt;
     }
@@ -193,7 +197,10 @@ public class FeedbackResponseAttributes extends EntityAttributes {
         }
     }
     
-    /** This method retrieves the Feedback*ResponseDetails object for this response
+    /** This method retrieves the Feedback*ResponseDetails object for this response.
+     * The JSON is only parsed again if {@link #responseMetaData} has changed since the last call,
+     * so the object returned is shared between calls and should not be modified;
+     * use {@link #setResponseDetails} to change the details of the response.
      * @return The Feedback*ResponseDetails object representing the response's details
      */
     public FeedbackResponseDetails getResponseDetails() {
@@ -202,6 +209,16 @@ public class FeedbackResponseAttributes extends EntityAttributes {
             return null;
         }
         
+        ParsedDetails<FeedbackResponseDetails> parsed = parsedResponseDetails;
+        if (parsed == null || !parsed.isParsedFrom(responseMetaData, feedbackQuestionType)) {
+            parsed = new ParsedDetails<FeedbackResponseDetails>(responseMetaData, feedbackQuestionType,
+                                                                parseResponseDetails());
+            parsedResponseDetails = parsed;
+        }
+        return parsed.getDetails();
+    }
+    
+    private FeedbackResponseDetails parseResponseDetails() {
         Class<? extends FeedbackResponseDetails> responseDetailsClass = getFeedbackResponseDetailsClass();
         
         if (responseDetailsClass == FeedbackTextResponseDetails.class) {
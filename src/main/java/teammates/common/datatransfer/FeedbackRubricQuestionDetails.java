@@ -532,8 +532,7 @@ public class FeedbackRubricQuestionDetails extends FeedbackQuestionDetails {
             String view) {
 
         FeedbackRubricQuestionDetails fqd = (FeedbackRubricQuestionDetails) question.getQuestionDetails();
-        int[][] responseFrequency = calculateResponseFrequency(responses, fqd);
-        float[][] rubricStats = calculateRubricStats(responses, question);
+        FeedbackRubricQuestionStatistics statistics = getStatistics(fqd.createStatistics(), responses, question, bundle);
         DecimalFormat weightFormat = new DecimalFormat("#.##");
         
         // Create table row header fragments
@@ -574,7 +573,8 @@ public class FeedbackRubricQuestionDetails extends FeedbackQuestionDetails {
                 String tableBodyCell =
                         Templates.populateTemplate(tableBodyFragmentTemplate,
                                 Slots.RUBRIC_PERCENTAGE_FREQUENCY_OR_AVERAGE,
-                                        df.format(rubricStats[j][i] * 100) + "% (" + responseFrequency[j][i] + ")");
+                                        df.format(statistics.getPercentageFrequency(j, i) * 100) + "% ("
+                                        + statistics.getResponseFrequency(j, i) + ")");
                 tableBodyFragmentHtml.append(tableBodyCell).append(Const.EOL);
             }
 
@@ -582,7 +582,7 @@ public class FeedbackRubricQuestionDetails extends FeedbackQuestionDetails {
                 String tableBodyAverageCell =
                         Templates.populateTemplate(tableBodyFragmentTemplate,
                                 Slots.RUBRIC_PERCENTAGE_FREQUENCY_OR_AVERAGE,
-                                        dfAverage.format(rubricStats[j][numOfRubricChoices]));
+                                        dfAverage.format(statistics.getAverage(j)));
                 tableBodyFragmentHtml.append(tableBodyAverageCell).append(Const.EOL);
             }
 
@@ -603,114 +603,10 @@ public class FeedbackRubricQuestionDetails extends FeedbackQuestionDetails {
                 Slots.TABLE_BODY_HTML, tableBodyHtml.toString());
     }
     
-    /**
-     * Calculates the statistics for rubric question
-     * 
-     * Returns a 2D float array to indicate the percentage frequency
-     * a choice is selected for each sub-question.
-     * 
-     * e.g.
-     * pecentageFrequency[subQuestionIndex][choiceIndex]
-     *  -> is the percentage choiceIndex is chosen for subQuestionIndex, for the given question/responses.
-     *
-     */
-    private float[][] calculateRubricStats(List<FeedbackResponseAttributes> responses,
-            FeedbackQuestionAttributes question) {
-        FeedbackRubricQuestionDetails fqd = (FeedbackRubricQuestionDetails) question.getQuestionDetails();
-        
-        // Initialize response frequency variable, used to store frequency each choice is selected.
-        int[][] responseFrequency = calculateResponseFrequency(responses, fqd);
-        
-        return getPercentageFrequencyAndAverage(responseFrequency, fqd);
-    }
-
-    /**
-     * gets the result of the percentage frequency for each choice and average value for each subquestion
-     */
-    private float[][] getPercentageFrequencyAndAverage(int[][] responseFrequency,
-                                                       FeedbackRubricQuestionDetails fqd) {
-        float[][] percentageFrequencyOrAverage = initializePercentageFrequenciesAndAverageValue(responseFrequency, fqd);
-        return calculatePercentageFrequencyAndAverageValue(responseFrequency, fqd, percentageFrequencyOrAverage);
-    }
-
-    /**
-     * Calculates the response frequency for each choice
-     */
-    private int[][] calculateResponseFrequency(List<FeedbackResponseAttributes> responses,
-                                               FeedbackRubricQuestionDetails fqd) {
-        int[][] responseFrequency = new int[fqd.numOfRubricSubQuestions][];
-        for (int i = 0; i < responseFrequency.length; i++) {
-            responseFrequency[i] = new int[fqd.numOfRubricChoices];
-            for (int j = 0; j < responseFrequency[i].length; j++) {
-                responseFrequency[i][j] = 0;
-            }
-        }
-        
-        // Count frequencies
-        for (FeedbackResponseAttributes response : responses) {
-            FeedbackRubricResponseDetails frd = (FeedbackRubricResponseDetails) response.getResponseDetails();
-            for (int i = 0; i < fqd.numOfRubricSubQuestions; i++) {
-                int chosenChoice = frd.getAnswer(i);
-                if (chosenChoice != -1) {
-                    responseFrequency[i][chosenChoice] += 1;
-                }
-            }
-        }
-        return responseFrequency;
-    }
-    
-    /**
-     * Initializes a 2D float array percentageFrequencyOrAverage using response frequency statistics
-     */
-    private float[][] initializePercentageFrequenciesAndAverageValue(int[][] responseFrequency,
-                                                                     FeedbackRubricQuestionDetails fqd) {
-        
-        float[][] percentageFrequencyOrAverage = new float[fqd.numOfRubricSubQuestions][];
-        for (int i = 0; i < percentageFrequencyOrAverage.length; i++) {
-            //+ 1 is the position for average value
-            percentageFrequencyOrAverage[i] = new float[fqd.numOfRubricChoices + 1];
-            for (int j = 0; j < percentageFrequencyOrAverage[i].length - 1; j++) {
-                // Initialize to be number of responses
-                percentageFrequencyOrAverage[i][j] = responseFrequency[i][j];
-            }
-            percentageFrequencyOrAverage[i][fqd.numOfRubricChoices] = 0;
-        }
-        return percentageFrequencyOrAverage;
-    }
-   
-    /**
-     * Calculates the percentage frequency for each choice and the average value for each subquestion
-     * using the response frequency statistics
-     */
-    private float[][] calculatePercentageFrequencyAndAverageValue(int[][] responseFrequency,
-                                                                  FeedbackRubricQuestionDetails fqd,
-                                                                  float[][] percentageFrequencyOrAverage) {
-        float[][] percentageFrequencyAndAverageValue = percentageFrequencyOrAverage;
-        for (int i = 0; i < percentageFrequencyAndAverageValue.length; i++) {
-            // Count total number of responses for each sub-question
-            int totalForSubQuestion = 0;
-            for (int j = 0; j < percentageFrequencyAndAverageValue[i].length - 1; j++) {
-                totalForSubQuestion += responseFrequency[i][j];
-            }
-            
-            // Divide by totalForSubQuestion to get percentage and calculate the average value
-            for (int j = 0; j < percentageFrequencyAndAverageValue[i].length - 1; j++) {
-                percentageFrequencyAndAverageValue[i][j] /= totalForSubQuestion;
-            }
-
-            // Calculate the average for each sub-question
-            if (fqd.hasAssignedWeights) {
-
-                for (int j = 0; j < percentageFrequencyOrAverage[i].length - 1; j++) {
-                    float choiceWeight = (float) (fqd.rubricWeights.get(j) * responseFrequency[i][j]);
-                    percentageFrequencyOrAverage[i][fqd.numOfRubricChoices] += choiceWeight;
-                }
-
-                percentageFrequencyOrAverage[i][fqd.numOfRubricChoices] /= totalForSubQuestion;
-            }
-        }
-        
-        return percentageFrequencyAndAverageValue;
+    @Override
+    public FeedbackRubricQuestionStatistics createStatistics() {
+        return new FeedbackRubricQuestionStatistics(numOfRubricSubQuestions, numOfRubricChoices,
+                                                    hasAssignedWeights ? rubricWeights : null);
     }
 
     @Override
@@ -746,19 +642,18 @@ public class FeedbackRubricQuestionDetails extends FeedbackQuestionDetails {
         DecimalFormat df = new DecimalFormat("#");
         DecimalFormat dfAverage = new DecimalFormat("0.00");
 
-        int[][] responseFrequency = calculateResponseFrequency(responses, this);
-        float[][] rubricStats = calculateRubricStats(responses, question);
+        FeedbackRubricQuestionStatistics statistics = getStatistics(createStatistics(), responses, question, bundle);
         
         for (int i = 0; i < rubricSubQuestions.size(); i++) {
             String alphabeticalIndex = StringHelper.integerToLowerCaseAlphabeticalIndex(i + 1);
             csv.append(Sanitizer.sanitizeForCsv(alphabeticalIndex + ") " + rubricSubQuestions.get(i)));
             for (int j = 0; j < rubricChoices.size(); j++) {
-                String percentageFrequency = df.format(rubricStats[i][j] * 100) + "%";
-                csv.append("," + percentageFrequency + " (" + responseFrequency[i][j] + ")");
+                String percentageFrequency = df.format(statistics.getPercentageFrequency(i, j) * 100) + "%";
+                csv.append("," + percentageFrequency + " (" + statistics.getResponseFrequency(i, j) + ")");
             }
 
             if (hasAssignedWeights) {
-                csv.append(',').append(dfAverage.format(rubricStats[i][rubricWeights.size()]));
+                csv.append(',').append(dfAverage.format(statistics.getAverage(i)));
             }
 
             csv.append(Const.EOL);
@@ -0,0 +1,82 @@
+package teammates.common.datatransfer;
+
+import java.util.List;
+
+/**
+ * The number of times each choice of a rubric question was chosen for each sub-question,
+ * and the average weight of the choices chosen if the choices have weights.
+ */
+public class FeedbackRubricQuestionStatistics implements IncrementalFeedbackQuestionStatistics {
+
+    /** The number of times each choice was chosen, indexed by sub-question then by choice. */
+    private final int[][] responseFrequency;
+    private final List<Double> weights;
+
+    /**
+     * @param weights the weight of each choice, or null if the choices have no weights
+     */
+    public FeedbackRubricQuestionStatistics(int numOfSubQuestions, int numOfChoices, List<Double> weights) {
+        this.responseFrequency = new int[numOfSubQuestions][numOfChoices];
+        this.weights = weights;
+    }
+
+    @Override
+    public void add(FeedbackResponseAttributes response) {
+        addToResponseFrequency(response, 1);
+    }
+
+    @Override
+    public boolean remove(FeedbackResponseAttributes response) {
+        FeedbackRubricResponseDetails frd = (FeedbackRubricResponseDetails) response.getResponseDetails();
+        for (int i = 0; i < responseFrequency.length; i++) {
+            int chosenChoice = frd.getAnswer(i);
+            if (chosenChoice != -1 && responseFrequency[i][chosenChoice] == 0) {
+                // the response was not added
+                return false;
+            }
+        }
+        addToResponseFrequency(response, -1);
+        return true;
+    }
+
+    private void addToResponseFrequency(FeedbackResponseAttributes response, int delta) {
+        FeedbackRubricResponseDetails frd = (FeedbackRubricResponseDetails) response.getResponseDetails();
+        for (int i = 0; i < responseFrequency.length; i++) {
+            int chosenChoice = frd.getAnswer(i);
+            if (chosenChoice != -1) {
+                responseFrequency[i][chosenChoice] += delta;
+            }
+        }
+    }
+
+    public int getResponseFrequency(int subQuestion, int choice) {
+        return responseFrequency[subQuestion][choice];
+    }
+
+    /**
+     * @return the fraction of the answers to {@code subQuestion} which chose {@code choice}
+     */
+    public float getPercentageFrequency(int subQuestion, int choice) {
+        return (float) responseFrequency[subQuestion][choice] / getNumOfAnswers(subQuestion);
+    }
+
+    /**
+     * @return the average weight of the choices chosen for {@code subQuestion}.
+     *         Only applicable if the choices have weights.
+     */
+    public float getAverage(int subQuestion) {
+        float average = 0;
+        for (int j = 0; j < responseFrequency[subQuestion].length; j++) {
+            average += (float) (weights.get(j) * responseFrequency[subQuestion][j]);
+        }
+        return average / getNumOfAnswers(subQuestion);
+    }
+
+    private int getNumOfAnswers(int subQuestion) {
+        int numOfAnswers = 0;
+        for (int frequency : responseFrequency[subQuestion]) {
+            numOfAnswers += frequency;
+        }
+        return numOfAnswers;
+    }
+}
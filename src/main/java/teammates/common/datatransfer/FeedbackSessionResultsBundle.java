@@ -52,10 +52,26 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     // Key is questionId, value is a map of student email to StudentResultSumary
     public Map<String, Map<String, StudentResultSummary>> contributionQuestionStudentResultSummary =
             new HashMap<String, Map<String, StudentResultSummary>>();
-    // Key is questionId, value is a map of team name to TeamEvalResult
+    // Key is questionId, value is a map of team name to TeamEvalResult of every team whose results
+    // have been computed, whichever view of the question they were computed for
     public Map<String, Map<String, TeamEvalResult>> contributionQuestionTeamEvalResults =
             new HashMap<String, Map<String, TeamEvalResult>>();
     
+    /**
+     * The statistics stored for the questions of the session, keyed by question ID, which are used
+     * instead of computing the statistics of a question from its responses when they match the responses.
+     * Only set for the questions whose statistics are kept up to date as responses are submitted.
+     */
+    public Map<String, FeedbackQuestionResultStatisticsAttributes> storedQuestionStatistics =
+            new HashMap<String, FeedbackQuestionResultStatisticsAttributes>();
+    
+    /**
+     * The statistics computed for the responses to each question, keyed by question ID, together with
+     * the responses they were computed from, so that the views of the bundle which show the statistics
+     * of the same responses (e.g. the results page and its CSV download) only compute them once.
+     */
+    private Map<String, QuestionStatistics> questionStatistics = new HashMap<String, QuestionStatistics>();
+    
     /* 
      * sectionTeamNameTable takes into account the section viewing privileges of the logged-in instructor
      * and the selected section for viewing
@@ -66,6 +82,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * it can only be used for instructor pages and not for student pages
     */
     public Map<String, Set<String>> sectionTeamNameTable;
+    
+    /*
+     * Indexes of the course roster, built once when the bundle is created as the possible givers
+     * and recipients of a question (which may be computed once per giver) are derived from them.
+     * These lists must not be modified; copies are returned to callers.
+     */
+    private List<String> sortedStudentEmails;
+    private List<String> sortedInstructorEmails;
+    private List<String> sortedTeams;
 
     // Sorts by giverName > recipientName > qnNumber
     // General questions and team questions at the bottom.
@@ -763,6 +788,29 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         // roster.*Table is populated using the CourseRoster data directly
         this.rosterTeamNameMembersTable = getTeamNameToEmailsTableFromRoster(roster);
         this.rosterSectionTeamNameTable = getSectionToTeamNamesFromRoster(roster);
+        buildRosterIndexes();
+    }
+    
+    private void buildRosterIndexes() {
+        List<StudentAttributes> students = roster.getStudents();
+        StudentAttributes.sortBySectionName(students);
+        List<String> studentEmails = new ArrayList<String>(students.size());
+        for (StudentAttributes student : students) {
+            studentEmails.add(student.email);
+        }
+        this.sortedStudentEmails = Collections.unmodifiableList(studentEmails);
+        
+        List<String> instructorEmails = new ArrayList<String>();
+        for (InstructorAttributes instructor : roster.getInstructors()) {
+            instructorEmails.add(instructor.email);
+        }
+        Collections.sort(instructorEmails);
+        this.sortedInstructorEmails = Collections.unmodifiableList(instructorEmails);
+        
+        List<String> teams = new ArrayList<String>(rosterTeamNameMembersTable.keySet());
+        teams.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
+        Collections.sort(teams);
+        this.sortedTeams = Collections.unmodifiableList(teams);
     }
     
 
@@ -1305,6 +1353,54 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         }
     }
     
+    /**
+     * Get the possible givers for the question specified who are not in {@code giversWithResponses}
+     * @param fqa
+     * @param giversWithResponses participant identifiers, in the same form as those returned by
+     *        {@link #getPossibleGivers(FeedbackQuestionAttributes)}
+     * @return the possible givers without responses, in the same order as
+     *         {@link #getPossibleGivers(FeedbackQuestionAttributes)}
+     */
+    public List<String> getPossibleGiversWithoutResponses(FeedbackQuestionAttributes fqa,
+                                                         Set<String> giversWithResponses) {
+        return getParticipantsNotIn(getPossibleGivers(fqa), giversWithResponses);
+    }
+
+    /**
+     * Get the possible givers for a recipient for the question specified who are not in
+     * {@code giversWithResponses}
+     * @see #getPossibleGivers(FeedbackQuestionAttributes, String)
+     */
+    public List<String> getPossibleGiversWithoutResponses(FeedbackQuestionAttributes fqa,
+                                                         String recipientParticipantIdentifier,
+                                                         Set<String> giversWithResponses) {
+        return getParticipantsNotIn(getPossibleGivers(fqa, recipientParticipantIdentifier), giversWithResponses);
+    }
+
+    /**
+     * Get the possible recipients for a giver for the question specified who are not in
+     * {@code recipientsWithResponses}
+     * @see #getPossibleRecipients(FeedbackQuestionAttributes, String)
+     */
+    public List<String> getPossibleRecipientsWithoutResponses(FeedbackQuestionAttributes fqa,
+                                                             String giverParticipantIdentifier,
+                                                             Set<String> recipientsWithResponses) {
+        return getParticipantsNotIn(getPossibleRecipients(fqa, giverParticipantIdentifier), recipientsWithResponses);
+    }
+
+    private static List<String> getParticipantsNotIn(List<String> participants, Set<String> participantsToExclude) {
+        if (participantsToExclude.isEmpty()) {
+            return participants;
+        }
+        List<String> remainingParticipants = new ArrayList<String>();
+        for (String participant : participants) {
+            if (!participantsToExclude.contains(participant)) {
+                remainingParticipants.add(participant);
+            }
+        }
+        return remainingParticipants;
+    }
+
     /**
      * Get the possible recipients for a INSTRUCTOR giver for the question specified
      * @param fqa
@@ -1448,10 +1544,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * Instructors are not present as a team.
      */
     private List<String> getSortedListOfTeams() {
-        List<String> teams = new ArrayList<String>(rosterTeamNameMembersTable.keySet());
-        teams.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
-        Collections.sort(teams);
-        return teams;
+        return new ArrayList<String>(sortedTeams);
     }
 
     /**
@@ -1490,13 +1583,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of student emails, sorted by section name
      */
     private List<String> getSortedListOfStudentEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<StudentAttributes> students = roster.getStudents();
-        StudentAttributes.sortBySectionName(students);
-        for (StudentAttributes student : students) {
-            emailList.add(student.email);
-        }
-        return emailList;
+        return new ArrayList<String>(sortedStudentEmails);
     }
 
     /**
@@ -1504,13 +1591,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of instructor emails, sorted alphabetically
      */
     private List<String> getSortedListOfInstructorEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<InstructorAttributes> instructors = roster.getInstructors();
-        for (InstructorAttributes instructor : instructors) {
-            emailList.add(instructor.email);
-        }
-        Collections.sort(emailList);
-        return emailList;
+        return new ArrayList<String>(sortedInstructorEmails);
     }
 
     /**
@@ -2250,4 +2331,48 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return isComplete;
     }
 
+    /**
+     * @return the statistics computed earlier for the question from the same responses as {@code responses},
+     *         or null if there are none
+     */
+    public FeedbackQuestionStatistics getQuestionStatistics(String questionId,
+                                                            List<FeedbackResponseAttributes> responses) {
+        QuestionStatistics statistics = questionStatistics.get(questionId);
+        return statistics != null && statistics.isComputedFrom(responses) ? statistics.statistics : null;
+    }
+
+    /**
+     * Keeps {@code statistics}, computed from {@code responses} to the question, to be returned by
+     * {@link #getQuestionStatistics}. The statistics must not be changed afterwards.
+     */
+    public void putQuestionStatistics(String questionId, List<FeedbackResponseAttributes> responses,
+                                      FeedbackQuestionStatistics statistics) {
+        questionStatistics.put(questionId, new QuestionStatistics(responses, statistics));
+    }
+
+    private static class QuestionStatistics {
+        private final List<FeedbackResponseAttributes> responses;
+        private final FeedbackQuestionStatistics statistics;
+
+        QuestionStatistics(List<FeedbackResponseAttributes> responses, FeedbackQuestionStatistics statistics) {
+            this.responses = new ArrayList<FeedbackResponseAttributes>(responses);
+            this.statistics = statistics;
+        }
+
+        /**
+         * The responses of a bundle are not changed once it is created,
+         * so the same response objects have the same statistics.
+         */
+        boolean isComputedFrom(List<FeedbackResponseAttributes> otherResponses) {
+            if (otherResponses.size() != responses.size()) {
+                return false;
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                if (otherResponses.get(i) != responses.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -0,0 +1,235 @@
+package teammates.common.datatransfer;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.Utils;
+import teammates.storage.entity.FeedbackSessionStatistics;
+
+import com.google.appengine.api.datastore.Text;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * The data transfer object for FeedbackSessionStatistics entities, together with the
+ * response counts of the session merged from its FeedbackSessionResponseCounts shards.
+ */
+public class FeedbackSessionStatisticsAttributes extends EntityAttributes {
+
+    private static final Type COUNTS_TYPE = new TypeToken<HashMap<String, Integer>>(){}.getType();
+
+    private String feedbackSessionName;
+    private String courseId;
+    private Integer expectedTotal;
+    private String revision;
+    private Map<String, Integer> responseCountsPerQuestion;
+    private Map<Integer, String> responseCountsRevisions = new HashMap<Integer, String>();
+
+    /**
+     * Creates statistics in which neither the expected total nor the response counts are known.
+     */
+    public FeedbackSessionStatisticsAttributes(String feedbackSessionName, String courseId) {
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+    }
+
+    public FeedbackSessionStatisticsAttributes(FeedbackSessionStatistics statistics) {
+        this.feedbackSessionName = statistics.getFeedbackSessionName();
+        this.courseId = statistics.getCourseId();
+        this.expectedTotal = statistics.getExpectedTotal();
+        this.revision = statistics.getRevision();
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    /**
+     * @return the number of users expected to respond to the session,
+     *         or null if it is not known and has to be computed from the course roster
+     */
+    public Integer getExpectedTotal() {
+        return expectedTotal;
+    }
+
+    public void setExpectedTotal(Integer expectedTotal) {
+        this.expectedTotal = expectedTotal;
+    }
+
+    /**
+     * @return the revision of the stored statistics at the time they were read, or null if they
+     *         were not stored or were stored without a revision
+     */
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return false if the response counts have to be computed from the responses of the session
+     */
+    public boolean isResponseCountsKnown() {
+        return responseCountsPerQuestion != null;
+    }
+
+    /**
+     * Sets all the response counts to zero, to be followed by {@link #addToResponseCounts}
+     * for each response of the session.
+     */
+    public void resetResponseCounts() {
+        responseCountsPerQuestion = new HashMap<String, Integer>();
+    }
+
+    /**
+     * @return null if the response counts are not known, see {@link #isResponseCountsKnown()}
+     */
+    public Map<String, Integer> getResponseCountsPerQuestion() {
+        return responseCountsPerQuestion;
+    }
+
+    /**
+     * @return the revision of each response counts shard at the time the counts were read,
+     *         without the shards which did not exist
+     */
+    public Map<Integer, String> getResponseCountsRevisions() {
+        return responseCountsRevisions;
+    }
+
+    public void setResponseCountsRevisions(Map<Integer, String> responseCountsRevisions) {
+        this.responseCountsRevisions = responseCountsRevisions;
+    }
+
+    public int getResponseCountForQuestion(String feedbackQuestionId) {
+        Assumption.assertTrue(isResponseCountsKnown());
+        Integer count = responseCountsPerQuestion.get(feedbackQuestionId);
+        return count == null ? 0 : count;
+    }
+
+    public int getResponseTotal() {
+        Assumption.assertTrue(isResponseCountsKnown());
+        int total = 0;
+        for (int count : responseCountsPerQuestion.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Adds {@code delta} to the response count of the question.
+     * Counts which drop to zero are removed. Does nothing if the counts are not known.
+     */
+    public void addToResponseCounts(String feedbackQuestionId, int delta) {
+        if (!isResponseCountsKnown()) {
+            return;
+        }
+        addToCount(responseCountsPerQuestion, feedbackQuestionId, delta);
+    }
+
+    /**
+     * Adds counts of another part of the responses of the session, e.g. of another shard
+     * of the stored counts. Does nothing if the counts are not known.
+     */
+    public void addResponseCounts(Map<String, Integer> countsPerQuestion) {
+        if (!isResponseCountsKnown()) {
+            return;
+        }
+        for (Map.Entry<String, Integer> count : countsPerQuestion.entrySet()) {
+            addToCount(responseCountsPerQuestion, count.getKey(), count.getValue());
+        }
+    }
+
+    private static void addToCount(Map<String, Integer> counts, String key, int delta) {
+        Integer count = counts.get(key);
+        int newCount = (count == null ? 0 : count) + delta;
+        if (newCount > 0) {
+            counts.put(key, newCount);
+        } else {
+            counts.remove(key);
+        }
+    }
+
+    /**
+     * @return the counts stored in the entity as {@code counts}, or null if {@code counts} is null
+     */
+    public static Map<String, Integer> getCountsFromText(Text counts) {
+        if (counts == null || counts.getValue() == null) {
+            return null;
+        }
+        return Utils.getTeammatesGson().fromJson(counts.getValue(), COUNTS_TYPE);
+    }
+
+    /**
+     * @return the JSON representation of {@code counts} as stored in the entity, or null if {@code counts} is null
+     */
+    public static Text getCountsAsText(Map<String, Integer> counts) {
+        if (counts == null) {
+            return null;
+        }
+        return new Text(Utils.getTeammatesGson().toJson(counts, COUNTS_TYPE));
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+        String error;
+
+        error = validator.getInvalidityInfoForFeedbackSessionName(feedbackSessionName);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getInvalidityInfoForCourseId(courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public FeedbackSessionStatistics toEntity() {
+        return new FeedbackSessionStatistics(feedbackSessionName, courseId, expectedTotal);
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return feedbackSessionName + "/" + courseId;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Feedback Session Statistics";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return Utils.getTeammatesGson().toJson(this, FeedbackSessionStatisticsAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // nothing to sanitize, the names are only used to identify the session
+    }
+
+    @Override
+    public String toString() {
+        return "FeedbackSessionStatisticsAttributes [feedbackSessionName=" + feedbackSessionName
+               + ", courseId=" + courseId + ", expectedTotal=" + expectedTotal
+               + ", responseCountsPerQuestion=" + responseCountsPerQuestion + "]";
+    }
+}
@@ -0,0 +1,18 @@
+package teammates.common.datatransfer;
+
+/**
+ * Statistics from which responses can be removed as well as added, so that they can be stored
+ * and kept up to date as responses are submitted, changed and deleted,
+ * instead of being computed from all the responses whenever they are shown. <br>
+ * The statistics are stored as JSON, so they must not refer to other objects such as the question details.
+ */
+public interface IncrementalFeedbackQuestionStatistics extends FeedbackQuestionStatistics {
+
+    /**
+     * Removes {@code response}, a response added to the statistics before.
+     * @return false if the statistics can no longer be kept up to date without adding all the
+     *         remaining responses again, e.g. because the response held the minimum of an answer
+     */
+    boolean remove(FeedbackResponseAttributes response);
+
+}
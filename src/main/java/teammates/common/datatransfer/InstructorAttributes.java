@@ -159,7 +159,8 @@ public class InstructorAttributes extends EntityAttributes {
     
     private InstructorAttributes(InstructorAttributes other) {
         this(other.googleId, other.courseId, other.name, other.email,
-             other.role, other.isDisplayedToStudents, other.displayedName, other.privileges);
+             other.role, other.isDisplayedToStudents, other.displayedName,
+             getInstructorPrivilegesFromText(other.getTextFromInstructorPrivileges()));
         this.key = other.key;
         this.isArchived = other.isArchived;
     }
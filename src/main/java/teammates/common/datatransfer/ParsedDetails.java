@@ -0,0 +1,33 @@
+package teammates.common.datatransfer;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * The details of a question or response, parsed from its JSON {@link Text}. Also holds what the
+ * details were parsed from, so that they can be discarded once the question or response changes.
+ * Instances are immutable and can therefore be shared between threads.
+ */
+final class ParsedDetails<T> {
+
+    private final Text metaData;
+    private final FeedbackQuestionType questionType;
+    private final T details;
+
+    ParsedDetails(Text metaData, FeedbackQuestionType questionType, T details) {
+        this.metaData = metaData;
+        this.questionType = questionType;
+        this.details = details;
+    }
+
+    /**
+     * @return true if the details were parsed from {@code metaData} for a question of type {@code questionType}.
+     *         {@link Text} is immutable, so the same instance always holds the same JSON.
+     */
+    boolean isParsedFrom(Text metaData, FeedbackQuestionType questionType) {
+        return this.metaData == metaData && this.questionType == questionType;
+    }
+
+    T getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,140 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import teammates.common.util.Const;
+import teammates.common.util.Utils;
+import teammates.storage.entity.SearchIndexRebuild;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * The data transfer object for SearchIndexRebuild entities.
+ */
+public class SearchIndexRebuildAttributes extends EntityAttributes {
+
+    private String indexName;
+    private String rebuildId;
+    private String cursor;
+    private long documentsPut;
+    private Date startedAt;
+    private Date updatedAt;
+    private boolean isFinished;
+
+    /**
+     * Creates a rebuild of the index which starts now, from the first page of entities.
+     */
+    public SearchIndexRebuildAttributes(String indexName, String rebuildId) {
+        this.indexName = indexName;
+        this.rebuildId = rebuildId;
+        this.startedAt = new Date();
+        this.updatedAt = startedAt;
+    }
+
+    public SearchIndexRebuildAttributes(SearchIndexRebuild rebuild) {
+        this.indexName = rebuild.getIndexName();
+        this.rebuildId = rebuild.getRebuildId();
+        this.cursor = rebuild.getCursor() == null ? null : rebuild.getCursor().getValue();
+        this.documentsPut = rebuild.getDocumentsPut();
+        this.startedAt = rebuild.getStartedAt();
+        this.updatedAt = rebuild.getUpdatedAt();
+        this.isFinished = rebuild.isFinished();
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public String getRebuildId() {
+        return rebuildId;
+    }
+
+    /**
+     * @return the cursor of the next page of entities to put documents for,
+     *         or null if the rebuild has not put any documents yet
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public long getDocumentsPut() {
+        return documentsPut;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @return when the last batch of documents was put
+     */
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isFinished() {
+        return isFinished;
+    }
+
+    /**
+     * @return the average number of documents put per second, from the start of the rebuild
+     *         until the last batch of documents was put
+     */
+    public double getDocumentsPerSecond() {
+        long elapsedMillis = updatedAt.getTime() - startedAt.getTime();
+        return elapsedMillis <= 0 ? 0 : documentsPut * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        List<String> errors = new ArrayList<String>();
+        if (!Const.SearchIndex.ALL_INDEXES.contains(indexName)) {
+            errors.add("\"" + indexName + "\" is not a search index. It should be one of "
+                       + Const.SearchIndex.ALL_INDEXES);
+        }
+        if (rebuildId == null || rebuildId.isEmpty()) {
+            errors.add("The ID of the rebuild of search index " + indexName + " is missing.");
+        }
+        return errors;
+    }
+
+    @Override
+    public SearchIndexRebuild toEntity() {
+        return new SearchIndexRebuild(indexName, rebuildId, cursor == null ? null : new Text(cursor),
+                                      documentsPut, startedAt, updatedAt, isFinished);
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return indexName;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Search Index Rebuild";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return "Search Index Rebuild";
+    }
+
+    @Override
+    public String getJsonString() {
+        return Utils.getTeammatesGson().toJson(this, SearchIndexRebuildAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // nothing to sanitize, the index name is only used to identify the index
+    }
+
+    @Override
+    public String toString() {
+        return "SearchIndexRebuildAttributes [indexName=" + indexName + ", rebuildId=" + rebuildId
+               + ", documentsPut=" + documentsPut + ", startedAt=" + startedAt
+               + ", updatedAt=" + updatedAt + ", isFinished=" + isFinished + "]";
+    }
+}
@@ -0,0 +1,122 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import teammates.common.util.RequestProfile.Measure;
+
+/**
+ * The {@link RequestProfile}s of the most recent requests served by one action, from which the
+ * percentiles of each {@link Measure} are computed. <br>
+ * The statistics are kept in memory, so they only cover the requests served by the current instance
+ * since it was started.
+ */
+public final class ActionLatencyStatistics {
+
+    /** The number of most recent requests of each action whose profiles are kept. */
+    public static final int SAMPLES_PER_ACTION = 500;
+
+    private static final ConcurrentMap<String, ActionLatencyStatistics> statisticsOfActions =
+            new ConcurrentHashMap<String, ActionLatencyStatistics>();
+
+    private final String actionName;
+    private final int capacity;
+
+    /** The samples of each measure, indexed by the ordinal of the measure. Used as ring buffers. */
+    private final long[][] samples;
+    private int nextSampleIndex;
+    private int sampleCount;
+    private long requestCount;
+
+    ActionLatencyStatistics(String actionName, int capacity) {
+        this.actionName = actionName;
+        this.capacity = capacity;
+        this.samples = new long[Measure.values().length][capacity];
+    }
+
+    /**
+     * Adds {@code profile} to the statistics of the action {@code actionName}.
+     */
+    public static void record(String actionName, RequestProfile profile) {
+        ActionLatencyStatistics statistics = statisticsOfActions.get(actionName);
+        if (statistics == null) {
+            ActionLatencyStatistics newStatistics = new ActionLatencyStatistics(actionName, SAMPLES_PER_ACTION);
+            statistics = statisticsOfActions.putIfAbsent(actionName, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        statistics.add(profile);
+    }
+
+    /**
+     * @return the statistics of all the actions which have served a request,
+     *         sorted by the 90th percentile of the total time taken, slowest first
+     */
+    public static List<ActionLatencyStatistics> getAll() {
+        List<ActionLatencyStatistics> statistics =
+                new ArrayList<ActionLatencyStatistics>(statisticsOfActions.values());
+        Collections.sort(statistics, new Comparator<ActionLatencyStatistics>() {
+            @Override
+            public int compare(ActionLatencyStatistics s1, ActionLatencyStatistics s2) {
+                return Long.compare(s2.getPercentile(Measure.TOTAL, 90), s1.getPercentile(Measure.TOTAL, 90));
+            }
+        });
+        return statistics;
+    }
+
+    public static void clearAll() {
+        statisticsOfActions.clear();
+    }
+
+    synchronized void add(RequestProfile profile) {
+        for (Measure measure : Measure.values()) {
+            samples[measure.ordinal()][nextSampleIndex] = profile.get(measure);
+        }
+        nextSampleIndex = (nextSampleIndex + 1) % capacity;
+        sampleCount = Math.min(sampleCount + 1, capacity);
+        requestCount++;
+    }
+
+    public String getActionName() {
+        return actionName;
+    }
+
+    /**
+     * @return the number of requests the percentiles are computed from
+     */
+    public synchronized int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * @return the number of requests served by the action, including those no longer kept as samples
+     */
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the smallest sample of {@code measure} which is greater than or equal to {@code percentile}
+     *         percent of the samples, or 0 if there are no samples
+     */
+    public synchronized long getPercentile(Measure measure, double percentile) {
+        if (sampleCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples[measure.ordinal()], sampleCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sampleCount);
+        return sorted[Math.max(0, Math.min(rank, sampleCount) - 1)];
+    }
+
+    public synchronized long getMax(Measure measure) {
+        return getPercentile(measure, 100);
+    }
+}
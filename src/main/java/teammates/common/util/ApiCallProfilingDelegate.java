@@ -0,0 +1,139 @@
+package teammates.common.util;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.LogRecord;
+
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.ApiConfig;
+import com.google.apphosting.api.ApiProxy.ApiProxyException;
+import com.google.apphosting.api.ApiProxy.Delegate;
+import com.google.apphosting.api.ApiProxy.Environment;
+
+/**
+ * Wraps the delegate which makes the API calls of the application, recording the calls made
+ * for a request in the {@link RequestProfile} attached to the calling thread. <br>
+ * For asynchronous calls, the time recorded is the time spent waiting for the result,
+ * as the request can do other work while the call is in progress.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" }) // ApiProxy only exposes the delegate as a raw type
+public final class ApiCallProfilingDelegate implements Delegate<Environment> {
+
+    private static boolean isInstalled;
+
+    private final Delegate<Environment> delegate;
+
+    private ApiCallProfilingDelegate(Delegate delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wraps the delegate of the current instance. Does nothing if it has already been wrapped,
+     * or if there is no delegate (e.g. outside of the App Engine environment).
+     */
+    public static synchronized void install() {
+        Delegate delegate = ApiProxy.getDelegate();
+        if (isInstalled || delegate == null) {
+            return;
+        }
+        ApiProxy.setDelegate(new ApiCallProfilingDelegate(delegate));
+        isInstalled = true;
+    }
+
+    @Override
+    public byte[] makeSyncCall(Environment environment, String packageName, String methodName, byte[] request)
+            throws ApiProxyException {
+        RequestProfile profile = RequestProfile.getCurrent();
+        if (profile == null) {
+            return delegate.makeSyncCall(environment, packageName, methodName, request);
+        }
+        profile.recordApiCall(packageName);
+        long startTime = System.currentTimeMillis();
+        try {
+            return delegate.makeSyncCall(environment, packageName, methodName, request);
+        } finally {
+            profile.recordApiWait(packageName, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    @Override
+    public Future<byte[]> makeAsyncCall(Environment environment, String packageName, String methodName,
+                                        byte[] request, ApiConfig apiConfig) {
+        Future<byte[]> future = delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+        RequestProfile profile = RequestProfile.getCurrent();
+        if (profile == null) {
+            return future;
+        }
+        profile.recordApiCall(packageName);
+        return new ProfiledFuture(future, profile, packageName);
+    }
+
+    @Override
+    public void log(Environment environment, LogRecord record) {
+        delegate.log(environment, record);
+    }
+
+    @Override
+    public void flushLogs(Environment environment) {
+        delegate.flushLogs(environment);
+    }
+
+    @Override
+    public List<Thread> getRequestThreads(Environment environment) {
+        return delegate.getRequestThreads(environment);
+    }
+
+    /**
+     * Records the time spent in {@link #get} into the profile of the request which made the call.
+     */
+    private static final class ProfiledFuture implements Future<byte[]> {
+
+        private final Future<byte[]> future;
+        private final RequestProfile profile;
+        private final String packageName;
+
+        ProfiledFuture(Future<byte[]> future, RequestProfile profile, String packageName) {
+            this.future = future;
+            this.profile = profile;
+            this.packageName = packageName;
+        }
+
+        @Override
+        public byte[] get() throws InterruptedException, ExecutionException {
+            long startTime = System.currentTimeMillis();
+            try {
+                return future.get();
+            } finally {
+                profile.recordApiWait(packageName, System.currentTimeMillis() - startTime);
+            }
+        }
+
+        @Override
+        public byte[] get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long startTime = System.currentTimeMillis();
+            try {
+                return future.get(timeout, unit);
+            } finally {
+                profile.recordApiWait(packageName, System.currentTimeMillis() - startTime);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return future.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template split into its slots, e.g. {@code ${questionIndex}}, and the text between them,
+ * so that it can be populated in a single pass instead of scanning the whole template once per slot. <br>
+ * A template is populated the same way as with successive {@link String#replace} calls, one per slot
+ * in the order given: slots without a value are left as they are, the first value given for a slot is used,
+ * and slots in a value are filled with the values given after the value.
+ */
+final class CompiledTemplate {
+
+    private static final String SLOT_START = "${";
+    private static final String SLOT_END = "}";
+
+    /** The text before each slot, followed by the text after the last slot. */
+    private final String[] texts;
+    private final String[] slots;
+    private final int textLength;
+
+    private CompiledTemplate(String[] texts, String[] slots) {
+        this.texts = texts;
+        this.slots = slots;
+        int length = 0;
+        for (String text : texts) {
+            length += text.length();
+        }
+        this.textLength = length;
+    }
+
+    static CompiledTemplate compile(String template) {
+        List<String> texts = new ArrayList<String>();
+        List<String> slots = new ArrayList<String>();
+        int textStart = 0;
+        int slotStart = template.indexOf(SLOT_START);
+        while (slotStart != -1) {
+            int slotEnd = template.indexOf(SLOT_END, slotStart + SLOT_START.length());
+            if (slotEnd == -1) {
+                break;
+            }
+            int nextSlotStart = template.indexOf(SLOT_START, slotStart + SLOT_START.length());
+            if (nextSlotStart != -1 && nextSlotStart < slotEnd) {
+                // the slot is not closed before the next one starts, e.g. "${a ${b}", so it is only text
+                slotStart = nextSlotStart;
+                continue;
+            }
+            texts.add(template.substring(textStart, slotStart));
+            slots.add(template.substring(slotStart, slotEnd + SLOT_END.length()));
+            textStart = slotEnd + SLOT_END.length();
+            slotStart = template.indexOf(SLOT_START, textStart);
+        }
+        texts.add(template.substring(textStart));
+        return new CompiledTemplate(texts.toArray(new String[texts.size()]), slots.toArray(new String[slots.size()]));
+    }
+
+    /**
+     * @return true if {@code key} is a single slot, e.g. {@code ${questionIndex}}, which is the only kind
+     *         of key a compiled template can be populated with
+     */
+    static boolean isSlot(String key) {
+        return key.startsWith(SLOT_START) && key.endsWith(SLOT_END)
+               && key.indexOf(SLOT_START, SLOT_START.length()) == -1
+               && key.indexOf(SLOT_END) == key.length() - SLOT_END.length();
+    }
+
+    /**
+     * Appends the template populated with {@code values} to {@code populated}.
+     * @param values slots and their values, as in {@link Templates#populateTemplate}
+     * @param firstSlotIndex the index in {@code values} of the first slot to fill,
+     *                       as the slots in a value are only filled with the values given after it
+     */
+    void appendTo(StringBuilder populated, String[] values, int firstSlotIndex) {
+        for (int i = 0; i < slots.length; i++) {
+            populated.append(texts[i]);
+            int slotIndex = indexOfSlot(slots[i], values, firstSlotIndex);
+            if (slotIndex == -1) {
+                populated.append(slots[i]);
+                continue;
+            }
+            String value = values[slotIndex + 1];
+            if (value.contains(SLOT_START)) {
+                compile(value).appendTo(populated, values, slotIndex + 2);
+            } else {
+                populated.append(value);
+            }
+        }
+        populated.append(texts[slots.length]);
+    }
+
+    private static int indexOfSlot(String slot, String[] values, int firstSlotIndex) {
+        for (int i = firstSlotIndex; i < values.length; i += 2) {
+            if (slot.equals(values[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the length of the template without its slots
+     */
+    int getTextLength() {
+        return textLength;
+    }
+}
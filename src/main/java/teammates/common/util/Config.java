@@ -26,6 +26,20 @@ public final class Config {
     /** The value of the "app.persistence.checkduration" in build.properties file */
     public static final int PERSISTENCE_CHECK_DURATION;
     
+    /**
+     * The value of the "app.results.parallelism" in build.properties file, or 1 if absent.
+     * This is the maximum number of threads used to fetch the results of a feedback session,
+     * and to run the independent lookups of an action concurrently.
+     */
+    public static final int RESULTS_PARALLELISM;
+    
+    /**
+     * The value of the "app.results.storedstatistics" in build.properties file, or false if absent.
+     * This is whether the statistics of the responses to feedback questions are stored and
+     * kept up to date as responses change, instead of being computed whenever results are shown.
+     */
+    public static final boolean RESULTS_STORED_STATISTICS;
+    
     /** The value of the "app.crashreport.email" in build.properties file */
     public static final String SUPPORT_EMAIL;
     
@@ -44,6 +58,12 @@ public final class Config {
     /** The value of the "app.email.service" in build.properties file */
     public static final String EMAIL_SERVICE;
     
+    /**
+     * The value of the "app.email.batchsize" in build.properties file, or 1 if absent.
+     * This is the most emails sent to the email service in one request, if the service supports it.
+     */
+    public static final int EMAIL_BATCH_SIZE;
+    
     /** The value of the "app.sendgrid.apikey" in build.properties file */
     public static final String SENDGRID_APIKEY;
     
@@ -71,12 +91,16 @@ public final class Config {
         GCS_BUCKETNAME = properties.getProperty("app.gcs.bucketname");
         ENCRYPTION_KEY = properties.getProperty("app.encryption.key");
         PERSISTENCE_CHECK_DURATION = Integer.valueOf(properties.getProperty("app.persistence.checkduration"));
+        RESULTS_PARALLELISM = Integer.parseInt(properties.getProperty("app.results.parallelism", "1").trim());
+        RESULTS_STORED_STATISTICS =
+                Boolean.parseBoolean(properties.getProperty("app.results.storedstatistics", "false").trim());
         SUPPORT_EMAIL = properties.getProperty("app.crashreport.email");
         STUDENT_MOTD_URL = properties.getProperty("app.student.motd.url");
         EMAIL_SENDEREMAIL = properties.getProperty("app.email.senderemail");
         EMAIL_SENDERNAME = properties.getProperty("app.email.sendername");
         EMAIL_REPLYTO = properties.getProperty("app.email.replyto");
         EMAIL_SERVICE = properties.getProperty("app.email.service");
+        EMAIL_BATCH_SIZE = Integer.parseInt(properties.getProperty("app.email.batchsize", "1").trim());
         SENDGRID_APIKEY = properties.getProperty("app.sendgrid.apikey");
         MAILGUN_APIKEY = properties.getProperty("app.mailgun.apikey");
         MAILGUN_DOMAINNAME = properties.getProperty("app.mailgun.domainname");
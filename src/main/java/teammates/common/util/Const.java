@@ -155,6 +155,9 @@ public final class Const {
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_TASK_QUEUE =
                 "feedback-remind-email-particular-users-queue";
         public static final String SEND_EMAIL_TASK_QUEUE = "send-email-queue";
+        public static final String SEARCH_INDEX_REBUILD_TASK_QUEUE = "search-index-rebuild-queue";
+        public static final String FEEDBACK_QUESTION_STATISTICS_REPAIR_TASK_QUEUE =
+                "feedback-question-statistics-repair-queue";
         
         public static final String QUEUE_XML_PATH = "src/main/webapp/WEB-INF/queue.xml";
         public static final String DEFAULT_PROFILE_PICTURE_PATH = "/images/profile_picture_default.png";
@@ -744,6 +747,7 @@ public final class Const {
         public static final String EMAIL_SENDERNAME = "sendername";
         public static final String EMAIL_SUBJECT = "subject";
         public static final String EMAIL_REPLY_TO_ADDRESS = "reply";
+        public static final String EMAIL_BATCH = "emailbatch";
         
         public static final String COMMENT_EDITTYPE = "commentedittype";
         public static final String COMMENT_ID = "commentid";
@@ -756,6 +760,9 @@ public final class Const {
         
         public static final String ENROLLMENT_DETAILS = "enrollmentdetails";
         
+        public static final String SEARCH_INDEX_NAME = "searchindexname";
+        public static final String SEARCH_INDEX_REBUILD_ID = "searchindexrebuildid";
+        
         public static final String SEARCH_KEY = "searchkey";
         public static final String DISPLAY_ARCHIVE = "displayarchive";
         
@@ -775,11 +782,14 @@ public final class Const {
         public static final String SEARCH_COMMENTS_FOR_RESPONSES = "searchcommentforresponses";
     }
     
-    public class SearchIndex {
+    public static class SearchIndex {
         public static final String COMMENT = "comment";
         public static final String FEEDBACK_RESPONSE_COMMENT = "feedbackresponsecomment";
         public static final String STUDENT = "student";
         public static final String INSTRUCTOR = "instructor";
+        
+        public static final List<String> ALL_INDEXES =
+                Arrays.asList(STUDENT, INSTRUCTOR, COMMENT, FEEDBACK_RESPONSE_COMMENT);
     }
     
     public class SearchDocumentField {
@@ -919,6 +929,7 @@ public final class Const {
         public static final String ADMIN_EXCEPTION_TEST = "/admin/adminExceptionTest";
         public static final String ADMIN_ACTIVITY_LOG_PAGE = "/admin/adminActivityLogPage";
         public static final String ADMIN_SESSIONS_PAGE = "/admin/adminSessionsPage";
+        public static final String ADMIN_ACTION_LATENCY_PAGE = "/admin/adminActionLatencyPage";
         public static final String ADMIN_SEARCH_PAGE = "/admin/adminSearchPage";
         public static final String ADMIN_EMAIL_COMPOSE_PAGE = "/admin/adminEmailComposePage";
         public static final String ADMIN_EMAIL_COMPOSE_SAVE = "/admin/adminEmailComposeSave";
@@ -938,6 +949,7 @@ public final class Const {
         
         public static final String PUBLIC_EMAIL_FILE_SERVE = "/public/publicEmailImageServe";
         public static final String ADMIN_STUDENT_GOOGLE_ID_RESET = "/admin/adminStudentGoogleIdReset";
+        public static final String ADMIN_SEARCH_INDEX_REBUILD = "/admin/adminSearchIndexRebuild";
 
         public static final String AUTOMATED_FEEDBACK_OPENING_REMINDERS = "/feedbackSessionOpeningReminders";
         public static final String AUTOMATED_FEEDBACK_CLOSING_REMINDERS = "/feedbackSessionClosingReminders";
@@ -955,6 +967,10 @@ public final class Const {
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_WORKER =
                                     "/feedbackRemindEmailParticularUsersWorker";
         public static final String SEND_EMAIL_WORKER = "/sendEmailWorker";
+        public static final String SEND_EMAIL_BATCH_WORKER = "/sendEmailBatchWorker";
+        public static final String SEARCH_INDEX_REBUILD_WORKER = "/searchIndexRebuildWorker";
+        public static final String FEEDBACK_QUESTION_STATISTICS_REPAIR_WORKER =
+                                    "/feedbackQuestionStatisticsRepairWorker";
     }
     
     public class AutomatedActionNames {
@@ -1046,6 +1062,7 @@ public final class Const {
         public static final String ADMIN_ACCOUNT_DETAILS = "/jsp/adminAccountDetails.jsp";
         public static final String ADMIN_SESSIONS = "/jsp/adminSessions.jsp";
         public static final String ADMIN_EMAIL_LOG = "/jsp/adminEmailLog.jsp";
+        public static final String ADMIN_ACTION_LATENCY = "/jsp/adminActionLatency.jsp";
         
         public static final String GOOGLE_ACCOUNT_HINT = "/googleAccountHint.jsp";
         
@@ -1372,6 +1389,8 @@ public final class Const {
         public static final String NULL_PARAMETER = "ERRORCODE_NULL_PARAMETER";
         public static final String INVALID_KEY = "ERRORCODE_INVALID_KEY";
         public static final String KEY_BELONGS_TO_DIFFERENT_USER = "ERRORCODE_KEY_BELONGS_TO_DIFFERENT_USER";
+        public static final String EMAIL_SERVICE_THROTTLED = "ERRORCODE_EMAIL_SERVICE_THROTTLED";
+        public static final String EMAIL_SERVICE_FAILED = "ERRORCODE_EMAIL_SERVICE_FAILED";
         
         // Error message used across DB level
         public static final String DBLEVEL_NULL_INPUT = "Supplied parameter was null\n";
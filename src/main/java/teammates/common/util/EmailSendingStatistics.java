@@ -0,0 +1,135 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The throughput of the batches of emails sent through one email service, and the rate at which
+ * new batches are scheduled for it. <br>
+ * The rate grows by {@link #RATE_INCREASE} emails per second after each batch sent, and is halved
+ * whenever the service throttles a batch. <br>
+ * The statistics are kept in memory, so they only cover the batches sent by the current instance
+ * since it was started. The rate is per instance too: several instances each schedule batches at
+ * their own rate, and the ceiling for all of them together is the rate of the send-email-queue.
+ */
+public final class EmailSendingStatistics {
+
+    /** The rate at which emails are scheduled, in emails per second, before any batch is sent. */
+    public static final double INITIAL_RATE = 10;
+    public static final double MIN_RATE = 1;
+    public static final double MAX_RATE = 100;
+    public static final double RATE_INCREASE = 1;
+
+    private static final ConcurrentMap<String, EmailSendingStatistics> statisticsOfServices =
+            new ConcurrentHashMap<String, EmailSendingStatistics>();
+
+    private final String serviceName;
+
+    private long batchCount;
+    private long emailCount;
+    private long throttledBatchCount;
+    private long failedBatchCount;
+    private long sendingMillis;
+    private double rate = INITIAL_RATE;
+
+    EmailSendingStatistics(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * @return the statistics of the email service {@code serviceName}
+     */
+    public static EmailSendingStatistics of(String serviceName) {
+        EmailSendingStatistics statistics = statisticsOfServices.get(serviceName);
+        if (statistics == null) {
+            EmailSendingStatistics newStatistics = new EmailSendingStatistics(serviceName);
+            statistics = statisticsOfServices.putIfAbsent(serviceName, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * @return the statistics of all the email services which have sent a batch, sorted by name
+     */
+    public static List<EmailSendingStatistics> getAll() {
+        List<EmailSendingStatistics> statistics =
+                new ArrayList<EmailSendingStatistics>(statisticsOfServices.values());
+        Collections.sort(statistics, new Comparator<EmailSendingStatistics>() {
+            @Override
+            public int compare(EmailSendingStatistics s1, EmailSendingStatistics s2) {
+                return s1.serviceName.compareTo(s2.serviceName);
+            }
+        });
+        return statistics;
+    }
+
+    public static void clearAll() {
+        statisticsOfServices.clear();
+    }
+
+    /**
+     * Records a batch of {@code numOfEmails} emails sent in {@code millis} milliseconds.
+     */
+    public synchronized void recordSent(int numOfEmails, long millis) {
+        batchCount++;
+        emailCount += numOfEmails;
+        sendingMillis += millis;
+        rate = Math.min(MAX_RATE, rate + RATE_INCREASE);
+    }
+
+    /**
+     * Records a batch which the service refused to send because too many emails were sent recently.
+     */
+    public synchronized void recordThrottled() {
+        throttledBatchCount++;
+        rate = Math.max(MIN_RATE, rate / 2);
+    }
+
+    /**
+     * Records a batch which could not be sent for any other reason.
+     */
+    public synchronized void recordFailed() {
+        failedBatchCount++;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public synchronized long getBatchCount() {
+        return batchCount;
+    }
+
+    public synchronized long getEmailCount() {
+        return emailCount;
+    }
+
+    public synchronized long getThrottledBatchCount() {
+        return throttledBatchCount;
+    }
+
+    public synchronized long getFailedBatchCount() {
+        return failedBatchCount;
+    }
+
+    /**
+     * @return the number of emails sent per second spent waiting for the service, or 0 if none were sent
+     */
+    public synchronized double getThroughput() {
+        return sendingMillis == 0 ? 0 : emailCount * 1000.0 / sendingMillis;
+    }
+
+    /**
+     * @return the rate at which new batches of emails are scheduled, in emails per second
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+}
@@ -0,0 +1,247 @@
+package teammates.common.util;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The time taken by each phase of one request, and the number of Datastore and search calls made by it. <br>
+ * The profile of the request being served is attached to the request thread by {@link #start}, and to
+ * any other thread working for the request by {@link #attach}, so that the API calls made by
+ * those threads are recorded by {@link ApiCallProfilingDelegate}, and the queries run and entities
+ * loaded by the storage layer are recorded as well.
+ */
+public final class RequestProfile {
+
+    /**
+     * The measures recorded for each request. All of them are in milliseconds except the counts,
+     * i.e. {@link #DATASTORE_CALLS}, {@link #QUERIES} and {@link #ENTITIES_LOADED}.
+     */
+    public enum Measure {
+        TOTAL,
+        AUTH,
+        /** The time taken by the action, excluding the time spent waiting for the Datastore and search. */
+        LOGIC,
+        DATASTORE,
+        SEARCH,
+        RENDER,
+        DATASTORE_CALLS,
+        /** The number of queries and lookups by key run through the persistence manager. */
+        QUERIES,
+        ENTITIES_LOADED
+    }
+
+    /**
+     * The number of times a request can run a query with different parameters before it is reported as
+     * repeated, as happens when the query is run once for each item of a list (an N+1 query pattern).
+     */
+    public static final int REPEATED_QUERY_THRESHOLD = 5;
+
+    static final String DATASTORE_PACKAGE = "datastore_v3";
+    static final String SEARCH_PACKAGE = "search";
+
+    private static final ThreadLocal<RequestProfile> current = new ThreadLocal<RequestProfile>();
+
+    private final long startTime = System.currentTimeMillis();
+    private long authMillis;
+    private long actionMillis;
+    private long renderMillis;
+
+    // API calls can be made by several threads of the request at the same time
+    private final AtomicLong datastoreCalls = new AtomicLong();
+    private final AtomicLong datastoreMillis = new AtomicLong();
+    private final AtomicLong searchCalls = new AtomicLong();
+    private final AtomicLong searchMillis = new AtomicLong();
+
+    private final AtomicLong entitiesLoaded = new AtomicLong();
+    /**
+     * The number of times each query was run, and the number of times it was run with the same parameters
+     * keyed by its description and its parameters.
+     */
+    private final ConcurrentMap<String, AtomicInteger> queryCounts = new ConcurrentHashMap<String, AtomicInteger>();
+    private final ConcurrentMap<List<String>, AtomicInteger> queryWithParametersCounts =
+            new ConcurrentHashMap<List<String>, AtomicInteger>();
+    private final AtomicLong queries = new AtomicLong();
+
+    /**
+     * Creates a profile for the request being served by the current thread and attaches it to the thread.
+     */
+    public static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        current.set(profile);
+        return profile;
+    }
+
+    /**
+     * @return the profile attached to the current thread, or null if there is none
+     */
+    public static RequestProfile getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Attaches {@code profile} to the current thread, which works for the request of the profile.
+     * Does nothing if {@code profile} is null.
+     */
+    public static void attach(RequestProfile profile) {
+        if (profile != null) {
+            current.set(profile);
+        }
+    }
+
+    /**
+     * Detaches the profile from the current thread. Must be called once the thread is done with the request,
+     * as threads are reused for other requests.
+     */
+    public static void detach() {
+        current.remove();
+    }
+
+    public void setAuthMillis(long authMillis) {
+        this.authMillis = authMillis;
+    }
+
+    public void setActionMillis(long actionMillis) {
+        this.actionMillis = actionMillis;
+    }
+
+    public void setRenderMillis(long renderMillis) {
+        this.renderMillis = renderMillis;
+    }
+
+    public long getElapsedMillis() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Counts a call to the API {@code packageName}. Calls to APIs other than the Datastore and search are ignored.
+     */
+    void recordApiCall(String packageName) {
+        if (DATASTORE_PACKAGE.equals(packageName)) {
+            datastoreCalls.incrementAndGet();
+        } else if (SEARCH_PACKAGE.equals(packageName)) {
+            searchCalls.incrementAndGet();
+        }
+    }
+
+    /**
+     * Adds the time a thread of the request spent waiting for a call to the API {@code packageName}.
+     */
+    void recordApiWait(String packageName, long millis) {
+        if (DATASTORE_PACKAGE.equals(packageName)) {
+            datastoreMillis.addAndGet(millis);
+        } else if (SEARCH_PACKAGE.equals(packageName)) {
+            searchMillis.addAndGet(millis);
+        }
+    }
+
+    /**
+     * Counts a run of {@code query}, e.g. a JDOQL query or a lookup by key of an entity type.
+     * The values of the parameters are only compared, never reported, as they are often personal data.
+     * @param parameters the parameters of the run, e.g. the values of the query parameters or the keys
+     */
+    public void recordQuery(String query, Object[] parameters) {
+        queries.incrementAndGet();
+        increment(queryCounts, query);
+        String description = query + " with the same " + parameters.length + " parameters";
+        increment(queryWithParametersCounts, Arrays.asList(description, Arrays.deepToString(parameters)));
+    }
+
+    public void recordEntityLoaded() {
+        entitiesLoaded.incrementAndGet();
+    }
+
+    /**
+     * @return descriptions of the queries which were run more than once with the same parameters, and of those
+     *         run at least {@link #REPEATED_QUERY_THRESHOLD} times with any parameters, most frequent first.
+     *         Empty if there are no such queries.
+     */
+    public List<String> getRepeatedQueries() {
+        List<Map.Entry<String, AtomicInteger>> repeatedQueries = new ArrayList<Map.Entry<String, AtomicInteger>>();
+        for (Map.Entry<List<String>, AtomicInteger> query : queryWithParametersCounts.entrySet()) {
+            if (query.getValue().get() > 1) {
+                repeatedQueries.add(new AbstractMap.SimpleImmutableEntry<String, AtomicInteger>(
+                        query.getKey().get(0), query.getValue()));
+            }
+        }
+        for (Map.Entry<String, AtomicInteger> query : queryCounts.entrySet()) {
+            if (query.getValue().get() >= REPEATED_QUERY_THRESHOLD) {
+                repeatedQueries.add(query);
+            }
+        }
+        Collections.sort(repeatedQueries, new Comparator<Map.Entry<String, AtomicInteger>>() {
+            @Override
+            public int compare(Map.Entry<String, AtomicInteger> query1, Map.Entry<String, AtomicInteger> query2) {
+                return Integer.compare(query2.getValue().get(), query1.getValue().get());
+            }
+        });
+
+        List<String> descriptions = new ArrayList<String>();
+        for (Map.Entry<String, AtomicInteger> query : repeatedQueries) {
+            descriptions.add(query.getValue().get() + " times: " + query.getKey());
+        }
+        return descriptions;
+    }
+
+    private static <K> void increment(ConcurrentMap<K, AtomicInteger> counts, K key) {
+        AtomicInteger count = counts.get(key);
+        if (count == null) {
+            AtomicInteger newCount = new AtomicInteger();
+            count = counts.putIfAbsent(key, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * Note that the Datastore and search times add up the waiting of all the threads of the request,
+     * so for requests which use several threads they can exceed the time taken by the action.
+     */
+    public long get(Measure measure) {
+        switch (measure) {
+        case TOTAL:
+            return getElapsedMillis();
+        case AUTH:
+            return authMillis;
+        case LOGIC:
+            return Math.max(0, actionMillis - datastoreMillis.get() - searchMillis.get());
+        case DATASTORE:
+            return datastoreMillis.get();
+        case SEARCH:
+            return searchMillis.get();
+        case RENDER:
+            return renderMillis;
+        case DATASTORE_CALLS:
+            return datastoreCalls.get();
+        case QUERIES:
+            return queries.get();
+        case ENTITIES_LOADED:
+            return entitiesLoaded.get();
+        default:
+            Assumption.fail("Unknown measure " + measure);
+            return 0;
+        }
+    }
+
+    public long getSearchCalls() {
+        return searchCalls.get();
+    }
+
+    @Override
+    public String toString() {
+        return "total " + get(Measure.TOTAL) + " ms, auth " + authMillis + " ms, logic " + get(Measure.LOGIC)
+               + " ms, datastore " + datastoreMillis.get() + " ms in " + datastoreCalls.get() + " calls, search "
+               + searchMillis.get() + " ms in " + searchCalls.get() + " calls, render " + renderMillis + " ms, "
+               + queries.get() + " queries, " + entitiesLoaded.get() + " entities loaded";
+    }
+}
@@ -1,22 +1,65 @@
 package teammates.common.util;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import teammates.common.exception.TeammatesException;
+
 public final class Templates {
     
     public static final String INSTRUCTOR_SAMPLE_DATA = FileHelper.readResourceFile("InstructorSampleData.json");
     
+    /**
+     * The templates declared in the nested classes, compiled once when the class is loaded.
+     * Keyed by identity, as the templates are constants and looking them up should not scan their content.
+     * The map is not modified after it is built, so it can be read by several threads.
+     */
+    private static final Map<String, CompiledTemplate> compiledTemplates = compileTemplates(Templates.class);
+    
     private Templates() {
         // utility class
     }
     
     /**
      * Populates the HTML templates by replacing variables in the template string
-     * with the given value string.
+     * with the given value string. <br>
+     * If all the variables are slots, e.g. {@link FeedbackQuestion.Slots#QUESTION_INDEX}, the template is
+     * populated in a single pass, else each variable is replaced in turn as in {@link #replaceAll}.
+     * The result is the same either way.
      * @param template The template html to be populated
      * @param values Array of a variable, even number of key-value pairs:
      *                   { "key1", "val1", "key2", "val2", ... }
      * @return The populated template
      */
     public static String populateTemplate(String template, String... values) {
+        Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
+        int valuesLength = 0;
+        for (int i = 0; i < values.length; i += 2) {
+            if (!CompiledTemplate.isSlot(values[i])) {
+                return replaceAll(template, values);
+            }
+            valuesLength += values[i + 1].length();
+        }
+        
+        CompiledTemplate compiledTemplate = compiledTemplates.get(template);
+        if (compiledTemplate == null) {
+            compiledTemplate = CompiledTemplate.compile(template);
+        }
+        StringBuilder populatedTemplate = new StringBuilder(compiledTemplate.getTextLength() + valuesLength);
+        compiledTemplate.appendTo(populatedTemplate, values, 0);
+        return populatedTemplate.toString();
+    }
+    
+    /**
+     * Populates the template by replacing each variable in turn with its value, scanning the whole template
+     * once per variable. Used for variables which are not slots, e.g. sample data in
+     * {@link #INSTRUCTOR_SAMPLE_DATA}.
+     * @param values Array of a variable, even number of key-value pairs:
+     *                   { "key1", "val1", "key2", "val2", ... }
+     */
+    public static String replaceAll(String template, String... values) {
         Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
         String populatedTemplate = template;
         for (int i = 0; i < values.length; i += 2) {
@@ -25,6 +68,30 @@ public final class Templates {
         return populatedTemplate;
     }
     
+    /**
+     * @return the compiled templates declared as constants in the classes nested in {@code templatesClass}
+     */
+    private static Map<String, CompiledTemplate> compileTemplates(Class<?> templatesClass) {
+        Map<String, CompiledTemplate> compiled = new IdentityHashMap<String, CompiledTemplate>();
+        for (Class<?> nestedClass : templatesClass.getDeclaredClasses()) {
+            for (Field field : nestedClass.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || field.getType() != String.class) {
+                    continue;
+                }
+                try {
+                    String template = (String) field.get(null);
+                    compiled.put(template, CompiledTemplate.compile(template));
+                } catch (IllegalAccessException e) {
+                    Assumption.fail("Template " + field.getName() + " is not accessible: "
+                                    + TeammatesException.toStringWithStackTrace(e));
+                }
+            }
+            compiled.putAll(compileTemplates(nestedClass));
+        }
+        return compiled;
+    }
+    
     /**
      * Collection of templates of emails to be sent by the system.
      */
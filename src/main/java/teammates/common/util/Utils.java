@@ -10,6 +10,12 @@ import com.google.gson.GsonBuilder;
 
 public final class Utils {
 
+    private static final Gson TEAMMATES_GSON = new GsonBuilder()
+            .setDateFormat(DateFormat.FULL)
+            .setDateFormat(SystemParams.DEFAULT_DATE_TIME_FORMAT)
+            .setPrettyPrinting()
+            .create();
+
     private Utils() {
         // utility class
     }
@@ -24,15 +30,12 @@ public final class Utils {
     }
 
     /**
-     * This creates a Gson object that can handle the Date format we use in the
+     * This returns a Gson object that can handle the Date format we use in the
      * Json file and also reformat the Json string in pretty-print format.
+     * The object is shared, as Gson objects are immutable and thread-safe.
      */
     public static Gson getTeammatesGson() {
-        return new GsonBuilder()
-                .setDateFormat(DateFormat.FULL)
-                .setDateFormat(SystemParams.DEFAULT_DATE_TIME_FORMAT)
-                .setPrettyPrinting()
-                .create();
+        return TEAMMATES_GSON;
     }
 
 }
@@ -0,0 +1,50 @@
+package teammates.logic.api;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import teammates.common.util.Config;
+import teammates.storage.datastore.ParallelDatastoreTasks;
+
+/**
+ * Runs lookups which do not depend on each other concurrently, so that an action waits for the slowest
+ * of them rather than for all of them one after another. <br>
+ * The lookups run in threads of the current request, each with its own persistence manager,
+ * so they must only read. The number of threads is limited by {@link Config#RESULTS_PARALLELISM};
+ * if it is 1, each lookup runs in the calling thread as it is submitted. Typical use:
+ * <pre>
+ * ConcurrentLookups lookups = new ConcurrentLookups();
+ * try {
+ *     Future&lt;CourseAttributes&gt; course = lookups.submit(...);
+ *     Future&lt;FeedbackSessionAttributes&gt; session = lookups.submit(...);
+ *     ... = ConcurrentLookups.getResult(course);
+ * } finally {
+ *     lookups.shutdown();
+ * }
+ * </pre>
+ */
+public final class ConcurrentLookups {
+
+    private final ParallelDatastoreTasks tasks = new ParallelDatastoreTasks(Config.RESULTS_PARALLELISM);
+
+    /**
+     * Starts {@code lookup}, which must not write to the Datastore.
+     */
+    public <T> Future<T> submit(Callable<T> lookup) {
+        return tasks.submit(lookup);
+    }
+
+    /**
+     * Waits for the lookup to complete. Exceptions thrown by the lookup are rethrown unchecked.
+     */
+    public static <T> T getResult(Future<T> lookup) {
+        return ParallelDatastoreTasks.getResult(lookup);
+    }
+
+    /**
+     * Stops the threads of the lookups. Must be called once the results are no longer needed.
+     */
+    public void shutdown() {
+        tasks.shutdown();
+    }
+}
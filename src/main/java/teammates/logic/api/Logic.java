@@ -1,5 +1,8 @@
 package teammates.logic.api;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +31,7 @@ import teammates.common.datatransfer.FeedbackSessionResultsBundle;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.InstructorPrivileges;
 import teammates.common.datatransfer.InstructorSearchResultBundle;
+import teammates.common.datatransfer.SearchIndexRebuildAttributes;
 import teammates.common.datatransfer.SectionDetailsBundle;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentProfileAttributes;
@@ -54,6 +58,7 @@ import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.InstructorsLogic;
+import teammates.logic.core.SearchIndexRebuildLogic;
 import teammates.logic.core.StudentsLogic;
 
 import com.google.appengine.api.blobstore.BlobKey;
@@ -85,6 +90,7 @@ public class Logic {
     protected static FeedbackResponsesLogic feedbackResponsesLogic = FeedbackResponsesLogic.inst();
     protected static FeedbackResponseCommentsLogic feedbackResponseCommentsLogic = FeedbackResponseCommentsLogic.inst();
     protected static AdminEmailsLogic adminEmailsLogic = AdminEmailsLogic.inst();
+    protected static SearchIndexRebuildLogic searchIndexRebuildLogic = SearchIndexRebuildLogic.inst();
     
 
     /**
@@ -1542,6 +1548,28 @@ public class Logic {
                 filterText, isMissingResponsesShown, isStatsShown);
     }
     
+    /**
+     * Writes summary results (without comments) in CSV format to {@code writer},
+     * one question at a time. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code section} and {@code filterText} are non-null. <br>
+     * @param section the section to export, or null to export all sections
+     */
+    public void writeFeedbackSessionResultSummaryInSectionAsCsv(
+            String courseId, String feedbackSessionName, String instructorEmail,
+            String section, String filterText, boolean isMissingResponsesShown, boolean isStatsShown,
+            Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, writer);
+
+        feedbackSessionsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                feedbackSessionName, courseId, instructorEmail, section,
+                filterText, isMissingResponsesShown, isStatsShown, writer);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -1785,6 +1813,17 @@ public class Logic {
         return feedbackQuestionsLogic.getCopiableFeedbackQuestionsForInstructor(googleId);
     }
     
+    /**
+     * Gets all questions of all feedback sessions in the course, in no particular order.<br>
+     * Returns an empty list if there are no questions in the course.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public List<FeedbackQuestionAttributes> getFeedbackQuestionsForCourse(String courseId) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        return feedbackQuestionsLogic.getFeedbackQuestionsForCourse(courseId);
+    }
+    
     /**
      * Gets all questions for a feedback session.<br>
      * Returns an empty list if they are no questions
@@ -2071,6 +2110,16 @@ public class Logic {
         return feedbackResponsesLogic.getFeedbackResponse(feedbackResponseId);
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the responses with the given IDs which exist, in no particular order
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponses(Collection<String> feedbackResponseIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackResponseIds);
+        return feedbackResponsesLogic.getFeedbackResponses(feedbackResponseIds);
+    }
+    
     public FeedbackResponseAttributes getFeedbackResponse(String feedbackQuestionId,
                                                           String giverEmail,
                                                           String recipient) {
@@ -2617,6 +2666,24 @@ public class Logic {
         return errorReport;
     }
 
+    /**
+     * Starts rebuilding the search index in the background, superseding any rebuild of it in progress.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the progress of the rebuild which has been started
+     */
+    public SearchIndexRebuildAttributes startSearchIndexRebuild(String indexName) throws InvalidParametersException {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, indexName);
+        return searchIndexRebuildLogic.startSearchIndexRebuild(indexName);
+    }
+    
+    /**
+     * @return the progress of the latest rebuild of each search index which has been rebuilt
+     */
+    public List<SearchIndexRebuildAttributes> getAllSearchIndexRebuilds() {
+        return searchIndexRebuildLogic.getAllSearchIndexRebuilds();
+    }
+    
     public List<String> getArchivedCourseIds(List<CourseAttributes> allCourses,
                                              Map<String, InstructorAttributes> instructorsForCourses) {
         Assumption.assertNotNull(allCourses);
@@ -0,0 +1,49 @@
+package teammates.logic.automated;
+
+import java.util.HashMap;
+
+import javax.servlet.http.HttpServletRequest;
+
+import teammates.common.util.ActivityLogEntry;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.FeedbackQuestionsLogic;
+
+/**
+ * Computes the statistics of the responses to a feedback question from all of them and stores them,
+ * when the stored statistics are missing or could not be kept up to date.
+ */
+public class FeedbackQuestionStatisticsRepairAction extends TaskQueueWorkerAction {
+    
+    private String feedbackQuestionId;
+    
+    public FeedbackQuestionStatisticsRepairAction(HttpServletRequest request) {
+        super(request);
+        
+        this.feedbackQuestionId =
+                HttpRequestHelper.getValueFromRequestParameterMap(request, ParamsNames.FEEDBACK_QUESTION_ID);
+        Assumption.assertNotNull(feedbackQuestionId);
+    }
+    
+    public FeedbackQuestionStatisticsRepairAction(HashMap<String, String> paramMap) {
+        super(null);
+        
+        this.feedbackQuestionId = paramMap.get(ParamsNames.FEEDBACK_QUESTION_ID);
+        Assumption.assertNotNull(feedbackQuestionId);
+    }
+    
+    @Override
+    public boolean execute() {
+        try {
+            FeedbackQuestionsLogic.inst().repairStoredStatistics(feedbackQuestionId);
+        } catch (Exception e) {
+            // the stored statistics are overwritten as a whole, so the retried task computes them again
+            log.severe(String.format("Error encountered while computing the statistics of question %s : %s\n%s",
+                                     feedbackQuestionId, e.getMessage(),
+                                     ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
+            return false;
+        }
+        return true;
+    }
+}
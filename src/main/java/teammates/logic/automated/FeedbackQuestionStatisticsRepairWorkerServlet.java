@@ -0,0 +1,19 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@SuppressWarnings("serial")
+public class FeedbackQuestionStatisticsRepairWorkerServlet extends WorkerServlet {
+    
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        
+        FeedbackQuestionStatisticsRepairAction repairAction = new FeedbackQuestionStatisticsRepairAction(req);
+        boolean isExecuteSuccessful = repairAction.execute();
+        if (!isExecuteSuccessful) {
+            //Retry task if failed
+            resp.setStatus(100);
+        }
+    }
+}
@@ -6,24 +6,28 @@ import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
-import teammates.common.datatransfer.FeedbackResponseAttributes;
-import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Utils;
-import teammates.logic.core.FeedbackResponsesLogic;
-import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.StudentsLogic;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
+/**
+ * Adjusts the responses of the students whose team or section changed in an enrollment.
+ * The students are processed a few at a time; the rest are passed on to a new task,
+ * so that each task finishes well within the deadline and a failed task only redoes its own students.
+ * The new task is queued after the tasks of any later enrollments, so the students of different
+ * enrollments may be adjusted out of order, see {@link StudentsLogic#adjustFeedbackResponsesForEnrollments}.
+ */
 public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
+    public static final int ENROLLMENTS_PER_TASK = 20;
+    
     private String courseId;
-    private String sessionName;
     private String enrollmentDetails;
     
     public FeedbackSubmissionAdjustmentAction(
@@ -34,10 +38,6 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
                 .getValueFromRequestParameterMap(request, ParamsNames.COURSE_ID);
         Assumption.assertNotNull(courseId);
         
-        this.sessionName = HttpRequestHelper
-                .getValueFromRequestParameterMap(request, ParamsNames.FEEDBACK_SESSION_NAME);
-        Assumption.assertNotNull(sessionName);
-        
         this.enrollmentDetails = HttpRequestHelper
                 .getValueFromRequestParameterMap(request, ParamsNames.ENROLLMENT_DETAILS);
         Assumption.assertNotNull(enrollmentDetails);
@@ -49,9 +49,6 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
         this.courseId = paramMap.get(ParamsNames.COURSE_ID);
         Assumption.assertNotNull(courseId);
         
-        this.sessionName = paramMap.get(ParamsNames.FEEDBACK_SESSION_NAME);
-        Assumption.assertNotNull(sessionName);
-        
         this.enrollmentDetails = paramMap.get(ParamsNames.ENROLLMENT_DETAILS);
         Assumption.assertNotNull(enrollmentDetails);
     }
@@ -59,36 +56,30 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
     @Override
     public boolean execute() {
         
+        Gson gsonParser = Utils.getTeammatesGson();
+        ArrayList<StudentEnrollDetails> enrollmentList =
+                gsonParser.fromJson(enrollmentDetails, new TypeToken<ArrayList<StudentEnrollDetails>>(){}.getType());
+        int numberOfEnrollmentsInTask = Math.min(ENROLLMENTS_PER_TASK, enrollmentList.size());
 
-        log.info("Adjusting submissions for feedback session :" + sessionName
-                 + "in course : " + courseId);
-        
-        FeedbackSessionAttributes feedbackSession = FeedbackSessionsLogic.inst()
-                .getFeedbackSession(sessionName, courseId);
+        log.info("Adjusting submissions of " + numberOfEnrollmentsInTask + " of " + enrollmentList.size()
+                 + " students in course : " + courseId);
         
         String errorString =
-                "Error encountered while adjusting feedback session responses of %s in course : %s : %s\n%s";
+                "Error encountered while adjusting feedback responses in course : %s : %s\n%s";
         
-        if (feedbackSession == null) {
-            log.severe(String.format(errorString, sessionName, courseId, "feedback session is null", ""));
+        try {
+            StudentsLogic.inst().adjustFeedbackResponsesForEnrollments(
+                    enrollmentList.subList(0, numberOfEnrollmentsInTask));
+        } catch (Exception e) {
+            log.severe(String.format(errorString, courseId, e.getMessage(),
+                                     ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
             return false;
         }
         
-        List<FeedbackResponseAttributes> allResponses =
-                                        FeedbackResponsesLogic.inst().getFeedbackResponsesForSession(
-                                                                        feedbackSession.getFeedbackSessionName(),
-                                                                        feedbackSession.getCourseId());
-        Gson gsonParser = Utils.getTeammatesGson();
-        ArrayList<StudentEnrollDetails> enrollmentList =
-                gsonParser.fromJson(enrollmentDetails, new TypeToken<ArrayList<StudentEnrollDetails>>(){}.getType());
-        for (FeedbackResponseAttributes response : allResponses) {
-            try {
-                StudentsLogic.inst().adjustFeedbackResponseForEnrollments(enrollmentList, response);
-            } catch (Exception e) {
-                log.severe(String.format(errorString, sessionName, courseId, e.getMessage(),
-                                                ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
-                return false;
-            }
+        List<StudentEnrollDetails> remainingEnrollments =
+                enrollmentList.subList(numberOfEnrollmentsInTask, enrollmentList.size());
+        if (!remainingEnrollments.isEmpty()) {
+            StudentsLogic.inst().scheduleSubmissionAdjustmentForCourse(remainingEnrollments, courseId);
         }
         return true;
            
@@ -0,0 +1,55 @@
+package teammates.logic.automated;
+
+import java.util.HashMap;
+
+import javax.servlet.http.HttpServletRequest;
+
+import teammates.common.util.ActivityLogEntry;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.core.SearchIndexRebuildLogic;
+
+/**
+ * Puts the search documents of one page of entities of a search index rebuild,
+ * and schedules the task for the next page.
+ */
+public class SearchIndexRebuildAction extends TaskQueueWorkerAction {
+    
+    private String indexName;
+    private String rebuildId;
+    
+    public SearchIndexRebuildAction(HttpServletRequest request) {
+        super(request);
+        
+        this.indexName = HttpRequestHelper.getValueFromRequestParameterMap(request, ParamsNames.SEARCH_INDEX_NAME);
+        Assumption.assertNotNull(indexName);
+        
+        this.rebuildId = HttpRequestHelper.getValueFromRequestParameterMap(request, ParamsNames.SEARCH_INDEX_REBUILD_ID);
+        Assumption.assertNotNull(rebuildId);
+    }
+    
+    public SearchIndexRebuildAction(HashMap<String, String> paramMap) {
+        super(null);
+        
+        this.indexName = paramMap.get(ParamsNames.SEARCH_INDEX_NAME);
+        Assumption.assertNotNull(indexName);
+        
+        this.rebuildId = paramMap.get(ParamsNames.SEARCH_INDEX_REBUILD_ID);
+        Assumption.assertNotNull(rebuildId);
+    }
+    
+    @Override
+    public boolean execute() {
+        try {
+            SearchIndexRebuildLogic.inst().rebuildNextPage(indexName, rebuildId);
+        } catch (Exception e) {
+            // the progress is only checkpointed once the page is done, so the retried task redoes the page
+            log.severe(String.format("Error encountered while rebuilding search index %s : %s\n%s",
+                                     indexName, e.getMessage(),
+                                     ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package teammates.logic.automated;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.EmailWrapper;
+import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.Utils;
+import teammates.logic.core.EmailSender;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Sends a batch of emails grouped by {@link EmailSender#groupIntoBatches} in one request to the email service.
+ */
+@SuppressWarnings("serial")
+public class SendEmailBatchWorkerServlet extends WorkerServlet {
+    
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        String emailBatch = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_BATCH);
+        Assumption.assertNotNull(emailBatch);
+        
+        Type listType = new TypeToken<List<EmailWrapper>>(){}.getType();
+        List<EmailWrapper> messages = Utils.getTeammatesGson().fromJson(emailBatch, listType);
+        
+        try {
+            new EmailSender().sendEmailBatch(messages);
+        } catch (Exception e) {
+            log.severe("Error while sending email batch via servlet: " + TeammatesException.toStringWithStackTrace(e));
+            
+            // Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure
+            resp.setStatus(100);
+        }
+    }
+}
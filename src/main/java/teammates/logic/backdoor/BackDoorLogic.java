@@ -34,9 +34,11 @@ import teammates.logic.api.Logic;
 import teammates.storage.api.AccountsDb;
 import teammates.storage.api.CommentsDb;
 import teammates.storage.api.CoursesDb;
+import teammates.storage.api.FeedbackQuestionResultStatisticsDb;
 import teammates.storage.api.FeedbackQuestionsDb;
 import teammates.storage.api.FeedbackResponseCommentsDb;
 import teammates.storage.api.FeedbackResponsesDb;
+import teammates.storage.api.FeedbackSessionStatisticsDb;
 import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
@@ -54,16 +56,18 @@ public class BackDoorLogic extends Logic {
     private static final FeedbackQuestionsDb fqDb = new FeedbackQuestionsDb();
     private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
     private static final FeedbackResponseCommentsDb fcDb = new FeedbackResponseCommentsDb();
+    private static final FeedbackSessionStatisticsDb fsStatsDb = new FeedbackSessionStatisticsDb();
+    private static final FeedbackQuestionResultStatisticsDb fqrsDb = new FeedbackQuestionResultStatisticsDb();
     
     private static final int WAIT_DURATION_FOR_DELETE_CHECKING = 5;
     private static final int MAX_RETRY_COUNT_FOR_DELETE_CHECKING = 20;
     
     public String putDocumentsForStudents(DataBundle dataBundle) {
+        List<StudentAttributes> studentsInDb = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : dataBundle.students.values()) {
-            student = getStudentForEmail(student.course, student.email);
-            putDocument(student);
-            ThreadHelper.waitFor(50);
+            studentsInDb.add(getStudentForEmail(student.course, student.email));
         }
+        studentsDb.putDocuments(studentsInDb);
         
         return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
     }
@@ -178,6 +182,20 @@ public class BackDoorLogic extends Logic {
         HashMap<String, CommentAttributes> comments = dataBundle.comments;
         commentsDb.createComments(comments.values());
         
+        // the entities above were created in bulk, bypassing the statistics of the sessions
+        Set<String> courseIds = new HashSet<>();
+        for (StudentAttributes student : students.values()) {
+            courseIds.add(student.course);
+        }
+        for (InstructorAttributes instructor : instructors.values()) {
+            courseIds.add(instructor.courseId);
+        }
+        for (FeedbackSessionAttributes session : sessions.values()) {
+            courseIds.add(session.getCourseId());
+        }
+        fsStatsDb.deleteFeedbackSessionStatisticsForCourses(new ArrayList<String>(courseIds));
+        fqrsDb.deleteFeedbackQuestionResultStatisticsForCourses(new ArrayList<String>(courseIds));
+        
         // any Db can be used to commit the changes.
         // accountsDb is used as it is already used in the file
         accountsDb.commitOutstandingChanges();
@@ -249,24 +267,26 @@ public class BackDoorLogic extends Logic {
         // query the entity in db first to get the actual data and create document for actual entity
         
         HashMap<String, StudentAttributes> students = dataBundle.students;
+        List<StudentAttributes> studentsInDb = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : students.values()) {
-            StudentAttributes studentInDb = studentsDb.getStudentForEmail(student.course, student.email);
-            studentsDb.putDocument(studentInDb);
-            ThreadHelper.waitFor(50);
+            studentsInDb.add(studentsDb.getStudentForEmail(student.course, student.email));
         }
+        studentsDb.putDocuments(studentsInDb);
         
         HashMap<String, FeedbackResponseCommentAttributes> responseComments = dataBundle.feedbackResponseComments;
+        List<FeedbackResponseCommentAttributes> fcsInDb = new ArrayList<FeedbackResponseCommentAttributes>();
         for (FeedbackResponseCommentAttributes responseComment : responseComments.values()) {
-            FeedbackResponseCommentAttributes fcInDb = fcDb.getFeedbackResponseComment(
-                    responseComment.courseId, responseComment.createdAt, responseComment.giverEmail);
-            fcDb.putDocument(fcInDb);
+            fcsInDb.add(fcDb.getFeedbackResponseComment(
+                    responseComment.courseId, responseComment.createdAt, responseComment.giverEmail));
         }
+        fcDb.putDocuments(fcsInDb);
         
         HashMap<String, CommentAttributes> comments = dataBundle.comments;
+        List<CommentAttributes> commentsInDb = new ArrayList<CommentAttributes>();
         for (CommentAttributes comment : comments.values()) {
-            CommentAttributes commentInDb = commentsDb.getComment(comment);
-            commentsDb.putDocument(commentInDb);
+            commentsInDb.add(commentsDb.getComment(comment));
         }
+        commentsDb.putDocuments(commentsInDb);
         
         return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
     }
@@ -493,6 +513,8 @@ public class BackDoorLogic extends Logic {
             fqDb.deleteFeedbackQuestionsForCourses(courseIds);
             frDb.deleteFeedbackResponsesForCourses(courseIds);
             fcDb.deleteFeedbackResponseCommentsForCourses(courseIds);
+            fsStatsDb.deleteFeedbackSessionStatisticsForCourses(courseIds);
+            fqrsDb.deleteFeedbackQuestionResultStatisticsForCourses(courseIds);
         }
     }
 
@@ -300,7 +300,15 @@ public class CoursesLogic {
     public List<SectionDetailsBundle> getSectionsForCourse(CourseAttributes course, CourseDetailsBundle cdd) {
         Assumption.assertNotNull("Course is null", course);
         
-        List<StudentAttributes> students = studentsLogic.getStudentsForCourse(course.getId());
+        return getSectionsForCourse(studentsLogic.getStudentsForCourse(course.getId()), cdd);
+    }
+    
+    /**
+     * @param students all the students of the course of {@code cdd}
+     * @return the {@link SectionDetailsBundle section details} of the course, computed from {@code students}.
+     *         The statistics of {@code cdd} are updated as well.
+     */
+    private List<SectionDetailsBundle> getSectionsForCourse(List<StudentAttributes> students, CourseDetailsBundle cdd) {
         StudentAttributes.sortBySectionName(students);
         
         List<SectionDetailsBundle> sections = new ArrayList<SectionDetailsBundle>();
@@ -505,6 +513,13 @@ public class CoursesLogic {
         return cdd;
     }
     
+    private CourseDetailsBundle getCourseSummary(CourseAttributes cd, List<StudentAttributes> students) {
+        CourseDetailsBundle cdd = new CourseDetailsBundle(cd);
+        cdd.sections = (ArrayList<SectionDetailsBundle>) getSectionsForCourse(students, cdd);
+        
+        return cdd;
+    }
+    
     // TODO: reduce calls to this function, use above function instead.
     /**
      * @param courseId
@@ -648,6 +663,7 @@ public class CoursesLogic {
     
     /**
      * Returns course summaries for instructors.<br>
+     * The students of all the courses are fetched together, rather than course by course.
      * 
      * @param instructorAttributesList
      * @return HashMap with courseId as key, and CourseDetailsBundle as value.
@@ -673,8 +689,14 @@ public class CoursesLogic {
             log.severe("Course(s) was deleted but the instructor still exists: " + Const.EOL + courseIdList.toString());
         }
         
+        List<String> existingCourseIds = new ArrayList<String>();
         for (CourseAttributes ca : courseList) {
-            courseSummaryList.put(ca.getId(), getCourseSummary(ca));
+            existingCourseIds.add(ca.getId());
+        }
+        Map<String, List<StudentAttributes>> studentsForCourses = studentsLogic.getStudentsForCourses(existingCourseIds);
+        
+        for (CourseAttributes ca : courseList) {
+            courseSummaryList.put(ca.getId(), getCourseSummary(ca, studentsForCourses.get(ca.getId())));
         }
         
         return courseSummaryList;
@@ -691,14 +713,14 @@ public class CoursesLogic {
                                                                                    boolean omitArchived)
            throws EntityDoesNotExistException {
         
-        HashMap<String, CourseDetailsBundle> courseList =
-                getCourseSummariesForInstructor(instructorId, omitArchived);
+        instructorsLogic.verifyInstructorExists(instructorId);
         
-        // TODO: remove need for lower level functions to make repeated db calls
-        // getFeedbackSessionDetailsForInstructor
-        // The above functions make repeated calls to get InstructorAttributes
+        // the students and sessions of all the courses are fetched together
+        List<InstructorAttributes> instructorList = instructorsLogic.getInstructorsForGoogleId(instructorId,
+                                                                                               omitArchived);
+        HashMap<String, CourseDetailsBundle> courseList = getCourseSummariesForInstructor(instructorList);
         List<FeedbackSessionDetailsBundle> feedbackSessionList =
-                feedbackSessionsLogic.getFeedbackSessionDetailsForInstructor(instructorId, omitArchived);
+                feedbackSessionsLogic.getFeedbackSessionDetailsForInstructors(instructorList);
         
         for (FeedbackSessionDetailsBundle fsb : feedbackSessionList) {
             CourseDetailsBundle courseSummary = courseList.get(fsb.feedbackSession.getCourseId());
@@ -1,8 +1,11 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import teammates.common.exception.EmailSendingException;
@@ -12,7 +15,9 @@ import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
 import teammates.common.util.EmailLogEntry;
+import teammates.common.util.EmailSendingStatistics;
 import teammates.common.util.EmailWrapper;
+import teammates.common.util.Sanitizer;
 import teammates.common.util.Utils;
 
 /**
@@ -22,6 +27,12 @@ public class EmailSender {
     
     private static final Logger log = Utils.getLogger();
     
+    /**
+     * The most characters of the encoded emails carried by one task,
+     * which must stay within the 100KB limit of the payload of a task.
+     */
+    private static final int MAX_BATCH_PAYLOAD_LENGTH = 90 * 1024;
+    
     private final EmailSenderService service;
     
     public EmailSender() {
@@ -36,6 +47,13 @@ public class EmailSender {
         }
     }
     
+    /**
+     * Sends the emails through {@code service} instead of the configured email service.
+     */
+    public EmailSender(EmailSenderService service) {
+        this.service = service;
+    }
+    
     /**
      * Sends the given list of {@code messages}.
      */
@@ -44,6 +62,12 @@ public class EmailSender {
             return;
         }
         
+        int maxBatchSize = Math.min(Config.EMAIL_BATCH_SIZE, service.getMaxBatchSize());
+        if (maxBatchSize > 1) {
+            sendEmailsInBatches(messages, maxBatchSize);
+            return;
+        }
+        
         // Equally spread out the emails to be sent over 1 hour
         // Sets interval to a maximum of 5 seconds if the interval is too large
         int oneHourInMillis = 60 * 60 * 1000;
@@ -57,6 +81,70 @@ public class EmailSender {
         }
     }
     
+    private void sendEmailsInBatches(List<EmailWrapper> messages, int maxBatchSize) {
+        // Spaces out the batches at the rate the service is currently sending emails at,
+        // which is lowered whenever the service throttles a batch
+        double emailsPerSecond = EmailSendingStatistics.of(getServiceName()).getRate();
+        
+        long batchDelayTimer = 0;
+        for (List<EmailWrapper> batch : groupIntoBatches(messages, maxBatchSize)) {
+            addEmailBatchToTaskQueue(batch, batchDelayTimer);
+            batchDelayTimer += (long) (batch.size() * 1000 / emailsPerSecond);
+        }
+    }
+    
+    /**
+     * Groups {@code messages} into batches which can each be sent in one request to the email service.
+     * A batch has at most {@code maxBatchSize} messages, all with the same sender and reply-to address
+     * and to different recipients, and fits in the payload of one task.
+     * @return the batches, in the order of their first messages
+     */
+    public static List<List<EmailWrapper>> groupIntoBatches(List<EmailWrapper> messages, int maxBatchSize) {
+        List<List<EmailWrapper>> batches = new ArrayList<List<EmailWrapper>>();
+        List<EmailBatch> openBatches = new ArrayList<EmailBatch>();
+        for (EmailWrapper message : messages) {
+            int payloadLength = Sanitizer.sanitizeForUri(Utils.getTeammatesGson().toJson(message)).length();
+            
+            EmailBatch batch = null;
+            for (EmailBatch openBatch : openBatches) {
+                if (openBatch.canAdd(message, payloadLength)) {
+                    batch = openBatch;
+                    break;
+                }
+            }
+            if (batch == null) {
+                batch = new EmailBatch();
+                batches.add(batch.messages);
+                openBatches.add(batch);
+            }
+            
+            batch.add(message, payloadLength);
+            if (batch.messages.size() >= maxBatchSize) {
+                openBatches.remove(batch);
+            }
+        }
+        return batches;
+    }
+    
+    private void addEmailBatchToTaskQueue(List<EmailWrapper> batch, long batchDelayTimer) {
+        try {
+            Map<String, String> paramMap = new HashMap<String, String>();
+            paramMap.put(ParamsNames.EMAIL_BATCH, Utils.getTeammatesGson().toJson(batch));
+            
+            TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+            taskQueueLogic.createAndAddDeferredTask(SystemParams.SEND_EMAIL_TASK_QUEUE,
+                    Const.ActionURIs.SEND_EMAIL_BATCH_WORKER, paramMap, batchDelayTimer);
+        } catch (Exception e) {
+            StringBuilder receivers = new StringBuilder();
+            for (EmailWrapper message : batch) {
+                receivers.append(message.getRecipient()).append(' ');
+            }
+            log.severe("Error when adding email batch to task queue: " + e.getMessage() + "\n"
+                       + "Email sender: " + batch.get(0).getSenderEmail() + "\n"
+                       + "Email receivers: " + receivers.toString().trim());
+        }
+    }
+    
     private void addEmailToTaskQueue(EmailWrapper message, long emailDelayTimer) {
         String emailSubject = message.getSubject();
         String emailSenderName = message.getSenderName();
@@ -98,6 +186,39 @@ public class EmailSender {
         log.info(emailLogInfo);
     }
     
+    /**
+     * Sends the given {@code messages}, which must be a batch grouped by {@link #groupIntoBatches},
+     * and generates a log report for each of them.
+     * @throws EmailSendingException if the batch failed to send, in which case it should be sent again later
+     */
+    public void sendEmailBatch(List<EmailWrapper> messages) throws EmailSendingException {
+        EmailSendingStatistics statistics = EmailSendingStatistics.of(getServiceName());
+        long startTime = System.currentTimeMillis();
+        try {
+            service.sendEmails(messages);
+        } catch (EmailSendingException e) {
+            if (Const.StatusCodes.EMAIL_SERVICE_THROTTLED.equals(e.errorCode)) {
+                statistics.recordThrottled();
+            } else {
+                statistics.recordFailed();
+            }
+            throw e;
+        }
+        long timeTaken = System.currentTimeMillis() - startTime;
+        statistics.recordSent(messages.size(), timeTaken);
+        
+        for (EmailWrapper message : messages) {
+            EmailLogEntry newEntry = new EmailLogEntry(message);
+            log.info(newEntry.generateLogMessage());
+        }
+        log.info("Sent batch of " + messages.size() + " emails through " + getServiceName()
+                 + " in " + timeTaken + " ms");
+    }
+    
+    private String getServiceName() {
+        return service.getClass().getSimpleName();
+    }
+    
     /**
      * Sends the given {@code message} with Javamail service regardless of configuration.
      */
@@ -155,4 +276,27 @@ public class EmailSender {
                    + "\nCause: " + TeammatesException.toStringWithStackTrace(e));
     }
     
+    /**
+     * Emails to be sent in one request, with the length of their encoded form in the payload of a task.
+     */
+    private static class EmailBatch {
+        
+        private final List<EmailWrapper> messages = new ArrayList<EmailWrapper>();
+        private final Set<String> recipients = new HashSet<String>();
+        private int payloadLength;
+        
+        boolean canAdd(EmailWrapper message, int messagePayloadLength) {
+            return EmailSenderService.isBatchable(messages.get(0), message)
+                   && !recipients.contains(message.getRecipient())
+                   && payloadLength + messagePayloadLength <= MAX_BATCH_PAYLOAD_LENGTH;
+        }
+        
+        void add(EmailWrapper message, int messagePayloadLength) {
+            messages.add(message);
+            recipients.add(message.getRecipient());
+            payloadLength += messagePayloadLength;
+        }
+        
+    }
+    
 }
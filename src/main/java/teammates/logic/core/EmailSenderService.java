@@ -1,8 +1,10 @@
 package teammates.logic.core;
 
+import java.util.List;
 import java.util.logging.Logger;
 
 import teammates.common.exception.EmailSendingException;
+import teammates.common.util.Const;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.Utils;
 
@@ -13,6 +15,8 @@ public abstract class EmailSenderService {
     
     protected static final int SUCCESS_CODE = 200;
     
+    protected static final int TOO_MANY_REQUESTS_CODE = 429;
+    
     protected static final Logger log = Utils.getLogger();
     
     /**
@@ -24,7 +28,7 @@ public abstract class EmailSenderService {
     public abstract Object parseToEmail(EmailWrapper wrapper) throws Exception;
     
     /**
-     * Sends the email packaged as a {@code wrapper}.
+     * Sends the email packaged as a {@code wrapper}. A request which the service fails is only logged.
      */
     public void sendEmail(EmailWrapper wrapper) throws EmailSendingException {
         try {
@@ -34,8 +38,106 @@ public abstract class EmailSenderService {
         }
     }
     
+    /**
+     * Sends the email packaged as a {@code wrapper}, logging the failure if the service fails the request.
+     * @return the HTTP status of the request to the service
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    // accounts for the many different Exceptions from different email services
+    protected abstract int sendEmailWithService(EmailWrapper wrapper) throws Exception;
+    
+    /**
+     * Override in services which can send different emails to many recipients in one request.
+     * @return the maximum number of emails the service sends in one request
+     */
+    public int getMaxBatchSize() {
+        return 1;
+    }
+    
+    /**
+     * Sends the emails packaged as {@code wrappers}, in one request to the service if it can.
+     * All of them must have the same sender, sender name and reply-to address, and no bcc.
+     * @see #isBatchable
+     * @throws EmailSendingException if the service did not accept the emails. The error code is
+     *         {@link Const.StatusCodes#EMAIL_SERVICE_THROTTLED} if the service refused to send the emails
+     *         because too many were sent recently.
+     */
+    public void sendEmails(List<EmailWrapper> wrappers) throws EmailSendingException {
+        try {
+            if (wrappers.size() == 1) {
+                sendSingleEmailOfBatch(wrappers.get(0));
+            } else {
+                sendEmailsWithService(wrappers);
+            }
+        } catch (EmailSendingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EmailSendingException(e);
+        }
+    }
+    
+    /**
+     * Sends {@code wrappers} one at a time. Override in services whose {@link #getMaxBatchSize} is more than 1.
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    // accounts for the many different Exceptions from different email services
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws Exception {
+        for (EmailWrapper wrapper : wrappers) {
+            sendSingleEmailOfBatch(wrapper);
+        }
+    }
+    
+    /**
+     * Sends an email of a batch on its own, failing like a batch request if the service fails the request.
+     * @see #handleFailedRequest
+     */
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
     // accounts for the many different Exceptions from different email services
-    protected abstract void sendEmailWithService(EmailWrapper wrapper) throws Exception;
+    private void sendSingleEmailOfBatch(EmailWrapper wrapper) throws Exception {
+        int status = sendEmailWithService(wrapper);
+        if (!isSuccessfulRequest(status)) {
+            handleFailedRequest(status, "request to send an email to " + wrapper.getRecipient());
+        }
+    }
+    
+    /**
+     * @return true if {@code wrapper} can be sent in the same request as {@code other}
+     */
+    public static boolean isBatchable(EmailWrapper wrapper, EmailWrapper other) {
+        return isEmpty(wrapper.getBcc()) && isEmpty(other.getBcc())
+               && isEqual(wrapper.getSenderEmail(), other.getSenderEmail())
+               && isEqual(wrapper.getSenderName(), other.getSenderName())
+               && isEqual(wrapper.getReplyTo(), other.getReplyTo());
+    }
+    
+    /**
+     * @return true if the HTTP status {@code status} of a request to the service is a 2xx success code
+     */
+    protected static boolean isSuccessfulRequest(int status) {
+        return status >= SUCCESS_CODE && status < 300;
+    }
+    
+    /**
+     * Handles the failure of a request to send a batch of emails with the HTTP status {@code status}.
+     * @throws EmailSendingException always, so that the batch is retried later. Its error code is
+     *         {@link Const.StatusCodes#EMAIL_SERVICE_THROTTLED} if the service throttled the request.
+     */
+    protected static void handleFailedRequest(int status, String reason) throws EmailSendingException {
+        if (status == TOO_MANY_REQUESTS_CODE) {
+            throw new EmailSendingException(Const.StatusCodes.EMAIL_SERVICE_THROTTLED,
+                                            "Email service throttled the request: " + reason);
+        }
+        log.severe("Email failed to send: " + reason);
+        throw new EmailSendingException(Const.StatusCodes.EMAIL_SERVICE_FAILED,
+                                        "Email service failed the request with status " + status + ": " + reason);
+    }
+    
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+    
+    private static boolean isEqual(String value, String other) {
+        return isEmpty(value) ? isEmpty(other) : value.equals(other);
+    }
     
 }
@@ -1,8 +1,11 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -14,16 +17,24 @@ import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
+import teammates.common.datatransfer.FeedbackQuestionResultStatisticsAttributes;
+import teammates.common.datatransfer.FeedbackQuestionStatistics;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.FeedbackSessionStatisticsAttributes;
+import teammates.common.datatransfer.IncrementalFeedbackQuestionStatistics;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.TeamDetailsBundle;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
+import teammates.common.util.Config;
 import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
 import teammates.common.util.Utils;
+import teammates.storage.api.FeedbackQuestionResultStatisticsDb;
 import teammates.storage.api.FeedbackQuestionsDb;
 
 public class FeedbackQuestionsLogic {
@@ -33,6 +44,7 @@ public class FeedbackQuestionsLogic {
     private static FeedbackQuestionsLogic instance;
     
     private static final FeedbackQuestionsDb fqDb = new FeedbackQuestionsDb();
+    private static final FeedbackQuestionResultStatisticsDb fqrsDb = new FeedbackQuestionResultStatisticsDb();
     private static final FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
     private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
     private static final CoursesLogic coursesLogic = CoursesLogic.inst();
@@ -77,7 +89,9 @@ public class FeedbackQuestionsLogic {
             FeedbackQuestionAttributes fqa, int questionNumber) throws InvalidParametersException {
         fqa.questionNumber = questionNumber;
         fqa.removeIrrelevantVisibilityOptions();
-        return fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
+        FeedbackQuestionAttributes createdQuestion = fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
+        fsLogic.clearExpectedTotal(fqa.feedbackSessionName, fqa.courseId);
+        return createdQuestion;
     }
     
     public FeedbackQuestionAttributes copyFeedbackQuestion(
@@ -109,6 +123,13 @@ public class FeedbackQuestionsLogic {
         return fqDb.getFeedbackQuestion(feedbackQuestionId);
     }
     
+    /**
+     * Gets every question of every session in the course, in no particular order.
+     */
+    public List<FeedbackQuestionAttributes> getFeedbackQuestionsForCourse(String courseId) {
+        return fqDb.getFeedbackQuestionsForCourse(courseId);
+    }
+    
     /**
      * Gets a single question corresponding to the given parameters.
      */
@@ -608,6 +629,16 @@ public class FeedbackQuestionsLogic {
         oldQuestion.updateValues(newAttributes);
         newAttributes.removeIrrelevantVisibilityOptions();
         fqDb.updateFeedbackQuestion(newAttributes);
+        
+        // the stored statistics depend on the options of the question, e.g. the choices of a MCQ question
+        if (oldQuestion.questionType != newAttributes.questionType
+                || !oldQuestion.questionMetaData.equals(newAttributes.questionMetaData)) {
+            clearStoredStatistics(oldQuestion);
+        }
+        
+        if (oldQuestion.giverType != newAttributes.giverType) {
+            fsLogic.clearExpectedTotal(oldQuestion.feedbackSessionName, oldQuestion.courseId);
+        }
     }
 
     public void deleteFeedbackQuestionsForSession(String feedbackSessionName, String courseId)
@@ -618,7 +649,7 @@ public class FeedbackQuestionsLogic {
         for (FeedbackQuestionAttributes question : questions) {
             deleteFeedbackQuestionCascadeWithoutResponseRateUpdate(question.getId());
         }
-        
+        fqrsDb.deleteFeedbackQuestionResultStatisticsForSession(feedbackSessionName, courseId);
     }
     
     /**
@@ -675,6 +706,7 @@ public class FeedbackQuestionsLogic {
      */
     public void deleteFeedbackQuestionsForCourse(String courseId) {
         fqDb.deleteFeedbackQuestionsForCourse(courseId);
+        fqrsDb.deleteFeedbackQuestionResultStatisticsForCourse(courseId);
     }
     
     /**
@@ -704,6 +736,7 @@ public class FeedbackQuestionsLogic {
         }
         
         fqDb.deleteEntity(questionToDelete);
+        fsLogic.clearExpectedTotal(feedbackSessionName, courseId);
         
         if (questionToDelete.questionNumber < questionsToShiftQnNumber.size()) {
             shiftQuestionNumbersDown(questionToDelete.questionNumber, questionsToShiftQnNumber);
@@ -747,4 +780,193 @@ public class FeedbackQuestionsLogic {
         return questionsWithRecipients;
     }
 
+    /**
+     * @return true if the statistics of the responses to {@code question} are stored
+     *         and kept up to date as its responses are created, updated and deleted
+     */
+    public boolean isStatisticsStored(FeedbackQuestionAttributes question) {
+        return Config.RESULTS_STORED_STATISTICS && isStatisticsIncremental(question);
+    }
+
+    private static boolean isStatisticsIncremental(FeedbackQuestionAttributes question) {
+        return question.getQuestionDetails().createStatistics() instanceof IncrementalFeedbackQuestionStatistics;
+    }
+
+    /**
+     * Gets the stored statistics of {@code questions}, which are questions of the same session.
+     * The statistics of a question are computed again from all its responses in a task if they are
+     * not known, or if they do not match the number of responses to the question,
+     * see {@link FeedbackQuestionResultStatisticsAttributes#isMatchingResponses}.
+     * @param numOfResponses the number of responses to each question that the results to be shown have,
+     *                       keyed by question ID
+     * @return the stored statistics keyed by question ID. Questions whose statistics are not stored
+     *         or are to be computed again are absent.
+     */
+    public Map<String, FeedbackQuestionResultStatisticsAttributes> getStoredStatistics(
+            Collection<FeedbackQuestionAttributes> questions, Map<String, Integer> numOfResponses) {
+        Map<String, FeedbackQuestionResultStatisticsAttributes> storedStatistics =
+                new HashMap<String, FeedbackQuestionResultStatisticsAttributes>();
+        if (!Config.RESULTS_STORED_STATISTICS || questions.isEmpty()) {
+            return storedStatistics;
+        }
+
+        FeedbackQuestionAttributes anyQuestion = questions.iterator().next();
+        Map<String, FeedbackQuestionResultStatisticsAttributes> statisticsOfQuestions;
+        if (questions.size() == 1) {
+            statisticsOfQuestions = new HashMap<String, FeedbackQuestionResultStatisticsAttributes>();
+            FeedbackQuestionResultStatisticsAttributes statistics =
+                    fqrsDb.getFeedbackQuestionResultStatistics(anyQuestion.getId());
+            if (statistics != null) {
+                statisticsOfQuestions.put(anyQuestion.getId(), statistics);
+            }
+        } else {
+            statisticsOfQuestions = fqrsDb.getFeedbackQuestionResultStatisticsForSession(
+                    anyQuestion.feedbackSessionName, anyQuestion.courseId);
+        }
+
+        // the stored response counts of the session, read only when needed
+        FeedbackSessionStatisticsAttributes sessionStatistics = null;
+        for (FeedbackQuestionAttributes question : questions) {
+            if (!isStatisticsStored(question)) {
+                continue;
+            }
+            FeedbackQuestionResultStatisticsAttributes statistics = statisticsOfQuestions.get(question.getId());
+            Integer numOfResponsesShown = numOfResponses.get(question.getId());
+            int numOfResponsesToQuestion = numOfResponsesShown == null ? 0 : numOfResponsesShown;
+
+            Integer numOfResponsesInTotal = null;
+            if (statistics != null && numOfResponsesToQuestion < statistics.getNumOfResponses()) {
+                if (sessionStatistics == null) {
+                    sessionStatistics = fsLogic.getStoredFeedbackSessionStatistics(question.feedbackSessionName,
+                                                                                   question.courseId);
+                }
+                if (sessionStatistics.isResponseCountsKnown()) {
+                    numOfResponsesInTotal = sessionStatistics.getResponseCountForQuestion(question.getId());
+                }
+            }
+
+            if (statistics == null || !statistics.isMatchingResponses(numOfResponsesToQuestion, numOfResponsesInTotal)) {
+                scheduleStoredStatisticsRepair(question.getId());
+            } else {
+                storedStatistics.put(question.getId(), statistics);
+            }
+        }
+        return storedStatistics;
+    }
+
+    /**
+     * Updates the stored statistics of the question of the response before the response is created,
+     * updated or deleted, so that a concurrent recomputation of the statistics which may already include
+     * the change is not stored. To be called again with the responses swapped if the change then fails.
+     * If the statistics cannot be updated, they are computed again in a task.
+     * @param oldResponse the response before it was updated or deleted, or null if it was created
+     * @param newResponse the response after it was created or updated, or null if it was deleted
+     */
+    public void updateStoredStatistics(FeedbackResponseAttributes oldResponse, FeedbackResponseAttributes newResponse) {
+        if (!Config.RESULTS_STORED_STATISTICS) {
+            return;
+        }
+        FeedbackResponseAttributes response = newResponse == null ? oldResponse : newResponse;
+        FeedbackQuestionStatistics emptyStatistics =
+                response.feedbackQuestionType.getFeedbackQuestionDetailsInstance().createStatistics();
+        if (!(emptyStatistics instanceof IncrementalFeedbackQuestionStatistics)) {
+            return;
+        }
+
+        boolean isUpdated = fqrsDb.updateFeedbackQuestionResultStatistics(
+                ((IncrementalFeedbackQuestionStatistics) emptyStatistics).getClass(), oldResponse, newResponse);
+        if (!isUpdated) {
+            scheduleStoredStatisticsRepair(response.feedbackQuestionId);
+        }
+    }
+
+    /**
+     * Marks the stored statistics of the question as unknown, e.g. when its responses are deleted.
+     * They are computed again the next time the results of the question are shown.
+     */
+    public void clearStoredStatistics(String feedbackQuestionId) {
+        FeedbackQuestionAttributes question = getFeedbackQuestion(feedbackQuestionId);
+        if (question == null) {
+            fqrsDb.deleteFeedbackQuestionResultStatistics(feedbackQuestionId);
+        } else {
+            clearStoredStatistics(question);
+        }
+    }
+
+    private void clearStoredStatistics(FeedbackQuestionAttributes question) {
+        if (isStatisticsIncremental(question)) {
+            fqrsDb.invalidateFeedbackQuestionResultStatistics(Arrays.asList(question));
+        }
+    }
+
+    /**
+     * @see #clearStoredStatistics(String)
+     */
+    public void clearStoredStatisticsForCourse(String courseId) {
+        List<FeedbackQuestionAttributes> questions = new ArrayList<FeedbackQuestionAttributes>();
+        for (FeedbackQuestionAttributes question : getFeedbackQuestionsForCourse(courseId)) {
+            if (isStatisticsIncremental(question)) {
+                questions.add(question);
+            }
+        }
+        fqrsDb.invalidateFeedbackQuestionResultStatistics(questions);
+    }
+
+    /**
+     * Computes the statistics of the responses to the question from all of them and stores them
+     * in place of the stored statistics, unless the stored statistics or the responses changed
+     * while they were computed. The statistics are then computed again the next time the results
+     * of the question are shown.
+     * @return true if the statistics were stored
+     */
+    public boolean repairStoredStatistics(String feedbackQuestionId) throws InvalidParametersException {
+        // read before the question and the responses, so that any change to them after this is detected
+        Date countStartTime = new Date();
+        FeedbackQuestionResultStatisticsAttributes storedStatistics =
+                fqrsDb.getFeedbackQuestionResultStatistics(feedbackQuestionId);
+        Long versionAtStart = storedStatistics == null ? null : storedStatistics.getVersion();
+
+        FeedbackQuestionAttributes question = getFeedbackQuestion(feedbackQuestionId);
+        if (question == null || !isStatisticsIncremental(question)) {
+            fqrsDb.deleteFeedbackQuestionResultStatistics(feedbackQuestionId);
+            return false;
+        }
+
+        IncrementalFeedbackQuestionStatistics statistics =
+                (IncrementalFeedbackQuestionStatistics) question.getQuestionDetails().createStatistics();
+        List<FeedbackResponseAttributes> responses = frLogic.getFeedbackResponsesForQuestion(feedbackQuestionId);
+        for (FeedbackResponseAttributes response : responses) {
+            statistics.add(response);
+        }
+        boolean isStored = fqrsDb.putFeedbackQuestionResultStatistics(
+                new FeedbackQuestionResultStatisticsAttributes(question, statistics, responses.size()),
+                versionAtStart, countStartTime);
+        if (!isStored) {
+            log.info("Statistics of question " + feedbackQuestionId + " changed while they were computed");
+        }
+        return isStored;
+    }
+
+    /**
+     * Schedules at most one repair of the stored statistics of the question per quiet period,
+     * as every view of the results asks for one until the statistics are repaired. The repair runs
+     * one quiet period after the end of the period it is scheduled in, so that it is not refused
+     * because of a response changed within that period, see {@link #repairStoredStatistics}.
+     */
+    private void scheduleStoredStatisticsRepair(String feedbackQuestionId) {
+        long quietPeriod = FeedbackQuestionResultStatisticsDb.RECOMPUTATION_QUIET_PERIOD_MILLIS;
+        long now = System.currentTimeMillis();
+        long period = now / quietPeriod;
+        long countdown = (period + 2) * quietPeriod - now;
+
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.FEEDBACK_QUESTION_ID, feedbackQuestionId);
+
+        // question IDs are web-safe encoded keys, which are valid in task names
+        String taskName = "repair-statistics-" + feedbackQuestionId + "-" + period;
+        TaskQueuesLogic.inst().createAndAddNamedDeferredTask(
+                SystemParams.FEEDBACK_QUESTION_STATISTICS_REPAIR_TASK_QUEUE, taskName,
+                Const.ActionURIs.FEEDBACK_QUESTION_STATISTICS_REPAIR_WORKER, paramMap, countdown);
+    }
+
 }
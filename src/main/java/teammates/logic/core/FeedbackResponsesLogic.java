@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.Set;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.EntitiesPage;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
@@ -44,9 +46,17 @@ public class FeedbackResponsesLogic {
 
     public void createFeedbackResponse(FeedbackResponseAttributes fra)
             throws InvalidParametersException, EntityDoesNotExistException {
+        fsLogic.addToResponseCounts(fra, 1);
+        fqLogic.updateStoredStatistics(null, fra);
         try {
             frDb.createEntity(fra);
+        } catch (InvalidParametersException e) {
+            fsLogic.addToResponseCounts(fra, -1);
+            fqLogic.updateStoredStatistics(fra, null);
+            throw e;
         } catch (EntityAlreadyExistsException eaee) {
+            fsLogic.addToResponseCounts(fra, -1);
+            fqLogic.updateStoredStatistics(fra, null);
             try {
                 updateFeedbackResponse(fra, (FeedbackResponse) eaee.existingEntity);
             } catch (EntityAlreadyExistsException entityAlreadyExistsException) {
@@ -60,6 +70,10 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponse(feedbackResponseId);
     }
 
+    public List<FeedbackResponseAttributes> getFeedbackResponses(Collection<String> feedbackResponseIds) {
+        return frDb.getFeedbackResponses(feedbackResponseIds);
+    }
+
     public FeedbackResponseAttributes getFeedbackResponse(
             String feedbackQuestionId, String giverEmail, String recipient) {
         return frDb.getFeedbackResponse(feedbackQuestionId, giverEmail, recipient);
@@ -126,6 +140,35 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName, courseId, section, range);
     }
 
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionPage(
+            String feedbackSessionName, String courseId, String cursor, int pageSize) {
+        return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+    }
+
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+        if (section == null) {
+            return getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, section, cursor, pageSize);
+    }
+
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+        if (section == null) {
+            return getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, section, cursor, pageSize);
+    }
+
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+        if (section == null) {
+            return getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, section, cursor, pageSize);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestion(String feedbackQuestionId) {
         return frDb.getFeedbackResponsesForQuestion(feedbackQuestionId);
     }
@@ -135,6 +178,11 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForQuestionWithinRange(feedbackQuestionId, range);
     }
 
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForQuestionPage(
+            String feedbackQuestionId, String cursor, int pageSize) {
+        return frDb.getFeedbackResponsesForQuestionPage(feedbackQuestionId, cursor, pageSize);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestionInSection(
             String feedbackQuestionId, String section) {
         if (section == null) {
@@ -178,6 +226,11 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesFromGiverForSessionWithinRange(giverEmail, feedbackSessionName, courseId, range);
     }
 
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesFromGiverForSessionPage(
+            String giverEmail, String feedbackSessionName, String courseId, String cursor, int pageSize) {
+        return frDb.getFeedbackResponsesFromGiverForSessionPage(giverEmail, feedbackSessionName, courseId, cursor, pageSize);
+    }
+
     public boolean hasGiverRespondedForSession(String userEmail, String feedbackSessionName, String courseId) {
 
         return !getFeedbackResponsesFromGiverForSessionWithinRange(userEmail, feedbackSessionName, courseId, 1).isEmpty();
@@ -442,10 +495,19 @@ public class FeedbackResponsesLogic {
     
         if (newResponse.recipient.equals(oldResponse.recipient)
                 && newResponse.giver.equals(oldResponse.giver)) {
+            boolean isAnswerChanged = !newResponse.responseMetaData.equals(oldResponse.responseMetaData);
+            if (isAnswerChanged) {
+                fqLogic.updateStoredStatistics(oldResponse, newResponse);
+            }
             try {
                 frDb.updateFeedbackResponseOptimized(newResponse, oldResponseEntity);
             } catch (EntityDoesNotExistException e) {
                 Assumption.fail();
+            } catch (InvalidParametersException e) {
+                if (isAnswerChanged) {
+                    fqLogic.updateStoredStatistics(newResponse, oldResponse);
+                }
+                throw e;
             }
         } else {
             // Recreate response to prevent possible future id conflict.
@@ -456,17 +518,26 @@ public class FeedbackResponsesLogic {
     private void recreateResponse(
             FeedbackResponseAttributes newResponse, FeedbackResponseAttributes oldResponse)
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
+        newResponse.setId(null);
+        fsLogic.addToResponseCounts(newResponse, 1);
+        fqLogic.updateStoredStatistics(oldResponse, newResponse);
+        FeedbackResponse createdResponseEntity;
         try {
-            newResponse.setId(null);
-            FeedbackResponse createdResponseEntity =
-                    (FeedbackResponse) frDb.createEntity(newResponse);
-            frDb.deleteEntity(oldResponse);
-            frcLogic.updateFeedbackResponseCommentsForChangingResponseId(
-                    oldResponse.getId(), createdResponseEntity.getId());
+            createdResponseEntity = (FeedbackResponse) frDb.createEntity(newResponse);
         } catch (EntityAlreadyExistsException e) {
+            fsLogic.addToResponseCounts(newResponse, -1);
+            fqLogic.updateStoredStatistics(newResponse, oldResponse);
             log.warning("Trying to update an existing response to one that already exists.");
             throw e;
+        } catch (InvalidParametersException e) {
+            fsLogic.addToResponseCounts(newResponse, -1);
+            fqLogic.updateStoredStatistics(newResponse, oldResponse);
+            throw e;
         }
+        fsLogic.addToResponseCounts(oldResponse, -1);
+        frDb.deleteEntity(oldResponse);
+        frcLogic.updateFeedbackResponseCommentsForChangingResponseId(
+                oldResponse.getId(), createdResponseEntity.getId());
     }
 
     
@@ -486,7 +557,7 @@ public class FeedbackResponsesLogic {
             question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
             if (question.giverType == FeedbackParticipantType.TEAMS
                     || isRecipientTypeTeamMembers(question)) {
-                frDb.deleteEntity(response);
+                deleteFeedbackResponse(response);
             }
         }
 
@@ -496,7 +567,7 @@ public class FeedbackResponsesLogic {
         for (FeedbackResponseAttributes response : responsesToUser) {
             question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
             if (isRecipientTypeTeamMembers(question)) {
-                frDb.deleteEntity(response);
+                deleteFeedbackResponse(response);
             }
         }
 
@@ -504,7 +575,7 @@ public class FeedbackResponsesLogic {
             List<FeedbackResponseAttributes> responsesToTeam =
                     getFeedbackResponsesForReceiverForCourse(courseId, oldTeam);
             for (FeedbackResponseAttributes response : responsesToTeam) {
-                frDb.deleteEntity(response);
+                deleteFeedbackResponse(response);
             }
         }
     }
@@ -554,7 +625,7 @@ public class FeedbackResponsesLogic {
                 || shouldDeleteByChangeOfRecipient;
 
         if (shouldDeleteResponse) {
-            frDb.deleteEntity(response);
+            deleteFeedbackResponse(response);
             updateSessionResponseRateForDeletingStudentResponse(enrollment.email,
                     response.feedbackSessionName, enrollment.course);
         }
@@ -638,6 +709,16 @@ public class FeedbackResponsesLogic {
 
     public void deleteFeedbackResponseAndCascade(FeedbackResponseAttributes responseToDelete) {
         frcLogic.deleteFeedbackResponseCommentsForResponse(responseToDelete.getId());
+        deleteFeedbackResponse(responseToDelete);
+    }
+    
+    /**
+     * Deletes a response which exists and updates the response counts of its session
+     * and the stored statistics of its question.
+     */
+    private void deleteFeedbackResponse(FeedbackResponseAttributes responseToDelete) {
+        fsLogic.addToResponseCounts(responseToDelete, -1);
+        fqLogic.updateStoredStatistics(responseToDelete, null);
         frDb.deleteEntity(responseToDelete);
     }
 
@@ -649,9 +730,15 @@ public class FeedbackResponsesLogic {
         Set<String> emails = new HashSet<String>();
 
         for (FeedbackResponseAttributes response : responsesForQuestion) {
-            this.deleteFeedbackResponseAndCascade(response);
+            frcLogic.deleteFeedbackResponseCommentsForResponse(response.getId());
+            frDb.deleteEntity(response);
             emails.add(response.giver);
         }
+        if (!responsesForQuestion.isEmpty()) {
+            fsLogic.clearResponseCounts(responsesForQuestion.get(0).feedbackSessionName,
+                                        responsesForQuestion.get(0).courseId);
+        }
+        fqLogic.clearStoredStatistics(feedbackQuestionId);
 
         if (!hasResponseRateUpdate) {
             return;
@@ -702,8 +789,11 @@ public class FeedbackResponsesLogic {
         }
 
         for (FeedbackResponseAttributes response : responses) {
-            this.deleteFeedbackResponseAndCascade(response);
+            frcLogic.deleteFeedbackResponseCommentsForResponse(response.getId());
+            frDb.deleteEntity(response);
         }
+        fsLogic.clearResponseCountsForCourse(courseId);
+        fqLogic.clearStoredStatisticsForCourse(courseId);
     }
 
     /**
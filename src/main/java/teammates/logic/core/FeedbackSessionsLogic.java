@@ -1,5 +1,8 @@
 package teammates.logic.core;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
@@ -12,6 +15,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.CourseRoster;
@@ -25,6 +30,7 @@ import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
 import teammates.common.datatransfer.FeedbackSessionResponseStatus;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionStatisticsAttributes;
 import teammates.common.datatransfer.FeedbackSessionType;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -36,6 +42,7 @@ import teammates.common.exception.ExceedingRangeException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
+import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
@@ -45,9 +52,11 @@ import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
 import teammates.common.util.TimeHelper;
 import teammates.common.util.Utils;
+import teammates.storage.api.FeedbackSessionStatisticsDb;
 import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
+import teammates.storage.datastore.ParallelDatastoreTasks;
 
 public class FeedbackSessionsLogic {
     
@@ -56,6 +65,7 @@ public class FeedbackSessionsLogic {
     private static final Logger log = Utils.getLogger();
 
     private static final FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+    private static final FeedbackSessionStatisticsDb fsStatsDb = new FeedbackSessionStatisticsDb();
     private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
     private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
     private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
@@ -235,13 +245,30 @@ public class FeedbackSessionsLogic {
             String googleId, boolean omitArchived)
             throws EntityDoesNotExistException {
 
-        List<FeedbackSessionDetailsBundle> fsDetails = new ArrayList<FeedbackSessionDetailsBundle>();
         List<InstructorAttributes> instructors =
                 instructorsLogic.getInstructorsForGoogleId(googleId, omitArchived);
 
+        return getFeedbackSessionDetailsForInstructors(instructors);
+    }
+    
+    /**
+     * Returns the feedback sessions of the courses of {@code instructors} bundled with their response
+     * statistics. The sessions of all the courses are fetched together.
+     * Does not return private sessions unless the instructor of the course is the creator.
+     */
+    public List<FeedbackSessionDetailsBundle> getFeedbackSessionDetailsForInstructors(
+            List<InstructorAttributes> instructors) throws EntityDoesNotExistException {
+        
+        Map<String, String> instructorEmailForCourses = new HashMap<String, String>();
         for (InstructorAttributes instructor : instructors) {
-            fsDetails.addAll(getFeedbackSessionDetailsForCourse(
-                    instructor.courseId, instructor.email));
+            instructorEmailForCourses.put(instructor.courseId, instructor.email);
+        }
+        
+        List<FeedbackSessionDetailsBundle> fsDetails = new ArrayList<FeedbackSessionDetailsBundle>();
+        for (FeedbackSessionAttributes fsa : fsDb.getFeedbackSessionsForCourses(instructorEmailForCourses.keySet())) {
+            if (!fsa.isPrivateSession() || fsa.isCreator(instructorEmailForCourses.get(fsa.getCourseId()))) {
+                fsDetails.add(getFeedbackSessionDetails(fsa));
+            }
         }
 
         return fsDetails;
@@ -863,20 +890,7 @@ public class FeedbackSessionsLogic {
         Collections.sort(results.responses,
                 results.compareByGiverRecipientQuestion);
         
-        StringBuilder exportBuilder = new StringBuilder(100);
-
-        exportBuilder.append(String.format("Course,%s", Sanitizer.sanitizeForCsv(results.feedbackSession.getCourseId())))
-                     .append(Const.EOL)
-                     .append(String.format("Session Name,%s",
-                             Sanitizer.sanitizeForCsv(results.feedbackSession.getFeedbackSessionName())))
-                     .append(Const.EOL);
-        
-        if (section != null) {
-            exportBuilder.append(String.format("Section Name,%s", Sanitizer.sanitizeForCsv(section)))
-                         .append(Const.EOL);
-        }
-
-        exportBuilder.append(Const.EOL).append(Const.EOL);
+        StringBuilder exportBuilder = new StringBuilder(getCsvHeader(results.feedbackSession, section));
         
         Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> entrySet =
                 results.getQuestionResponseMap().entrySet();
@@ -893,6 +907,84 @@ public class FeedbackSessionsLogic {
         
     }
 
+    /**
+     * Writes the summary results of a feedback session in CSV format to {@code writer}.<br>
+     * Unlike {@link #getFeedbackSessionResultsSummaryInSectionAsCsv}, responses are loaded
+     * and written one question at a time, so the export is not limited in size and only
+     * the responses of a single question are held in memory at any point.
+     * 
+     * @param section the section to export, or null to export all sections
+     */
+    public void writeFeedbackSessionResultsSummaryInSectionAsCsv(
+            String feedbackSessionName, String courseId, String userEmail,
+            String section, String filterText, boolean isMissingResponsesShown, boolean isStatsShown,
+            Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        FeedbackSessionAttributes session = fsDb.getFeedbackSession(courseId, feedbackSessionName);
+        if (session == null) {
+            throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_VIEW + courseId + "/" + feedbackSessionName);
+        }
+        
+        writer.write(getCsvHeader(session, section));
+        
+        // the roster is shared by all questions so that students and instructors are loaded only once
+        CourseRoster roster = new CourseRoster(
+                new StudentsDb().getStudentsForCourse(courseId),
+                new InstructorsDb().getInstructorsForCourse(courseId));
+        
+        List<FeedbackQuestionAttributes> questions =
+                fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        
+        for (FeedbackQuestionAttributes question : questions) {
+            if (filterText != null && !filterText.isEmpty()
+                    && !question.getQuestionMetaData().getValue().toLowerCase().contains(filterText.toLowerCase())) {
+                continue;
+            }
+            
+            Map<String, String> params = new HashMap<String, String>();
+            params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "false");
+            params.put(PARAM_IN_SECTION, "true");
+            params.put(PARAM_FROM_SECTION, "false");
+            params.put(PARAM_TO_SECTION, "false");
+            params.put(PARAM_QUESTION_ID, question.getId());
+            params.put(PARAM_SECTION, section);
+            FeedbackSessionResultsBundle results = getFeedbackSessionResultsForUserWithParams(
+                    feedbackSessionName, courseId, userEmail, UserType.Role.INSTRUCTOR, roster, params);
+            
+            Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> questionResponseMap =
+                    results.getQuestionResponseMap();
+            // the question is absent from the bundle if none of its responses are visible to the user
+            Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry =
+                    questionResponseMap.isEmpty()
+                    ? new AbstractMap.SimpleEntry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>(
+                              question, new ArrayList<FeedbackResponseAttributes>())
+                    : questionResponseMap.entrySet().iterator().next();
+            
+            writer.write(getFeedbackSessionResultsForQuestionInCsvFormat(
+                    results, entry, isMissingResponsesShown, isStatsShown).toString());
+            writer.flush();
+        }
+    }
+
+    private String getCsvHeader(FeedbackSessionAttributes session, String section) {
+        StringBuilder headerBuilder = new StringBuilder(100);
+        
+        headerBuilder.append(String.format("Course,%s", Sanitizer.sanitizeForCsv(session.getCourseId())))
+                     .append(Const.EOL)
+                     .append(String.format("Session Name,%s",
+                             Sanitizer.sanitizeForCsv(session.getFeedbackSessionName())))
+                     .append(Const.EOL);
+        
+        if (section != null) {
+            headerBuilder.append(String.format("Section Name,%s", Sanitizer.sanitizeForCsv(section)))
+                         .append(Const.EOL);
+        }
+
+        headerBuilder.append(Const.EOL).append(Const.EOL);
+        return headerBuilder.toString();
+    }
+
     private Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> filterQuestions(
             Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> entrySet,
             String filterText) {
@@ -932,37 +1024,44 @@ public class FeedbackSessionsLogic {
         
         exportBuilder.append(questionDetails.getCsvDetailedResponsesHeader());
 
-        List<String> possibleGiversWithoutResponses = fsrBundle.getPossibleGivers(question);
-        List<String> possibleRecipientsForGiver = new ArrayList<String>();
+        // participants who gave/received responses are tracked in sets so that the possible
+        // participants without responses can be found in a single pass over the possible participants
+        Set<String> giversWithResponses = new HashSet<String>();
+        Set<String> recipientsWithResponsesForGiver = new HashSet<String>();
+        boolean isMissingGiversHidden = false;
+        boolean isMissingRecipientsForGiverHidden = false;
         String prevGiver = "";
+        String prevGiverIdentifier = null;
         
         for (FeedbackResponseAttributes response : allResponses) {
 
             // do not show all possible givers and recipients if there are anonymous givers and recipients
             if (!fsrBundle.isRecipientVisible(response) || !fsrBundle.isGiverVisible(response)) {
-                possibleGiversWithoutResponses.clear();
-                possibleRecipientsForGiver.clear();
+                isMissingGiversHidden = true;
+                isMissingRecipientsForGiverHidden = true;
             }
             
-            // keep track of possible recipients with no responses
-            removeParticipantIdentifierFromList(question.giverType,
-                    possibleGiversWithoutResponses, response.giver, fsrBundle);
+            // keep track of possible givers with no responses
+            giversWithResponses.add(getPossibleParticipantIdentifier(question.giverType, response.giver, fsrBundle));
             
             boolean isNewGiver = !prevGiver.equals(response.giver);
-            // print missing responses from the current giver
+            // print missing responses from the previous giver
             if (isNewGiver) {
-                exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(fsrBundle,
-                        question, questionDetails,
-                        possibleRecipientsForGiver, prevGiver));
-                String giverIdentifier = question.giverType == FeedbackParticipantType.TEAMS
-                                             ? fsrBundle.getFullNameFromRoster(response.giver)
-                                             : response.giver;
-                
-                possibleRecipientsForGiver = fsrBundle.getPossibleRecipients(question, giverIdentifier);
+                if (!isMissingRecipientsForGiverHidden) {
+                    exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(fsrBundle,
+                            question, questionDetails,
+                            getPossibleRecipientsWithoutResponses(fsrBundle, question, prevGiverIdentifier,
+                                                                  recipientsWithResponsesForGiver),
+                            prevGiver));
+                }
+                prevGiverIdentifier = getPossibleParticipantIdentifier(question.giverType, response.giver, fsrBundle);
+                recipientsWithResponsesForGiver = new HashSet<String>();
+                isMissingRecipientsForGiverHidden = false;
             }
             
-            removeParticipantIdentifierFromList(question.recipientType, possibleRecipientsForGiver,
-                                                response.recipient, fsrBundle);
+            // keep track of possible recipients with no responses from the current giver
+            recipientsWithResponsesForGiver.add(
+                    getPossibleParticipantIdentifier(question.recipientType, response.recipient, fsrBundle));
             prevGiver = response.giver;
             
             // Append row(s)
@@ -971,10 +1070,19 @@ public class FeedbackSessionsLogic {
         
         // add the rows for the possible givers and recipients who have missing responses
         if (isMissingResponsesShown) {
+            List<String> remainingPossibleGivers =
+                    isMissingGiversHidden
+                    ? new ArrayList<String>()
+                    : fsrBundle.getPossibleGiversWithoutResponses(question, giversWithResponses);
+            List<String> possibleRecipientsForGiver =
+                    isMissingRecipientsForGiverHidden
+                    ? new ArrayList<String>()
+                    : getPossibleRecipientsWithoutResponses(fsrBundle, question, prevGiverIdentifier,
+                                                            recipientsWithResponsesForGiver);
             exportBuilder.append(
                     getRemainingRowsInCsvFormat(
-                            fsrBundle, entry, question, questionDetails,
-                            possibleGiversWithoutResponses, possibleRecipientsForGiver, prevGiver));
+                            fsrBundle, question, questionDetails,
+                            remainingPossibleGivers, possibleRecipientsForGiver, prevGiver));
         }
         
         exportBuilder.append(Const.EOL + Const.EOL);
@@ -982,25 +1090,31 @@ public class FeedbackSessionsLogic {
     }
 
     /**
-     * Given a participantIdentifier, remove it from participantIdentifierList.
-     * 
-     * Before removal, FeedbackSessionResultsBundle.getNameFromRoster is used to
-     * convert the identifier into a canonical form if the participantIdentifierType is TEAMS.
+     * Converts participantIdentifier into the form used in the lists of possible givers
+     * and recipients of the bundle.
      * 
-     * @param participantIdentifierType
-     * @param participantIdentifierList
-     * @param participantIdentifier
-     * @param bundle
+     * FeedbackSessionResultsBundle.getFullNameFromRoster is used to convert the identifier
+     * into a canonical form if the participantIdentifierType is TEAMS.
      */
-    private void removeParticipantIdentifierFromList(
-            FeedbackParticipantType participantIdentifierType,
-            List<String> participantIdentifierList, String participantIdentifier,
+    private String getPossibleParticipantIdentifier(
+            FeedbackParticipantType participantIdentifierType, String participantIdentifier,
             FeedbackSessionResultsBundle bundle) {
-        if (participantIdentifierType == FeedbackParticipantType.TEAMS) {
-            participantIdentifierList.remove(bundle.getFullNameFromRoster(participantIdentifier));
-        } else {
-            participantIdentifierList.remove(participantIdentifier);
+        return participantIdentifierType == FeedbackParticipantType.TEAMS
+               ? bundle.getFullNameFromRoster(participantIdentifier)
+               : participantIdentifier;
+    }
+
+    /**
+     * @return the possible recipients of the giver who have no responses from the giver,
+     *         or an empty list if there is no giver
+     */
+    private List<String> getPossibleRecipientsWithoutResponses(
+            FeedbackSessionResultsBundle bundle, FeedbackQuestionAttributes question,
+            String giverIdentifier, Set<String> recipientsWithResponses) {
+        if (giverIdentifier == null) {
+            return new ArrayList<String>();
         }
+        return bundle.getPossibleRecipientsWithoutResponses(question, giverIdentifier, recipientsWithResponses);
     }
 
     /**
@@ -1010,35 +1124,28 @@ public class FeedbackSessionsLogic {
      * the remaining missing responses for the prevGiver will be generated first.
      * 
      * @param results
-     * @param entry
      * @param question
      * @param questionDetails
-     * @param remainingPossibleGivers
-     * @param possibleRecipientsForGiver
+     * @param remainingPossibleGivers possible givers without responses, excluding prevGiver
+     * @param possibleRecipientsForGiver possible recipients without responses from prevGiver
      * @param prevGiver
      * @return the remaining rows of missing responses in csv format
      */
     private StringBuilder getRemainingRowsInCsvFormat(
             FeedbackSessionResultsBundle results,
-            Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry,
             FeedbackQuestionAttributes question,
             FeedbackQuestionDetails questionDetails,
             List<String> remainingPossibleGivers,
             List<String> possibleRecipientsForGiver, String prevGiver) {
         StringBuilder exportBuilder = new StringBuilder();
         
-        if (possibleRecipientsForGiver != null) {
-            exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(results,
-                    question, questionDetails, possibleRecipientsForGiver,
-                    prevGiver));
-            
-        }
-        
-        removeParticipantIdentifierFromList(question.giverType, remainingPossibleGivers, prevGiver, results);
+        exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(results,
+                question, questionDetails, possibleRecipientsForGiver,
+                prevGiver));
 
         for (String possibleGiverWithNoResponses : remainingPossibleGivers) {
             List<String> possibleRecipientsForRemainingGiver =
-                    results.getPossibleRecipients(entry.getKey(), possibleGiverWithNoResponses);
+                    results.getPossibleRecipients(question, possibleGiverWithNoResponses);
             
             exportBuilder.append(getRowsOfPossibleRecipientsInCsvFormat(results,
                     question, questionDetails, possibleRecipientsForRemainingGiver,
@@ -1674,6 +1781,7 @@ public class FeedbackSessionsLogic {
      */
     public void deleteFeedbackSessionsForCourse(String courseId) {
         fsDb.deleteFeedbackSessionsForCourse(courseId);
+        fsStatsDb.deleteFeedbackSessionStatisticsForCourse(courseId);
     }
 
     /**
@@ -1694,6 +1802,7 @@ public class FeedbackSessionsLogic {
         sessionToDelete.setCourseId(courseId);
 
         fsDb.deleteEntity(sessionToDelete);
+        fsStatsDb.deleteFeedbackSessionStatistics(feedbackSessionName, courseId);
 
     }
 
@@ -1708,24 +1817,7 @@ public class FeedbackSessionsLogic {
         
         switch (fsa.getFeedbackSessionType()) {
         case STANDARD:
-            List<StudentAttributes> students = studentsLogic.getStudentsForCourse(fsa.getCourseId());
-            List<InstructorAttributes> instructors = instructorsLogic.getInstructorsForCourse(fsa.getCourseId());
-            List<FeedbackQuestionAttributes> questions =
-                    fqLogic.getFeedbackQuestionsForSession(fsa.getFeedbackSessionName(), fsa.getCourseId());
-            List<FeedbackQuestionAttributes> studentQns = fqLogic.getFeedbackQuestionsForStudents(questions);
-
-            if (!studentQns.isEmpty()) {
-                details.stats.expectedTotal += students.size();
-            }
-        
-            for (InstructorAttributes instructor : instructors) {
-                List<FeedbackQuestionAttributes> instructorQns =
-                        fqLogic.getFeedbackQuestionsForInstructor(questions, fsa.isCreator(instructor.email));
-                if (!instructorQns.isEmpty()) {
-                    details.stats.expectedTotal += 1;
-                }
-            }
-            
+            details.stats.expectedTotal = getFeedbackSessionStatistics(fsa, false).getExpectedTotal();
             details.stats.submittedTotal += fsa.getRespondingStudentList().size() + fsa.getRespondingInstructorList().size();
 
             break;
@@ -1755,6 +1847,135 @@ public class FeedbackSessionsLogic {
         return details;
     }
     
+    /**
+     * Gets the statistics of a session, including the response counts per question.
+     * The parts of the statistics which are not stored yet are computed and stored first.
+     */
+    public FeedbackSessionStatisticsAttributes getFeedbackSessionStatistics(String feedbackSessionName, String courseId)
+            throws EntityDoesNotExistException {
+        FeedbackSessionAttributes fsa = getFeedbackSession(feedbackSessionName, courseId);
+        if (fsa == null) {
+            throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_GET + courseId + "/" + feedbackSessionName);
+        }
+        return getFeedbackSessionStatistics(fsa, true);
+    }
+    
+    /**
+     * Gets the stored statistics of a session without computing the parts which are not stored yet.
+     */
+    public FeedbackSessionStatisticsAttributes getStoredFeedbackSessionStatistics(String feedbackSessionName,
+                                                                                   String courseId) {
+        return fsStatsDb.getFeedbackSessionStatistics(feedbackSessionName, courseId);
+    }
+    
+    /**
+     * @param isResponseCountsNeeded if false, the response counts are not computed when they are not
+     *                               stored yet, as doing so requires reading all the responses of the session
+     */
+    private FeedbackSessionStatisticsAttributes getFeedbackSessionStatistics(FeedbackSessionAttributes fsa,
+                                                                             boolean isResponseCountsNeeded) {
+        // the expected total and the response counts are computed from what is read after this time
+        Date countStartTime = new Date();
+        FeedbackSessionStatisticsAttributes statistics =
+                fsStatsDb.getFeedbackSessionStatistics(fsa.getFeedbackSessionName(), fsa.getCourseId());
+        
+        if (statistics.getExpectedTotal() == null) {
+            statistics.setExpectedTotal(getExpectedTotal(fsa));
+            try {
+                // only stored if it has not been cleared since the statistics were read
+                fsStatsDb.putFeedbackSessionStatistics(statistics, countStartTime);
+            } catch (InvalidParametersException e) {
+                // the statistics are still correct, they will be computed again next time
+                log.warning(TeammatesException.toStringWithStackTrace(e));
+            }
+        }
+        if (isResponseCountsNeeded && !statistics.isResponseCountsKnown()) {
+            statistics.resetResponseCounts();
+            List<FeedbackResponseAttributes> responses =
+                    frLogic.getFeedbackResponsesForSession(fsa.getFeedbackSessionName(), fsa.getCourseId());
+            for (FeedbackResponseAttributes response : responses) {
+                statistics.addToResponseCounts(response.feedbackQuestionId, 1);
+            }
+            // only stored for the shards which have not changed since their revisions were read
+            fsStatsDb.putResponseCounts(fsa.getFeedbackSessionName(), fsa.getCourseId(), responses,
+                                        statistics.getResponseCountsRevisions(), countStartTime);
+        }
+        return statistics;
+    }
+    
+    /**
+     * @return the number of students and instructors who have at least one question to answer
+     *         in the (standard) session
+     */
+    private int getExpectedTotal(FeedbackSessionAttributes fsa) {
+        List<StudentAttributes> students = studentsLogic.getStudentsForCourse(fsa.getCourseId());
+        List<InstructorAttributes> instructors = instructorsLogic.getInstructorsForCourse(fsa.getCourseId());
+        List<FeedbackQuestionAttributes> questions =
+                fqLogic.getFeedbackQuestionsForSession(fsa.getFeedbackSessionName(), fsa.getCourseId());
+        List<FeedbackQuestionAttributes> studentQns = fqLogic.getFeedbackQuestionsForStudents(questions);
+        
+        int expectedTotal = 0;
+        if (!studentQns.isEmpty()) {
+            expectedTotal += students.size();
+        }
+        
+        for (InstructorAttributes instructor : instructors) {
+            List<FeedbackQuestionAttributes> instructorQns =
+                    fqLogic.getFeedbackQuestionsForInstructor(questions, fsa.isCreator(instructor.email));
+            if (!instructorQns.isEmpty()) {
+                expectedTotal += 1;
+            }
+        }
+        return expectedTotal;
+    }
+    
+    /**
+     * Adds {@code delta} to the stored response counts of the session of {@code response},
+     * for the question of the response. To be called before the response is
+     * created or deleted, so that a concurrent recount of the responses which may already
+     * include the change is not stored, and again with {@code -delta} if the change then fails.
+     */
+    public void addToResponseCounts(FeedbackResponseAttributes response, int delta) {
+        fsStatsDb.addToResponseCounts(response.feedbackSessionName, response.courseId,
+                                      response.feedbackQuestionId, response.giver, delta);
+    }
+    
+    /**
+     * Discards the stored response counts of the session, e.g. after responses have been
+     * created or deleted in bulk. They are computed again when next needed.
+     */
+    public void clearResponseCounts(String feedbackSessionName, String courseId) {
+        fsStatsDb.invalidateResponseCounts(feedbackSessionName, courseId);
+    }
+    
+    /**
+     * Discards the stored response counts of all the sessions in the course.
+     * @see #clearResponseCounts(String, String)
+     */
+    public void clearResponseCountsForCourse(String courseId) {
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsForCourse(courseId)) {
+            fsStatsDb.invalidateResponseCounts(session.getFeedbackSessionName(), courseId);
+        }
+    }
+    
+    /**
+     * Discards the stored number of expected respondents of the session,
+     * to be called when the questions of the session change.
+     */
+    public void clearExpectedTotal(String feedbackSessionName, String courseId) {
+        fsStatsDb.clearExpectedTotal(feedbackSessionName, courseId);
+    }
+    
+    /**
+     * Discards the stored number of expected respondents of all the sessions in the course,
+     * to be called when students or instructors join or leave the course.
+     */
+    public void clearExpectedTotalsForCourse(String courseId) {
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsForCourse(courseId)) {
+            fsStatsDb.clearExpectedTotal(session.getFeedbackSessionName(), courseId);
+        }
+    }
+    
     /* Get the feedback results for user in a section iterated by questions */
     private FeedbackSessionResultsBundle getFeedbackSessionResultsForUserInSectionByQuestions(
             String feedbackSessionName, String courseId, String userEmail,
@@ -1773,8 +1994,8 @@ public class FeedbackSessionsLogic {
 
     /* Get the feedback results for user in a section iterated by questions */
     private FeedbackSessionResultsBundle getFeedbackSessionResultsForUserInSectionByQuestions(
-            String feedbackSessionName, String courseId, String userEmail,
-            UserType.Role role, String section, CourseRoster roster)
+            String feedbackSessionName, String courseId, final String userEmail,
+            final UserType.Role role, final String section, CourseRoster roster)
             throws EntityDoesNotExistException {
 
         FeedbackSessionAttributes session = fsDb.getFeedbackSession(
@@ -1816,21 +2037,31 @@ public class FeedbackSessionsLogic {
 
         List<FeedbackQuestionAttributes> allQuestions = fqLogic.getFeedbackQuestionsForSession(
                                                                     feedbackSessionName, courseId);
+        
+        // the responses to each question are fetched in parallel, then merged in the order of the questions
+        final boolean isPrivateSessionCreatedByThisUser = session
+                .isCreator(userEmail) && session.isPrivateSession();
+        List<Callable<List<FeedbackResponseAttributes>>> responseQueries =
+                new ArrayList<Callable<List<FeedbackResponseAttributes>>>();
+        for (final FeedbackQuestionAttributes question : allQuestions) {
+            responseQueries.add(new Callable<List<FeedbackResponseAttributes>>() {
+                @Override
+                public List<FeedbackResponseAttributes> call() {
+                    if (isPrivateSessionCreatedByThisUser) {
+                        return frLogic.getFeedbackResponsesForQuestion(question.getId());
+                    }
+                    return frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                            question, userEmail, role, section);
+                }
+            });
+        }
+        List<List<FeedbackResponseAttributes>> responsesForQuestions =
+                ParallelDatastoreTasks.runAll(responseQueries, Config.RESULTS_PARALLELISM);
+        
         Map<String, FeedbackResponseAttributes> relevantResponse = new HashMap<String, FeedbackResponseAttributes>();
-        for (FeedbackQuestionAttributes question : allQuestions) {
-
-            List<FeedbackResponseAttributes> responsesForThisQn;
-
-            boolean isPrivateSessionCreatedByThisUser = session
-                    .isCreator(userEmail) && session.isPrivateSession();
-            if (isPrivateSessionCreatedByThisUser) {
-                responsesForThisQn = frLogic
-                        .getFeedbackResponsesForQuestion(question.getId());
-            } else {
-                responsesForThisQn = frLogic
-                        .getViewableFeedbackResponsesForQuestionInSection(
-                                question, userEmail, role, section);
-            }
+        for (int i = 0; i < allQuestions.size(); i++) {
+            FeedbackQuestionAttributes question = allQuestions.get(i);
+            List<FeedbackResponseAttributes> responsesForThisQn = responsesForQuestions.get(i);
 
             boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
             if (thisQuestionHasResponses) {
@@ -1901,12 +2132,13 @@ public class FeedbackSessionsLogic {
                         session, responses, relevantQuestions, emailNameTable,
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments);
+        addStoredQuestionStatistics(results);
 
         return results;
     }
 
     private FeedbackSessionResultsBundle getFeedbackSessionResultsForUserWithParams(
-            String feedbackSessionName, String courseId, String userEmail,
+            final String feedbackSessionName, final String courseId, String userEmail,
             UserType.Role role, CourseRoster roster, Map<String, String> params)
             throws EntityDoesNotExistException {
         
@@ -1961,7 +2193,7 @@ public class FeedbackSessionsLogic {
         
         boolean isIncludeResponseStatus = Boolean.parseBoolean(params.get(PARAM_IS_INCLUDE_RESPONSE_STATUS));
         
-        String section = params.get(PARAM_SECTION);
+        final String section = params.get(PARAM_SECTION);
         
         if (params.get(PARAM_QUESTION_ID) != null) {
             String questionId = params.get(PARAM_QUESTION_ID);
@@ -1989,6 +2221,11 @@ public class FeedbackSessionsLogic {
                                         question, userEmail, Role.INSTRUCTOR, section);
                     }
     
+                    InstructorAttributes instructor = null;
+                    if (role == Role.INSTRUCTOR) {
+                        instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+                    }
+                    
                     boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
                     if (thisQuestionHasResponses) {
                         for (FeedbackResponseAttributes response : responsesForThisQn) {
@@ -2002,10 +2239,6 @@ public class FeedbackSessionsLogic {
                                             && question.isResponseVisibleTo(FeedbackParticipantType.STUDENTS)) {
                                 isVisibleResponse = true;
                             }
-                            InstructorAttributes instructor = null;
-                            if (role == Role.INSTRUCTOR) {
-                                instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-                            }
                             if (isVisibleResponse && instructor != null) {
                                 boolean isGiverSectionRestricted =
                                         !instructor.isAllowedForPrivilege(
@@ -2049,6 +2282,7 @@ public class FeedbackSessionsLogic {
                             session, responses, relevantQuestions, emailNameTable,
                             emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                             visibilityTable, responseStatus, roster, responseComments, true);
+            addStoredQuestionStatistics(results);
 
             return results;
         }
@@ -2058,39 +2292,36 @@ public class FeedbackSessionsLogic {
             allQuestionsMap.put(qn.getId(), qn);
         }
         
-        boolean isInSection = Boolean.parseBoolean(params.get(PARAM_IN_SECTION));
-        boolean isToSection = Boolean.parseBoolean(params.get(PARAM_TO_SECTION));
-        boolean isFromSection = Boolean.parseBoolean(params.get(PARAM_FROM_SECTION));
         boolean isComplete = params.get(PARAM_RANGE) == null;
         
-        List<FeedbackResponseAttributes> allResponses = new ArrayList<FeedbackResponseAttributes>();
-        if (params.get(PARAM_RANGE) == null) {
-            if (isInSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName,
-                                                                               courseId, section);
-            } else if (isFromSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionFromSection(feedbackSessionName,
-                                                                                 courseId, section);
-            } else if (isToSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionToSection(feedbackSessionName,
-                                                                               courseId, section);
-            } else {
-                Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
+        // the comments are fetched in parallel with the responses, as they do not depend on each other
+        boolean isResponseCommentsNeeded = params.get(PARAM_VIEW_TYPE) == null
+                || Const.FeedbackSessionResults.GRQ_SORT_TYPE.equals(params.get(PARAM_VIEW_TYPE))
+                || Const.FeedbackSessionResults.RGQ_SORT_TYPE.equals(params.get(PARAM_VIEW_TYPE));
+        List<FeedbackResponseAttributes> allResponses;
+        List<FeedbackResponseCommentAttributes> allResponseComments = null;
+        ParallelDatastoreTasks fetches = new ParallelDatastoreTasks(Config.RESULTS_PARALLELISM);
+        try {
+            Future<List<FeedbackResponseCommentAttributes>> responseCommentsFetch = null;
+            if (isResponseCommentsNeeded) {
+                responseCommentsFetch = fetches.submit(new Callable<List<FeedbackResponseCommentAttributes>>() {
+                    @Override
+                    public List<FeedbackResponseCommentAttributes> call() {
+                        return frcLogic.getFeedbackResponseCommentForSessionInSection(courseId,
+                                feedbackSessionName, section);
+                    }
+                });
             }
-        } else {
-            long range = Long.parseLong(params.get(PARAM_RANGE));
-            if (isInSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName,
-                                                                                          courseId, section, range);
-            } else if (isFromSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionFromSectionWithinRange(feedbackSessionName,
-                                                                                            courseId, section, range);
-            } else if (isToSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName,
-                                                                                          courseId, section, range);
-            } else {
-                Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
+            allResponses = getFeedbackResponsesForSessionWithParams(feedbackSessionName, courseId, section, params);
+            if (responseCommentsFetch != null) {
+                allResponseComments = ParallelDatastoreTasks.getResult(responseCommentsFetch);
             }
+        } finally {
+            fetches.shutdown();
+        }
+        
+        if (params.get(PARAM_RANGE) != null) {
+            long range = Long.parseLong(params.get(PARAM_RANGE));
             if (allResponses.size() <= range) {
                 isComplete = true;
             } else {
@@ -2147,12 +2378,7 @@ public class FeedbackSessionsLogic {
             }
         }
 
-        if (params.get(PARAM_VIEW_TYPE) == null
-                || Const.FeedbackSessionResults.GRQ_SORT_TYPE.equals(params.get(PARAM_VIEW_TYPE))
-                || Const.FeedbackSessionResults.RGQ_SORT_TYPE.equals(params.get(PARAM_VIEW_TYPE))) {
-            List<FeedbackResponseCommentAttributes> allResponseComments =
-                    frcLogic.getFeedbackResponseCommentForSessionInSection(courseId,
-                            feedbackSessionName, section);
+        if (isResponseCommentsNeeded) {
             for (FeedbackResponseCommentAttributes frc : allResponseComments) {
                 FeedbackResponseAttributes relatedResponse = relevantResponse.get(frc.feedbackResponseId);
                 FeedbackQuestionAttributes relatedQuestion = relevantQuestions.get(frc.feedbackQuestionId);
@@ -2190,10 +2416,66 @@ public class FeedbackSessionsLogic {
                         session, responses, relevantQuestions, emailNameTable,
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments, isComplete);
+        addStoredQuestionStatistics(results);
 
         return results;
     }
 
+    /**
+     * Sets the stored statistics of the questions of {@code results}, which are used to show the
+     * statistics of a question when its responses in {@code results} are all the responses to it.
+     */
+    private void addStoredQuestionStatistics(FeedbackSessionResultsBundle results) {
+        Map<String, Integer> numOfResponses = new HashMap<String, Integer>();
+        for (FeedbackResponseAttributes response : results.responses) {
+            Integer numOfResponsesToQuestion = numOfResponses.get(response.feedbackQuestionId);
+            numOfResponses.put(response.feedbackQuestionId,
+                               numOfResponsesToQuestion == null ? 1 : numOfResponsesToQuestion + 1);
+        }
+        results.storedQuestionStatistics = fqLogic.getStoredStatistics(results.questions.values(), numOfResponses);
+    }
+
+    /**
+     * Gets the responses of the session which match the section and range given in {@code params}.
+     */
+    private List<FeedbackResponseAttributes> getFeedbackResponsesForSessionWithParams(
+            String feedbackSessionName, String courseId, String section, Map<String, String> params) {
+        boolean isInSection = Boolean.parseBoolean(params.get(PARAM_IN_SECTION));
+        boolean isToSection = Boolean.parseBoolean(params.get(PARAM_TO_SECTION));
+        boolean isFromSection = Boolean.parseBoolean(params.get(PARAM_FROM_SECTION));
+        
+        List<FeedbackResponseAttributes> allResponses = new ArrayList<FeedbackResponseAttributes>();
+        if (params.get(PARAM_RANGE) == null) {
+            if (isInSection) {
+                allResponses = frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName,
+                                                                               courseId, section);
+            } else if (isFromSection) {
+                allResponses = frLogic.getFeedbackResponsesForSessionFromSection(feedbackSessionName,
+                                                                                 courseId, section);
+            } else if (isToSection) {
+                allResponses = frLogic.getFeedbackResponsesForSessionToSection(feedbackSessionName,
+                                                                               courseId, section);
+            } else {
+                Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
+            }
+        } else {
+            long range = Long.parseLong(params.get(PARAM_RANGE));
+            if (isInSection) {
+                allResponses = frLogic.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName,
+                                                                                          courseId, section, range);
+            } else if (isFromSection) {
+                allResponses = frLogic.getFeedbackResponsesForSessionFromSectionWithinRange(feedbackSessionName,
+                                                                                            courseId, section, range);
+            } else if (isToSection) {
+                allResponses = frLogic.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName,
+                                                                                          courseId, section, range);
+            } else {
+                Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
+            }
+        }
+        return allResponses;
+    }
+
     private void addSectionTeamNamesToTable(Map<String, Set<String>> sectionTeamNameTable,
                                     CourseRoster roster, String courseId, String userEmail, Role role,
                                     String feedbackSessionName, String sectionToView) {
@@ -2364,24 +2646,6 @@ public class FeedbackSessionsLogic {
         }
     }
 
-    private List<FeedbackSessionDetailsBundle> getFeedbackSessionDetailsForCourse(
-            String courseId, String instructorEmail)
-            throws EntityDoesNotExistException {
-
-        List<FeedbackSessionDetailsBundle> fsDetailsWithoutPrivate =
-                new ArrayList<FeedbackSessionDetailsBundle>();
-        List<FeedbackSessionAttributes> fsInCourse =
-                fsDb.getFeedbackSessionsForCourse(courseId);
-
-        for (FeedbackSessionAttributes fsa : fsInCourse) {
-            if (!fsa.isPrivateSession() || fsa.isCreator(instructorEmail)) {
-                fsDetailsWithoutPrivate.add(getFeedbackSessionDetails(fsa));
-            }
-        }
-
-        return fsDetailsWithoutPrivate;
-    }
-
     private List<FeedbackSessionAttributes> getFeedbackSessionsListForCourse(
             String courseId, String instructorEmail) {
         
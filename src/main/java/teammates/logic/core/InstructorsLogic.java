@@ -79,7 +79,9 @@ public class InstructorsLogic {
         
         log.info("going to create instructor :\n" + instructorToAdd.toString());
         
-        return instructorsDb.createInstructor(instructorToAdd);
+        InstructorAttributes createdInstructor = instructorsDb.createInstructor(instructorToAdd);
+        fsLogic.clearExpectedTotalsForCourse(instructorToAdd.courseId);
+        return createdInstructor;
     }
 
     public void setArchiveStatusOfInstructor(String googleId, String courseId, boolean archiveStatus)
@@ -204,6 +206,8 @@ public class InstructorsLogic {
         InstructorAttributes currentInstructor = getInstructorForGoogleId(instructor.courseId, instructor.googleId);
         if (!currentInstructor.email.equals(instructor.email)) {
             fsLogic.updateRespondantsForInstructor(currentInstructor.email, instructor.email, instructor.courseId);
+            // the email identifies the creator of the sessions
+            fsLogic.clearExpectedTotalsForCourse(instructor.courseId);
         }
     }
 
@@ -346,6 +350,7 @@ public class InstructorsLogic {
         commentsLogic.deleteCommentsForInstructor(courseId, email);
         fsLogic.deleteInstructorFromRespondantsList(getInstructorForEmail(courseId, email));
         instructorsDb.deleteInstructor(courseId, email);
+        fsLogic.clearExpectedTotalsForCourse(courseId);
     }
 
     public void deleteInstructorsForGoogleIdAndCascade(String googleId) {
@@ -46,9 +46,11 @@ public class JavamailService extends EmailSenderService {
     }
     
     @Override
-    protected void sendEmailWithService(EmailWrapper wrapper) throws AddressException, MessagingException, IOException {
+    protected int sendEmailWithService(EmailWrapper wrapper) throws AddressException, MessagingException, IOException {
         MimeMessage email = parseToEmail(wrapper);
+        // Transport throws on a failed request
         Transport.send(email);
+        return SUCCESS_CODE;
     }
     
 }
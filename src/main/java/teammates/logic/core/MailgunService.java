@@ -1,13 +1,18 @@
 package teammates.logic.core;
 
+import java.util.List;
+
 import javax.ws.rs.core.MediaType;
 
+import org.json.JSONObject;
+
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.api.client.filter.HTTPBasicAuthFilter;
 import com.sun.jersey.multipart.FormDataMultiPart;
 
+import teammates.common.exception.EmailSendingException;
 import teammates.common.util.Config;
 import teammates.common.util.EmailWrapper;
 
@@ -17,6 +22,9 @@ import teammates.common.util.EmailWrapper;
  */
 public class MailgunService extends EmailSenderService {
     
+    /** The maximum number of recipients of a batch sending request to Mailgun. */
+    private static final int MAX_BATCH_SIZE = 1000;
+    
     /**
      * {@inheritDoc}
      */
@@ -42,19 +50,63 @@ public class MailgunService extends EmailSenderService {
         return formData;
     }
     
+    /**
+     * Parses {@code wrappers} into one batch sending request, in which Mailgun sends each recipient
+     * a separate email with the subject and content given in the recipient variables.
+     */
+    public FormDataMultiPart parseToBatchEmail(List<EmailWrapper> wrappers) {
+        EmailWrapper first = wrappers.get(0);
+        FormDataMultiPart formData = new FormDataMultiPart();
+        
+        String sender = first.getSenderName() == null || first.getSenderName().isEmpty()
+                        ? first.getSenderEmail()
+                        : first.getSenderName() + " <" + first.getSenderEmail() + ">";
+        formData.field("from", sender);
+        
+        JSONObject recipientVariables = new JSONObject();
+        for (EmailWrapper wrapper : wrappers) {
+            formData.field("to", wrapper.getRecipient());
+            recipientVariables.put(wrapper.getRecipient(), new JSONObject().put("subject", wrapper.getSubject())
+                                                                           .put("content", wrapper.getContent()));
+        }
+        formData.field("recipient-variables", recipientVariables.toString());
+        
+        formData.field("h:Reply-To", first.getReplyTo());
+        formData.field("subject", "%recipient.subject%");
+        formData.field("html", "%recipient.content%");
+        
+        return formData;
+    }
+    
     @Override
-    protected void sendEmailWithService(EmailWrapper wrapper) {
-        FormDataMultiPart email = parseToEmail(wrapper);
+    public int getMaxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+    
+    @Override
+    protected int sendEmailWithService(EmailWrapper wrapper) {
+        ClientResponse response = post(parseToEmail(wrapper));
+        if (response.getStatus() != SUCCESS_CODE) {
+            log.severe("Email failed to send: " + response.getStatusInfo().getReasonPhrase());
+        }
+        return response.getStatus();
+    }
+    
+    @Override
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws EmailSendingException {
+        ClientResponse response = post(parseToBatchEmail(wrappers));
+        if (!isSuccessfulRequest(response.getStatus())) {
+            handleFailedRequest(response.getStatus(), response.getStatusInfo().getReasonPhrase());
+        }
+    }
+    
+    private ClientResponse post(FormDataMultiPart email) {
         Client client = Client.create();
         client.addFilter(new HTTPBasicAuthFilter("api", Config.MAILGUN_APIKEY));
         WebResource webResource =
                 client.resource("https://api.mailgun.net/v3/" + Config.MAILGUN_DOMAINNAME + "/messages");
         
-        ClientResponse response = webResource.type(MediaType.MULTIPART_FORM_DATA_TYPE)
-                                             .post(ClientResponse.class, email);
-        if (response.getStatus() != SUCCESS_CODE) {
-            log.severe("Email failed to send: " + response.getStatusInfo().getReasonPhrase());
-        }
+        return webResource.type(MediaType.MULTIPART_FORM_DATA_TYPE).post(ClientResponse.class, email);
     }
     
 }
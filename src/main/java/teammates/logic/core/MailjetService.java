@@ -1,5 +1,7 @@
 package teammates.logic.core;
 
+import java.util.List;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.jsoup.Jsoup;
@@ -10,6 +12,7 @@ import com.mailjet.client.MailjetResponse;
 import com.mailjet.client.errors.MailjetException;
 import com.mailjet.client.resource.Email;
 
+import teammates.common.exception.EmailSendingException;
 import teammates.common.util.Config;
 import teammates.common.util.EmailWrapper;
 
@@ -23,6 +26,9 @@ import teammates.common.util.EmailWrapper;
  */
 public class MailjetService extends EmailSenderService {
     
+    /** The maximum number of messages of a request to the Send API of Mailjet. */
+    private static final int MAX_BATCH_SIZE = 50;
+    
     /**
      * {@inheritDoc}
      */
@@ -46,14 +52,41 @@ public class MailjetService extends EmailSenderService {
         return request;
     }
     
+    /**
+     * Parses {@code wrappers} into one request carrying each of them as a separate message.
+     */
+    public MailjetRequest parseToBatchEmail(List<EmailWrapper> wrappers) {
+        JSONArray messages = new JSONArray();
+        for (EmailWrapper wrapper : wrappers) {
+            messages.put(new JSONObject(parseToEmail(wrapper).getBody()));
+        }
+        return new MailjetRequest(Email.resource).property(Email.MESSAGES, messages);
+    }
+    
+    @Override
+    public int getMaxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+    
     @Override
-    protected void sendEmailWithService(EmailWrapper wrapper) throws MailjetException {
+    protected int sendEmailWithService(EmailWrapper wrapper) throws MailjetException {
         MailjetRequest email = parseToEmail(wrapper);
         MailjetClient mailjet = new MailjetClient(Config.MAILJET_APIKEY, Config.MAILJET_SECRETKEY);
         MailjetResponse response = mailjet.post(email);
         if (response.getStatus() != SUCCESS_CODE) {
             log.severe("Email failed to send: " + response.getData().toString());
         }
+        return response.getStatus();
+    }
+    
+    @Override
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws MailjetException, EmailSendingException {
+        MailjetRequest email = parseToBatchEmail(wrappers);
+        MailjetClient mailjet = new MailjetClient(Config.MAILJET_APIKEY, Config.MAILJET_SECRETKEY);
+        MailjetResponse response = mailjet.post(email);
+        if (!isSuccessfulRequest(response.getStatus())) {
+            handleFailedRequest(response.getStatus(), response.getData().toString());
+        }
     }
     
 }
@@ -0,0 +1,159 @@
+package teammates.logic.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.logging.Logger;
+
+import teammates.common.datatransfer.CommentAttributes;
+import teammates.common.datatransfer.EntitiesPage;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.SearchIndexRebuildAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.Utils;
+import teammates.storage.api.CommentsDb;
+import teammates.storage.api.FeedbackResponseCommentsDb;
+import teammates.storage.api.InstructorsDb;
+import teammates.storage.api.SearchIndexRebuildsDb;
+import teammates.storage.api.StudentsDb;
+
+/**
+ * Handles the logic related to rebuilding search indexes. <br>
+ * A rebuild walks all the entities of the index a page at a time, one task per page. The progress is
+ * checkpointed after each page, so a task which fails or runs twice does not lose or repeat progress,
+ * and a rebuild which is started again supersedes the earlier one. A page is only checkpointed once the
+ * documents of all its entities have been put, otherwise the task fails and is retried from the same page.
+ * A document which cannot be built, e.g. one of a response comment whose response has been deleted,
+ * is skipped, as retrying the page would not put it either.
+ */
+public class SearchIndexRebuildLogic {
+
+    /** The number of entities whose documents are put by one task. */
+    public static final int ENTITIES_PER_TASK = 200;
+
+    private static final Logger log = Utils.getLogger();
+
+    private static SearchIndexRebuildLogic instance;
+
+    private static final SearchIndexRebuildsDb searchIndexRebuildsDb = new SearchIndexRebuildsDb();
+    private static final StudentsDb studentsDb = new StudentsDb();
+    private static final InstructorsDb instructorsDb = new InstructorsDb();
+    private static final CommentsDb commentsDb = new CommentsDb();
+    private static final FeedbackResponseCommentsDb frcDb = new FeedbackResponseCommentsDb();
+
+    public static SearchIndexRebuildLogic inst() {
+        if (instance == null) {
+            instance = new SearchIndexRebuildLogic();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts rebuilding the index from the first entity, superseding any rebuild of the index in progress.
+     * @return the progress of the rebuild which has been started
+     */
+    public SearchIndexRebuildAttributes startSearchIndexRebuild(String indexName) throws InvalidParametersException {
+        String rebuildId = String.valueOf(System.currentTimeMillis());
+        SearchIndexRebuildAttributes rebuild = new SearchIndexRebuildAttributes(indexName, rebuildId);
+        searchIndexRebuildsDb.putSearchIndexRebuild(rebuild);
+        scheduleSearchIndexRebuildTask(indexName, rebuildId);
+        return rebuild;
+    }
+
+    /**
+     * @return the latest rebuild of each index which has been rebuilt
+     */
+    public List<SearchIndexRebuildAttributes> getAllSearchIndexRebuilds() {
+        return searchIndexRebuildsDb.getAllSearchIndexRebuilds();
+    }
+
+    public SearchIndexRebuildAttributes getSearchIndexRebuild(String indexName) {
+        return searchIndexRebuildsDb.getSearchIndexRebuild(indexName);
+    }
+
+    /**
+     * Puts the documents of the next page of entities of the rebuild, checkpoints the progress
+     * and schedules the task for the page after it. Does nothing if the rebuild has finished
+     * or has been superseded by a later one.
+     * @throws RuntimeException if the search service failed to put the documents of some of the entities,
+     *         in which case the progress is not checkpointed
+     */
+    public void rebuildNextPage(String indexName, String rebuildId) {
+        SearchIndexRebuildAttributes rebuild = searchIndexRebuildsDb.getSearchIndexRebuild(indexName);
+        if (rebuild == null || rebuild.isFinished() || !rebuild.getRebuildId().equals(rebuildId)) {
+            log.info("Search index rebuild " + rebuildId + " of " + indexName + " is no longer in progress");
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        String cursor = rebuild.getCursor();
+        EntitiesPage<?> page = putDocumentsForPage(indexName, cursor);
+        int documentsPut = page.getEntities().size();
+
+        boolean isRecorded = searchIndexRebuildsDb.checkpointSearchIndexRebuild(
+                indexName, rebuildId, cursor, page.getNextCursor(), documentsPut);
+        if (!isRecorded) {
+            log.info("Search index rebuild " + rebuildId + " of " + indexName
+                     + " has moved past the page, the page will not be recorded again");
+            return;
+        }
+
+        log.info(String.format("Put %d documents into search index %s in %d ms, %d documents in total",
+                               documentsPut, indexName, System.currentTimeMillis() - startTime,
+                               rebuild.getDocumentsPut() + documentsPut));
+        if (page.hasNextPage()) {
+            scheduleSearchIndexRebuildTask(indexName, rebuildId);
+        } else {
+            log.info("Search index rebuild " + rebuildId + " of " + indexName + " is finished");
+        }
+    }
+
+    /**
+     * @return the page of entities whose documents were all put or skipped
+     */
+    private EntitiesPage<?> putDocumentsForPage(String indexName, String cursor) {
+        if (Const.SearchIndex.STUDENT.equals(indexName)) {
+            EntitiesPage<StudentAttributes> page = studentsDb.getStudentsPage(cursor, ENTITIES_PER_TASK);
+            checkDocumentsPut(indexName, page, studentsDb.putDocuments(page.getEntities()));
+            return page;
+        } else if (Const.SearchIndex.INSTRUCTOR.equals(indexName)) {
+            EntitiesPage<InstructorAttributes> page = instructorsDb.getInstructorsPage(cursor, ENTITIES_PER_TASK);
+            checkDocumentsPut(indexName, page, instructorsDb.putDocuments(page.getEntities()));
+            return page;
+        } else if (Const.SearchIndex.COMMENT.equals(indexName)) {
+            EntitiesPage<CommentAttributes> page = commentsDb.getCommentsPage(cursor, ENTITIES_PER_TASK);
+            checkDocumentsPut(indexName, page, commentsDb.putDocuments(page.getEntities()));
+            return page;
+        } else if (Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT.equals(indexName)) {
+            EntitiesPage<FeedbackResponseCommentAttributes> page =
+                    frcDb.getFeedbackResponseCommentsPage(cursor, ENTITIES_PER_TASK);
+            checkDocumentsPut(indexName, page, frcDb.putDocuments(page.getEntities()));
+            return page;
+        }
+        Assumption.fail("Unknown search index " + indexName);
+        return null;
+    }
+
+    private void checkDocumentsPut(String indexName, EntitiesPage<?> page, int documentsProcessed) {
+        int entityCount = page.getEntities().size();
+        if (documentsProcessed < entityCount) {
+            throw new RuntimeException(String.format("The search service failed to put %d of %d documents "
+                                                     + "into search index %s",
+                                                     entityCount - documentsProcessed, entityCount, indexName));
+        }
+    }
+
+    private void scheduleSearchIndexRebuildTask(String indexName, String rebuildId) {
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.SEARCH_INDEX_NAME, indexName);
+        paramMap.put(ParamsNames.SEARCH_INDEX_REBUILD_ID, rebuildId);
+
+        TaskQueuesLogic.inst().createAndAddTask(SystemParams.SEARCH_INDEX_REBUILD_TASK_QUEUE,
+                                                Const.ActionURIs.SEARCH_INDEX_REBUILD_WORKER, paramMap);
+    }
+}
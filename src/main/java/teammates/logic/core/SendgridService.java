@@ -1,5 +1,7 @@
 package teammates.logic.core;
 
+import java.util.List;
+
 import org.jsoup.Jsoup;
 
 import com.sendgrid.SendGrid;
@@ -7,6 +9,7 @@ import com.sendgrid.SendGrid.Email;
 import com.sendgrid.SendGrid.Response;
 import com.sendgrid.SendGridException;
 
+import teammates.common.exception.EmailSendingException;
 import teammates.common.util.Config;
 import teammates.common.util.EmailWrapper;
 
@@ -18,6 +21,13 @@ import teammates.common.util.EmailWrapper;
  */
 public class SendgridService extends EmailSenderService {
     
+    /** The maximum number of recipients of the X-SMTPAPI header recommended by SendGrid. */
+    private static final int MAX_BATCH_SIZE = 1000;
+    
+    private static final String SUBJECT_TAG = "-teammatesSubject-";
+    private static final String HTML_TAG = "-teammatesHtml-";
+    private static final String TEXT_TAG = "-teammatesText-";
+    
     /**
      * {@inheritDoc}
      */
@@ -39,14 +49,64 @@ public class SendgridService extends EmailSenderService {
         return email;
     }
     
+    /**
+     * Parses {@code wrappers} into one email sent separately to each of their recipients
+     * through the X-SMTPAPI header, with the subject and content of each recipient substituted in.
+     */
+    public Email parseToBatchEmail(List<EmailWrapper> wrappers) {
+        EmailWrapper first = wrappers.get(0);
+        Email email = new Email();
+        email.setFrom(first.getSenderEmail());
+        if (first.getSenderName() != null && !first.getSenderName().isEmpty()) {
+            email.setFromName(first.getSenderName());
+        }
+        email.setReplyTo(first.getReplyTo());
+        email.setSubject(SUBJECT_TAG);
+        email.setHtml(HTML_TAG);
+        email.setText(TEXT_TAG);
+        
+        String[] recipients = new String[wrappers.size()];
+        String[] subjects = new String[wrappers.size()];
+        String[] htmls = new String[wrappers.size()];
+        String[] texts = new String[wrappers.size()];
+        for (int i = 0; i < wrappers.size(); i++) {
+            EmailWrapper wrapper = wrappers.get(i);
+            recipients[i] = wrapper.getRecipient();
+            subjects[i] = wrapper.getSubject();
+            htmls[i] = wrapper.getContent();
+            texts[i] = Jsoup.parse(wrapper.getContent()).text();
+        }
+        email.addSmtpApiTo(recipients);
+        email.addSubstitution(SUBJECT_TAG, subjects);
+        email.addSubstitution(HTML_TAG, htmls);
+        email.addSubstitution(TEXT_TAG, texts);
+        return email;
+    }
+    
     @Override
-    protected void sendEmailWithService(EmailWrapper wrapper) throws SendGridException {
+    public int getMaxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+    
+    @Override
+    protected int sendEmailWithService(EmailWrapper wrapper) throws SendGridException {
         Email email = parseToEmail(wrapper);
         SendGrid sendgrid = new SendGrid(Config.SENDGRID_APIKEY);
         Response response = sendgrid.send(email);
         if (response.getCode() != SUCCESS_CODE) {
             log.severe("Email failed to send: " + response.getMessage());
         }
+        return response.getCode();
+    }
+    
+    @Override
+    protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws SendGridException, EmailSendingException {
+        Email email = parseToBatchEmail(wrappers);
+        SendGrid sendgrid = new SendGrid(Config.SENDGRID_APIKEY);
+        Response response = sendgrid.send(email);
+        if (!isSuccessfulRequest(response.getCode())) {
+            handleFailedRequest(response.getCode(), response.getMessage());
+        }
     }
     
 }
@@ -1,12 +1,16 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
-import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentAttributes.UpdateStatus;
@@ -81,6 +85,7 @@ public class StudentsLogic {
             throw new EntityDoesNotExistException(
                     "Course does not exist [" + studentData.course + "]");
         }
+        fsLogic.clearExpectedTotalsForCourse(studentData.course);
         
     }
 
@@ -109,6 +114,13 @@ public class StudentsLogic {
         return studentsDb.getStudentsForCourse(courseId);
     }
     
+    /**
+     * @return the students of each course, keyed by course ID
+     */
+    public Map<String, List<StudentAttributes>> getStudentsForCourses(Collection<String> courseIds) {
+        return studentsDb.getStudentsForCourses(courseIds);
+    }
+    
     public List<StudentAttributes> getStudentsForTeam(String teamName, String courseId) {
         return studentsDb.getStudentsForTeam(teamName, courseId);
     }
@@ -307,7 +319,8 @@ public class StudentsLogic {
             String courseId, boolean hasDocument)
             throws EntityDoesNotExistException, EnrollException, InvalidParametersException, EntityAlreadyExistsException {
         
-        if (!coursesLogic.isCoursePresent(courseId)) {
+        CourseAttributes course = coursesLogic.getCourse(courseId);
+        if (course == null) {
             throw new EntityDoesNotExistException("Course does not exist :"
                     + courseId);
         }
@@ -341,32 +354,55 @@ public class StudentsLogic {
         }
 
         verifyIsWithinSizeLimitPerEnrollment(studentList);
-        validateSectionsAndTeams(studentList, courseId);
+        
+        // the roster is loaded once, and the enrollment is compared against it in memory
+        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
+        validateSectionsAndTeams(studentList, studentsInCourse);
+        
+        Map<String, StudentAttributes> originalStudents = new HashMap<String, StudentAttributes>();
+        for (StudentAttributes student : studentsInCourse) {
+            originalStudents.put(student.email, student);
+        }
 
-        // TODO: can we use a batch persist operation here?
-        // enroll all students
+        List<StudentAttributes> studentsToCreate = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsToUpdate = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : studentList) {
-            StudentEnrollDetails enrollmentDetails;
+            StudentAttributes originalStudent = originalStudents.get(student.email);
+            StudentEnrollDetails enrollmentDetails = getEnrollmentDetails(student, originalStudent);
             
-            enrollmentDetails = enrollStudent(student, hasDocument);
+            if (enrollmentDetails.updateStatus == UpdateStatus.NEW) {
+                studentsToCreate.add(student);
+            } else if (enrollmentDetails.updateStatus == UpdateStatus.MODIFIED) {
+                student.updateWithExistingRecord(originalStudent);
+                if (!student.isValid()) {
+                    throw new InvalidParametersException(student.getInvalidityInfo());
+                }
+                studentsToUpdate.add(student);
+            }
             student.updateStatus = enrollmentDetails.updateStatus;
             
             enrollmentList.add(enrollmentDetails);
             returnList.add(student);
         }
         
-        //Adjust submissions for all feedback responses within the course
-        List<FeedbackSessionAttributes> feedbackSessions = FeedbackSessionsLogic.inst()
-                .getFeedbackSessionsForCourse(courseId);
-        
-        for (FeedbackSessionAttributes session : feedbackSessions) {
-            //Schedule adjustment of submissions for feedback session in course
-            scheduleSubmissionAdjustmentForFeedbackInCourse(enrollmentList, courseId,
-                    session.getFeedbackSessionName());
+        // all the changes are written in batches, followed by their search documents
+        List<StudentAttributes> studentsWritten = new ArrayList<StudentAttributes>();
+        if (!studentsToUpdate.isEmpty()) {
+            studentsWritten.addAll(studentsDb.updateStudentsInCourseWithoutDocuments(courseId, studentsToUpdate));
         }
+        if (!studentsToCreate.isEmpty()) {
+            studentsWritten.addAll(studentsDb.createStudentsWithoutDocuments(studentsToCreate));
+            fsLogic.clearExpectedTotalsForCourse(courseId);
+        }
+        if (hasDocument && !studentsWritten.isEmpty()) {
+            studentsDb.putDocuments(studentsWritten, course);
+        }
+        
+        //Schedule adjustment of the responses of the students who changed team or section
+        scheduleSubmissionAdjustmentForCourse(enrollmentList, courseId);
 
         // add to return list students not included in the enroll list.
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
+        // they are not changed by the enrollment, so the roster loaded earlier is still up to date
         for (StudentAttributes student : studentsInCourse) {
             if (!isInEnrollList(student, returnList)) {
                 student.updateStatus = StudentAttributes.UpdateStatus.NOT_IN_ENROLL_LIST;
@@ -390,8 +426,13 @@ public class StudentsLogic {
      * @throws EnrollException
      */
     public void validateSectionsAndTeams(List<StudentAttributes> studentList, String courseId) throws EnrollException {
+        validateSectionsAndTeams(studentList, getStudentsForCourse(courseId));
+    }
+
+    private void validateSectionsAndTeams(List<StudentAttributes> studentList, List<StudentAttributes> studentsInCourse)
+            throws EnrollException {
 
-        List<StudentAttributes> mergedList = getMergedList(studentList, courseId);
+        List<StudentAttributes> mergedList = getMergedList(studentList, studentsInCourse);
 
         if (mergedList.size() < 2) { // no conflicts
             return;
@@ -413,7 +454,7 @@ public class StudentsLogic {
      */
     public void validateTeams(List<StudentAttributes> studentList, String courseId) throws EnrollException {
 
-        List<StudentAttributes> mergedList = getMergedList(studentList, courseId);
+        List<StudentAttributes> mergedList = getMergedList(studentList, getStudentsForCourse(courseId));
 
         if (mergedList.size() < 2) { // no conflicts
             return;
@@ -427,10 +468,10 @@ public class StudentsLogic {
 
     }
     
-    private List<StudentAttributes> getMergedList(List<StudentAttributes> studentList, String courseId) {
+    private List<StudentAttributes> getMergedList(List<StudentAttributes> studentList,
+                                                  List<StudentAttributes> studentsInCourse) {
 
         List<StudentAttributes> mergedList = new ArrayList<StudentAttributes>();
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
 
         for (StudentAttributes student : studentList) {
             mergedList.add(student);
@@ -512,16 +553,27 @@ public class StudentsLogic {
         return errorMessage.toString();
     }
 
-    private void scheduleSubmissionAdjustmentForFeedbackInCourse(
-            ArrayList<StudentEnrollDetails> enrollmentList, String courseId, String sessionName) {
-        // private methods -- should I test this?
+    /**
+     * Schedules one task for the whole course to adjust the responses of the students
+     * whose team or section changed. Nothing is scheduled if there are no such students.
+     */
+    public void scheduleSubmissionAdjustmentForCourse(List<StudentEnrollDetails> enrollmentList, String courseId) {
+        ArrayList<StudentEnrollDetails> adjustmentList = new ArrayList<StudentEnrollDetails>();
+        for (StudentEnrollDetails enrollment : enrollmentList) {
+            if (isSubmissionAdjustmentNeeded(enrollment)) {
+                adjustmentList.add(enrollment);
+            }
+        }
+        if (adjustmentList.isEmpty()) {
+            return;
+        }
+        
         HashMap<String, String> paramMap = new HashMap<String, String>();
         
         paramMap.put(ParamsNames.COURSE_ID, courseId);
-        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
         
         Gson gsonBuilder = Utils.getTeammatesGson();
-        String enrollmentDetails = gsonBuilder.toJson(enrollmentList);
+        String enrollmentDetails = gsonBuilder.toJson(adjustmentList);
         paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
         
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
@@ -622,6 +674,7 @@ public class StudentsLogic {
         List<StudentAttributes> students = studentsDb.getStudentsForGoogleId(googleId);
         for (StudentAttributes student : students) {
             fsLogic.deleteStudentFromRespondantsList(student);
+            fsLogic.clearExpectedTotalsForCourse(student.course);
         }
         studentsDb.deleteStudentsForGoogleId(googleId);
     }
@@ -630,6 +683,7 @@ public class StudentsLogic {
         List<StudentAttributes> students = studentsDb.getStudentsForGoogleId(googleId);
         for (StudentAttributes student : students) {
             fsLogic.deleteStudentFromRespondantsList(student);
+            fsLogic.clearExpectedTotalsForCourse(student.course);
         }
         studentsDb.deleteStudentsForGoogleIdWithoutDocument(googleId);
     }
@@ -651,34 +705,81 @@ public class StudentsLogic {
         studentsDb.deleteStudentsForCourseWithoutDocument(courseId);
     }
     
-    public void adjustFeedbackResponseForEnrollments(
-            ArrayList<StudentEnrollDetails> enrollmentList,
-            FeedbackResponseAttributes response) throws InvalidParametersException, EntityDoesNotExistException {
+    /**
+     * Adjusts the responses given by or to the students whose team or section changed.
+     * Only the responses of those students are looked up, rather than all the responses in the course.
+     * The responses are moved to the current section of each student rather than the new section of
+     * the enrollment, as a later enrollment of the course may have been adjusted already.
+     */
+    public void adjustFeedbackResponsesForEnrollments(List<StudentEnrollDetails> enrollmentList)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        // a response between two of the students may be deleted while adjusting for the first one
+        Set<String> deletedResponseIds = new HashSet<String>();
+        
         for (StudentEnrollDetails enrollment : enrollmentList) {
-            if (enrollment.updateStatus != UpdateStatus.MODIFIED) {
+            if (!isSubmissionAdjustmentNeeded(enrollment)) {
                 continue;
             }
-
-            boolean isResponseDeleted = false;
-            if (isTeamChanged(enrollment.oldTeam, enrollment.newTeam)) {
-                isResponseDeleted = frLogic.updateFeedbackResponseForChangingTeam(enrollment, response);
+            StudentAttributes student = getStudentForEmail(enrollment.course, enrollment.email);
+            if (student != null) {
+                enrollment.newSection = student.section;
             }
-        
-            if (!isResponseDeleted && isSectionChanged(enrollment.oldSection, enrollment.newSection)) {
-                frLogic.updateFeedbackResponseForChangingSection(enrollment, response);
+            
+            Map<String, FeedbackResponseAttributes> responses = new LinkedHashMap<String, FeedbackResponseAttributes>();
+            for (FeedbackResponseAttributes response
+                    : frLogic.getFeedbackResponsesFromGiverForCourse(enrollment.course, enrollment.email)) {
+                responses.put(response.getId(), response);
+            }
+            for (FeedbackResponseAttributes response
+                    : frLogic.getFeedbackResponsesForReceiverForCourse(enrollment.course, enrollment.email)) {
+                responses.put(response.getId(), response);
+            }
+            
+            for (FeedbackResponseAttributes response : responses.values()) {
+                if (!deletedResponseIds.contains(response.getId())
+                        && adjustFeedbackResponseForEnrollment(enrollment, response)) {
+                    deletedResponseIds.add(response.getId());
+                }
             }
         }
     }
     
+    /**
+     * @return true if the response is deleted
+     */
+    private boolean adjustFeedbackResponseForEnrollment(StudentEnrollDetails enrollment,
+            FeedbackResponseAttributes response) throws InvalidParametersException, EntityDoesNotExistException {
+        if (enrollment.updateStatus != UpdateStatus.MODIFIED) {
+            return false;
+        }
+
+        boolean isResponseDeleted = false;
+        if (isTeamChanged(enrollment.oldTeam, enrollment.newTeam)) {
+            isResponseDeleted = frLogic.updateFeedbackResponseForChangingTeam(enrollment, response);
+        }
+    
+        if (!isResponseDeleted && isSectionChanged(enrollment.oldSection, enrollment.newSection)) {
+            frLogic.updateFeedbackResponseForChangingSection(enrollment, response);
+        }
+        return isResponseDeleted;
+    }
+    
+    private boolean isSubmissionAdjustmentNeeded(StudentEnrollDetails enrollment) {
+        return enrollment.updateStatus == UpdateStatus.MODIFIED
+               && (isTeamChanged(enrollment.oldTeam, enrollment.newTeam)
+                   || isSectionChanged(enrollment.oldSection, enrollment.newSection));
+    }
+    
     public void putDocument(StudentAttributes student) {
         studentsDb.putDocument(student);
     }
     
-    private StudentEnrollDetails enrollStudent(StudentAttributes validStudentAttributes, Boolean hasDocument)
-            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
-        StudentAttributes originalStudentAttributes = getStudentForEmail(
-                validStudentAttributes.course, validStudentAttributes.email);
-        
+    /**
+     * Compares a student in the enroll lines with the existing record of the student, without writing anything.
+     * @param originalStudentAttributes null if the student is not in the course yet
+     */
+    private StudentEnrollDetails getEnrollmentDetails(StudentAttributes validStudentAttributes,
+                                                      StudentAttributes originalStudentAttributes) {
         StudentEnrollDetails enrollmentDetails = new StudentEnrollDetails();
         enrollmentDetails.course = validStudentAttributes.course;
         enrollmentDetails.email = validStudentAttributes.email;
@@ -689,8 +790,6 @@ public class StudentsLogic {
         if (validStudentAttributes.isEnrollInfoSameAs(originalStudentAttributes)) {
             enrollmentDetails.updateStatus = UpdateStatus.UNMODIFIED;
         } else if (isModifyingExistingStudent) {
-            updateStudentCascadeWithSubmissionAdjustmentScheduled(originalStudentAttributes.email,
-                                                                  validStudentAttributes, true);
             enrollmentDetails.updateStatus = UpdateStatus.MODIFIED;
             
             if (!originalStudentAttributes.team.equals(validStudentAttributes.team)) {
@@ -700,7 +799,6 @@ public class StudentsLogic {
                 enrollmentDetails.oldSection = originalStudentAttributes.section;
             }
         } else {
-            createStudentCascade(validStudentAttributes, hasDocument);
             enrollmentDetails.updateStatus = UpdateStatus.NEW;
         }
 
@@ -4,6 +4,7 @@ import java.util.Map;
 
 import com.google.appengine.api.taskqueue.Queue;
 import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.TaskAlreadyExistsException;
 import com.google.appengine.api.taskqueue.TaskOptions;
 
 /**
@@ -68,4 +69,30 @@ public class TaskQueuesLogic {
         
         requiredQueue.add(taskToBeAdded);
     }
+    
+    /**
+     * Adds a deferred task named {@code taskName}, unless a task of that name has already been added
+     * to the queue. Names of tasks which have run stay taken for a while, so they should not be reused.
+     * @return false if a task of that name has already been added
+     */
+    public boolean createAndAddNamedDeferredTask(String queueName, String taskName,
+            String workerUrl, Map<String, String> paramMap, long countdownTime) {
+        Queue requiredQueue = QueueFactory.getQueue(queueName);
+        TaskOptions taskToBeAdded = TaskOptions.Builder.withUrl(workerUrl).taskName(taskName);
+        taskToBeAdded.countdownMillis(countdownTime);
+        
+        for (Map.Entry<String, String> entry : paramMap.entrySet()) {
+            String name = entry.getKey();
+            String value = entry.getValue();
+            
+            taskToBeAdded = taskToBeAdded.param(name, value);
+        }
+        
+        try {
+            requiredQueue.add(taskToBeAdded);
+            return true;
+        } catch (TaskAlreadyExistsException e) {
+            return false;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package teammates.logic.core;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import teammates.common.util.Const;
@@ -44,53 +45,50 @@ public class TeamEvalResult {
          * other methods are set as public for the ease of testing.
          */
 
-        log.fine("==================\n" + "starting result calculation for\n"
-                + pointsToString(submissionValues));
+        // the intermediate values are only formatted if they are logged, as results are computed for every team
+        boolean isLoggingDetails = log.isLoggable(Level.FINE);
+        if (isLoggingDetails) {
+            log.fine("==================\n" + "starting result calculation for\n"
+                    + pointsToString(submissionValues));
+        }
 
         claimed = submissionValues;
 
         normalizedClaimed = normalizeValues(claimed);
 
         int[][] claimedSanitized = sanitizeInput(submissionValues);
-        log.fine("claimed values sanitized :\n"
-                + pointsToString(claimedSanitized));
-
         double[][] claimedSanitizedNormalized = normalizeValues(intToDouble(claimedSanitized));
-        log.fine("claimed values sanitized and normalized :\n"
-                + pointsToString(claimedSanitizedNormalized));
-
         double[][] peerContributionRatioAsDouble = calculatePeerContributionRatio(claimedSanitizedNormalized);
-        log.fine("peerContributionRatio as double :\n"
-                + pointsToString(peerContributionRatioAsDouble));
-
         double[] averagePerceivedAsDouble = averageColumns(peerContributionRatioAsDouble);
-        log.fine("averagePerceived as double:\n"
-                + replaceMagicNumbers(Arrays.toString(averagePerceivedAsDouble)));
-
         double[] normalizedAveragePerceivedAsDouble = normalizeValues(averagePerceivedAsDouble);
-        log.fine("normalizedAveragePerceivedAsDouble as double:\n"
-                + replaceMagicNumbers(Arrays
-                        .toString(normalizedAveragePerceivedAsDouble)));
-
         double[][] normalizedPeerContributionRatioAsDouble =
                 adjustPeerContributionRatioToTallyNormalizedAveragePerceived(peerContributionRatioAsDouble);
-        log.fine("normalizedPeerContributionRatio as double :\n"
-                + pointsToString(peerContributionRatioAsDouble));
-
         normalizedPeerContributionRatio = doubleToInt(normalizedPeerContributionRatioAsDouble);
-        log.fine("normalizedUnbiasedClaimed as int :\n"
-                + pointsToString(normalizedPeerContributionRatio));
-
         denormalizedAveragePerceived = calculatePerceivedForStudents(
                 claimedSanitized, normalizedAveragePerceivedAsDouble);
-        log.fine("perceived to students :\n"
-                + pointsToString(denormalizedAveragePerceived));
-
         normalizedAveragePerceived = doubleToInt(normalizedAveragePerceivedAsDouble);
 
-        log.fine("Final result:\n" + this.toString());
-
-        log.fine("==================");
+        if (isLoggingDetails) {
+            log.fine("claimed values sanitized :\n"
+                    + pointsToString(claimedSanitized));
+            log.fine("claimed values sanitized and normalized :\n"
+                    + pointsToString(claimedSanitizedNormalized));
+            log.fine("peerContributionRatio as double :\n"
+                    + pointsToString(peerContributionRatioAsDouble));
+            log.fine("averagePerceived as double:\n"
+                    + replaceMagicNumbers(Arrays.toString(averagePerceivedAsDouble)));
+            log.fine("normalizedAveragePerceivedAsDouble as double:\n"
+                    + replaceMagicNumbers(Arrays
+                            .toString(normalizedAveragePerceivedAsDouble)));
+            log.fine("normalizedPeerContributionRatio as double :\n"
+                    + pointsToString(peerContributionRatioAsDouble));
+            log.fine("normalizedUnbiasedClaimed as int :\n"
+                    + pointsToString(normalizedPeerContributionRatio));
+            log.fine("perceived to students :\n"
+                    + pointsToString(denormalizedAveragePerceived));
+            log.fine("Final result:\n" + this.toString());
+            log.fine("==================");
+        }
     }
 
     /**
@@ -146,7 +144,9 @@ public class TeamEvalResult {
     public static int[] calculatePerceivedForStudent(int[] claimedSanitizedRow,
             double[] normalizedAveragePerceivedAsDouble) {
 
-        verify("Unsanitized value received ", isSanitized(claimedSanitizedRow));
+        if (!isSanitized(claimedSanitizedRow)) {
+            fail("Unsanitized value received ");
+        }
 
         // remove from each array values matching special values in the other
         double[] filteredPerceived = purgeValuesCorrespondingToSpecialValuesInFilter(
@@ -227,8 +227,9 @@ public class TeamEvalResult {
             return 0;
         }
 
-        verify("Unsanitized value in " + Arrays.toString(input),
-                isSanitized(doubleToInt(input)));
+        if (!isSanitized(doubleToInt(input))) {
+            fail("Unsanitized value in " + Arrays.toString(input));
+        }
 
         double sum = NA;
         for (int i = 0; i < input.length; i++) {
@@ -293,7 +294,9 @@ public class TeamEvalResult {
     
         double idealSum = count * 100.0;
         double factor = actualSum == 0 ? 0 : idealSum / actualSum;
-        log.fine("Factor = " + idealSum + "/" + actualSum + " = " + factor);
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Factor = " + idealSum + "/" + actualSum + " = " + factor);
+        }
         return factor;
     }
 
@@ -334,23 +337,24 @@ public class TeamEvalResult {
         double[] output = new double[input.length];
 
         for (int i = 0; i < input.length; i++) {
-            verify("Unsanitized value in " + Arrays.toString(input[i]),
-                    isSanitized(doubleToInt(input[i])));
+            if (!isSanitized(doubleToInt(input[i]))) {
+                fail("Unsanitized value in " + Arrays.toString(input[i]));
+            }
             output[i] = averageColumn(input, i);
         }
-        log.fine("Column averages: "
-                + replaceMagicNumbers(Arrays.toString(output)));
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Column averages: "
+                    + replaceMagicNumbers(Arrays.toString(output)));
+        }
         return output;
     }
 
     private static double averageColumn(double[][] array, int columnIndex) {
         double sum = 0;
         int count = 0;
-        StringBuilder values = new StringBuilder();
         for (int j = 0; j < array.length; j++) {
             double value = array[j][columnIndex];
 
-            values.append(value).append(' ');
             if (value == NA) {
                 continue;
             }
@@ -360,8 +364,14 @@ public class TeamEvalResult {
         // omit calculation if no data points
         double average = count == 0 ? NA : (double) (sum / count);
 
-        String logMessage = "Average(" + values.toString().trim() + ") = " + average;
-        log.fine(replaceMagicNumbers(logMessage));
+        if (log.isLoggable(Level.FINE)) {
+            StringBuilder values = new StringBuilder();
+            for (double[] row : array) {
+                values.append(row[columnIndex]).append(' ');
+            }
+            String logMessage = "Average(" + values.toString().trim() + ") = " + average;
+            log.fine(replaceMagicNumbers(logMessage));
+        }
 
         return average;
     }
@@ -442,12 +452,11 @@ public class TeamEvalResult {
         return sb.toString();
     }
 
-    private static void verify(String message, boolean condition) {
-        // TODO: replace with Assumption.assert*
-        if (!condition) {
-            throw new RuntimeException("Internal assertion failuer : "
-                    + message);
-        }
+    // the message is only built on failure, as the checks are made for every team
+    private static void fail(String message) {
+        // TODO: replace with Assumption.fail
+        throw new RuntimeException("Internal assertion failuer : "
+                + message);
     }
 
 }
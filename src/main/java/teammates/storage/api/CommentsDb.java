@@ -14,6 +14,7 @@ import teammates.common.datatransfer.CommentParticipantType;
 import teammates.common.datatransfer.CommentSearchResultBundle;
 import teammates.common.datatransfer.CommentSendingState;
 import teammates.common.datatransfer.CommentStatus;
+import teammates.common.datatransfer.EntitiesPage;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
@@ -498,6 +499,34 @@ public class CommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.COMMENT, new CommentSearchDocument(comment));
     }
     
+    /**
+     * Gets one page of all the comments in the system, e.g. to rebuild their search index.
+     * @param cursor    null to get the first page, otherwise the cursor returned with the previous page
+     */
+    public EntitiesPage<CommentAttributes> getCommentsPage(String cursor, int pageSize) {
+        Query q = getPm().newQuery(Comment.class);
+        List<?> page = executeForPage(q, cursor, pageSize);
+        List<CommentAttributes> attributesList = new ArrayList<CommentAttributes>();
+        for (Object entity : page) {
+            if (!JDOHelper.isDeleted(entity)) {
+                attributesList.add(new CommentAttributes((Comment) entity));
+            }
+        }
+        return new EntitiesPage<CommentAttributes>(attributesList, getNextPageCursor(page, pageSize));
+    }
+    
+    /*
+     * Create or update search documents for the given comments, in as few calls to the search service as possible.
+     * Returns the number of documents processed, see {@link EntitiesDb#putDocuments(String, List)}.
+     */
+    public int putDocuments(Collection<CommentAttributes> comments) {
+        List<CommentSearchDocument> documents = new ArrayList<CommentSearchDocument>();
+        for (CommentAttributes comment : comments) {
+            documents.add(new CommentSearchDocument(comment));
+        }
+        return putDocuments(Const.SearchIndex.COMMENT, documents);
+    }
+    
     /**
      * Search for comments
      * @return {@link CommentSearchResultBundle}
@@ -52,7 +52,7 @@ public class CoursesDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        Course c = getCourseEntity(courseId);
+        Course c = (Course) includeRecentWrites(new CourseAttributes(courseId, null), getCourseEntity(courseId));
 
         if (c == null) {
             return null;
@@ -2,27 +2,40 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 
+import javax.jdo.JDOCanRetryException;
+import javax.jdo.JDOException;
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+import javax.jdo.Transaction;
+
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
 
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
-import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.GoogleCloudStorageHelper;
-import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
 import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.DatastoreCache;
+import teammates.storage.datastore.QueryRecordingPersistenceManager;
+import teammates.storage.datastore.RecentWrites;
 import teammates.storage.search.SearchDocument;
 import teammates.storage.search.SearchManager;
 import teammates.storage.search.SearchQuery;
 
 import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchQueryException;
@@ -44,6 +57,18 @@ public abstract class EntitiesDb {
     public static final String ERROR_TRYING_TO_MAKE_NON_EXISTENT_ACCOUNT_AN_INSTRUCTOR =
             "Trying to make an non-existent account an Instructor :";
 
+    /** Number of entities written to the Datastore in one operation by {@link #createEntities}. */
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 100;
+    
+    /** Maximum number of values the Datastore accepts in a single {@code contains} (IN) query filter. */
+    protected static final int MAX_VALUES_PER_CONTAINS_QUERY = 30;
+    
+    /** Maximum number of keys the Datastore accepts in a single batch get. */
+    protected static final int MAX_KEYS_PER_BATCH_GET = 1000;
+    
+    /** Number of times {@link #updateInTransaction} attempts an update which conflicts with a concurrent one. */
+    private static final int MAX_TRANSACTION_ATTEMPTS = 3;
+    
     protected static final Logger log = Utils.getLogger();
     
     /**
@@ -64,7 +89,7 @@ public abstract class EntitiesDb {
         
         // TODO: Do we really need special identifiers? Can just use ToString()?
         // Answer: Yes. We can use toString.
-        Object existingEntity = getEntity(entityToAdd);
+        Object existingEntity = getEntityIncludingRecentWrites(entityToAdd);
         if (existingEntity != null) {
             String error = String.format(ERROR_CREATE_ENTITY_ALREADY_EXISTS, entityToAdd.getEntityTypeAsString())
                     + entityToAdd.getIdentificationString();
@@ -75,26 +100,8 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPm().makePersistent(entity);
         getPm().flush();
-
-        // Wait for the operation to persist
-        int elapsedTime = 0;
-        Object createdEntity = getEntity(entityToAdd);
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            while (createdEntity == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                createdEntity = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (createdEntity == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                        + entityToAdd.getEntityTypeAsString() + "->"
-                        + entityToAdd.getIdentificationString());
-            }
-        }
+        invalidateCachedEntities(entityToAdd);
+        recordCreation(entityToAdd, entity);
         
         log.info(entityToAdd.getBackupIdentifier());
         
@@ -103,44 +110,55 @@ public abstract class EntitiesDb {
     
     public List<EntityAttributes> createEntities(Collection<? extends EntityAttributes> entitiesToAdd)
             throws InvalidParametersException {
-        
-        Assumption.assertNotNull(
-                Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
+        return createEntities(entitiesToAdd, DEFAULT_WRITE_BATCH_SIZE);
+    }
+    
+    /**
+     * Creates the entities in {@code entitiesToAdd} which do not exist yet. The existence of
+     * all the entities is checked with {@link #getIdentificationStringsOfExistingEntities} before
+     * anything is written, and the new entities are written {@code writeBatchSize} at a time.
+     * <br> Preconditions:
+     * <br> * {@code entitiesToAdd} is not null and {@code writeBatchSize} is positive.
+     * @return the entities which already exist and were therefore not created,
+     *         for the caller to update them
+     */
+    public List<EntityAttributes> createEntities(Collection<? extends EntityAttributes> entitiesToAdd,
+                                                 int writeBatchSize)
+            throws InvalidParametersException {
         
         List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
-        List<Object> entities = new ArrayList<Object>();
+        createNewEntities(entitiesToAdd, writeBatchSize, entitiesToUpdate);
         
-        for (EntityAttributes entityToAdd : entitiesToAdd) {
-            entityToAdd.sanitizeForSaving();
-            
-            if (!entityToAdd.isValid()) {
-                throw new InvalidParametersException(entityToAdd.getInvalidityInfo());
-            }
-            
-            if (getEntity(entityToAdd) == null) {
-                entities.add(entityToAdd.toEntity());
-            } else {
-                entitiesToUpdate.add(entityToAdd);
-            }
-            
-            log.info(entityToAdd.getBackupIdentifier());
-        }
-       
-        getPm().makePersistentAll(entities);
-        getPm().flush();
- 
         return entitiesToUpdate;
-
     }
     
     public List<Object> createAndReturnEntities(Collection<? extends EntityAttributes> entitiesToAdd)
             throws InvalidParametersException {
+        return createNewEntities(entitiesToAdd, DEFAULT_WRITE_BATCH_SIZE, new ArrayList<EntityAttributes>());
+    }
+    
+    /**
+     * @param existingEntities the entities which already exist, and were therefore not created,
+     *                         are added to this list
+     * @return the entities created
+     */
+    protected List<Object> createAndReturnEntities(Collection<? extends EntityAttributes> entitiesToAdd,
+                                                   List<EntityAttributes> existingEntities)
+            throws InvalidParametersException {
+        return createNewEntities(entitiesToAdd, DEFAULT_WRITE_BATCH_SIZE, existingEntities);
+    }
+    
+    /**
+     * @param entitiesToUpdate the entities which already exist are added to this list
+     * @return the entities created
+     */
+    private List<Object> createNewEntities(Collection<? extends EntityAttributes> entitiesToAdd, int writeBatchSize,
+                                           List<EntityAttributes> entitiesToUpdate)
+            throws InvalidParametersException {
         
         Assumption.assertNotNull(
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
-        
-        List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
-        List<Object> entities = new ArrayList<Object>();
+        Assumption.assertTrue(writeBatchSize > 0);
         
         for (EntityAttributes entityToAdd : entitiesToAdd) {
             entityToAdd.sanitizeForSaving();
@@ -148,23 +166,38 @@ public abstract class EntitiesDb {
             if (!entityToAdd.isValid()) {
                 throw new InvalidParametersException(entityToAdd.getInvalidityInfo());
             }
-            
-            if (getEntity(entityToAdd) == null) {
-                entities.add(entityToAdd.toEntity());
-            } else {
+        }
+        
+        Set<String> existingEntities = getIdentificationStringsOfExistingEntities(entitiesToAdd);
+        List<EntityAttributes> entitiesCreated = new ArrayList<EntityAttributes>();
+        List<Object> entities = new ArrayList<Object>();
+        
+        for (EntityAttributes entityToAdd : entitiesToAdd) {
+            if (existingEntities.contains(entityToAdd.getIdentificationString())) {
                 entitiesToUpdate.add(entityToAdd);
+            } else {
+                entitiesCreated.add(entityToAdd);
+                entities.add(entityToAdd.toEntity());
             }
             
             log.info(entityToAdd.getBackupIdentifier());
         }
         
-        getPm().makePersistentAll(entities);
-        getPm().flush();
- 
+        for (int i = 0; i < entities.size(); i += writeBatchSize) {
+            getPm().makePersistentAll(entities.subList(i, Math.min(i + writeBatchSize, entities.size())));
+            getPm().flush();
+        }
+        
+        for (EntityAttributes entityToAdd : entitiesToAdd) {
+            invalidateCachedEntities(entityToAdd);
+        }
+        
+        for (int i = 0; i < entities.size(); i++) {
+            recordCreation(entitiesCreated.get(i), entities.get(i));
+        }
+        
         return entities;
-
     }
-
     
     /**
      * Warning: Do not use this method unless a previous update might cause
@@ -186,26 +219,9 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPm().makePersistent(entity);
         getPm().flush();
-
-        // Wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToAdd);
-            while (entityCheck == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (entityCheck == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                         + entityToAdd.getEntityTypeAsString() + "->"
-                         + entityToAdd.getIdentificationString());
-            }
-        }
+        invalidateCachedEntities(entityToAdd);
+        recordCreation(entityToAdd, entity);
+        
         log.info(entityToAdd.getBackupIdentifier());
         
         return entity;
@@ -221,7 +237,7 @@ public abstract class EntitiesDb {
     public void deleteEntity(EntityAttributes entityToDelete) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entityToDelete);
 
-        Object entity = getEntity(entityToDelete);
+        Object entity = getEntityIncludingRecentWrites(entityToDelete);
 
         if (entity == null) {
             return;
@@ -229,29 +245,9 @@ public abstract class EntitiesDb {
 
         getPm().deletePersistent(entity);
         getPm().flush();
+        invalidateCachedEntities(entityToDelete);
+        recordDeletion(entityToDelete);
         
-        // wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToDelete);
-            boolean isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-            while (!isEntityDeleted
-                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToDelete);
-                
-                isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-                //check before incrementing to avoid boundary case problem
-                if (!isEntityDeleted) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: delete"
-                        + entityToDelete.getEntityTypeAsString() + "->"
-                        + entityToDelete.getIdentificationString());
-            }
-        }
         log.info(entityToDelete.getBackupIdentifier());
     }
     
@@ -265,10 +261,15 @@ public abstract class EntitiesDb {
                 entities.add(entity);
                 log.info(entityToDelete.getBackupIdentifier());
             }
+            RecentWrites.recordDeletion(getRecentWritesKey(entityToDelete));
         }
         
         getPm().deletePersistentAll(entities);
         getPm().flush();
+        
+        for (EntityAttributes entityToDelete : entitiesToDelete) {
+            invalidateCachedEntities(entityToDelete);
+        }
     }
     
     public void commitOutstandingChanges() {
@@ -294,10 +295,311 @@ public abstract class EntitiesDb {
      */
     protected abstract Object getEntity(EntityAttributes attributes);
     
+    /**
+     * Checks which of the given entities already exist in the Datastore.<br>
+     * By default, the entities are looked up one by one with {@link #getEntity}.
+     * Subclasses should override this method to look them up in as few Datastore
+     * operations as possible when many entities can be created at once.
+     * @return    the identification strings (see {@link EntityAttributes#getIdentificationString()})
+     *             of the entities in {@code attributesList} which already exist
+     */
+    protected Set<String> getIdentificationStringsOfExistingEntities(
+            Collection<? extends EntityAttributes> attributesList) {
+        Set<String> existingEntities = new HashSet<String>();
+        for (EntityAttributes attributes : attributesList) {
+            if (getEntity(attributes) != null) {
+                existingEntities.add(attributes.getIdentificationString());
+            }
+        }
+        return existingEntities;
+    }
+    
+    /**
+     * Splits {@code values} into lists of at most {@link #MAX_VALUES_PER_CONTAINS_QUERY} values,
+     * so that each list can be used as the parameter of a {@code :p.contains(field)} query.
+     */
+    protected static <T> List<List<T>> splitForContainsQuery(Collection<T> values) {
+        List<T> valueList = new ArrayList<T>(values);
+        List<List<T>> batches = new ArrayList<List<T>>();
+        for (int i = 0; i < valueList.size(); i += MAX_VALUES_PER_CONTAINS_QUERY) {
+            batches.add(valueList.subList(i, Math.min(i + MAX_VALUES_PER_CONTAINS_QUERY, valueList.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * Gets the entities with the given primary keys with a batch get which, unlike a query,
+     * sees all the writes committed before it. The entities which do not exist are left out.
+     */
+    protected <T> List<T> getEntitiesById(Class<T> entityClass, Collection<String> ids) {
+        List<String> idList = new ArrayList<String>(ids);
+        List<T> entities = new ArrayList<T>();
+        for (int i = 0; i < idList.size(); i += MAX_KEYS_PER_BATCH_GET) {
+            entities.addAll(getEntitiesByIdInBatch(
+                    entityClass, idList.subList(i, Math.min(i + MAX_KEYS_PER_BATCH_GET, idList.size()))));
+        }
+        return entities;
+    }
+
+    private <T> List<T> getEntitiesByIdInBatch(Class<T> entityClass, List<String> ids) {
+        PersistenceManager pm = getPm();
+        List<Object> oids = new ArrayList<Object>();
+        for (String id : ids) {
+            oids.add(pm.newObjectIdInstance(entityClass, id));
+        }
+
+        while (!oids.isEmpty()) {
+            try {
+                List<T> entities = new ArrayList<T>();
+                for (Object entity : pm.getObjectsById(oids)) {
+                    if (!JDOHelper.isDeleted(entity)) {
+                        entities.add(entityClass.cast(entity));
+                    }
+                }
+                return entities;
+            } catch (JDOObjectNotFoundException e) {
+                // retry the batch without the entities reported as missing
+                int numOids = oids.size();
+                oids.remove(e.getFailedObject());
+                if (e.getNestedExceptions() != null) {
+                    for (Throwable nested : e.getNestedExceptions()) {
+                        if (nested instanceof JDOException) {
+                            oids.remove(((JDOException) nested).getFailedObject());
+                        }
+                    }
+                }
+                if (oids.size() == numOids) {
+                    return getEntitiesByIdIndividually(entityClass, ids);
+                }
+            }
+        }
+        return new ArrayList<T>();
+    }
+
+    private <T> List<T> getEntitiesByIdIndividually(Class<T> entityClass, Collection<String> ids) {
+        List<T> entities = new ArrayList<T>();
+        for (String id : ids) {
+            try {
+                T entity = getPm().getObjectById(entityClass, id);
+                if (!JDOHelper.isDeleted(entity)) {
+                    entities.add(entity);
+                }
+            } catch (JDOObjectNotFoundException e) {
+                // the entity does not exist
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Executes {@code q} to get at most {@code pageSize} results, starting from where the page
+     * which returned {@code cursor} ended. Use {@link #getNextPageCursor} to get the cursor
+     * of the returned page.
+     * @param cursor    null to start from the first result
+     */
+    protected static List<?> executeForPage(Query q, String cursor, int pageSize, Object... parameters) {
+        Assumption.assertTrue("Page size must be positive", pageSize > 0);
+        if (cursor != null) {
+            q.addExtension(JDOCursorHelper.CURSOR_EXTENSION, Cursor.fromWebSafeString(cursor));
+        }
+        q.setRange(0, pageSize);
+        return (List<?>) q.executeWithArray(parameters);
+    }
+
+    /**
+     * @return the cursor to get the page after {@code page}, which was returned by {@link #executeForPage},
+     *         or null if {@code page} was not full, i.e. there are no more results
+     */
+    protected static String getNextPageCursor(List<?> page, int pageSize) {
+        if (page.size() < pageSize) {
+            return null;
+        }
+        return JDOCursorHelper.getCursor(page).toWebSafeString();
+    }
+
+    /**
+     * Applies {@code update} to the entity with the given primary key in a transaction,
+     * retrying a few times if the transaction conflicts with a concurrent one.
+     * @return    false if the update kept conflicting and was not applied
+     */
+    protected <T> boolean updateInTransaction(Class<T> entityClass, String id, TransactionalUpdate<T> update) {
+        PersistenceManager pm = getPm();
+
+        for (int attempt = 1; attempt <= MAX_TRANSACTION_ATTEMPTS; attempt++) {
+            Transaction tx = pm.currentTransaction();
+            try {
+                tx.begin();
+                T entity = getEntityInTransaction(pm, entityClass, id);
+                T updatedEntity = update.apply(entity);
+                if (entity == null && updatedEntity != null) {
+                    pm.makePersistent(updatedEntity);
+                }
+                tx.commit();
+                return true;
+            } catch (JDOCanRetryException e) {
+                log.info("Conflict while updating " + entityClass.getSimpleName() + " " + id + ", attempt " + attempt);
+            } finally {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+            }
+        }
+
+        log.warning("Unable to update " + entityClass.getSimpleName() + " " + id);
+        return false;
+    }
+
+    private static <T> T getEntityInTransaction(PersistenceManager pm, Class<T> entityClass, String id) {
+        try {
+            T entity = pm.getObjectById(entityClass, id);
+            if (JDOHelper.isDeleted(entity)) {
+                return null;
+            }
+            // the instance may come from the cache of the persistence manager, which would
+            // prevent the transaction from detecting a concurrent update
+            pm.refresh(entity);
+            return entity;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * An update of a single entity, applied within a transaction by {@link EntitiesDb#updateInTransaction}.
+     */
+    protected interface TransactionalUpdate<T> {
+        /**
+         * @param entity    the entity in the Datastore, or null if there is none
+         * @return    the entity to create if {@code entity} is null, or null to leave it absent
+         */
+        T apply(T entity);
+    }
+
+    /**
+     * Looks up the entity with {@link #getEntity}, taking into account the writes made
+     * by the current request which may not be visible in the Datastore yet.
+     * @return    the entity, or null if it does not exist or was deleted by the current request
+     */
+    protected Object getEntityIncludingRecentWrites(EntityAttributes attributes) {
+        String key = getRecentWritesKey(attributes);
+        if (RecentWrites.isDeleted(key)) {
+            RecentWrites.recordHit();
+            return null;
+        }
+        
+        return includeRecentWrites(key, getEntity(attributes));
+    }
+    
+    /**
+     * Takes into account the writes made by the current request, which may not be visible in the Datastore yet,
+     * in {@code entityRead}, the entity identified by {@code attributes} as read from the Datastore.
+     * Lookups which are not by key should go through this method, as they may not see the entities
+     * written just before.
+     * @param attributes    only needs the fields used by {@link EntityAttributes#getIdentificationString}
+     * @return    the entity, or null if it does not exist or was deleted by the current request
+     */
+    protected Object includeRecentWrites(EntityAttributes attributes, Object entityRead) {
+        String key = getRecentWritesKey(attributes);
+        if (RecentWrites.isDeleted(key)) {
+            RecentWrites.recordHit();
+            return null;
+        }
+        return includeRecentWrites(key, entityRead);
+    }
+    
+    private Object includeRecentWrites(String key, Object entityRead) {
+        if (entityRead != null) {
+            return entityRead;
+        }
+        
+        // an entity written with a persistence manager which has since been closed
+        // may have been deleted by a query without this request knowing it
+        Object writtenEntity = RecentWrites.getWrittenEntity(key);
+        if (writtenEntity == null
+                || JDOHelper.getPersistenceManager(writtenEntity) != QueryRecordingPersistenceManager.unwrap(getPm())
+                || JDOHelper.isDeleted(writtenEntity)) {
+            return null;
+        }
+        RecentWrites.recordHit();
+        return writtenEntity;
+    }
+    
+    /**
+     * Records {@code entity}, which was just created from {@code attributes}, as a write
+     * of the current request instead of waiting for it to be visible in the Datastore.
+     */
+    private void recordCreation(EntityAttributes attributes, Object entity) {
+        boolean isToBeChecked = RecentWrites.recordWrite(getRecentWritesKey(attributes), entity);
+        if (isToBeChecked) {
+            boolean isWriteVisible = getEntity(attributes) != null;
+            RecentWrites.recordConsistencyCheck(isWriteVisible);
+            if (!isWriteVisible) {
+                log.info("Operation not persisted yet: create"
+                         + attributes.getEntityTypeAsString() + "->"
+                         + attributes.getIdentificationString());
+            }
+        }
+    }
+    
+    /**
+     * Records the entity represented by {@code attributes}, which was just deleted,
+     * as a write of the current request instead of waiting for the deletion to be visible in the Datastore.
+     */
+    private void recordDeletion(EntityAttributes attributes) {
+        boolean isToBeChecked = RecentWrites.recordDeletion(getRecentWritesKey(attributes));
+        if (isToBeChecked) {
+            Object entityCheck = getEntity(attributes);
+            boolean isWriteVisible = entityCheck == null || JDOHelper.isDeleted(entityCheck);
+            RecentWrites.recordConsistencyCheck(isWriteVisible);
+            if (!isWriteVisible) {
+                log.info("Operation not persisted yet: delete"
+                         + attributes.getEntityTypeAsString() + "->"
+                         + attributes.getIdentificationString());
+            }
+        }
+    }
+    
+    private static String getRecentWritesKey(EntityAttributes attributes) {
+        return attributes.getEntityTypeAsString() + "|" + attributes.getIdentificationString();
+    }
+    
     protected PersistenceManager getPm() {
         return Datastore.getPersistenceManager();
     }
     
+    /**
+     * Invalidates all cached reads that may be affected by a write to the entity
+     * represented by {@code attributes}. Subclasses which cache their reads
+     * through {@link #putInCache} must override this method.
+     */
+    protected void invalidateCachedEntities(EntityAttributes attributes) {
+        // nothing is cached by default
+    }
+    
+    //the followings APIs are used for caching of datastore reads, see DatastoreCache
+    protected Object getFromCache(String cacheKey) {
+        return DatastoreCache.get(cacheKey);
+    }
+    
+    /**
+     * @return the version to be passed to {@link #putInCache} for a value read after this call.
+     */
+    protected long getCacheVersion() {
+        return DatastoreCache.getVersion();
+    }
+    
+    /**
+     * Note: the cached value is shared by later reads, so it must not be
+     * handed out to the callers without copying.
+     */
+    protected void putInCache(String cacheKey, Object value, long versionAtRead) {
+        DatastoreCache.put(cacheKey, value, versionAtRead);
+    }
+    
+    protected void invalidateCache(String cacheKeyPrefix) {
+        DatastoreCache.invalidate(cacheKeyPrefix);
+    }
+    
     //the followings APIs are used by Teammates' search engine
     protected void putDocument(String indexName, SearchDocument document) {
         try {
@@ -307,6 +609,31 @@ public abstract class EntitiesDb {
         }
     }
     
+    /**
+     * Puts the search documents which can be built. A document which fails to build, e.g. because
+     * an entity it refers to has been deleted, is skipped and logged, without affecting the other documents.
+     * Such a document cannot be put by trying again, so it is counted as processed.
+     * @return the number of documents processed, i.e. put successfully or skipped because they
+     *         could not be built. It is less than the number of documents only if the search service
+     *         failed to put some of them.
+     */
+    protected int putDocuments(String indexName, List<? extends SearchDocument> documents) {
+        List<Document> builtDocuments = new ArrayList<Document>();
+        for (SearchDocument document : documents) {
+            try {
+                builtDocuments.add(document.build());
+            } catch (Exception e) {
+                log.severe("Failed to build searchable document in " + indexName + " for " + document.toString()
+                           + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+            }
+        }
+        int unbuildableCount = documents.size() - builtDocuments.size();
+        if (builtDocuments.isEmpty()) {
+            return unbuildableCount;
+        }
+        return unbuildableCount + SearchManager.putDocuments(indexName, builtDocuments);
+    }
+    
     protected void getDocument(String indexName, String documentId) {
         SearchManager.getDocument(indexName, documentId);
     }
@@ -0,0 +1,314 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackQuestionResultStatisticsAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.IncrementalFeedbackQuestionStatistics;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.entity.FeedbackQuestionResultStatistics;
+
+/**
+ * Handles CRUD Operations for the stored statistics of the responses to feedback questions.
+ * The API uses data transfer classes (i.e. *Attributes) instead of presistable classes.
+ */
+public class FeedbackQuestionResultStatisticsDb extends EntitiesDb {
+
+    /**
+     * How long responses may take to appear in queries. Statistics computed from all the responses
+     * are only stored if no response to the question changed within this time before the responses
+     * were read, as the computation may have missed such a response.
+     */
+    public static final long RECOMPUTATION_QUIET_PERIOD_MILLIS = 60 * 1000;
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Null if the statistics of the question are not stored. The statistics
+     *         may also be stored as unknown, see {@link FeedbackQuestionResultStatisticsAttributes#isStatisticsKnown}.
+     */
+    public FeedbackQuestionResultStatisticsAttributes getFeedbackQuestionResultStatistics(String feedbackQuestionId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionId);
+
+        FeedbackQuestionResultStatistics statistics = getFeedbackQuestionResultStatisticsEntity(feedbackQuestionId);
+
+        if (statistics == null) {
+            return null;
+        }
+        return new FeedbackQuestionResultStatisticsAttributes(statistics);
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the stored statistics of the questions of the session, keyed by question ID.
+     *         Questions whose statistics are not stored are absent.
+     */
+    public Map<String, FeedbackQuestionResultStatisticsAttributes> getFeedbackQuestionResultStatisticsForSession(
+            String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Map<String, FeedbackQuestionResultStatisticsAttributes> statisticsOfQuestions =
+                new HashMap<String, FeedbackQuestionResultStatisticsAttributes>();
+        for (FeedbackQuestionResultStatistics statistics
+                : getFeedbackQuestionResultStatisticsEntitiesForSession(feedbackSessionName, courseId)) {
+            statisticsOfQuestions.put(statistics.getFeedbackQuestionId(),
+                                      new FeedbackQuestionResultStatisticsAttributes(statistics));
+        }
+        return statisticsOfQuestions;
+    }
+
+    /**
+     * Stores {@code statistics}, computed from all the responses to the question, in place of
+     * the stored statistics of the question, unless the stored statistics have been written since
+     * {@code versionAtStart} was read or a response to the question changed shortly before
+     * the responses were read.
+     * @param versionAtStart   the version of the stored statistics read before the responses,
+     *                         or null if no statistics were stored
+     * @param countStartTime   the time before the responses were read
+     * @return true if the statistics were stored
+     */
+    public boolean putFeedbackQuestionResultStatistics(final FeedbackQuestionResultStatisticsAttributes statistics,
+                                                       final Long versionAtStart, Date countStartTime)
+            throws InvalidParametersException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, statistics);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, countStartTime);
+
+        if (!statistics.isValid()) {
+            throw new InvalidParametersException(statistics.getInvalidityInfo());
+        }
+
+        final Date latestAllowedChange = new Date(countStartTime.getTime() - RECOMPUTATION_QUIET_PERIOD_MILLIS);
+        // set by the last attempt of the transaction
+        final boolean[] isPut = new boolean[1];
+        boolean isCommitted = updateInTransaction(FeedbackQuestionResultStatistics.class,
+                                                  statistics.getFeedbackQuestionId(),
+                                                  new TransactionalUpdate<FeedbackQuestionResultStatistics>() {
+            @Override
+            public FeedbackQuestionResultStatistics apply(FeedbackQuestionResultStatistics existingStatistics) {
+                isPut[0] = false;
+                if (existingStatistics == null) {
+                    if (versionAtStart != null) {
+                        // deleted since the computation started
+                        return null;
+                    }
+                    isPut[0] = true;
+                    return statistics.toEntity();
+                }
+                boolean isChangedSinceStart = versionAtStart == null
+                        || existingStatistics.getVersion() != versionAtStart
+                        || existingStatistics.getLastResponseChange() != null
+                           && existingStatistics.getLastResponseChange().after(latestAllowedChange);
+                if (isChangedSinceStart) {
+                    return existingStatistics;
+                }
+                existingStatistics.setNumOfResponses(statistics.getNumOfResponses());
+                existingStatistics.setStatistics(statistics.getStatisticsAsText());
+                existingStatistics.incrementVersion();
+                isPut[0] = true;
+                return existingStatistics;
+            }
+        });
+        log.info(statistics.getBackupIdentifier());
+        return isCommitted && isPut[0];
+    }
+
+    /**
+     * Removes {@code oldResponse} from the stored statistics of the question and adds {@code newResponse}
+     * to them in a transaction, and records the change so that concurrent recomputations of the statistics
+     * are not stored. If the statistics of the question are not stored, they are stored as unknown.
+     * @see FeedbackQuestionResultStatisticsAttributes#updateStatistics
+     * @return false if the stored statistics were known but could not be updated, in which case they
+     *         become unknown as they no longer match the responses
+     */
+    public boolean updateFeedbackQuestionResultStatistics(
+            final Class<? extends IncrementalFeedbackQuestionStatistics> statisticsClass,
+            final FeedbackResponseAttributes oldResponse, final FeedbackResponseAttributes newResponse) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, statisticsClass);
+        Assumption.assertTrue(oldResponse != null || newResponse != null);
+
+        final FeedbackResponseAttributes response = newResponse == null ? oldResponse : newResponse;
+        // set by the last attempt of the transaction
+        final boolean[] isStatisticsUpdated = new boolean[1];
+        boolean isCommitted = updateInTransaction(FeedbackQuestionResultStatistics.class, response.feedbackQuestionId,
+                                                  new TransactionalUpdate<FeedbackQuestionResultStatistics>() {
+            @Override
+            public FeedbackQuestionResultStatistics apply(FeedbackQuestionResultStatistics statistics) {
+                isStatisticsUpdated[0] = true;
+                FeedbackQuestionResultStatistics updatedStatistics = statistics == null
+                        ? createUnknownStatistics(response.feedbackQuestionId, response.feedbackSessionName,
+                                                  response.courseId)
+                        : statistics;
+                if (updatedStatistics.getStatistics() != null) {
+                    FeedbackQuestionResultStatisticsAttributes attributes =
+                            new FeedbackQuestionResultStatisticsAttributes(updatedStatistics);
+                    isStatisticsUpdated[0] = attributes.updateStatistics(statisticsClass, oldResponse, newResponse);
+                    updatedStatistics.setNumOfResponses(attributes.getNumOfResponses());
+                    updatedStatistics.setStatistics(isStatisticsUpdated[0] ? attributes.getStatisticsAsText() : null);
+                }
+                updatedStatistics.setLastResponseChange(new Date());
+                updatedStatistics.incrementVersion();
+                return updatedStatistics;
+            }
+        });
+
+        if (isCommitted) {
+            return isStatisticsUpdated[0];
+        }
+        invalidateFeedbackQuestionResultStatistics(response.feedbackQuestionId, response.feedbackSessionName,
+                                                   response.courseId);
+        return false;
+    }
+
+    /**
+     * Marks the stored statistics of the questions as unknown, e.g. after responses have been
+     * deleted in bulk or the options of the questions have changed. The statistics are not deleted,
+     * as a recomputation which read their version before the deletion would then be stored.
+     */
+    public void invalidateFeedbackQuestionResultStatistics(Collection<FeedbackQuestionAttributes> questions) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, questions);
+
+        Map<String, FeedbackQuestionAttributes> questionsById = new HashMap<String, FeedbackQuestionAttributes>();
+        for (FeedbackQuestionAttributes question : questions) {
+            questionsById.put(question.getId(), question);
+        }
+        Set<String> storedQuestionIds = new HashSet<String>();
+        for (FeedbackQuestionResultStatistics statistics
+                : getEntitiesById(FeedbackQuestionResultStatistics.class, questionsById.keySet())) {
+            markStatisticsUnknown(statistics);
+            storedQuestionIds.add(statistics.getFeedbackQuestionId());
+        }
+        for (FeedbackQuestionAttributes question : questions) {
+            if (!storedQuestionIds.contains(question.getId())) {
+                getPm().makePersistent(createUnknownStatistics(question.getId(), question.feedbackSessionName,
+                                                               question.courseId));
+            }
+        }
+        getPm().flush();
+    }
+
+    /**
+     * Marks the statistics as unknown without a transaction, so that it cannot fail because
+     * of concurrent updates.
+     */
+    private void invalidateFeedbackQuestionResultStatistics(String feedbackQuestionId, String feedbackSessionName,
+                                                            String courseId) {
+        FeedbackQuestionResultStatistics statistics = getFeedbackQuestionResultStatisticsEntity(feedbackQuestionId);
+        if (statistics == null) {
+            getPm().makePersistent(createUnknownStatistics(feedbackQuestionId, feedbackSessionName, courseId));
+        } else {
+            markStatisticsUnknown(statistics);
+        }
+        getPm().flush();
+    }
+
+    private static FeedbackQuestionResultStatistics createUnknownStatistics(
+            String feedbackQuestionId, String feedbackSessionName, String courseId) {
+        FeedbackQuestionResultStatistics statistics =
+                new FeedbackQuestionResultStatistics(feedbackQuestionId, feedbackSessionName, courseId, 0, null);
+        statistics.setLastResponseChange(new Date());
+        statistics.incrementVersion();
+        return statistics;
+    }
+
+    private static void markStatisticsUnknown(FeedbackQuestionResultStatistics statistics) {
+        statistics.setStatistics(null);
+        statistics.setLastResponseChange(new Date());
+        statistics.incrementVersion();
+    }
+
+    /**
+     * Note: This is a non-cascade delete.<br>
+     *   <br> Fails silently if there is no such object.
+     */
+    public void deleteFeedbackQuestionResultStatistics(String feedbackQuestionId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionId);
+
+        FeedbackQuestionResultStatistics statistics = getFeedbackQuestionResultStatisticsEntity(feedbackQuestionId);
+        if (statistics == null) {
+            return;
+        }
+        getPm().deletePersistent(statistics);
+        getPm().flush();
+    }
+
+    public void deleteFeedbackQuestionResultStatisticsForSession(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        getPm().deletePersistentAll(
+                getFeedbackQuestionResultStatisticsEntitiesForSession(feedbackSessionName, courseId));
+        getPm().flush();
+    }
+
+    public void deleteFeedbackQuestionResultStatisticsForCourse(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        List<String> courseIds = new ArrayList<String>();
+        courseIds.add(courseId);
+        deleteFeedbackQuestionResultStatisticsForCourses(courseIds);
+    }
+
+    public void deleteFeedbackQuestionResultStatisticsForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        getPm().deletePersistentAll(getFeedbackQuestionResultStatisticsEntitiesForCourses(courseIds));
+        getPm().flush();
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        FeedbackQuestionResultStatisticsAttributes statistics = (FeedbackQuestionResultStatisticsAttributes) attributes;
+        return getFeedbackQuestionResultStatisticsEntity(statistics.getFeedbackQuestionId());
+    }
+
+    private FeedbackQuestionResultStatistics getFeedbackQuestionResultStatisticsEntity(String feedbackQuestionId) {
+        try {
+            FeedbackQuestionResultStatistics statistics =
+                    getPm().getObjectById(FeedbackQuestionResultStatistics.class, feedbackQuestionId);
+            if (JDOHelper.isDeleted(statistics)) {
+                return null;
+            }
+            return statistics;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackQuestionResultStatistics> getFeedbackQuestionResultStatisticsEntitiesForSession(
+            String feedbackSessionName, String courseId) {
+        Query q = getPm().newQuery(FeedbackQuestionResultStatistics.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
+        return (List<FeedbackQuestionResultStatistics>) q.execute(feedbackSessionName, courseId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackQuestionResultStatistics> getFeedbackQuestionResultStatisticsEntitiesForCourses(
+            List<String> courseIds) {
+        List<FeedbackQuestionResultStatistics> statisticsList = new ArrayList<FeedbackQuestionResultStatistics>();
+        for (List<String> batch : splitForContainsQuery(courseIds)) {
+            Query q = getPm().newQuery(FeedbackQuestionResultStatistics.class);
+            q.setFilter(":p.contains(courseId)");
+            statisticsList.addAll((List<FeedbackQuestionResultStatistics>) q.execute(batch));
+        }
+        return statisticsList;
+    }
+}
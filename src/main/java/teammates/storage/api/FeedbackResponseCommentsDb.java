@@ -11,6 +11,7 @@ import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
 import teammates.common.datatransfer.CommentSendingState;
+import teammates.common.datatransfer.EntitiesPage;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentSearchResultBundle;
@@ -435,6 +436,32 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, new FeedbackResponseCommentSearchDocument(comment));
     }
     
+    /**
+     * Gets one page of all the response comments in the system, e.g. to rebuild their search index.
+     * @param cursor    null to get the first page, otherwise the cursor returned with the previous page
+     */
+    public EntitiesPage<FeedbackResponseCommentAttributes> getFeedbackResponseCommentsPage(String cursor, int pageSize) {
+        Query q = getPm().newQuery(FeedbackResponseComment.class);
+        List<?> page = executeForPage(q, cursor, pageSize);
+        List<FeedbackResponseCommentAttributes> attributesList = new ArrayList<FeedbackResponseCommentAttributes>();
+        for (Object entity : page) {
+            if (!JDOHelper.isDeleted(entity)) {
+                attributesList.add(new FeedbackResponseCommentAttributes((FeedbackResponseComment) entity));
+            }
+        }
+        return new EntitiesPage<FeedbackResponseCommentAttributes>(attributesList, getNextPageCursor(page, pageSize));
+    }
+    
+    /*
+     * Create or update search documents for the given comments, in as few calls to the search service as possible.
+     * The entities referred to by the comments are fetched together for all the comments.
+     * Returns the number of documents processed, see {@link EntitiesDb#putDocuments(String, List)}.
+     */
+    public int putDocuments(Collection<FeedbackResponseCommentAttributes> comments) {
+        return putDocuments(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT,
+                     FeedbackResponseCommentSearchDocument.createDocuments(comments));
+    }
+    
     /**
      * Search for response comments
      * @return {@link FeedbackResponseCommentSearchResultBundle}
@@ -3,12 +3,15 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import teammates.common.datatransfer.EntitiesPage;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -19,6 +22,10 @@ import teammates.storage.entity.FeedbackResponse;
 
 public class FeedbackResponsesDb extends EntitiesDb {
 
+    // prefixes of the cursors of the two queries which make up the responses in a section
+    private static final String GIVER_SECTION_CURSOR_PREFIX = "giver:";
+    private static final String RECEIVER_SECTION_CURSOR_PREFIX = "receiver:";
+
     public void createFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToAdd)
             throws InvalidParametersException {
         List<EntityAttributes> responsesToUpdate = createEntities(responsesToAdd);
@@ -47,6 +54,25 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return new FeedbackResponseAttributes(feedbackResponse);
     }
 
+    /**
+     * Looks up the responses by their IDs, with one query per
+     * {@link #MAX_VALUES_PER_CONTAINS_QUERY} responses. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the responses which exist, in no particular order
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponses(Collection<String> feedbackResponseIds) {
+        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        for (List<String> responseIds : splitForContainsQuery(new HashSet<String>(feedbackResponseIds))) {
+            for (FeedbackResponse fr : getFeedbackResponseEntities(responseIds)) {
+                if (!JDOHelper.isDeleted(fr)) {
+                    fraList.add(new FeedbackResponseAttributes(fr));
+                }
+            }
+        }
+        return fraList;
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -515,6 +541,150 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return fraList;
     }
 
+    /**
+     * Gets one page of the responses to a question. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor    the cursor returned with the previous page, or null to get the first page
+     */
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForQuestionPage(
+            String feedbackQuestionId, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionId);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackQuestionIdParam");
+        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam");
+
+        return toFeedbackResponsesPage(executeForPage(q, cursor, pageSize, feedbackQuestionId), pageSize);
+    }
+
+    /**
+     * Gets one page of the responses in a session. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor    the cursor returned with the previous page, or null to get the first page
+     */
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionPage(
+            String feedbackSessionName, String courseId, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
+
+        return toFeedbackResponsesPage(executeForPage(q, cursor, pageSize, feedbackSessionName, courseId), pageSize);
+    }
+
+    /**
+     * Gets one page of the responses in a session which are given by or to the section.
+     * The responses given by the section are paged first, followed by those given to the section
+     * by other sections, so each response is returned only once. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor    the cursor returned with the previous page, or null to get the first page
+     */
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        String receiverSectionCursor = null;
+        int receiverSectionPageSize = pageSize;
+        if (cursor == null || cursor.startsWith(GIVER_SECTION_CURSOR_PREFIX)) {
+            String giverSectionCursor = cursor == null ? null : cursor.substring(GIVER_SECTION_CURSOR_PREFIX.length());
+            List<?> page = executeForPage(getSessionInSectionQuery("giverSection"), giverSectionCursor, pageSize,
+                                          feedbackSessionName, courseId, section);
+            EntitiesPage<FeedbackResponseAttributes> giverSectionPage = toFeedbackResponsesPage(page, pageSize);
+            if (giverSectionPage.hasNextPage()) {
+                return new EntitiesPage<FeedbackResponseAttributes>(giverSectionPage.getEntities(),
+                        GIVER_SECTION_CURSOR_PREFIX + giverSectionPage.getNextCursor());
+            }
+            // the rest of the page is filled with responses given to the section
+            responses.addAll(giverSectionPage.getEntities());
+            receiverSectionPageSize -= page.size();
+        } else {
+            Assumption.assertTrue("Invalid cursor: " + cursor, cursor.startsWith(RECEIVER_SECTION_CURSOR_PREFIX));
+            receiverSectionCursor = cursor.substring(RECEIVER_SECTION_CURSOR_PREFIX.length());
+        }
+
+        List<?> page = executeForPage(getSessionInSectionQuery("receiverSection"), receiverSectionCursor,
+                                      receiverSectionPageSize, feedbackSessionName, courseId, section);
+        for (FeedbackResponseAttributes response : toFeedbackResponsesPage(page, receiverSectionPageSize).getEntities()) {
+            // those given by the section are already returned in the earlier pages
+            if (!section.equals(response.giverSection)) {
+                responses.add(response);
+            }
+        }
+        String nextCursor = getNextPageCursor(page, receiverSectionPageSize);
+        return new EntitiesPage<FeedbackResponseAttributes>(responses,
+                nextCursor == null ? null : RECEIVER_SECTION_CURSOR_PREFIX + nextCursor);
+    }
+
+    /**
+     * Gets one page of the responses in a session which are given by the section. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor    the cursor returned with the previous page, or null to get the first page
+     */
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        List<?> page = executeForPage(getSessionInSectionQuery("giverSection"), cursor, pageSize,
+                                      feedbackSessionName, courseId, section);
+        return toFeedbackResponsesPage(page, pageSize);
+    }
+
+    /**
+     * Gets one page of the responses in a session which are given to the section. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor    the cursor returned with the previous page, or null to get the first page
+     */
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        List<?> page = executeForPage(getSessionInSectionQuery("receiverSection"), cursor, pageSize,
+                                      feedbackSessionName, courseId, section);
+        return toFeedbackResponsesPage(page, pageSize);
+    }
+
+    /**
+     * Gets one page of the responses given by a user in a session. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor    the cursor returned with the previous page, or null to get the first page
+     */
+    public EntitiesPage<FeedbackResponseAttributes> getFeedbackResponsesFromGiverForSessionPage(
+            String giverEmail, String feedbackSessionName, String courseId, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, giverEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String giverEmailParam, String feedbackSessionNameParam, String courseIdParam");
+        q.setFilter("giverEmail == giverEmailParam "
+                    + "&& feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam");
+
+        List<?> page = executeForPage(q, cursor, pageSize, giverEmail, feedbackSessionName, courseId);
+        return toFeedbackResponsesPage(page, pageSize);
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -730,6 +900,16 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses.get(0);
     }
 
+    private List<FeedbackResponse> getFeedbackResponseEntities(List<String> feedbackResponseIds) {
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.setFilter(":p.contains(feedbackResponseId)");
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponses = (List<FeedbackResponse>) q.execute(feedbackResponseIds);
+        
+        return feedbackResponses;
+    }
+
     private FeedbackResponse getFeedbackResponseEntity(
             String feedbackQuestionId, String giverEmail, String receiver) {
         
@@ -1111,6 +1291,56 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
     
+    /**
+     * @param sectionField    either {@code giverSection} or {@code receiverSection}
+     */
+    private Query getSessionInSectionQuery(String sectionField) {
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam "
+                    + "&& " + sectionField + " == sectionParam");
+        return q;
+    }
+
+    private static EntitiesPage<FeedbackResponseAttributes> toFeedbackResponsesPage(List<?> page, int pageSize) {
+        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        for (Object entity : page) {
+            if (!JDOHelper.isDeleted(entity)) {
+                fraList.add(new FeedbackResponseAttributes((FeedbackResponse) entity));
+            }
+        }
+        return new EntitiesPage<FeedbackResponseAttributes>(fraList, getNextPageCursor(page, pageSize));
+    }
+
+    /**
+     * Looks up the responses by their IDs, with one query per
+     * {@link #MAX_VALUES_PER_CONTAINS_QUERY} responses.
+     */
+    @Override
+    protected Set<String> getIdentificationStringsOfExistingEntities(
+            Collection<? extends EntityAttributes> attributesList) {
+        Map<String, String> responseIdToIdentificationString = new HashMap<String, String>();
+        for (EntityAttributes attributes : attributesList) {
+            FeedbackResponseAttributes response = (FeedbackResponseAttributes) attributes;
+            // the ID of a new response is derived from its question, giver and recipient
+            String responseId = response.getId() == null
+                              ? ((FeedbackResponse) response.toEntity()).getId()
+                              : response.getId();
+            responseIdToIdentificationString.put(responseId, response.getIdentificationString());
+        }
+        
+        Set<String> existingResponses = new HashSet<String>();
+        for (List<String> responseIds : splitForContainsQuery(responseIdToIdentificationString.keySet())) {
+            for (FeedbackResponse response : getFeedbackResponseEntities(responseIds)) {
+                if (!JDOHelper.isDeleted(response)) {
+                    existingResponses.add(responseIdToIdentificationString.get(response.getId()));
+                }
+            }
+        }
+        return existingResponses;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         
@@ -0,0 +1,428 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionStatisticsAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.entity.FeedbackSessionResponseCounts;
+import teammates.storage.entity.FeedbackSessionStatistics;
+
+/**
+ * Handles CRUD Operations for the statistics of feedback sessions, i.e. the expected number
+ * of respondents and the response counts.
+ * The API uses data transfer classes (i.e. *Attributes) instead of presistable classes.
+ */
+public class FeedbackSessionStatisticsDb extends EntitiesDb {
+
+    /** The number of shards the response counts of a session are spread over, by giver. */
+    public static final int NUM_RESPONSE_COUNTS_SHARDS = 10;
+
+    /**
+     * How long responses may take to appear in queries. A recount of the responses of a shard is
+     * only stored if no response of the shard was created or deleted within this time before
+     * the recount started, as the recount may have missed such a response. Likewise, a computed
+     * expected total is only stored if it was not cleared within this time before the computation.
+     */
+    public static final long RECOUNT_QUIET_PERIOD_MILLIS = 60 * 1000;
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the stored statistics of the session, in which the parts which have not been
+     *         computed yet are unknown. The response counts are only known if they are known
+     *         for every shard.
+     */
+    public FeedbackSessionStatisticsAttributes getFeedbackSessionStatistics(String feedbackSessionName,
+                                                                            String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        FeedbackSessionStatistics statisticsEntity = getFeedbackSessionStatisticsEntity(feedbackSessionName, courseId);
+        FeedbackSessionStatisticsAttributes statistics = statisticsEntity == null
+                ? new FeedbackSessionStatisticsAttributes(feedbackSessionName, courseId)
+                : new FeedbackSessionStatisticsAttributes(statisticsEntity);
+
+        List<FeedbackSessionResponseCounts> shards = getResponseCountsEntities(feedbackSessionName, courseId);
+        Map<Integer, String> revisions = new HashMap<Integer, String>();
+        boolean isResponseCountsKnown = shards.size() == NUM_RESPONSE_COUNTS_SHARDS;
+        for (FeedbackSessionResponseCounts shard : shards) {
+            revisions.put(shard.getShardIndex(), shard.getRevision());
+            isResponseCountsKnown = isResponseCountsKnown && shard.isResponseCountsKnown();
+        }
+        statistics.setResponseCountsRevisions(revisions);
+
+        if (isResponseCountsKnown) {
+            statistics.resetResponseCounts();
+            for (FeedbackSessionResponseCounts shard : shards) {
+                statistics.addResponseCounts(
+                        FeedbackSessionStatisticsAttributes.getCountsFromText(shard.getResponseCountsPerQuestion()));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Stores the expected number of respondents in {@code statistics}, if it is known.
+     * It is not stored if the expected total has been cleared since {@code statistics} were read
+     * (see {@link FeedbackSessionStatisticsAttributes#getRevision()}), or shortly before the roster
+     * and the questions were read, as it may have been computed from an outdated roster.
+     * The response counts are stored with {@link #putResponseCounts} instead.
+     * @param statistics         as read before the roster and the questions, with the computed expected total
+     * @param computeStartTime   the time before the roster and the questions were read
+     */
+    public void putFeedbackSessionStatistics(final FeedbackSessionStatisticsAttributes statistics,
+                                             Date computeStartTime)
+            throws InvalidParametersException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, statistics);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, computeStartTime);
+
+        if (!statistics.isValid()) {
+            throw new InvalidParametersException(statistics.getInvalidityInfo());
+        }
+        if (statistics.getExpectedTotal() == null) {
+            return;
+        }
+
+        String id = FeedbackSessionStatistics.generateId(statistics.getFeedbackSessionName(), statistics.getCourseId());
+        final Date latestAllowedChange = new Date(computeStartTime.getTime() - RECOUNT_QUIET_PERIOD_MILLIS);
+        // a failed transaction leaves the expected total unknown, it is computed again next time
+        updateInTransaction(FeedbackSessionStatistics.class, id, new TransactionalUpdate<FeedbackSessionStatistics>() {
+            @Override
+            public FeedbackSessionStatistics apply(FeedbackSessionStatistics existingStatistics) {
+                if (existingStatistics == null) {
+                    // null if the statistics have been deleted since they were read
+                    return statistics.getRevision() == null ? statistics.toEntity() : null;
+                }
+                boolean isChangedSinceStart = !isSameRevision(statistics.getRevision(), existingStatistics.getRevision())
+                        || existingStatistics.getLastExpectedTotalChange() != null
+                           && existingStatistics.getLastExpectedTotalChange().after(latestAllowedChange);
+                if (!isChangedSinceStart) {
+                    existingStatistics.setExpectedTotal(statistics.getExpectedTotal());
+                }
+                return existingStatistics;
+            }
+        });
+        log.info(statistics.getBackupIdentifier());
+    }
+
+    private static boolean isSameRevision(String revision, String storedRevision) {
+        return revision == null ? storedRevision == null : revision.equals(storedRevision);
+    }
+
+    /**
+     * Stores the response counts of the shards whose counts are unknown, counted from {@code responses}.
+     * A shard is left unchanged if it has been written since its revision was read
+     * (see {@link FeedbackSessionStatisticsAttributes#getResponseCountsRevisions()}),
+     * or if a response of the shard changed shortly before the responses were read.
+     * @param responses          all the responses of the session, as read after {@code revisionsAtStart}
+     * @param revisionsAtStart   the revisions of the shards read before {@code responses}
+     * @param countStartTime     the time before {@code responses} were read
+     */
+    public void putResponseCounts(final String feedbackSessionName, final String courseId,
+                                  List<FeedbackResponseAttributes> responses,
+                                  Map<Integer, String> revisionsAtStart, Date countStartTime) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responses);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, revisionsAtStart);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, countStartTime);
+
+        Map<Integer, FeedbackSessionStatisticsAttributes> countsPerShard =
+                new HashMap<Integer, FeedbackSessionStatisticsAttributes>();
+        for (int shardIndex = 0; shardIndex < NUM_RESPONSE_COUNTS_SHARDS; shardIndex++) {
+            FeedbackSessionStatisticsAttributes counts =
+                    new FeedbackSessionStatisticsAttributes(feedbackSessionName, courseId);
+            counts.resetResponseCounts();
+            countsPerShard.put(shardIndex, counts);
+        }
+        for (FeedbackResponseAttributes response : responses) {
+            countsPerShard.get(getResponseCountsShardIndex(response.giver))
+                    .addToResponseCounts(response.feedbackQuestionId, 1);
+        }
+
+        final Date latestAllowedChange = new Date(countStartTime.getTime() - RECOUNT_QUIET_PERIOD_MILLIS);
+        for (Map.Entry<Integer, FeedbackSessionStatisticsAttributes> shardCounts : countsPerShard.entrySet()) {
+            final int shardIndex = shardCounts.getKey();
+            final String revisionAtStart = revisionsAtStart.get(shardIndex);
+            final FeedbackSessionStatisticsAttributes counts = shardCounts.getValue();
+            updateInTransaction(FeedbackSessionResponseCounts.class,
+                                FeedbackSessionResponseCounts.generateId(feedbackSessionName, courseId, shardIndex),
+                                new TransactionalUpdate<FeedbackSessionResponseCounts>() {
+                @Override
+                public FeedbackSessionResponseCounts apply(FeedbackSessionResponseCounts shard) {
+                    if (shard == null) {
+                        if (revisionAtStart != null) {
+                            // deleted since the recount started
+                            return null;
+                        }
+                        FeedbackSessionResponseCounts newShard =
+                                new FeedbackSessionResponseCounts(feedbackSessionName, courseId, shardIndex);
+                        setResponseCounts(newShard, counts);
+                        return newShard;
+                    }
+                    boolean isChangedSinceStart = !shard.getRevision().equals(revisionAtStart)
+                            || shard.getLastResponseChange() != null
+                               && shard.getLastResponseChange().after(latestAllowedChange);
+                    if (shard.isResponseCountsKnown() || isChangedSinceStart) {
+                        return shard;
+                    }
+                    setResponseCounts(shard, counts);
+                    shard.renewRevision();
+                    return shard;
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the response count of the question in the shard of the giver in a transaction,
+     * and records the change so that concurrent recounts of the responses are not stored.
+     * If the transaction keeps conflicting, the counts of the shard become unknown instead.
+     */
+    public void addToResponseCounts(final String feedbackSessionName, final String courseId,
+                                    final String feedbackQuestionId, final String giverEmail, final int delta) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, giverEmail);
+
+        final int shardIndex = getResponseCountsShardIndex(giverEmail);
+        boolean isAdded = updateInTransaction(
+                FeedbackSessionResponseCounts.class,
+                FeedbackSessionResponseCounts.generateId(feedbackSessionName, courseId, shardIndex),
+                new TransactionalUpdate<FeedbackSessionResponseCounts>() {
+            @Override
+            public FeedbackSessionResponseCounts apply(FeedbackSessionResponseCounts shard) {
+                FeedbackSessionResponseCounts updatedShard = shard == null
+                        ? new FeedbackSessionResponseCounts(feedbackSessionName, courseId, shardIndex)
+                        : shard;
+                if (updatedShard.isResponseCountsKnown()) {
+                    FeedbackSessionStatisticsAttributes counts = getResponseCounts(updatedShard);
+                    counts.addToResponseCounts(feedbackQuestionId, delta);
+                    setResponseCounts(updatedShard, counts);
+                }
+                updatedShard.setLastResponseChange(new Date());
+                updatedShard.renewRevision();
+                return updatedShard;
+            }
+        });
+        if (!isAdded) {
+            invalidateResponseCounts(feedbackSessionName, courseId, shardIndex);
+        }
+    }
+
+    /**
+     * Marks the response counts of the session as unknown, e.g. after responses
+     * have been created or deleted in bulk. The shards are not deleted, as a recount
+     * which read their revisions before the deletion would then be stored in new shards.
+     */
+    public void invalidateResponseCounts(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Set<Integer> existingShardIndexes = new HashSet<Integer>();
+        for (FeedbackSessionResponseCounts shard : getResponseCountsEntities(feedbackSessionName, courseId)) {
+            markResponseCountsUnknown(shard);
+            existingShardIndexes.add(shard.getShardIndex());
+        }
+        for (int shardIndex = 0; shardIndex < NUM_RESPONSE_COUNTS_SHARDS; shardIndex++) {
+            if (!existingShardIndexes.contains(shardIndex)) {
+                getPm().makePersistent(new FeedbackSessionResponseCounts(feedbackSessionName, courseId, shardIndex));
+            }
+        }
+        getPm().flush();
+    }
+
+    /**
+     * Marks the counts of the shard as unknown without a transaction, so that it cannot fail because
+     * of concurrent updates.
+     */
+    private void invalidateResponseCounts(String feedbackSessionName, String courseId, int shardIndex) {
+        FeedbackSessionResponseCounts shard = getResponseCountsEntity(feedbackSessionName, courseId, shardIndex);
+        if (shard == null) {
+            getPm().makePersistent(new FeedbackSessionResponseCounts(feedbackSessionName, courseId, shardIndex));
+        } else {
+            markResponseCountsUnknown(shard);
+        }
+        getPm().flush();
+    }
+
+    private static void markResponseCountsUnknown(FeedbackSessionResponseCounts shard) {
+        shard.setResponseCountsPerQuestion(null);
+        shard.setLastResponseChange(new Date());
+        shard.renewRevision();
+    }
+
+    /**
+     * Marks the expected number of respondents of the session as unknown, e.g. because the roster
+     * or the questions of the session have changed, and records the change so that concurrent
+     * computations of the expected total are not stored. The statistics are created if they
+     * do not exist yet, as a computation may have started without them.
+     * If the transaction keeps conflicting, the statistics are cleared without one instead, so that
+     * it cannot fail because of concurrent updates.
+     */
+    public void clearExpectedTotal(final String feedbackSessionName, final String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        boolean isCleared = updateInTransaction(FeedbackSessionStatistics.class,
+                                                FeedbackSessionStatistics.generateId(feedbackSessionName, courseId),
+                                                new TransactionalUpdate<FeedbackSessionStatistics>() {
+            @Override
+            public FeedbackSessionStatistics apply(FeedbackSessionStatistics statistics) {
+                FeedbackSessionStatistics updatedStatistics = statistics == null
+                        ? new FeedbackSessionStatistics(feedbackSessionName, courseId, null)
+                        : statistics;
+                markExpectedTotalUnknown(updatedStatistics);
+                return updatedStatistics;
+            }
+        });
+        if (!isCleared) {
+            FeedbackSessionStatistics statistics = getFeedbackSessionStatisticsEntity(feedbackSessionName, courseId);
+            if (statistics == null) {
+                statistics = new FeedbackSessionStatistics(feedbackSessionName, courseId, null);
+                getPm().makePersistent(statistics);
+            }
+            markExpectedTotalUnknown(statistics);
+            getPm().flush();
+        }
+    }
+
+    private static void markExpectedTotalUnknown(FeedbackSessionStatistics statistics) {
+        statistics.setExpectedTotal(null);
+        statistics.setLastExpectedTotalChange(new Date());
+        statistics.renewRevision();
+    }
+
+    /**
+     * Deletes the statistics and the response counts of the session.
+     * Note: This is a non-cascade delete.<br>
+     *   <br> Fails silently if there is no such object.
+     */
+    public void deleteFeedbackSessionStatistics(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        deleteFeedbackSessionStatisticsEntity(feedbackSessionName, courseId);
+        getPm().deletePersistentAll(getResponseCountsEntities(feedbackSessionName, courseId));
+        getPm().flush();
+    }
+
+    public void deleteFeedbackSessionStatisticsForCourse(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        List<String> courseIds = new ArrayList<String>();
+        courseIds.add(courseId);
+        deleteFeedbackSessionStatisticsForCourses(courseIds);
+    }
+
+    public void deleteFeedbackSessionStatisticsForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        getPm().deletePersistentAll(getFeedbackSessionStatisticsEntitiesForCourses(courseIds));
+        getPm().deletePersistentAll(getResponseCountsEntitiesForCourses(courseIds));
+        getPm().flush();
+    }
+
+    private void deleteFeedbackSessionStatisticsEntity(String feedbackSessionName, String courseId) {
+        deleteEntity(new FeedbackSessionStatisticsAttributes(feedbackSessionName, courseId));
+    }
+
+    private static int getResponseCountsShardIndex(String giverEmail) {
+        return Math.abs(giverEmail.hashCode() % NUM_RESPONSE_COUNTS_SHARDS);
+    }
+
+    private static FeedbackSessionStatisticsAttributes getResponseCounts(FeedbackSessionResponseCounts shard) {
+        FeedbackSessionStatisticsAttributes counts =
+                new FeedbackSessionStatisticsAttributes(shard.getFeedbackSessionName(), shard.getCourseId());
+        counts.resetResponseCounts();
+        counts.addResponseCounts(
+                FeedbackSessionStatisticsAttributes.getCountsFromText(shard.getResponseCountsPerQuestion()));
+        return counts;
+    }
+
+    private static void setResponseCounts(FeedbackSessionResponseCounts shard,
+                                          FeedbackSessionStatisticsAttributes counts) {
+        shard.setResponseCountsPerQuestion(
+                FeedbackSessionStatisticsAttributes.getCountsAsText(counts.getResponseCountsPerQuestion()));
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        FeedbackSessionStatisticsAttributes statistics = (FeedbackSessionStatisticsAttributes) attributes;
+        return getFeedbackSessionStatisticsEntity(statistics.getFeedbackSessionName(), statistics.getCourseId());
+    }
+
+    private FeedbackSessionStatistics getFeedbackSessionStatisticsEntity(String feedbackSessionName,
+                                                                         String courseId) {
+        try {
+            FeedbackSessionStatistics statistics = getPm().getObjectById(
+                    FeedbackSessionStatistics.class, FeedbackSessionStatistics.generateId(feedbackSessionName, courseId));
+            if (JDOHelper.isDeleted(statistics)) {
+                return null;
+            }
+            return statistics;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    private FeedbackSessionResponseCounts getResponseCountsEntity(String feedbackSessionName, String courseId,
+                                                                  int shardIndex) {
+        try {
+            FeedbackSessionResponseCounts shard = getPm().getObjectById(
+                    FeedbackSessionResponseCounts.class,
+                    FeedbackSessionResponseCounts.generateId(feedbackSessionName, courseId, shardIndex));
+            if (JDOHelper.isDeleted(shard)) {
+                return null;
+            }
+            return shard;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    private List<FeedbackSessionResponseCounts> getResponseCountsEntities(String feedbackSessionName,
+                                                                          String courseId) {
+        List<String> ids = new ArrayList<String>();
+        for (int shardIndex = 0; shardIndex < NUM_RESPONSE_COUNTS_SHARDS; shardIndex++) {
+            ids.add(FeedbackSessionResponseCounts.generateId(feedbackSessionName, courseId, shardIndex));
+        }
+        return getEntitiesById(FeedbackSessionResponseCounts.class, ids);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionResponseCounts> getResponseCountsEntitiesForCourses(List<String> courseIds) {
+        List<FeedbackSessionResponseCounts> shards = new ArrayList<FeedbackSessionResponseCounts>();
+        for (List<String> batch : splitForContainsQuery(courseIds)) {
+            Query q = getPm().newQuery(FeedbackSessionResponseCounts.class);
+            q.setFilter(":p.contains(courseId)");
+            shards.addAll((List<FeedbackSessionResponseCounts>) q.execute(batch));
+        }
+        return shards;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionStatistics> getFeedbackSessionStatisticsEntitiesForCourses(List<String> courseIds) {
+        List<FeedbackSessionStatistics> statisticsList = new ArrayList<FeedbackSessionStatistics>();
+        for (List<String> batch : splitForContainsQuery(courseIds)) {
+            Query q = getPm().newQuery(FeedbackSessionStatistics.class);
+            q.setFilter(":p.contains(courseId)");
+            statisticsList.addAll((List<FeedbackSessionStatistics>) q.execute(batch));
+        }
+        return statisticsList;
+    }
+}
@@ -3,12 +3,18 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.Query;
 
 import teammates.common.datatransfer.EntityAttributes;
@@ -20,10 +26,18 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.TimeHelper;
 import teammates.storage.entity.FeedbackSession;
+import teammates.storage.entity.FeedbackSessionRespondents;
 
 public class FeedbackSessionsDb extends EntitiesDb {
     
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Session : ";
+    public static final String ERROR_RESPONDANTS_NOT_UPDATED =
+            "Unable to remove respondants from FeedbackSessionRespondents %s, kept conflicting with concurrent updates";
+    
+    private static final String CACHE_KEY_PREFIX = "FeedbackSession|";
+    
+    /** Number of entities over which the respondents of a session are spread. */
+    private static final int NUM_RESPONDANTS_SHARDS = 10;
 
     public void createFeedbackSessions(Collection<FeedbackSessionAttributes> feedbackSessionsToAdd)
             throws InvalidParametersException {
@@ -42,7 +56,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
        
     public List<FeedbackSessionAttributes> getAllOpenFeedbackSessions(Date start, Date end, double zone) {
         
-        List<FeedbackSessionAttributes> list = new LinkedList<FeedbackSessionAttributes>();
+        List<FeedbackSession> list = new LinkedList<FeedbackSession>();
         
         final Query endTimequery = getPm().newQuery("SELECT FROM teammates.storage.entity.FeedbackSession "
                                                     + "WHERE this.endTime>rangeStart && this.endTime<=rangeEnd "
@@ -104,11 +118,11 @@ public class FeedbackSessionsDb extends EntitiesDb {
                                                                          true);
 
             if (isStartTimeWithinRange || isEndTimeWithinRange) {
-                list.add(fs);
+                list.add(feedbackSession);
             }
         }
              
-        return list;
+        return getFeedbackSessionAttributes(list);
     }
 
     
@@ -122,13 +136,27 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        FeedbackSession fs = getFeedbackSessionEntity(feedbackSessionName, courseId);
+        String cacheKey = getCacheKeyPrefixForCourse(courseId) + feedbackSessionName;
+        FeedbackSessionAttributes cachedSession = (FeedbackSessionAttributes) getFromCache(cacheKey);
+        if (cachedSession != null) {
+            return getCopy(cachedSession);
+        }
+        long cacheVersion = getCacheVersion();
+        
+        FeedbackSessionAttributes sessionToGet = new FeedbackSessionAttributes();
+        sessionToGet.setFeedbackSessionName(feedbackSessionName);
+        sessionToGet.setCourseId(courseId);
+        FeedbackSession fs = (FeedbackSession) includeRecentWrites(
+                sessionToGet, getFeedbackSessionEntity(feedbackSessionName, courseId));
         
         if (fs == null) {
             log.info("Trying to get non-existent Session: " + feedbackSessionName + "/" + courseId);
             return null;
         }
-        return new FeedbackSessionAttributes(fs);
+        FeedbackSessionAttributes session =
+                getFeedbackSessionAttributes(fs, getRespondantsEntities(feedbackSessionName, courseId));
+        putInCache(cacheKey, getCopy(session), cacheVersion);
+        return session;
         
     }
     
@@ -139,14 +167,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
     @Deprecated
     public List<FeedbackSessionAttributes> getAllFeedbackSessions() {
         List<FeedbackSession> allFs = getAllFeedbackSessionEntities();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : allFs) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionAttributes(allFs);
     }
     
     /**
@@ -157,14 +178,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
     public List<FeedbackSessionAttributes> getNonPrivateFeedbackSessions() {
         
         List<FeedbackSession> fsList = getNonPrivateFeedbackSessionEntities();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionAttributes(fsList);
     }
         
     /**
@@ -177,14 +191,21 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
         List<FeedbackSession> fsList = getFeedbackSessionEntitiesForCourse(courseId);
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
+        return getFeedbackSessionAttributes(fsList);
+    }
+    
+    /**
+     * Gets the sessions of several courses at once, with a few queries instead of one per course.
+     * @return an empty list if the courses have no sessions
+     */
+    public List<FeedbackSessionAttributes> getFeedbackSessionsForCourses(Collection<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
+        List<FeedbackSession> fsList = new ArrayList<FeedbackSession>();
+        for (List<String> batch : splitForContainsQuery(courseIds)) {
+            fsList.addAll(getFeedbackSessionEntitiesForCourses(batch));
         }
-        return fsaList;
+        return getFeedbackSessionAttributes(fsList);
     }
     
     /**
@@ -195,14 +216,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
     public List<FeedbackSessionAttributes> getFeedbackSessionsWithUnsentOpenEmail() {
                 
         List<FeedbackSession> fsList = getFeedbackSessionEntitiesWithUnsentOpenEmail();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionAttributes(fsList);
     }
     
     /**
@@ -214,14 +228,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         
         
         List<FeedbackSession> fsList = getFeedbackSessionEntitiesWithUnsentPublishedEmail();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionAttributes(fsList);
     }
     
     /**
@@ -268,6 +275,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
                 
         log.info(newAttributes.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(newAttributes);
     }
 
     public void addInstructorRespondant(String email, FeedbackSessionAttributes feedbackSession)
@@ -282,24 +290,13 @@ public class FeedbackSessionsDb extends EntitiesDb {
             throws InvalidParametersException, EntityDoesNotExistException {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
 
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        addRespondants(emails, fs, true);
 
-        fs.getRespondingInstructorList().addAll(emails);
-        
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
     }
 
     public void updateInstructorRespondant(String oldEmail, String newEmail, FeedbackSessionAttributes feedbackSession)
@@ -307,50 +304,30 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
 
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        if (fs.getRespondingInstructorList().contains(oldEmail)) {
-            fs.getRespondingInstructorList().remove(oldEmail);
-            fs.getRespondingInstructorList().add(newEmail);
-        }
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        updateRespondant(oldEmail, newEmail, fs, true);
        
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
     }
 
     public void clearInstructorRespondants(FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
 
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        try {
+            clearRespondants(fs, true);
+        } catch (ConcurrentModificationException e) {
+            // some of the shards may have been cleared even if the others were not
+            invalidateCachedEntities(feedbackSession);
+            throw e;
         }
 
-        fs.getRespondingInstructorList().clear();
-
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
     }
 
     public void addStudentRespondant(String email, FeedbackSessionAttributes feedbackSession)
@@ -365,48 +342,26 @@ public class FeedbackSessionsDb extends EntitiesDb {
             throws InvalidParametersException, EntityDoesNotExistException {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingInstructorList().remove(email);
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        deleteRespondant(email, fs, true);
 
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
     }
 
     public void addStudentRespondants(List<String> emails, FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingStudentList().addAll(emails);
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        addRespondants(emails, fs, false);
 
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
     }
 
     public void updateStudentRespondant(String oldEmail, String newEmail, FeedbackSessionAttributes feedbackSession)
@@ -414,74 +369,55 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        if (fs.getRespondingStudentList().contains(oldEmail)) {
-            fs.getRespondingStudentList().remove(oldEmail);
-            fs.getRespondingStudentList().add(newEmail);
-        }
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        updateRespondant(oldEmail, newEmail, fs, false);
         
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
     }
 
     public void clearStudentRespondants(FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
 
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
-
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        try {
+            clearRespondants(fs, false);
+        } catch (ConcurrentModificationException e) {
+            // some of the shards may have been cleared even if the others were not
+            invalidateCachedEntities(feedbackSession);
+            throw e;
         }
 
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingStudentList().clear();
-
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
     }
 
     public void deleteStudentRespondent(String email, FeedbackSessionAttributes feedbackSession)
             throws EntityDoesNotExistException, InvalidParametersException {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-        
-        fs.getRespondingStudentList().remove(email);
+        FeedbackSession fs = getFeedbackSessionEntityToUpdate(feedbackSession);
+        deleteRespondant(email, fs, false);
 
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(feedbackSession);
+    }
+    
+    /**
+     * Also deletes the respondents of the session.
+     */
+    @Override
+    public void deleteEntity(EntityAttributes entityToDelete) {
+        super.deleteEntity(entityToDelete);
+        
+        FeedbackSessionAttributes session = (FeedbackSessionAttributes) entityToDelete;
+        getPm().deletePersistentAll(getRespondantsEntities(session.getFeedbackSessionName(), session.getCourseId()));
+        getPm().flush();
     }
     
     public void deleteFeedbackSessionsForCourse(String courseId) {
@@ -498,9 +434,291 @@ public class FeedbackSessionsDb extends EntitiesDb {
         List<FeedbackSession> feedbackSessionList = getFeedbackSessionEntitiesForCourses(courseIds);
         
         getPm().deletePersistentAll(feedbackSessionList);
+        getPm().deletePersistentAll(getRespondantsEntitiesForCourses(courseIds));
         getPm().flush();
+        for (String courseId : courseIds) {
+            invalidateCache(getCacheKeyPrefixForCourse(courseId));
+        }
+    }
+    
+    
+    /**
+     * Preconditions: <br>
+     * * {@code feedbackSession} is non-null.
+     * @return the entity of the session, to update its respondents
+     */
+    private FeedbackSession getFeedbackSessionEntityToUpdate(FeedbackSessionAttributes feedbackSession)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+        
+        feedbackSession.sanitizeForSaving();
+        
+        if (!feedbackSession.isValid()) {
+            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
+        }
+        
+        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
+        if (fs == null) {
+            throw new EntityDoesNotExistException(
+                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
+        }
+        return fs;
+    }
+    
+    /**
+     * Adds the respondents to their shards, one transaction per shard.
+     */
+    private void addRespondants(List<String> emails, FeedbackSession fs, final boolean isInstructor) {
+        Map<Integer, List<String>> emailsPerShard = new HashMap<Integer, List<String>>();
+        for (String email : emails) {
+            int shardIndex = getRespondantsShardIndex(email);
+            if (!emailsPerShard.containsKey(shardIndex)) {
+                emailsPerShard.put(shardIndex, new ArrayList<String>());
+            }
+            emailsPerShard.get(shardIndex).add(email);
+        }
+        
+        final String feedbackSessionName = fs.getFeedbackSessionName();
+        final String courseId = fs.getCourseId();
+        List<String> emailsNotAdded = new ArrayList<String>();
+        
+        for (Map.Entry<Integer, List<String>> shard : emailsPerShard.entrySet()) {
+            final int shardIndex = shard.getKey();
+            final List<String> shardEmails = shard.getValue();
+            boolean isAdded = updateInTransaction(
+                    FeedbackSessionRespondents.class,
+                    FeedbackSessionRespondents.generateId(feedbackSessionName, courseId, shardIndex),
+                    new TransactionalUpdate<FeedbackSessionRespondents>() {
+                        @Override
+                        public FeedbackSessionRespondents apply(FeedbackSessionRespondents respondents) {
+                            FeedbackSessionRespondents updatedRespondents = respondents == null
+                                    ? new FeedbackSessionRespondents(feedbackSessionName, courseId, shardIndex)
+                                    : respondents;
+                            getRespondants(updatedRespondents, isInstructor).addAll(shardEmails);
+                            return updatedRespondents;
+                        }
+                    });
+            if (!isAdded) {
+                emailsNotAdded.addAll(shardEmails);
+            }
+        }
+        
+        if (!emailsNotAdded.isEmpty()) {
+            // the session entity is only written outside of the transactions above,
+            // as a transaction cannot span both entities
+            getLegacyRespondants(fs, isInstructor).addAll(emailsNotAdded);
+        }
+    }
+    
+    /**
+     * @throws ConcurrentModificationException if the old email could not be removed, in which case
+     *         the new email is not added either
+     */
+    private void updateRespondant(String oldEmail, String newEmail, FeedbackSession fs, boolean isInstructor) {
+        FeedbackSessionRespondents respondents = getRespondantsEntity(fs, getRespondantsShardIndex(oldEmail));
+        boolean isRespondant = respondents != null && getRespondants(respondents, isInstructor).contains(oldEmail)
+                               || getLegacyRespondants(fs, isInstructor).contains(oldEmail);
+        if (!isRespondant) {
+            return;
+        }
+        
+        deleteRespondant(oldEmail, fs, isInstructor);
+        List<String> emails = new ArrayList<String>();
+        emails.add(newEmail);
+        addRespondants(emails, fs, isInstructor);
+    }
+    
+    /**
+     * Unlike an addition, a removal cannot fall back to the session entity when the transaction on the shard
+     * keeps conflicting, so the failure is thrown for the caller (e.g. a task) to try again.
+     * @throws ConcurrentModificationException if the email could not be removed from its shard
+     */
+    private void deleteRespondant(final String email, FeedbackSession fs, final boolean isInstructor) {
+        String shardId = FeedbackSessionRespondents.generateId(fs.getFeedbackSessionName(), fs.getCourseId(),
+                                                               getRespondantsShardIndex(email));
+        boolean isDeleted = updateInTransaction(FeedbackSessionRespondents.class, shardId,
+                                                new TransactionalUpdate<FeedbackSessionRespondents>() {
+            @Override
+            public FeedbackSessionRespondents apply(FeedbackSessionRespondents respondents) {
+                if (respondents != null) {
+                    getRespondants(respondents, isInstructor).remove(email);
+                }
+                return respondents;
+            }
+        });
+        if (!isDeleted) {
+            throw new ConcurrentModificationException(String.format(ERROR_RESPONDANTS_NOT_UPDATED, shardId));
+        }
+        
+        if (getLegacyRespondants(fs, isInstructor).contains(email)) {
+            getLegacyRespondants(fs, isInstructor).remove(email);
+        }
+    }
+    
+    /**
+     * @throws ConcurrentModificationException if some of the shards could not be cleared, after
+     *         the other shards have been cleared
+     */
+    private void clearRespondants(FeedbackSession fs, final boolean isInstructor) {
+        List<String> shardIdsNotCleared = new ArrayList<String>();
+        for (FeedbackSessionRespondents shard : getRespondantsEntities(fs.getFeedbackSessionName(), fs.getCourseId())) {
+            if (getRespondants(shard, isInstructor).isEmpty()) {
+                continue;
+            }
+            boolean isCleared = updateInTransaction(FeedbackSessionRespondents.class, shard.getId(),
+                                                    new TransactionalUpdate<FeedbackSessionRespondents>() {
+                @Override
+                public FeedbackSessionRespondents apply(FeedbackSessionRespondents respondents) {
+                    if (respondents != null) {
+                        getRespondants(respondents, isInstructor).clear();
+                    }
+                    return respondents;
+                }
+            });
+            if (!isCleared) {
+                shardIdsNotCleared.add(shard.getId());
+            }
+        }
+        if (!shardIdsNotCleared.isEmpty()) {
+            throw new ConcurrentModificationException(
+                    String.format(ERROR_RESPONDANTS_NOT_UPDATED, shardIdsNotCleared.toString()));
+        }
+        
+        if (!getLegacyRespondants(fs, isInstructor).isEmpty()) {
+            getLegacyRespondants(fs, isInstructor).clear();
+        }
+    }
+    
+    private static int getRespondantsShardIndex(String email) {
+        return Math.abs(email.hashCode() % NUM_RESPONDANTS_SHARDS);
+    }
+    
+    private static Set<String> getRespondants(FeedbackSessionRespondents respondents, boolean isInstructor) {
+        return isInstructor ? respondents.getRespondingInstructorList() : respondents.getRespondingStudentList();
+    }
+    
+    /**
+     * @return the respondents stored in the session entity itself, which only receives
+     *         new respondents if they cannot be added to their shard
+     */
+    private static Set<String> getLegacyRespondants(FeedbackSession fs, boolean isInstructor) {
+        if (isInstructor) {
+            if (fs.getRespondingInstructorList() == null) {
+                fs.setRespondingInstructorList(new HashSet<String>());
+            }
+            return fs.getRespondingInstructorList();
+        }
+        if (fs.getRespondingStudentList() == null) {
+            fs.setRespodingStudentList(new HashSet<String>());
+        }
+        return fs.getRespondingStudentList();
+    }
+    
+    private static String getFeedbackSessionId(String feedbackSessionName, String courseId) {
+        return feedbackSessionName + "%" + courseId;
+    }
+    
+    /**
+     * Converts the entities which are not deleted into attributes, together with
+     * the respondents of the sessions which are stored in separate entities.
+     */
+    private List<FeedbackSessionAttributes> getFeedbackSessionAttributes(List<FeedbackSession> fsList) {
+        List<FeedbackSession> existingFsList = new ArrayList<FeedbackSession>();
+        List<String> respondantsIds = new ArrayList<String>();
+        for (FeedbackSession fs : fsList) {
+            if (!JDOHelper.isDeleted(fs)) {
+                existingFsList.add(fs);
+                respondantsIds.addAll(getRespondantsIds(fs.getFeedbackSessionName(), fs.getCourseId()));
+            }
+        }
+        
+        Map<String, List<FeedbackSessionRespondents>> respondantsPerSession =
+                new HashMap<String, List<FeedbackSessionRespondents>>();
+        for (FeedbackSessionRespondents respondents
+                : getEntitiesById(FeedbackSessionRespondents.class, respondantsIds)) {
+            if (!respondantsPerSession.containsKey(respondents.getFeedbackSessionId())) {
+                respondantsPerSession.put(respondents.getFeedbackSessionId(),
+                                          new ArrayList<FeedbackSessionRespondents>());
+            }
+            respondantsPerSession.get(respondents.getFeedbackSessionId()).add(respondents);
+        }
+        
+        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
+        for (FeedbackSession fs : existingFsList) {
+            List<FeedbackSessionRespondents> respondantsList =
+                    respondantsPerSession.get(getFeedbackSessionId(fs.getFeedbackSessionName(), fs.getCourseId()));
+            fsaList.add(getFeedbackSessionAttributes(fs, respondantsList));
+        }
+        return fsaList;
+    }
+    
+    /**
+     * @param respondantsList the shards of the respondents of the session, may be null if there are none
+     */
+    private static FeedbackSessionAttributes getFeedbackSessionAttributes(
+            FeedbackSession fs, List<FeedbackSessionRespondents> respondantsList) {
+        FeedbackSessionAttributes session = new FeedbackSessionAttributes(fs);
+        Set<String> respondingInstructors = new HashSet<String>(session.getRespondingInstructorList());
+        Set<String> respondingStudents = new HashSet<String>(session.getRespondingStudentList());
+        if (respondantsList != null) {
+            for (FeedbackSessionRespondents respondents : respondantsList) {
+                if (!JDOHelper.isDeleted(respondents)) {
+                    respondingInstructors.addAll(respondents.getRespondingInstructorList());
+                    respondingStudents.addAll(respondents.getRespondingStudentList());
+                }
+            }
+        }
+        session.setRespondingInstructorList(respondingInstructors);
+        session.setRespondingStudentList(respondingStudents);
+        return session;
+    }
+    
+    private FeedbackSessionRespondents getRespondantsEntity(FeedbackSession fs, int shardIndex) {
+        try {
+            FeedbackSessionRespondents respondents = getPm().getObjectById(
+                    FeedbackSessionRespondents.class,
+                    FeedbackSessionRespondents.generateId(fs.getFeedbackSessionName(), fs.getCourseId(), shardIndex));
+            if (JDOHelper.isDeleted(respondents)) {
+                return null;
+            }
+            return respondents;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Gets the existing shards of the respondents of the session with a batch get by their keys,
+     * which sees the shards written just before, unlike a query.
+     */
+    private List<FeedbackSessionRespondents> getRespondantsEntities(String feedbackSessionName, String courseId) {
+        return getEntitiesById(FeedbackSessionRespondents.class, getRespondantsIds(feedbackSessionName, courseId));
+    }
+    
+    /**
+     * @return the keys of all the shards the respondents of the session can be stored in
+     */
+    private static List<String> getRespondantsIds(String feedbackSessionName, String courseId) {
+        List<String> respondantsIds = new ArrayList<String>();
+        for (int shardIndex = 0; shardIndex < NUM_RESPONDANTS_SHARDS; shardIndex++) {
+            respondantsIds.add(FeedbackSessionRespondents.generateId(feedbackSessionName, courseId, shardIndex));
+        }
+        return respondantsIds;
     }
     
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionRespondents> getRespondantsEntitiesForCourses(List<String> courseIds) {
+        List<FeedbackSessionRespondents> respondantsList = new ArrayList<FeedbackSessionRespondents>();
+        for (List<String> batch : splitForContainsQuery(courseIds)) {
+            Query q = getPm().newQuery(FeedbackSessionRespondents.class);
+            q.setFilter(":p.contains(courseId)");
+            respondantsList.addAll((List<FeedbackSessionRespondents>) q.execute(batch));
+        }
+        return respondantsList;
+    }
+
+    
     @SuppressWarnings("unchecked")
     private List<FeedbackSession> getFeedbackSessionEntitiesForCourses(List<String> courseIds) {
         Query q = getPm().newQuery(FeedbackSession.class);
@@ -575,4 +793,41 @@ public class FeedbackSessionsDb extends EntitiesDb {
         return getFeedbackSessionEntity(feedbackSessionToGet.getFeedbackSessionName(),
                                         feedbackSessionToGet.getCourseId());
     }
+    
+    @Override
+    protected void invalidateCachedEntities(EntityAttributes attributes) {
+        invalidateCache(getCacheKeyPrefixForCourse(((FeedbackSessionAttributes) attributes).getCourseId()));
+    }
+    
+    private static String getCacheKeyPrefixForCourse(String courseId) {
+        return CACHE_KEY_PREFIX + courseId + "|";
+    }
+    
+    /**
+     * Unlike {@link FeedbackSessionAttributes#getCopy}, this does not share the
+     * respondent sets or re-sanitize the instructions of {@code session}.
+     */
+    private static FeedbackSessionAttributes getCopy(FeedbackSessionAttributes session) {
+        FeedbackSessionAttributes copy = new FeedbackSessionAttributes();
+        copy.setFeedbackSessionName(session.getFeedbackSessionName());
+        copy.setCourseId(session.getCourseId());
+        copy.setCreatorEmail(session.getCreatorEmail());
+        copy.setInstructions(session.getInstructions());
+        copy.setCreatedTime(session.getCreatedTime());
+        copy.setStartTime(session.getStartTime());
+        copy.setEndTime(session.getEndTime());
+        copy.setSessionVisibleFromTime(session.getSessionVisibleFromTime());
+        copy.setResultsVisibleFromTime(session.getResultsVisibleFromTime());
+        copy.setTimeZone(session.getTimeZone());
+        copy.setGracePeriod(session.getGracePeriod());
+        copy.setFeedbackSessionType(session.getFeedbackSessionType());
+        copy.setSentOpenEmail(session.isSentOpenEmail());
+        copy.setSentPublishedEmail(session.isSentPublishedEmail());
+        copy.setOpeningEmailEnabled(session.isOpeningEmailEnabled());
+        copy.setClosingEmailEnabled(session.isClosingEmailEnabled());
+        copy.setPublishedEmailEnabled(session.isPublishedEmailEnabled());
+        copy.setRespondingInstructorList(new HashSet<String>(session.getRespondingInstructorList()));
+        copy.setRespondingStudentList(new HashSet<String>(session.getRespondingStudentList()));
+        return copy;
+    }
 }
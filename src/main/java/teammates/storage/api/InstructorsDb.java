@@ -9,6 +9,7 @@ import java.util.List;
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import teammates.common.datatransfer.EntitiesPage;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.InstructorSearchResultBundle;
@@ -34,6 +35,8 @@ import com.google.appengine.api.search.ScoredDocument;
  */
 public class InstructorsDb extends EntitiesDb {
     
+    private static final String CACHE_KEY_PREFIX = "Instructor|";
+    
     /* =========================================================================
      * Methods related to Google Search API
      * =========================================================================
@@ -50,6 +53,42 @@ public class InstructorsDb extends EntitiesDb {
         }
     }
     
+    /**
+     * Puts the search documents of the instructors with as few calls to the search service as possible.
+     * Legacy instructors without a key are skipped.
+     * @return the number of documents processed, see {@link EntitiesDb#putDocuments(String, List)}
+     */
+    public int putDocuments(Collection<InstructorAttributes> instructors) {
+        List<InstructorSearchDocument> documents = new ArrayList<InstructorSearchDocument>();
+        for (InstructorAttributes instructorParam : instructors) {
+            InstructorAttributes instructor = instructorParam;
+            if (instructor.key == null) {
+                instructor = this.getInstructorForEmail(instructor.courseId, instructor.email);
+            }
+            // defensive coding for legacy data
+            if (instructor.key != null) {
+                documents.add(new InstructorSearchDocument(instructor));
+            }
+        }
+        return putDocuments(Const.SearchIndex.INSTRUCTOR, documents);
+    }
+    
+    /**
+     * Gets one page of all the instructors in the system, e.g. to rebuild their search index.
+     * @param cursor    null to get the first page, otherwise the cursor returned with the previous page
+     */
+    public EntitiesPage<InstructorAttributes> getInstructorsPage(String cursor, int pageSize) {
+        Query q = getPm().newQuery(Instructor.class);
+        List<?> page = executeForPage(q, cursor, pageSize);
+        List<InstructorAttributes> attributesList = new ArrayList<InstructorAttributes>();
+        for (Object entity : page) {
+            if (!JDOHelper.isDeleted(entity)) {
+                attributesList.add(new InstructorAttributes((Instructor) entity));
+            }
+        }
+        return new EntitiesPage<InstructorAttributes>(attributesList, getNextPageCursor(page, pageSize));
+    }
+    
     public void deleteDocument(InstructorAttributes instructorToDelete) {
         if (instructorToDelete.key == null) {
             InstructorAttributes instructor =
@@ -93,12 +132,6 @@ public class InstructorsDb extends EntitiesDb {
         
         List<EntityAttributes> instructorsToUpdate = createEntities(instructorsToAdd);
         
-        for (InstructorAttributes instructor : instructorsToAdd) {
-            if (!instructorsToUpdate.contains(instructor)) {
-                putDocument(instructor);
-            }
-        }
-        
         for (EntityAttributes entity : instructorsToUpdate) {
             InstructorAttributes instructor = (InstructorAttributes) entity;
             try {
@@ -108,8 +141,9 @@ public class InstructorsDb extends EntitiesDb {
              // difficult during testing
                 Assumption.fail("Entity found be already existing and not existing simultaneously");
             }
-            putDocument(instructor);
         }
+        
+        putDocuments(instructorsToAdd);
     }
 
     public void createInstructorsWithoutSearchability(Collection<InstructorAttributes> instructorsToAdd)
@@ -146,7 +180,11 @@ public class InstructorsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
     
-        Instructor i = getInstructorEntityForEmail(courseId, email);
+        @SuppressWarnings("deprecation") // only the fields identifying the instructor are set
+        InstructorAttributes instructorToGet = new InstructorAttributes();
+        instructorToGet.courseId = courseId;
+        instructorToGet.email = email;
+        Instructor i = (Instructor) includeRecentWrites(instructorToGet, getInstructorEntityForEmail(courseId, email));
     
         if (i == null) {
             log.info("Trying to get non-existent Instructor: " + courseId + "/" + email);
@@ -243,6 +281,14 @@ public class InstructorsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
+        String cacheKey = getCacheKeyPrefixForCourse(courseId) + "instructors";
+        @SuppressWarnings("unchecked")
+        List<InstructorAttributes> cachedInstructors = (List<InstructorAttributes>) getFromCache(cacheKey);
+        if (cachedInstructors != null) {
+            return getCopies(cachedInstructors);
+        }
+        long cacheVersion = getCacheVersion();
+        
         List<Instructor> instructorList = getInstructorEntitiesForCourse(courseId);
         
         List<InstructorAttributes> instructorDataList = new ArrayList<InstructorAttributes>();
@@ -252,6 +298,8 @@ public class InstructorsDb extends EntitiesDb {
             }
         }
         
+        putInCache(cacheKey, getCopies(instructorDataList), cacheVersion);
+        
         return instructorDataList;
     }
     
@@ -313,6 +361,7 @@ public class InstructorsDb extends EntitiesDb {
         putDocument(new InstructorAttributes(instructorToUpdate));
         log.info(instructorAttributesToUpdate.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(instructorAttributesToUpdate);
     }
     
     /**
@@ -350,6 +399,7 @@ public class InstructorsDb extends EntitiesDb {
         putDocument(new InstructorAttributes(instructorToUpdate));
         log.info(instructorAttributesToUpdate.getBackupIdentifier());
         getPm().close();
+        invalidateCachedEntities(instructorAttributesToUpdate);
     }
     
     /**
@@ -372,6 +422,7 @@ public class InstructorsDb extends EntitiesDb {
 
         getPm().deletePersistent(instructorToDelete);
         getPm().flush();
+        invalidateCache(getCacheKeyPrefixForCourse(courseId));
   
         // Check delete operation persisted
         if (Config.PERSISTENCE_CHECK_DURATION > 0) {
@@ -410,6 +461,9 @@ public class InstructorsDb extends EntitiesDb {
         
         getPm().deletePersistentAll(instructorsToDelete);
         getPm().flush();
+        for (String courseId : courseIds) {
+            invalidateCache(getCacheKeyPrefixForCourse(courseId));
+        }
     }
     
     /**
@@ -428,7 +482,7 @@ public class InstructorsDb extends EntitiesDb {
         
         getPm().deletePersistentAll(instructorList);
         getPm().flush();
-      
+        invalidateCache(CACHE_KEY_PREFIX);
     }
     
     /**
@@ -446,7 +500,7 @@ public class InstructorsDb extends EntitiesDb {
         }
         getPm().deletePersistentAll(instructorList);
         getPm().flush();
-
+        invalidateCache(getCacheKeyPrefixForCourse(courseId));
     }
     
     private Instructor getInstructorEntityForGoogleId(String courseId, String googleId) {
@@ -582,6 +636,23 @@ public class InstructorsDb extends EntitiesDb {
             
         return getInstructorEntityForEmail(instructorToGet.courseId, instructorToGet.email);
     }
+    
+    @Override
+    protected void invalidateCachedEntities(EntityAttributes attributes) {
+        invalidateCache(getCacheKeyPrefixForCourse(((InstructorAttributes) attributes).courseId));
+    }
+    
+    private static String getCacheKeyPrefixForCourse(String courseId) {
+        return CACHE_KEY_PREFIX + courseId + "|";
+    }
+    
+    private static List<InstructorAttributes> getCopies(List<InstructorAttributes> instructors) {
+        List<InstructorAttributes> copies = new ArrayList<InstructorAttributes>();
+        for (InstructorAttributes instructor : instructors) {
+            copies.add(instructor.getCopy());
+        }
+        return copies;
+    }
 
 }
 
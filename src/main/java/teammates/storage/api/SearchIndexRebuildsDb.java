@@ -0,0 +1,143 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.SearchIndexRebuildAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.entity.SearchIndexRebuild;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Handles CRUD Operations for the progress of search index rebuilds.
+ * The API uses data transfer classes (i.e. *Attributes) instead of presistable classes.
+ */
+public class SearchIndexRebuildsDb extends EntitiesDb {
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Null if the index has never been rebuilt.
+     */
+    public SearchIndexRebuildAttributes getSearchIndexRebuild(String indexName) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, indexName);
+
+        SearchIndexRebuild rebuild = getSearchIndexRebuildEntity(indexName);
+        if (rebuild == null) {
+            return null;
+        }
+        return new SearchIndexRebuildAttributes(rebuild);
+    }
+
+    /**
+     * @return the latest rebuild of each index which has been rebuilt
+     */
+    public List<SearchIndexRebuildAttributes> getAllSearchIndexRebuilds() {
+        Query q = getPm().newQuery(SearchIndexRebuild.class);
+
+        @SuppressWarnings("unchecked")
+        List<SearchIndexRebuild> rebuilds = (List<SearchIndexRebuild>) q.execute();
+
+        List<SearchIndexRebuildAttributes> rebuildAttributes = new ArrayList<SearchIndexRebuildAttributes>();
+        for (SearchIndexRebuild rebuild : rebuilds) {
+            if (!JDOHelper.isDeleted(rebuild)) {
+                rebuildAttributes.add(new SearchIndexRebuildAttributes(rebuild));
+            }
+        }
+        return rebuildAttributes;
+    }
+
+    /**
+     * Replaces the progress of any earlier rebuild of the same index with {@code rebuild}.
+     */
+    public void putSearchIndexRebuild(final SearchIndexRebuildAttributes rebuild) throws InvalidParametersException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, rebuild);
+
+        if (!rebuild.isValid()) {
+            throw new InvalidParametersException(rebuild.getInvalidityInfo());
+        }
+
+        updateInTransaction(SearchIndexRebuild.class, rebuild.getIndexName(),
+                            new TransactionalUpdate<SearchIndexRebuild>() {
+            @Override
+            public SearchIndexRebuild apply(SearchIndexRebuild existingRebuild) {
+                SearchIndexRebuild newRebuild = rebuild.toEntity();
+                if (existingRebuild == null) {
+                    return newRebuild;
+                }
+                existingRebuild.setRebuildId(newRebuild.getRebuildId());
+                existingRebuild.setCursor(newRebuild.getCursor());
+                existingRebuild.setDocumentsPut(newRebuild.getDocumentsPut());
+                existingRebuild.setStartedAt(newRebuild.getStartedAt());
+                existingRebuild.setUpdatedAt(newRebuild.getUpdatedAt());
+                existingRebuild.setFinished(newRebuild.isFinished());
+                return existingRebuild;
+            }
+        });
+        log.info(rebuild.getBackupIdentifier());
+    }
+
+    /**
+     * Records in a transaction that the documents of the page starting at {@code cursor} have been put,
+     * unless the rebuild has been restarted or the page has already been recorded, e.g. by a task
+     * which was run twice.
+     * @param nextCursor    null if the page was the last one, which finishes the rebuild
+     * @return true if the progress was recorded, i.e. the rebuild should continue from {@code nextCursor}
+     */
+    public boolean checkpointSearchIndexRebuild(String indexName, final String rebuildId, final String cursor,
+                                                final String nextCursor, final int documentsPutInPage) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, indexName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, rebuildId);
+
+        final boolean[] isRecorded = new boolean[1];
+        boolean isCommitted = updateInTransaction(SearchIndexRebuild.class, indexName,
+                                                  new TransactionalUpdate<SearchIndexRebuild>() {
+            @Override
+            public SearchIndexRebuild apply(SearchIndexRebuild rebuild) {
+                // the transaction may be attempted again after a conflict
+                isRecorded[0] = false;
+                if (rebuild == null || rebuild.isFinished() || !rebuildId.equals(rebuild.getRebuildId())
+                        || !isSameCursor(cursor, rebuild.getCursor())) {
+                    return rebuild;
+                }
+                rebuild.setCursor(nextCursor == null ? null : new Text(nextCursor));
+                rebuild.setDocumentsPut(rebuild.getDocumentsPut() + documentsPutInPage);
+                rebuild.setUpdatedAt(new Date());
+                rebuild.setFinished(nextCursor == null);
+                isRecorded[0] = true;
+                return rebuild;
+            }
+        });
+        return isCommitted && isRecorded[0];
+    }
+
+    private static boolean isSameCursor(String cursor, Text storedCursor) {
+        return cursor == null ? storedCursor == null : storedCursor != null && cursor.equals(storedCursor.getValue());
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        return getSearchIndexRebuildEntity(((SearchIndexRebuildAttributes) attributes).getIndexName());
+    }
+
+    private SearchIndexRebuild getSearchIndexRebuildEntity(String indexName) {
+        try {
+            SearchIndexRebuild rebuild = getPm().getObjectById(SearchIndexRebuild.class, indexName);
+            if (JDOHelper.isDeleted(rebuild)) {
+                return null;
+            }
+            return rebuild;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -2,13 +2,19 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.EntitiesPage;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -38,10 +44,41 @@ public class StudentsDb extends EntitiesDb {
 
     public static final String ERROR_UPDATE_EMAIL_ALREADY_USED = "Trying to update to an email that is already used by: ";
     
+    private static final String CACHE_KEY_PREFIX = "Student|";
+    
     public void putDocument(StudentAttributes student) {
         putDocument(Const.SearchIndex.STUDENT, new StudentSearchDocument(student));
     }
     
+    /**
+     * Gets one page of all the students in the system, e.g. to rebuild their search index.
+     * @param cursor    null to get the first page, otherwise the cursor returned with the previous page
+     */
+    public EntitiesPage<StudentAttributes> getStudentsPage(String cursor, int pageSize) {
+        Query q = getPm().newQuery(Student.class);
+        List<?> page = executeForPage(q, cursor, pageSize);
+        List<StudentAttributes> attributesList = new ArrayList<StudentAttributes>();
+        for (Object entity : page) {
+            if (!JDOHelper.isDeleted(entity)) {
+                attributesList.add(new StudentAttributes((Student) entity));
+            }
+        }
+        return new EntitiesPage<StudentAttributes>(attributesList, getNextPageCursor(page, pageSize));
+    }
+    
+    /**
+     * Puts the search documents of students which may be from different courses,
+     * with as few calls to the search service as possible.
+     * @return the number of documents processed, see {@link EntitiesDb#putDocuments(String, List)}
+     */
+    public int putDocuments(Collection<StudentAttributes> students) {
+        List<StudentSearchDocument> documents = new ArrayList<StudentSearchDocument>();
+        for (StudentAttributes student : students) {
+            documents.add(new StudentSearchDocument(student));
+        }
+        return putDocuments(Const.SearchIndex.STUDENT, documents);
+    }
+    
     /**
      * Search for students
      * @return {@link StudentSearchResultBundle}
@@ -130,6 +167,90 @@ public class StudentsDb extends EntitiesDb {
         }
     }
 
+    /**
+     * Creates the students with batched writes. Their search documents are not put,
+     * use {@link #putDocuments} for that.
+     * @return the created students, with their keys
+     * @throws EntityAlreadyExistsException if any of the students already exists, in which case
+     *         only the other students are created
+     */
+    public List<StudentAttributes> createStudentsWithoutDocuments(Collection<StudentAttributes> studentsToAdd)
+            throws InvalidParametersException, EntityAlreadyExistsException {
+        List<EntityAttributes> existingStudents = new ArrayList<EntityAttributes>();
+        List<Object> createdEntities = createAndReturnEntities(studentsToAdd, existingStudents);
+        if (!existingStudents.isEmpty()) {
+            EntityAttributes existingStudent = existingStudents.get(0);
+            String error = String.format(ERROR_CREATE_ENTITY_ALREADY_EXISTS, existingStudent.getEntityTypeAsString())
+                    + existingStudent.getIdentificationString();
+            log.info(error);
+            throw new EntityAlreadyExistsException(error);
+        }
+        
+        List<StudentAttributes> createdStudents = new ArrayList<StudentAttributes>();
+        for (Object entity : createdEntities) {
+            createdStudents.add(new StudentAttributes((Student) entity));
+        }
+        return createdStudents;
+    }
+    
+    /**
+     * Updates the name, comments, team and section of existing students of a course, identified
+     * by their emails. The students of the course are loaded with one query and the changes are
+     * written together. Their search documents are not put, use {@link #putDocuments} for that. <br>
+     * Preconditions: <br>
+     * * All students are valid and in the course {@code courseId}.
+     * @return the updated students, with their keys
+     * @throws EntityDoesNotExistException if any of the students does not exist, in which case
+     *         none of them are updated
+     */
+    public List<StudentAttributes> updateStudentsInCourseWithoutDocuments(String courseId,
+                                                                           List<StudentAttributes> students)
+            throws EntityDoesNotExistException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        Map<String, Student> studentEntities = new HashMap<String, Student>();
+        for (Student student : getStudentEntitiesForCourse(courseId)) {
+            if (!JDOHelper.isDeleted(student)) {
+                studentEntities.put(student.getEmail(), student);
+            }
+        }
+        for (StudentAttributes student : students) {
+            if (!studentEntities.containsKey(student.email)) {
+                String error = ERROR_UPDATE_NON_EXISTENT_STUDENT + courseId + "/" + student.email;
+                throw new EntityDoesNotExistException(error);
+            }
+        }
+        
+        List<StudentAttributes> updatedStudents = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            Student studentEntity = studentEntities.get(student.email);
+            studentEntity.setName(student.name);
+            studentEntity.setLastName(StringHelper.splitName(student.name)[1]);
+            studentEntity.setComments(student.comments);
+            studentEntity.setTeamName(student.team);
+            studentEntity.setSectionName(student.section);
+            updatedStudents.add(new StudentAttributes(studentEntity));
+        }
+        
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        getPm().close();
+        invalidateCache(getCacheKeyPrefixForCourse(courseId));
+        return updatedStudents;
+    }
+    
+    /**
+     * Puts the search documents of students of the same course, with as few calls to the search service
+     * as possible.
+     * @return the number of documents processed, see {@link EntitiesDb#putDocuments(String, List)}
+     */
+    public int putDocuments(List<StudentAttributes> students, CourseAttributes course) {
+        List<StudentSearchDocument> documents = new ArrayList<StudentSearchDocument>();
+        for (StudentAttributes student : students) {
+            documents.add(new StudentSearchDocument(student, course));
+        }
+        return putDocuments(Const.SearchIndex.STUDENT, documents);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -141,7 +262,10 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
     
-        Student s = getStudentEntityForEmail(courseId, email);
+        StudentAttributes studentToGet = new StudentAttributes();
+        studentToGet.course = courseId;
+        studentToGet.email = email;
+        Student s = (Student) includeRecentWrites(studentToGet, getStudentEntityForEmail(courseId, email));
 
         if (s == null) {
             log.info("Trying to get non-existent Student: " + courseId + "/" + email);
@@ -214,6 +338,47 @@ public class StudentsDb extends EntitiesDb {
         return studentDataList;
     }
 
+    /**
+     * Gets the students of several courses at once, with a few queries for all the courses
+     * which are not in the cache instead of one query per course.
+     * @return the students of each course, keyed by course ID; the list is empty if the course has no students
+     */
+    public Map<String, List<StudentAttributes>> getStudentsForCourses(Collection<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        Map<String, List<StudentAttributes>> studentsForCourses = new HashMap<String, List<StudentAttributes>>();
+        Set<String> courseIdsToFetch = new HashSet<String>();
+        for (String courseId : courseIds) {
+            @SuppressWarnings("unchecked")
+            List<StudentAttributes> cachedStudents =
+                    (List<StudentAttributes>) getFromCache(getCacheKeyPrefixForCourse(courseId) + "students");
+            if (cachedStudents == null) {
+                courseIdsToFetch.add(courseId);
+                studentsForCourses.put(courseId, new ArrayList<StudentAttributes>());
+            } else {
+                studentsForCourses.put(courseId, getCopies(cachedStudents));
+            }
+        }
+        if (courseIdsToFetch.isEmpty()) {
+            return studentsForCourses;
+        }
+        long cacheVersion = getCacheVersion();
+        
+        for (List<String> batch : splitForContainsQuery(courseIdsToFetch)) {
+            for (Student student : getStudentEntitiesForCourses(batch)) {
+                if (!JDOHelper.isDeleted(student)) {
+                    studentsForCourses.get(student.getCourseId()).add(new StudentAttributes(student));
+                }
+            }
+        }
+        
+        for (String courseId : courseIdsToFetch) {
+            putInCache(getCacheKeyPrefixForCourse(courseId) + "students",
+                       getCopies(studentsForCourses.get(courseId)), cacheVersion);
+        }
+        return studentsForCourses;
+    }
+    
     /**
      * Preconditions: <br>
      *  * All parameters are non-null.
@@ -222,6 +387,14 @@ public class StudentsDb extends EntitiesDb {
     public List<StudentAttributes> getStudentsForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
+        String cacheKey = getCacheKeyPrefixForCourse(courseId) + "students";
+        @SuppressWarnings("unchecked")
+        List<StudentAttributes> cachedStudents = (List<StudentAttributes>) getFromCache(cacheKey);
+        if (cachedStudents != null) {
+            return getCopies(cachedStudents);
+        }
+        long cacheVersion = getCacheVersion();
+        
         List<Student> studentList = getStudentEntitiesForCourse(courseId);
         
         List<StudentAttributes> studentDataList = new ArrayList<StudentAttributes>();
@@ -231,6 +404,8 @@ public class StudentsDb extends EntitiesDb {
                 studentDataList.add(new StudentAttributes(s));
             }
         }
+        
+        putInCache(cacheKey, getCopies(studentDataList), cacheVersion);
     
         return studentDataList;
     }
@@ -409,6 +584,7 @@ public class StudentsDb extends EntitiesDb {
         
         log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
         getPm().close();
+        invalidateCache(getCacheKeyPrefixForCourse(courseId));
     }
 
     //TODO: add an updateStudent(StudentAttributes) version and make the above private
@@ -444,6 +620,7 @@ public class StudentsDb extends EntitiesDb {
        
         getPm().deletePersistent(studentToDelete);
         getPm().flush();
+        invalidateCache(getCacheKeyPrefixForCourse(courseId));
     
         // Check delete operation persisted
         if (Config.PERSISTENCE_CHECK_DURATION > 0) {
@@ -490,6 +667,7 @@ public class StudentsDb extends EntitiesDb {
         }
         getPm().deletePersistentAll(studentList);
         getPm().flush();
+        invalidateCache(CACHE_KEY_PREFIX);
     }
 
     /**
@@ -518,6 +696,7 @@ public class StudentsDb extends EntitiesDb {
         }
         getPm().deletePersistentAll(studentList);
         getPm().flush();
+        invalidateCache(getCacheKeyPrefixForCourse(courseId));
     }
 
     public void deleteStudentsForCourses(List<String> courseIds) {
@@ -528,6 +707,9 @@ public class StudentsDb extends EntitiesDb {
         
         getPm().deletePersistentAll(studentsToDelete);
         getPm().flush();
+        for (String courseId : courseIds) {
+            invalidateCache(getCacheKeyPrefixForCourse(courseId));
+        }
     }
     
     public void verifyStudentExists(String courseId, String email)
@@ -627,6 +809,56 @@ public class StudentsDb extends EntitiesDb {
         StudentAttributes studentToGet = (StudentAttributes) entity;
         return getStudentForEmail(studentToGet.course, studentToGet.email);
     }
+    
+    /**
+     * Looks up the students of all the courses involved with one query per
+     * {@link #MAX_VALUES_PER_CONTAINS_QUERY} courses, as the key of a student entity
+     * cannot be derived from its attributes.
+     */
+    @Override
+    protected Set<String> getIdentificationStringsOfExistingEntities(
+            Collection<? extends EntityAttributes> attributesList) {
+        Map<String, Set<String>> existingEmailsForCourse = new HashMap<String, Set<String>>();
+        for (EntityAttributes attributes : attributesList) {
+            existingEmailsForCourse.put(((StudentAttributes) attributes).course, new HashSet<String>());
+        }
+        
+        for (List<String> courseIds : splitForContainsQuery(existingEmailsForCourse.keySet())) {
+            for (Student student : getStudentEntitiesForCourses(courseIds)) {
+                if (!JDOHelper.isDeleted(student)) {
+                    existingEmailsForCourse.get(student.getCourseId()).add(student.getEmail());
+                }
+            }
+        }
+        
+        Set<String> existingStudents = new HashSet<String>();
+        for (EntityAttributes attributes : attributesList) {
+            StudentAttributes student = (StudentAttributes) attributes;
+            if (existingEmailsForCourse.get(student.course).contains(student.email)) {
+                existingStudents.add(student.getIdentificationString());
+            }
+        }
+        return existingStudents;
+    }
+    
+    @Override
+    protected void invalidateCachedEntities(EntityAttributes attributes) {
+        invalidateCache(getCacheKeyPrefixForCourse(((StudentAttributes) attributes).course));
+    }
+    
+    private static String getCacheKeyPrefixForCourse(String courseId) {
+        return CACHE_KEY_PREFIX + courseId + "|";
+    }
+    
+    private static List<StudentAttributes> getCopies(List<StudentAttributes> students) {
+        List<StudentAttributes> copies = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            StudentAttributes copy = student.getCopy();
+            copy.lastName = student.lastName;
+            copies.add(copy);
+        }
+        return copies;
+    }
 
 }
 
@@ -29,6 +29,7 @@ public final class Datastore {
         if (pmf == null) {
             pmf = JDOHelper
                     .getPersistenceManagerFactory("transactions-optional");
+            pmf.addInstanceLifecycleListener(new QueryRecordingPersistenceManager.EntityLoadCounter(), null);
         } else {
             log.warning("Trying to initialize Datastore again");
         }
@@ -38,13 +39,13 @@ public final class Datastore {
 
         PersistenceManager pm = PER_THREAD_PM.get();
         if (pm == null) {
-            pm = pmf.getPersistenceManager();
+            pm = QueryRecordingPersistenceManager.wrap(pmf.getPersistenceManager());
             PER_THREAD_PM.set(pm);
 
         } else if (pm.isClosed()) {
 
             PER_THREAD_PM.remove();
-            pm = pmf.getPersistenceManager();
+            pm = QueryRecordingPersistenceManager.wrap(pmf.getPersistenceManager());
             PER_THREAD_PM.set(pm);
 
         }
@@ -0,0 +1,221 @@
+package teammates.storage.datastore;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a two-tier read-through cache for the results of datastore reads.
+ * <ul>
+ * <li>The first tier is local to the current request (thread) and lives until
+ * {@link #clearRequestCache()} is called at the end of the request.</li>
+ * <li>The second tier is shared by all requests served by this instance. It is
+ * bounded in size (least recently used entries are evicted first) and every entry
+ * expires after {@link #SHARED_CACHE_TTL_MILLIS}.</li>
+ * </ul>
+ * Keys are plain strings; callers are expected to prefix them with a namespace
+ * (e.g. entity kind and course ID) so that a whole namespace can be invalidated
+ * with {@link #invalidate(String)} when an entity in it is written.<br>
+ * Note that invalidation only reaches the shared tier of the current instance,
+ * which is why entries in that tier are kept only for a short time.
+ */
+public final class DatastoreCache {
+
+    /** Maximum number of entries kept in the shared tier. */
+    public static final int SHARED_CACHE_CAPACITY = 1000;
+
+    /** Time (in milliseconds) for which an entry in the shared tier remains valid. */
+    public static final long SHARED_CACHE_TTL_MILLIS = 10000;
+
+    private static final ThreadLocal<Map<String, Object>> PER_REQUEST_CACHE = new ThreadLocal<Map<String, Object>>();
+
+    @SuppressWarnings("serial")
+    private static final Map<String, SharedCacheEntry> SHARED_CACHE =
+            new LinkedHashMap<String, SharedCacheEntry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SharedCacheEntry> eldest) {
+                    boolean isOverCapacity = size() > SHARED_CACHE_CAPACITY;
+                    if (isOverCapacity) {
+                        EVICTION_COUNT.incrementAndGet();
+                    }
+                    return isOverCapacity;
+                }
+            };
+
+    private static final AtomicLong REQUEST_HIT_COUNT = new AtomicLong();
+    private static final AtomicLong SHARED_HIT_COUNT = new AtomicLong();
+    private static final AtomicLong MISS_COUNT = new AtomicLong();
+    private static final AtomicLong INVALIDATION_COUNT = new AtomicLong();
+    private static final AtomicLong EVICTION_COUNT = new AtomicLong();
+
+    /**
+     * Incremented on every invalidation so that a value read from the datastore
+     * before a concurrent write is not put into the shared tier after that write.
+     */
+    private static long version;
+
+    private DatastoreCache() {
+        // utility class
+    }
+
+    /**
+     * @return the cached value for {@code key}, looking in the request tier first
+     *         and then in the shared tier. Returns null if there is no valid entry.
+     */
+    public static Object get(String key) {
+        Map<String, Object> requestCache = getRequestCache();
+        Object value = requestCache.get(key);
+        if (value != null) {
+            REQUEST_HIT_COUNT.incrementAndGet();
+            return value;
+        }
+
+        synchronized (SHARED_CACHE) {
+            SharedCacheEntry entry = SHARED_CACHE.get(key);
+            if (entry != null && entry.isExpired()) {
+                SHARED_CACHE.remove(key);
+                entry = null;
+            }
+            if (entry != null) {
+                value = entry.value;
+            }
+        }
+
+        if (value == null) {
+            MISS_COUNT.incrementAndGet();
+            return null;
+        }
+        SHARED_HIT_COUNT.incrementAndGet();
+        requestCache.put(key, value);
+        return value;
+    }
+
+    /**
+     * @return the current cache version, to be passed to {@link #put(String, Object, long)}
+     *         together with the value read from the datastore after this call.
+     */
+    public static long getVersion() {
+        synchronized (SHARED_CACHE) {
+            return version;
+        }
+    }
+
+    /**
+     * Puts {@code value} into both tiers of the cache.<br>
+     * The value is not put into the shared tier if any invalidation happened since
+     * {@code versionAtRead} was obtained, as the value may be outdated by then.
+     */
+    public static void put(String key, Object value, long versionAtRead) {
+        if (value == null) {
+            return;
+        }
+        getRequestCache().put(key, value);
+        synchronized (SHARED_CACHE) {
+            if (versionAtRead == version) {
+                SHARED_CACHE.put(key, new SharedCacheEntry(value));
+            }
+        }
+    }
+
+    /**
+     * Removes all entries whose key starts with {@code keyPrefix} from the request
+     * tier of the current request and from the shared tier.
+     */
+    public static void invalidate(String keyPrefix) {
+        INVALIDATION_COUNT.incrementAndGet();
+        removeKeysWithPrefix(getRequestCache(), keyPrefix);
+        synchronized (SHARED_CACHE) {
+            version++;
+            removeKeysWithPrefix(SHARED_CACHE, keyPrefix);
+        }
+    }
+
+    /**
+     * Clears the request tier. This should be called at the end of every request.
+     */
+    public static void clearRequestCache() {
+        PER_REQUEST_CACHE.remove();
+    }
+
+    /**
+     * Clears both tiers of the cache.
+     */
+    public static void clear() {
+        clearRequestCache();
+        synchronized (SHARED_CACHE) {
+            version++;
+            SHARED_CACHE.clear();
+        }
+    }
+
+    public static long getRequestHitCount() {
+        return REQUEST_HIT_COUNT.get();
+    }
+
+    public static long getSharedHitCount() {
+        return SHARED_HIT_COUNT.get();
+    }
+
+    public static long getMissCount() {
+        return MISS_COUNT.get();
+    }
+
+    public static long getInvalidationCount() {
+        return INVALIDATION_COUNT.get();
+    }
+
+    public static long getEvictionCount() {
+        return EVICTION_COUNT.get();
+    }
+
+    /**
+     * @return a one-line summary of the cache counters, suitable for logging.
+     */
+    public static String getStatisticsAsString() {
+        int sharedCacheSize;
+        synchronized (SHARED_CACHE) {
+            sharedCacheSize = SHARED_CACHE.size();
+        }
+        return "DatastoreCache[requestHits=" + getRequestHitCount()
+               + ", sharedHits=" + getSharedHitCount()
+               + ", misses=" + getMissCount()
+               + ", invalidations=" + getInvalidationCount()
+               + ", evictions=" + getEvictionCount()
+               + ", sharedSize=" + sharedCacheSize + "]";
+    }
+
+    private static Map<String, Object> getRequestCache() {
+        Map<String, Object> requestCache = PER_REQUEST_CACHE.get();
+        if (requestCache == null) {
+            requestCache = new HashMap<String, Object>();
+            PER_REQUEST_CACHE.set(requestCache);
+        }
+        return requestCache;
+    }
+
+    private static void removeKeysWithPrefix(Map<String, ?> cache, String keyPrefix) {
+        Iterator<String> it = cache.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().startsWith(keyPrefix)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static class SharedCacheEntry {
+
+        private final Object value;
+        private final long expiryTime;
+
+        SharedCacheEntry(Object value) {
+            this.value = value;
+            this.expiryTime = System.currentTimeMillis() + SHARED_CACHE_TTL_MILLIS;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiryTime;
+        }
+    }
+}
@@ -26,7 +26,14 @@ public final class DatastoreFilter implements javax.servlet.Filter {
         //There was a Datastore.finishRequest() here inside a finally clause.
         //  It was removed at 4.19 because some requests span multiple entity
         //  groups. We are not allowed to apply transactions to such requests.
-        chain.doFilter(request, response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // the request tier of the cache and the writes of the request must not leak
+            // into the next request served by this thread
+            DatastoreCache.clearRequestCache();
+            RecentWrites.clear();
+        }
 
     }
 
@@ -0,0 +1,135 @@
+package teammates.storage.datastore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+import teammates.common.util.RequestProfile;
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.ThreadManager;
+
+/**
+ * Runs tasks which access the Datastore in parallel, in threads of the current request.
+ * Each task gets the persistence manager, request cache and recent writes of its own thread,
+ * which are discarded once the task is done. The tasks should therefore only read from the Datastore.
+ * <br> Request threads cannot outlive the request, so {@link #shutdown} must be called once
+ * the results are no longer needed, typically in a {@code finally} block.
+ */
+public final class ParallelDatastoreTasks {
+
+    private static final Logger log = Utils.getLogger();
+
+    /** Null if the tasks are run in the calling thread as they are submitted. */
+    private final ExecutorService executor;
+
+    /**
+     * The tasks are run one after another in the calling thread if {@code maxParallelism} is 1 or less,
+     * or if threads cannot be created for the current request (e.g. outside of a request).
+     */
+    public ParallelDatastoreTasks(int maxParallelism) {
+        ThreadFactory threadFactory = maxParallelism > 1 ? getRequestThreadFactory() : null;
+        this.executor = threadFactory == null ? null : Executors.newFixedThreadPool(maxParallelism, threadFactory);
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        if (executor == null) {
+            FutureTask<T> future = new FutureTask<T>(task);
+            future.run();
+            return future;
+        }
+        return executor.submit(withOwnDatastoreState(task));
+    }
+
+    /**
+     * Stops the threads of the tasks. Tasks which are still running are interrupted.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the task to complete. Exceptions thrown by the task are rethrown unchecked.
+     */
+    public static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Runs {@code tasks} using at most {@code maxParallelism} threads and waits for all of them.
+     * @return the results of the tasks, in the same order as {@code tasks}
+     */
+    public static <T> List<T> runAll(List<Callable<T>> tasks, int maxParallelism) {
+        ParallelDatastoreTasks parallelTasks = new ParallelDatastoreTasks(Math.min(tasks.size(), maxParallelism));
+        try {
+            List<Future<T>> futures = new ArrayList<Future<T>>();
+            for (Callable<T> task : tasks) {
+                futures.add(parallelTasks.submit(task));
+            }
+            List<T> results = new ArrayList<T>();
+            for (Future<T> future : futures) {
+                results.add(getResult(future));
+            }
+            return results;
+        } finally {
+            parallelTasks.shutdown();
+        }
+    }
+
+    private static <T> Callable<T> withOwnDatastoreState(final Callable<T> task) {
+        // the calls made by the task are recorded as calls of the request which submitted it
+        final RequestProfile profile = RequestProfile.getCurrent();
+        return new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                RequestProfile.attach(profile);
+                try {
+                    return task.call();
+                } finally {
+                    Datastore.finishRequest();
+                    DatastoreCache.clearRequestCache();
+                    RecentWrites.clear();
+                    RequestProfile.detach();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return null if threads cannot be created for the current request
+     */
+    private static ThreadFactory getRequestThreadFactory() {
+        try {
+            return ThreadManager.currentRequestThreadFactory();
+        } catch (RuntimeException e) {
+            log.info("Unable to create request threads, running tasks serially: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+    }
+}
@@ -0,0 +1,157 @@
+package teammates.storage.datastore;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+import javax.jdo.listener.InstanceLifecycleEvent;
+import javax.jdo.listener.LoadLifecycleListener;
+
+import teammates.common.util.RequestProfile;
+
+/**
+ * Wraps a persistence manager so that the queries and lookups by key run through it, and through the
+ * queries created by it, are recorded in the {@link RequestProfile} of the current request.
+ * Nothing is recorded for threads without a request profile.
+ */
+public final class QueryRecordingPersistenceManager implements InvocationHandler {
+
+    private final PersistenceManager pm;
+
+    private QueryRecordingPersistenceManager(PersistenceManager pm) {
+        this.pm = pm;
+    }
+
+    static PersistenceManager wrap(PersistenceManager pm) {
+        return (PersistenceManager) Proxy.newProxyInstance(PersistenceManager.class.getClassLoader(),
+                                                           new Class<?>[] { PersistenceManager.class },
+                                                           new QueryRecordingPersistenceManager(pm));
+    }
+
+    /**
+     * @return the persistence manager wrapped by {@code pm}, or {@code pm} itself if it is not wrapped.
+     *         Entities are managed by the wrapped persistence manager, e.g. as returned by
+     *         {@link javax.jdo.JDOHelper#getPersistenceManager}, so this is what they should be compared with.
+     */
+    public static PersistenceManager unwrap(PersistenceManager pm) {
+        if (Proxy.isProxyClass(pm.getClass())
+                && Proxy.getInvocationHandler(pm) instanceof QueryRecordingPersistenceManager) {
+            return ((QueryRecordingPersistenceManager) Proxy.getInvocationHandler(pm)).pm;
+        }
+        return pm;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ("getObjectById".equals(method.getName()) && args != null) {
+            boolean isByClassAndKey = args.length == 2 && args[0] instanceof Class;
+            String entityType = isByClassAndKey ? " " + ((Class<?>) args[0]).getSimpleName() : "";
+            recordQuery("getObjectById" + entityType, new Object[] { args[args.length - 1] });
+        } else if ("getObjectsById".equals(method.getName()) && args != null) {
+            recordQuery("getObjectsById", getParameters(args[args.length - 1]));
+        }
+        Object result = invokeOn(pm, method, args);
+        if (result instanceof Query) {
+            return QueryRecorder.wrap((Query) result);
+        }
+        return result;
+    }
+
+    private static void recordQuery(String query, Object[] parameters) {
+        RequestProfile profile = RequestProfile.getCurrent();
+        if (profile != null) {
+            profile.recordQuery(query, parameters);
+        }
+    }
+
+    /**
+     * @return the values in {@code parameters} if it holds several of them, e.g. the keys passed to
+     *         {@code getObjectsById} or the map passed to {@code Query.executeWithMap}
+     */
+    private static Object[] getParameters(Object parameters) {
+        if (parameters instanceof Object[]) {
+            return (Object[]) parameters;
+        } else if (parameters instanceof Collection) {
+            return ((Collection<?>) parameters).toArray();
+        } else if (parameters instanceof Map) {
+            return ((Map<?, ?>) parameters).entrySet().toArray();
+        }
+        return new Object[] { parameters };
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Records each execution of a query, identified by its JDOQL together with the names of the extensions
+     * set on it. The values of the extensions (e.g. the cursor it starts from) count as parameters.
+     */
+    private static final class QueryRecorder implements InvocationHandler {
+
+        private final Query query;
+        private final Map<Object, Object> extensions = new TreeMap<Object, Object>();
+
+        private QueryRecorder(Query query) {
+            this.query = query;
+        }
+
+        static Query wrap(Query query) {
+            return (Query) Proxy.newProxyInstance(Query.class.getClassLoader(), new Class<?>[] { Query.class },
+                                                  new QueryRecorder(query));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if (methodName.startsWith("execute")) {
+                String extensionsString = extensions.isEmpty() ? "" : " " + extensions.keySet();
+                List<Object> parameters = new ArrayList<Object>();
+                if (args != null) {
+                    boolean isWithArrayOrMap = "executeWithArray".equals(methodName)
+                                               || "executeWithMap".equals(methodName);
+                    parameters.addAll(Arrays.asList(isWithArrayOrMap ? getParameters(args[0]) : args));
+                }
+                parameters.addAll(extensions.values());
+                recordQuery(query.toString() + extensionsString, parameters.toArray());
+            } else if ("addExtension".equals(methodName)) {
+                extensions.put(String.valueOf(args[0]), String.valueOf(args[1]));
+            } else if ("setExtensions".equals(methodName)) {
+                extensions.clear();
+                if (args[0] != null) {
+                    for (Map.Entry<?, ?> extension : ((Map<?, ?>) args[0]).entrySet()) {
+                        extensions.put(String.valueOf(extension.getKey()), String.valueOf(extension.getValue()));
+                    }
+                }
+            }
+            return invokeOn(query, method, args);
+        }
+    }
+
+    /**
+     * Counts the entities loaded from the Datastore for the request of the current thread.
+     */
+    static final class EntityLoadCounter implements LoadLifecycleListener {
+
+        @Override
+        public void postLoad(InstanceLifecycleEvent event) {
+            RequestProfile profile = RequestProfile.getCurrent();
+            if (profile != null) {
+                profile.recordEntityLoaded();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package teammates.storage.datastore;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the entities created and deleted by the current request (thread),
+ * so that later reads in the same request can see those writes even if the
+ * Datastore does not reflect them yet (read-your-writes).<br>
+ * Keys are plain strings identifying an entity (e.g. entity type and identification
+ * string). The records live until {@link #clear()} is called at the end of the request.<br>
+ * It also counts how often a write was not yet visible to a read right after it,
+ * which is the case the writes used to wait for.
+ */
+public final class RecentWrites {
+
+    /** One in this many writes is read back to check whether the write is visible yet. */
+    public static final int CONSISTENCY_CHECK_INTERVAL = 10;
+
+    private static final Object DELETED = new Object();
+
+    private static final ThreadLocal<Map<String, Object>> PER_REQUEST_WRITES = new ThreadLocal<Map<String, Object>>();
+
+    private static final AtomicLong WRITE_COUNT = new AtomicLong();
+    private static final AtomicLong HIT_COUNT = new AtomicLong();
+    private static final AtomicLong CONSISTENCY_CHECK_COUNT = new AtomicLong();
+    private static final AtomicLong INCONSISTENT_READ_COUNT = new AtomicLong();
+
+    private RecentWrites() {
+        // utility class
+    }
+
+    /**
+     * Records that {@code entity} was created (or overwritten) by the current request.
+     * @return true if the write should be read back to check whether it is visible yet,
+     *         see {@link #recordConsistencyCheck(boolean)}
+     */
+    public static boolean recordWrite(String key, Object entity) {
+        getRequestWrites().put(key, entity);
+        return WRITE_COUNT.incrementAndGet() % CONSISTENCY_CHECK_INTERVAL == 0;
+    }
+
+    /**
+     * Records that the entity identified by {@code key} was deleted by the current request.
+     * @return true if the deletion should be read back to check whether it is visible yet,
+     *         see {@link #recordConsistencyCheck(boolean)}
+     */
+    public static boolean recordDeletion(String key) {
+        getRequestWrites().put(key, DELETED);
+        return WRITE_COUNT.incrementAndGet() % CONSISTENCY_CHECK_INTERVAL == 0;
+    }
+
+    /**
+     * @return true if the entity identified by {@code key} was deleted by the current request
+     *         and not created again since.
+     */
+    public static boolean isDeleted(String key) {
+        return getRequestWrites().get(key) == DELETED;
+    }
+
+    /**
+     * @return the entity identified by {@code key} as written by the current request,
+     *         or null if the current request did not create it.
+     */
+    public static Object getWrittenEntity(String key) {
+        Object entity = getRequestWrites().get(key);
+        return entity == DELETED ? null : entity;
+    }
+
+    /**
+     * Records that a read was answered from the writes of the current request.
+     */
+    public static void recordHit() {
+        HIT_COUNT.incrementAndGet();
+    }
+
+    /**
+     * Records the result of reading back a write.
+     * @param isWriteVisible false if the read did not reflect the write yet
+     */
+    public static void recordConsistencyCheck(boolean isWriteVisible) {
+        CONSISTENCY_CHECK_COUNT.incrementAndGet();
+        if (!isWriteVisible) {
+            INCONSISTENT_READ_COUNT.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forgets the writes of the current request. This should be called at the end of every request.
+     */
+    public static void clear() {
+        PER_REQUEST_WRITES.remove();
+    }
+
+    public static long getWriteCount() {
+        return WRITE_COUNT.get();
+    }
+
+    public static long getHitCount() {
+        return HIT_COUNT.get();
+    }
+
+    public static long getConsistencyCheckCount() {
+        return CONSISTENCY_CHECK_COUNT.get();
+    }
+
+    public static long getInconsistentReadCount() {
+        return INCONSISTENT_READ_COUNT.get();
+    }
+
+    /**
+     * @return a one-line summary of the counters, suitable for logging.
+     */
+    public static String getStatisticsAsString() {
+        return "RecentWrites[writes=" + getWriteCount()
+               + ", hits=" + getHitCount()
+               + ", consistencyChecks=" + getConsistencyCheckCount()
+               + ", inconsistentReads=" + getInconsistentReadCount() + "]";
+    }
+
+    private static Map<String, Object> getRequestWrites() {
+        Map<String, Object> requestWrites = PER_REQUEST_WRITES.get();
+        if (requestWrites == null) {
+            requestWrites = new HashMap<String, Object>();
+            PER_REQUEST_WRITES.set(requestWrites);
+        }
+        return requestWrites;
+    }
+}
@@ -0,0 +1,108 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents the statistics of the responses to a Feedback Question, which are kept up to date
+ * as responses are created, updated and deleted so that they do not have to be recomputed
+ * whenever the results of the question are shown.
+ */
+@PersistenceCapable
+public class FeedbackQuestionResultStatistics {
+
+    @PrimaryKey
+    @Persistent
+    private String feedbackQuestionId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    /** The number of responses the statistics are computed from. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Integer numOfResponses;
+
+    /** The statistics, as a JSON object whose class depends on the type of the question. Null if unknown. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Text statistics;
+
+    /**
+     * Incremented by every write, so that a recomputation of the statistics from all the responses
+     * can tell whether the statistics have changed since the recomputation started.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Long version;
+
+    /** The time a response to the question was last created, updated or deleted, or null if unknown. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date lastResponseChange;
+
+    public FeedbackQuestionResultStatistics(String feedbackQuestionId, String feedbackSessionName, String courseId,
+                                            Integer numOfResponses, Text statistics) {
+        this.feedbackQuestionId = feedbackQuestionId;
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.numOfResponses = numOfResponses;
+        this.statistics = statistics;
+    }
+
+    public String getFeedbackQuestionId() {
+        return feedbackQuestionId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Integer getNumOfResponses() {
+        return numOfResponses;
+    }
+
+    public void setNumOfResponses(Integer numOfResponses) {
+        this.numOfResponses = numOfResponses;
+    }
+
+    public Text getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(Text statistics) {
+        this.statistics = statistics;
+    }
+
+    public long getVersion() {
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * To be called on every change of the statistics.
+     */
+    public void incrementVersion() {
+        this.version = getVersion() + 1;
+    }
+
+    public Date getLastResponseChange() {
+        return lastResponseChange;
+    }
+
+    public void setLastResponseChange(Date lastResponseChange) {
+        this.lastResponseChange = lastResponseChange;
+    }
+}
@@ -37,6 +37,8 @@ public class FeedbackSession {
     @Persistent
     private String creatorEmail; //TODO: should this be googleId?
     
+    // The respondents are stored in FeedbackSessionRespondents entities. These lists only hold
+    // respondents added before that, or those which could not be added to their shard.
     @Persistent
     @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
     private Set<String> respondingInstructorList;
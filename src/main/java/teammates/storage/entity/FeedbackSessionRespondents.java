@@ -0,0 +1,76 @@
+package teammates.storage.entity;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents one shard of the users who have responded to a Feedback Session.
+ * The respondents of a session are spread over several shards by email, so that
+ * concurrent submissions to the same session rarely update the same entity.
+ */
+@PersistenceCapable
+public class FeedbackSessionRespondents {
+
+    // Format is feedbackSessionName%courseId%shardIndex
+    @PrimaryKey
+    @Persistent
+    private String feedbackSessionRespondentsId;
+
+    /** The ID of the Feedback Session, in the format feedbackSessionName%courseId. */
+    @Persistent
+    private String feedbackSessionId;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Set<String> respondingInstructorList;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Set<String> respondingStudentList;
+
+    public FeedbackSessionRespondents(String feedbackSessionName, String courseId, int shardIndex) {
+        this.feedbackSessionId = feedbackSessionName + "%" + courseId;
+        this.courseId = courseId;
+        this.feedbackSessionRespondentsId = generateId(feedbackSessionName, courseId, shardIndex);
+        this.respondingInstructorList = new HashSet<String>();
+        this.respondingStudentList = new HashSet<String>();
+    }
+
+    public static String generateId(String feedbackSessionName, String courseId, int shardIndex) {
+        return feedbackSessionName + "%" + courseId + "%" + shardIndex;
+    }
+
+    public String getId() {
+        return feedbackSessionRespondentsId;
+    }
+
+    public String getFeedbackSessionId() {
+        return feedbackSessionId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Set<String> getRespondingInstructorList() {
+        if (respondingInstructorList == null) {
+            respondingInstructorList = new HashSet<String>();
+        }
+        return respondingInstructorList;
+    }
+
+    public Set<String> getRespondingStudentList() {
+        if (respondingStudentList == null) {
+            respondingStudentList = new HashSet<String>();
+        }
+        return respondingStudentList;
+    }
+}
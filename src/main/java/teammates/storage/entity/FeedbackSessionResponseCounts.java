@@ -0,0 +1,113 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+import java.util.UUID;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents one shard of the response counts of a Feedback Session.
+ * The responses of a session are spread over several shards by giver, so that
+ * concurrent submissions to the same session rarely update the same entity.
+ */
+@PersistenceCapable
+public class FeedbackSessionResponseCounts {
+
+    // Format is feedbackSessionName%courseId%shardIndex
+    // PMD.UnusedPrivateField and SingularField are suppressed
+    // as feedbackSessionResponseCountsId is persisted to the database
+    @SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+    @PrimaryKey
+    @Persistent
+    private transient String feedbackSessionResponseCountsId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    private int shardIndex;
+
+    /**
+     * Changed to a new random value by every write, so that a recount of the responses
+     * can tell whether the shard has changed since the recount started.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private String revision;
+
+    /** The time a response counted in this shard was last created or deleted, or null if unknown. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date lastResponseChange;
+
+    /** Number of responses per feedback question ID, as a JSON object. Null if it has to be recounted. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Text responseCountsPerQuestion;
+
+    /**
+     * Creates a shard whose response counts have to be recounted.
+     */
+    public FeedbackSessionResponseCounts(String feedbackSessionName, String courseId, int shardIndex) {
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.shardIndex = shardIndex;
+        this.feedbackSessionResponseCountsId = generateId(feedbackSessionName, courseId, shardIndex);
+        renewRevision();
+    }
+
+    public static String generateId(String feedbackSessionName, String courseId, int shardIndex) {
+        return feedbackSessionName + "%" + courseId + "%" + shardIndex;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gives the shard a new revision. To be called on every change of the shard.
+     */
+    public void renewRevision() {
+        this.revision = UUID.randomUUID().toString();
+    }
+
+    public Date getLastResponseChange() {
+        return lastResponseChange;
+    }
+
+    public void setLastResponseChange(Date lastResponseChange) {
+        this.lastResponseChange = lastResponseChange;
+    }
+
+    public boolean isResponseCountsKnown() {
+        return responseCountsPerQuestion != null;
+    }
+
+    public Text getResponseCountsPerQuestion() {
+        return responseCountsPerQuestion;
+    }
+
+    public void setResponseCountsPerQuestion(Text responseCountsPerQuestion) {
+        this.responseCountsPerQuestion = responseCountsPerQuestion;
+    }
+}
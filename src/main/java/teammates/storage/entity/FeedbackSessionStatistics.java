@@ -0,0 +1,98 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+import java.util.UUID;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents the number of users expected to respond to a Feedback Session, which is kept
+ * so that it does not have to be recomputed from the roster whenever the session is listed.
+ * The response counts of the session are kept in {@link FeedbackSessionResponseCounts}.
+ */
+@PersistenceCapable
+public class FeedbackSessionStatistics {
+
+    // Format is feedbackSessionName%courseId, the same as FeedbackSession
+    // PMD.UnusedPrivateField and SingularField are suppressed
+    // as feedbackSessionStatisticsId is persisted to the database
+    @SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+    @PrimaryKey
+    @Persistent
+    private transient String feedbackSessionStatisticsId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    /** The number of users expected to respond. Null if it has to be recomputed. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Integer expectedTotal;
+
+    /**
+     * Changed to a new random value whenever the expected total is cleared, so that a computation
+     * of the expected total can tell whether the roster or the questions changed since it started.
+     * Null for statistics stored before it was introduced.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private String revision;
+
+    /** The time the expected total was last cleared, or null if unknown. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date lastExpectedTotalChange;
+
+    public FeedbackSessionStatistics(String feedbackSessionName, String courseId, Integer expectedTotal) {
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.feedbackSessionStatisticsId = generateId(feedbackSessionName, courseId);
+        this.expectedTotal = expectedTotal;
+        renewRevision();
+    }
+
+    public static String generateId(String feedbackSessionName, String courseId) {
+        return feedbackSessionName + "%" + courseId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Integer getExpectedTotal() {
+        return expectedTotal;
+    }
+
+    public void setExpectedTotal(Integer expectedTotal) {
+        this.expectedTotal = expectedTotal;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gives the statistics a new revision. To be called whenever the expected total is cleared.
+     */
+    public void renewRevision() {
+        this.revision = UUID.randomUUID().toString();
+    }
+
+    public Date getLastExpectedTotalChange() {
+        return lastExpectedTotalChange;
+    }
+
+    public void setLastExpectedTotalChange(Date lastExpectedTotalChange) {
+        this.lastExpectedTotalChange = lastExpectedTotalChange;
+    }
+}
@@ -0,0 +1,107 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents the progress of rebuilding a search index, which is checkpointed
+ * after every batch of documents so that the rebuild can resume where it stopped.
+ */
+@PersistenceCapable
+public class SearchIndexRebuild {
+
+    @PrimaryKey
+    @Persistent
+    private String indexName;
+
+    /** Identifies the rebuild, so that the tasks of an earlier rebuild of the same index can stop. */
+    @Persistent
+    private String rebuildId;
+
+    /** The cursor of the next page of entities to put documents for. Null to start from the first page. */
+    @Persistent
+    private Text cursor;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Long documentsPut;
+
+    @Persistent
+    private Date startedAt;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date updatedAt;
+
+    @Persistent
+    private Boolean isFinished;
+
+    public SearchIndexRebuild(String indexName, String rebuildId, Text cursor, long documentsPut,
+                              Date startedAt, Date updatedAt, boolean isFinished) {
+        this.indexName = indexName;
+        this.rebuildId = rebuildId;
+        this.cursor = cursor;
+        this.documentsPut = documentsPut;
+        this.startedAt = startedAt;
+        this.updatedAt = updatedAt;
+        this.isFinished = isFinished;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public String getRebuildId() {
+        return rebuildId;
+    }
+
+    public void setRebuildId(String rebuildId) {
+        this.rebuildId = rebuildId;
+    }
+
+    public Text getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(Text cursor) {
+        this.cursor = cursor;
+    }
+
+    public long getDocumentsPut() {
+        return documentsPut == null ? 0 : documentsPut;
+    }
+
+    public void setDocumentsPut(long documentsPut) {
+        this.documentsPut = documentsPut;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public boolean isFinished() {
+        return isFinished != null && isFinished;
+    }
+
+    public void setFinished(boolean isFinished) {
+        this.isFinished = isFinished;
+    }
+}
@@ -0,0 +1,129 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.logic.api.Logic;
+
+/**
+ * The entities which the {@link FeedbackResponseCommentSearchDocument}s of a batch of comments refer to.
+ * The entities of all the comments are fetched together when the context is created, with a few queries
+ * per course instead of several lookups per comment. Lookups for courses which were not prefetched
+ * go to the datastore one entity at a time.
+ */
+public class FeedbackResponseCommentSearchContext {
+
+    private static final Logic logic = new Logic();
+
+    private final Set<String> prefetchedCourseIds = new HashSet<String>();
+    private final Map<String, CourseAttributes> courses = new HashMap<String, CourseAttributes>();
+    private final Map<String, FeedbackSessionAttributes> sessions = new HashMap<String, FeedbackSessionAttributes>();
+    private final Map<String, FeedbackQuestionAttributes> questions = new HashMap<String, FeedbackQuestionAttributes>();
+    private final Map<String, FeedbackResponseAttributes> responses = new HashMap<String, FeedbackResponseAttributes>();
+    private final Map<String, InstructorAttributes> instructors = new HashMap<String, InstructorAttributes>();
+    private final Map<String, StudentAttributes> students = new HashMap<String, StudentAttributes>();
+    private final Map<String, List<StudentAttributes>> teams = new HashMap<String, List<StudentAttributes>>();
+
+    /**
+     * Creates a context which prefetches nothing.
+     */
+    public FeedbackResponseCommentSearchContext() {
+        // nothing to prefetch
+    }
+
+    /**
+     * Creates a context with the entities referred to by {@code comments} prefetched.
+     */
+    public FeedbackResponseCommentSearchContext(Collection<FeedbackResponseCommentAttributes> comments) {
+        this();
+        Set<String> responseIds = new HashSet<String>();
+        for (FeedbackResponseCommentAttributes comment : comments) {
+            prefetchedCourseIds.add(comment.courseId);
+            responseIds.add(comment.feedbackResponseId);
+        }
+
+        for (String courseId : prefetchedCourseIds) {
+            courses.put(courseId, logic.getCourse(courseId));
+            for (FeedbackSessionAttributes session : logic.getFeedbackSessionsForCourse(courseId)) {
+                sessions.put(getKey(session.getFeedbackSessionName(), courseId), session);
+            }
+            for (FeedbackQuestionAttributes question : logic.getFeedbackQuestionsForCourse(courseId)) {
+                questions.put(question.getId(), question);
+            }
+            for (InstructorAttributes instructor : logic.getInstructorsForCourse(courseId)) {
+                instructors.put(getKey(courseId, instructor.email), instructor);
+            }
+            for (StudentAttributes student : logic.getStudentsForCourse(courseId)) {
+                students.put(getKey(courseId, student.email), student);
+                String teamKey = getKey(courseId, student.team);
+                if (!teams.containsKey(teamKey)) {
+                    teams.put(teamKey, new ArrayList<StudentAttributes>());
+                }
+                teams.get(teamKey).add(student);
+            }
+        }
+
+        for (FeedbackResponseAttributes response : logic.getFeedbackResponses(responseIds)) {
+            responses.put(response.getId(), response);
+        }
+    }
+
+    public CourseAttributes getCourse(String courseId) {
+        return isPrefetched(courseId) ? courses.get(courseId) : logic.getCourse(courseId);
+    }
+
+    public FeedbackSessionAttributes getFeedbackSession(String feedbackSessionName, String courseId) {
+        return isPrefetched(courseId)
+               ? sessions.get(getKey(feedbackSessionName, courseId))
+               : logic.getFeedbackSession(feedbackSessionName, courseId);
+    }
+
+    public FeedbackQuestionAttributes getFeedbackQuestion(String courseId, String feedbackQuestionId) {
+        return isPrefetched(courseId) ? questions.get(feedbackQuestionId) : logic.getFeedbackQuestion(feedbackQuestionId);
+    }
+
+    public FeedbackResponseAttributes getFeedbackResponse(String courseId, String feedbackResponseId) {
+        return isPrefetched(courseId) ? responses.get(feedbackResponseId) : logic.getFeedbackResponse(feedbackResponseId);
+    }
+
+    public InstructorAttributes getInstructorForEmail(String courseId, String email) {
+        return isPrefetched(courseId)
+               ? instructors.get(getKey(courseId, email))
+               : logic.getInstructorForEmail(courseId, email);
+    }
+
+    public StudentAttributes getStudentForEmail(String courseId, String email) {
+        return isPrefetched(courseId) ? students.get(getKey(courseId, email)) : logic.getStudentForEmail(courseId, email);
+    }
+
+    /**
+     * @return an empty list if there are no students in the team
+     */
+    public List<StudentAttributes> getStudentsForTeam(String team, String courseId) {
+        if (!isPrefetched(courseId)) {
+            return logic.getStudentsForTeam(team, courseId);
+        }
+        List<StudentAttributes> studentsInTeam = teams.get(getKey(courseId, team));
+        return studentsInTeam == null ? new ArrayList<StudentAttributes>() : studentsInTeam;
+    }
+
+    private boolean isPrefetched(String courseId) {
+        return prefetchedCourseIds.contains(courseId);
+    }
+
+    private static String getKey(String first, String second) {
+        return first + "%" + second;
+    }
+}
@@ -1,6 +1,7 @@
 package teammates.storage.search;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,9 +35,33 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
     private InstructorAttributes giverAsInstructor; //comment giver
     private List<InstructorAttributes> relatedInstructors;
     private List<StudentAttributes> relatedStudents;
+    private FeedbackResponseCommentSearchContext context;
     
     public FeedbackResponseCommentSearchDocument(FeedbackResponseCommentAttributes comment) {
+        this(comment, new FeedbackResponseCommentSearchContext());
+    }
+    
+    /**
+     * @param context where the entities related to the comment are looked up
+     */
+    public FeedbackResponseCommentSearchDocument(FeedbackResponseCommentAttributes comment,
+                                                 FeedbackResponseCommentSearchContext context) {
         this.comment = comment;
+        this.context = context;
+    }
+    
+    /**
+     * Creates the documents for a batch of comments, which look up their related entities
+     * in one context prefetched for all of them.
+     */
+    public static List<FeedbackResponseCommentSearchDocument> createDocuments(
+            Collection<FeedbackResponseCommentAttributes> comments) {
+        FeedbackResponseCommentSearchContext context = new FeedbackResponseCommentSearchContext(comments);
+        List<FeedbackResponseCommentSearchDocument> documents = new ArrayList<FeedbackResponseCommentSearchDocument>();
+        for (FeedbackResponseCommentAttributes comment : comments) {
+            documents.add(new FeedbackResponseCommentSearchDocument(comment, context));
+        }
+        return documents;
     }
     
     @Override
@@ -45,15 +70,15 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
             return;
         }
         
-        relatedSession = logic.getFeedbackSession(comment.feedbackSessionName, comment.courseId);
+        relatedSession = context.getFeedbackSession(comment.feedbackSessionName, comment.courseId);
         
-        relatedQuestion = logic.getFeedbackQuestion(comment.feedbackQuestionId);
+        relatedQuestion = context.getFeedbackQuestion(comment.courseId, comment.feedbackQuestionId);
         
-        relatedResponse = logic.getFeedbackResponse(comment.feedbackResponseId);
+        relatedResponse = context.getFeedbackResponse(comment.courseId, comment.feedbackResponseId);
         
-        course = logic.getCourse(comment.courseId);
+        course = context.getCourse(comment.courseId);
         
-        giverAsInstructor = logic.getInstructorForEmail(comment.courseId, comment.giverEmail);
+        giverAsInstructor = context.getInstructorForEmail(comment.courseId, comment.giverEmail);
         
         relatedInstructors = new ArrayList<InstructorAttributes>();
         relatedStudents = new ArrayList<StudentAttributes>();
@@ -62,7 +87,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         Set<String> addedEmailSet = new HashSet<String>();
         if (relatedQuestion.giverType == FeedbackParticipantType.INSTRUCTORS
                 || relatedQuestion.giverType == FeedbackParticipantType.SELF) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.giver);
+            InstructorAttributes ins = context.getInstructorForEmail(comment.courseId, relatedResponse.giver);
             if (ins == null || addedEmailSet.contains(ins.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -71,7 +96,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
                 responseGiverName = ins.name + " (" + ins.displayedName + ")";
             }
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.giver);
+            StudentAttributes stu = context.getStudentForEmail(comment.courseId, relatedResponse.giver);
             if (stu == null || addedEmailSet.contains(stu.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -82,7 +107,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         }
         
         if (relatedQuestion.recipientType == FeedbackParticipantType.INSTRUCTORS) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.recipient);
+            InstructorAttributes ins = context.getInstructorForEmail(comment.courseId, relatedResponse.recipient);
             if (ins != null && !addedEmailSet.contains(ins.email)) {
                 relatedInstructors.add(ins);
                 addedEmailSet.add(ins.email);
@@ -93,13 +118,13 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         } else if (relatedQuestion.recipientType == FeedbackParticipantType.NONE) {
             responseRecipientName = Const.USER_NOBODY_TEXT;
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.recipient);
+            StudentAttributes stu = context.getStudentForEmail(comment.courseId, relatedResponse.recipient);
             if (stu != null && !addedEmailSet.contains(stu.email)) {
                 relatedStudents.add(stu);
                 addedEmailSet.add(stu.email);
                 responseRecipientName = stu.name + " (" + stu.team + ")";
             }
-            List<StudentAttributes> team = logic.getStudentsForTeam(relatedResponse.recipient, comment.courseId);
+            List<StudentAttributes> team = context.getStudentsForTeam(relatedResponse.recipient, comment.courseId);
             if (team != null) {
                 responseRecipientName = relatedResponse.recipient; //it's actually a team name here
                 for (StudentAttributes studentInTeam : team) {
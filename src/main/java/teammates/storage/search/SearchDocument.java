@@ -9,11 +9,7 @@ import com.google.appengine.api.search.Document;
  */
 public abstract class SearchDocument {
     
-    protected Logic logic;
-    
-    public SearchDocument() {
-        logic = new Logic();
-    }
+    protected static final Logic logic = new Logic();
     
     public Document build() {
         prepareData();
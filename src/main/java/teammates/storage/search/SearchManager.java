@@ -1,37 +1,58 @@
 package teammates.storage.search;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Config;
 import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
+import teammates.storage.datastore.DatastoreCache;
 
+import com.google.appengine.api.search.Cursor;
 import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Index;
 import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.OperationResult;
 import com.google.appengine.api.search.PutException;
 import com.google.appengine.api.search.PutResponse;
 import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.QueryOptions;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchServiceFactory;
+import com.google.appengine.api.search.SortExpression;
+import com.google.appengine.api.search.SortOptions;
 import com.google.appengine.api.search.StatusCode;
 
 /**
  * Represents the search manager for index.
  * Codes reference:
  * https://developers.google.com/appengine/docs/java/search/
+ * <br> The results of searches are kept in the {@link DatastoreCache} for a short time, keyed by the
+ * query string, which includes the visibility scope of the user, and the cursor. Putting or deleting
+ * documents of an index invalidates the cached results of all searches in that index.
  */
 public final class SearchManager {
     private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE =
-            "Failed to put document %s into search index %s due to non-transient backend issue.";
+            "Failed to put %d documents into search index %s due to non-transient backend issue.";
     private static final String ERROR_EXCEED_DURATION =
-            "Operation did not succeed in time to put document %s into search index %s";
+            "Operation did not succeed in time to put %d documents into search index %s";
+    /** The maximum number of documents the search service accepts in one put. */
+    public static final int MAX_DOCUMENTS_PER_PUT = 200;
     private static final Logger log = Utils.getLogger();
     private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
+    private static final String SEARCH_RESULTS_CACHE_KEY_PREFIX = "SearchResults|";
+    
+    private static final AtomicLong SEARCH_RESULTS_CACHE_HIT_COUNT = new AtomicLong();
+    private static final AtomicLong SEARCH_RESULTS_CACHE_MISS_COUNT = new AtomicLong();
     
     private SearchManager() {
         // utility class
@@ -41,36 +62,87 @@ public final class SearchManager {
      * Create or update the search document for the given document and index
      */
     public static void putDocument(String indexName, Document document) {
+        putDocuments(indexName, Collections.singletonList(document));
+    }
+    
+    /*
+     * Create or update the search documents for the given documents and index.
+     * The documents are put in batches which are all sent at once, and the documents which fail
+     * are retried with an increasing wait in between, until PERSISTENCE_CHECK_DURATION has passed.
+     * @return the number of documents put successfully
+     */
+    public static int putDocuments(String indexName, List<Document> documents) {
+        invalidateSearchResults(indexName);
         int elapsedTime = 0;
-        boolean isSuccessful = tryPutDocument(indexName, document);
-        while (!isSuccessful
+        int waitDuration = ThreadHelper.WAIT_DURATION;
+        List<Document> failedDocuments = tryPutDocuments(indexName, documents);
+        while (!failedDocuments.isEmpty()
                 && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-            ThreadHelper.waitBriefly();
-            //retry putting the document
-            isSuccessful = tryPutDocument(indexName, document);
-            //check before incrementing to avoid boundary case problem
-            if (!isSuccessful) {
-                elapsedTime += ThreadHelper.WAIT_DURATION;
-            }
-            log.info("TEST");
+            ThreadHelper.waitFor(waitDuration);
+            elapsedTime += waitDuration;
+            waitDuration *= 2;
+            //retry putting only the documents which failed
+            failedDocuments = tryPutDocuments(indexName, failedDocuments);
         }
-        if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-            log.severe(String.format(ERROR_EXCEED_DURATION, document, indexName));
+        if (!failedDocuments.isEmpty()) {
+            log.severe(String.format(ERROR_EXCEED_DURATION, failedDocuments.size(), indexName));
         }
+        // searches made while the documents were being put may have cached the old results
+        invalidateSearchResults(indexName);
+        return documents.size() - failedDocuments.size();
     }
     
-    private static boolean tryPutDocument(String indexName, Document document) {
+    /**
+     * Sends all the batches of documents without waiting, then waits for all of them.
+     * @return the documents which were not put successfully
+     */
+    private static List<Document> tryPutDocuments(String indexName, List<Document> documents) {
         Index index = getIndex(indexName);
+        List<List<Document>> batches = new ArrayList<List<Document>>();
+        List<Future<PutResponse>> results = new ArrayList<Future<PutResponse>>();
+        List<Long> startTimes = new ArrayList<Long>();
+        for (int i = 0; i < documents.size(); i += MAX_DOCUMENTS_PER_PUT) {
+            List<Document> batch = documents.subList(i, Math.min(i + MAX_DOCUMENTS_PER_PUT, documents.size()));
+            batches.add(batch);
+            startTimes.add(System.currentTimeMillis());
+            results.add(index.putAsync(batch));
+        }
+        
+        List<Document> failedDocuments = new ArrayList<Document>();
+        for (int i = 0; i < batches.size(); i++) {
+            List<Document> failedDocumentsInBatch = getFailedDocuments(indexName, batches.get(i), results.get(i));
+            // a batch may finish while the earlier batches are waited for, so this is an upper bound of its time
+            log.fine(String.format("Put %d of %d documents into search index %s in %d ms",
+                                   batches.get(i).size() - failedDocumentsInBatch.size(), batches.get(i).size(),
+                                   indexName, System.currentTimeMillis() - startTimes.get(i)));
+            failedDocuments.addAll(failedDocumentsInBatch);
+        }
+        return failedDocuments;
+    }
+    
+    private static List<Document> getFailedDocuments(String indexName, List<Document> batch,
+                                                     Future<PutResponse> result) {
         try {
-            PutResponse result = index.put(document);
-            return result.getResults().get(0).getCode() == StatusCode.OK;
-        } catch (PutException e) {
+            List<OperationResult> operationResults = result.get().getResults();
+            List<Document> failedDocuments = new ArrayList<Document>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (operationResults.get(i).getCode() != StatusCode.OK) {
+                    failedDocuments.add(batch.get(i));
+                }
+            }
+            return failedDocuments;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return batch;
+        } catch (ExecutionException e) {
             //if it's a transient error in the server, it can be re-tried
-            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
-                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName)
-                        + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+            boolean isTransientError = e.getCause() instanceof PutException
+                    && StatusCode.TRANSIENT_ERROR.equals(((PutException) e.getCause()).getOperationResult().getCode());
+            if (!isTransientError) {
+                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, batch.size(), indexName)
+                        + " e:\n" + TeammatesException.toStringWithStackTrace(e.getCause()));
             }
-            return false;
+            return batch;
         }
     }
     
@@ -82,10 +154,24 @@ public final class SearchManager {
     }
     
     /*
-     * Search document by query
+     * Search document by query, reusing the results of the same search if it was made very recently
      */
     public static Results<ScoredDocument> searchDocuments(String indexName, Query query) {
-        return getIndex(indexName).search(query);
+        String cacheKey = getSearchResultsCacheKey(indexName, query);
+        @SuppressWarnings("unchecked")
+        Results<ScoredDocument> cachedResults = (Results<ScoredDocument>) DatastoreCache.get(cacheKey);
+        if (cachedResults != null) {
+            SEARCH_RESULTS_CACHE_HIT_COUNT.incrementAndGet();
+            log.info("Search results in " + indexName + " taken from cache, "
+                     + getSearchResultsCacheStatisticsAsString());
+            return cachedResults;
+        }
+        SEARCH_RESULTS_CACHE_MISS_COUNT.incrementAndGet();
+        
+        long cacheVersion = DatastoreCache.getVersion();
+        Results<ScoredDocument> results = getIndex(indexName).search(query);
+        DatastoreCache.put(cacheKey, results, cacheVersion);
+        return results;
     }
     
     /*
@@ -93,6 +179,7 @@ public final class SearchManager {
      */
     public static void deleteDocument(String indexName, String documentId) {
         getIndex(indexName).deleteAsync(documentId);
+        invalidateSearchResults(indexName);
     }
     
     /*
@@ -100,6 +187,73 @@ public final class SearchManager {
      */
     public static void deleteDocuments(String indexName, String[] documentIds) {
         getIndex(indexName).deleteAsync(documentIds);
+        invalidateSearchResults(indexName);
+    }
+    
+    public static long getSearchResultsCacheHitCount() {
+        return SEARCH_RESULTS_CACHE_HIT_COUNT.get();
+    }
+    
+    public static long getSearchResultsCacheMissCount() {
+        return SEARCH_RESULTS_CACHE_MISS_COUNT.get();
+    }
+    
+    /**
+     * @return the fraction of searches answered from the cache, or 0 if there has been no search
+     */
+    public static double getSearchResultsCacheHitRate() {
+        long hitCount = getSearchResultsCacheHitCount();
+        long searchCount = hitCount + getSearchResultsCacheMissCount();
+        return searchCount == 0 ? 0 : (double) hitCount / searchCount;
+    }
+    
+    /**
+     * @return a one-line summary of the search results cache counters, suitable for logging.
+     */
+    public static String getSearchResultsCacheStatisticsAsString() {
+        return String.format("SearchResultsCache[hits=%d, misses=%d, hitRate=%.2f]",
+                             getSearchResultsCacheHitCount(), getSearchResultsCacheMissCount(),
+                             getSearchResultsCacheHitRate());
+    }
+    
+    /**
+     * The query string contains the text to search for and the visibility scope of the user,
+     * so searches only share results with searches of the same text and scope.
+     * Runs of whitespace in the query string do not change the results, so they are collapsed.
+     */
+    private static String getSearchResultsCacheKey(String indexName, Query query) {
+        QueryOptions options = query.getOptions();
+        Cursor cursor = options.getCursor();
+        String cursorString = cursor == null ? null : cursor.toWebSafeString();
+        return SEARCH_RESULTS_CACHE_KEY_PREFIX + indexName + "|" + query.getQueryString().trim().replaceAll("\\s+", " ")
+               + "|" + options.getLimit() + "|" + options.getOffset()
+               + "|" + getSortOptionsCacheKey(options.getSortOptions())
+               + "|" + (cursorString == null ? "" : cursorString);
+    }
+    
+    /**
+     * @return the scorer, limit and sort expressions of {@code sortOptions}, which decide the order
+     *         and thus the page of results returned
+     */
+    private static String getSortOptionsCacheKey(SortOptions sortOptions) {
+        if (sortOptions == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder();
+        key.append(sortOptions.getMatchScorer() == null ? "" : sortOptions.getMatchScorer().getClass().getSimpleName())
+           .append(':').append(sortOptions.getLimit());
+        for (SortExpression sortExpression : sortOptions.getSortExpressions()) {
+            key.append(',').append(sortExpression.getExpression())
+               .append(' ').append(sortExpression.getDirection())
+               .append(' ').append(sortExpression.getDefaultValue())
+               .append(' ').append(sortExpression.getDefaultValueNumeric())
+               .append(' ').append(sortExpression.getDefaultValueDate());
+        }
+        return key.toString();
+    }
+    
+    private static void invalidateSearchResults(String indexName) {
+        DatastoreCache.invalidate(SEARCH_RESULTS_CACHE_KEY_PREFIX + indexName + "|");
     }
     
     private static Index getIndex(String indexName) {
@@ -1,7 +1,10 @@
 package teammates.storage.search;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Logger;
 
 import teammates.common.util.FieldValidator;
@@ -66,10 +69,14 @@ public class SearchQuery {
         return this;
     }
     
+    /**
+     * The keywords are sorted and repeated keywords are dropped, which does not change the results
+     * of the OR query, so that searches for the same keywords share their results in the cache.
+     */
     private String prepareOrQueryString(String queryString) {
         String[] splitStrings = queryString.replaceAll("\"", " \" ").trim().split("\\s+");
 
-        List<String> keywords = new ArrayList<String>();
+        Set<String> keywords = new TreeSet<String>();
         StringBuilder key = new StringBuilder();
         boolean isStartQuote = false;
         for (int i = 0; i < splitStrings.length; i++) {
@@ -102,10 +109,11 @@ public class SearchQuery {
             return "";
         }
         
-        StringBuilder preparedQueryString = new StringBuilder("(\"" + keywords.get(0) + "\"");
+        Iterator<String> keywordIterator = keywords.iterator();
+        StringBuilder preparedQueryString = new StringBuilder("(\"" + keywordIterator.next() + "\"");
         
-        for (int i = 1; i < keywords.size(); i++) {
-            preparedQueryString.append(OR).append("\"" + keywords.get(i) + "\"");
+        while (keywordIterator.hasNext()) {
+            preparedQueryString.append(OR).append("\"" + keywordIterator.next() + "\"");
         }
         return preparedQueryString.toString() + ")";
     }
@@ -17,9 +17,17 @@ public class StudentSearchDocument extends SearchDocument {
         this.student = student;
     }
     
+    /**
+     * Use this if the course of the student is already loaded, to avoid looking it up again.
+     */
+    public StudentSearchDocument(StudentAttributes student, CourseAttributes course) {
+        this.student = student;
+        this.course = course;
+    }
+    
     @Override
     protected void prepareData() {
-        if (student == null) {
+        if (student == null || course != null) {
             return;
         }
         
@@ -0,0 +1,27 @@
+package teammates.ui.controller;
+
+import teammates.common.util.ActionLatencyStatistics;
+import teammates.common.util.Const;
+import teammates.common.util.EmailSendingStatistics;
+import teammates.logic.api.GateKeeper;
+
+/**
+ * Shows the time taken by the recent requests of each action served by the current instance,
+ * and the throughput of the batches of emails it has sent through each email service.
+ */
+public class AdminActionLatencyPageAction extends Action {
+
+    @Override
+    protected ActionResult execute() {
+        
+        new GateKeeper().verifyAdminPrivileges(account);
+        
+        AdminActionLatencyPageData data = new AdminActionLatencyPageData(account, ActionLatencyStatistics.getAll(),
+                                                                         EmailSendingStatistics.getAll());
+        
+        statusToAdmin = "Admin Action Latency Page Load";
+        
+        return createShowPageResult(Const.ViewURIs.ADMIN_ACTION_LATENCY, data);
+    }
+
+}
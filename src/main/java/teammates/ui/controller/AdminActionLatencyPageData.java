@@ -0,0 +1,71 @@
+package teammates.ui.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.util.ActionLatencyStatistics;
+import teammates.common.util.EmailSendingStatistics;
+import teammates.common.util.RequestProfile.Measure;
+import teammates.ui.template.AdminActionLatencyRow;
+import teammates.ui.template.AdminEmailThroughputRow;
+
+public class AdminActionLatencyPageData extends PageData {
+    
+    private List<AdminActionLatencyRow> rows;
+    private List<AdminEmailThroughputRow> emailThroughputRows;
+    
+    public AdminActionLatencyPageData(AccountAttributes account, List<ActionLatencyStatistics> statistics,
+                                      List<EmailSendingStatistics> emailStatistics) {
+        super(account);
+        rows = new ArrayList<AdminActionLatencyRow>();
+        for (ActionLatencyStatistics actionStatistics : statistics) {
+            rows.add(createRow(actionStatistics));
+        }
+        emailThroughputRows = new ArrayList<AdminEmailThroughputRow>();
+        for (EmailSendingStatistics serviceStatistics : emailStatistics) {
+            emailThroughputRows.add(createEmailThroughputRow(serviceStatistics));
+        }
+    }
+    
+    public List<AdminActionLatencyRow> getRows() {
+        return rows;
+    }
+    
+    public List<AdminEmailThroughputRow> getEmailThroughputRows() {
+        return emailThroughputRows;
+    }
+    
+    public int getSamplesPerAction() {
+        return ActionLatencyStatistics.SAMPLES_PER_ACTION;
+    }
+    
+    private AdminActionLatencyRow createRow(ActionLatencyStatistics statistics) {
+        return new AdminActionLatencyRow(statistics.getActionName(), statistics.getRequestCount(),
+                                         getPercentiles(statistics, Measure.TOTAL),
+                                         getPercentiles(statistics, Measure.AUTH),
+                                         getPercentiles(statistics, Measure.LOGIC),
+                                         getPercentiles(statistics, Measure.DATASTORE),
+                                         getPercentiles(statistics, Measure.SEARCH),
+                                         getPercentiles(statistics, Measure.RENDER),
+                                         getPercentiles(statistics, Measure.DATASTORE_CALLS),
+                                         getPercentiles(statistics, Measure.QUERIES),
+                                         getPercentiles(statistics, Measure.ENTITIES_LOADED));
+    }
+    
+    private AdminEmailThroughputRow createEmailThroughputRow(EmailSendingStatistics statistics) {
+        return new AdminEmailThroughputRow(statistics.getServiceName(), statistics.getBatchCount(),
+                                           statistics.getEmailCount(), statistics.getThrottledBatchCount(),
+                                           statistics.getFailedBatchCount(),
+                                           String.format("%.1f", statistics.getThroughput()),
+                                           String.format("%.1f", statistics.getRate()));
+    }
+    
+    /**
+     * @return the 50th, 90th and 99th percentiles and the maximum of {@code measure}, e.g. "12 / 40 / 95 / 120"
+     */
+    private static String getPercentiles(ActionLatencyStatistics statistics, Measure measure) {
+        return statistics.getPercentile(measure, 50) + " / " + statistics.getPercentile(measure, 90) + " / "
+               + statistics.getPercentile(measure, 99) + " / " + statistics.getMax(measure);
+    }
+}
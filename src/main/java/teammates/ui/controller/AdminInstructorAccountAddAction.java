@@ -173,7 +173,7 @@ public class AdminInstructorAccountAddAction extends Action {
         c.set(Calendar.YEAR, c.get(Calendar.YEAR) + 1);
         DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd hh:mm a Z");
 
-        String jsonString = Templates.populateTemplate(Templates.INSTRUCTOR_SAMPLE_DATA,
+        String jsonString = Templates.replaceAll(Templates.INSTRUCTOR_SAMPLE_DATA,
                 // replace email
                 "teammates.demo.instructor@demo.course", pageData.instructorEmail,
                 // replace name
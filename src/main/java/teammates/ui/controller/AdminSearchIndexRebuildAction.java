@@ -0,0 +1,40 @@
+package teammates.ui.controller;
+
+import teammates.common.datatransfer.SearchIndexRebuildAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const;
+import teammates.logic.api.GateKeeper;
+
+/**
+ * This Action is used by the admin to rebuild a search index in the background, and to
+ * follow the progress and throughput of the rebuilds through Ajax. A rebuild is started
+ * if the name of an index is given; the progress of all rebuilds is returned in any case.
+ */
+public class AdminSearchIndexRebuildAction extends Action {
+
+    @Override
+    protected ActionResult execute() {
+        
+        new GateKeeper().verifyAdminPrivileges(account);
+        
+        String indexName = getRequestParamValue(Const.ParamsNames.SEARCH_INDEX_NAME);
+        
+        AdminSearchIndexRebuildPageData data = new AdminSearchIndexRebuildPageData(account);
+        
+        if (indexName == null) {
+            statusToAdmin = "Search index rebuild progress viewed";
+        } else {
+            try {
+                SearchIndexRebuildAttributes rebuild = logic.startSearchIndexRebuild(indexName);
+                data.statusForAjax = "Rebuild of search index " + indexName + " started";
+                statusToAdmin = "Search index rebuild started: " + rebuild;
+            } catch (InvalidParametersException e) {
+                setStatusForException(e);
+                data.statusForAjax = e.getMessage();
+            }
+        }
+        
+        data.rebuilds = logic.getAllSearchIndexRebuilds();
+        return createAjaxResult(data);
+    }
+}
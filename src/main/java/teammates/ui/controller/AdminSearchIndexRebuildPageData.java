@@ -0,0 +1,19 @@
+package teammates.ui.controller;
+
+import java.util.List;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.SearchIndexRebuildAttributes;
+
+public class AdminSearchIndexRebuildPageData extends PageData {
+    /*
+     * Data used to show the progress of search index rebuilds using ajax
+     */
+    public List<SearchIndexRebuildAttributes> rebuilds;
+    public String statusForAjax;
+    
+    public AdminSearchIndexRebuildPageData(AccountAttributes account) {
+        super(account);
+    }
+    
+}
@@ -15,12 +15,18 @@ import teammates.common.exception.FeedbackSessionNotVisibleException;
 import teammates.common.exception.NullPostParameterException;
 import teammates.common.exception.PageNotFoundException;
 import teammates.common.exception.UnauthorizedAccessException;
+import teammates.common.util.ActionLatencyStatistics;
 import teammates.common.util.ActivityLogEntry;
+import teammates.common.util.ApiCallProfilingDelegate;
+import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.Const.StatusMessageColor;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.RequestProfile;
+import teammates.common.util.Sanitizer;
 import teammates.common.util.StatusMessage;
+import teammates.common.util.StringHelper;
 import teammates.common.util.Utils;
 import teammates.logic.api.GateKeeper;
 import teammates.logic.api.Logic;
@@ -37,6 +43,14 @@ import com.google.apphosting.api.DeadlineExceededException;
 public class ControllerServlet extends HttpServlet {
 
     private static final Logger log = Utils.getLogger();
+    
+    /** The maximum number of repeated queries of a request added to its activity log entry. */
+    private static final int MAX_REPEATED_QUERIES_LOGGED = 5;
+
+    @Override
+    public void init() {
+        ApiCallProfilingDelegate.install();
+    }
 
     @Override
     public final void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -53,24 +67,39 @@ public class ControllerServlet extends HttpServlet {
              * Concrete details of the processing steps are to be implemented by child
              * classes, based on request-specific needs.
              */
-            long startTime = System.currentTimeMillis();
+            RequestProfile profile = RequestProfile.start();
             
             log.info("Request received : [" + req.getMethod() + "] " + req.getRequestURL().toString()
                     + ":" + HttpRequestHelper.printRequestParameters(req));
             log.info("User agent : " + req.getHeader("User-Agent"));
             
             Action c = new ActionFactory().getAction(req);
-            if (c.isValidUser()) {
+            long phaseStartTime = System.currentTimeMillis();
+            boolean isValidUser = c.isValidUser();
+            profile.setAuthMillis(System.currentTimeMillis() - phaseStartTime);
+            if (isValidUser) {
+                phaseStartTime = System.currentTimeMillis();
                 ActionResult actionResult = c.executeAndPostProcess();
+                profile.setActionMillis(System.currentTimeMillis() - phaseStartTime);
+                
+                phaseStartTime = System.currentTimeMillis();
                 actionResult.send(req, resp);
+                profile.setRenderMillis(System.currentTimeMillis() - phaseStartTime);
             } else {
                 resp.sendRedirect(c.getAuthenticationRedirectUrl());
             }
             
-            long timeTaken = System.currentTimeMillis() - startTime;
+            List<String> repeatedQueries = profile.getRepeatedQueries();
+            if (!repeatedQueries.isEmpty()) {
+                reportRepeatedQueries(c, repeatedQueries);
+            }
+            
+            long timeTaken = profile.getElapsedMillis();
             // This is the log message that is used to generate the 'activity log' for the admin.
             
             log.info(c.getLogMessage() + "|||" + timeTaken);
+            log.info("Request profile of " + c.getClass().getSimpleName() + " : " + profile);
+            ActionLatencyStatistics.record(c.getClass().getSimpleName(), profile);
             
         } catch (PageNotFoundException e) {
             log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
@@ -135,10 +164,34 @@ public class ControllerServlet extends HttpServlet {
             }
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ERROR_PAGE);
+        } finally {
+            RequestProfile.detach();
         }
         
     }
     
+    /**
+     * Reports the queries which were run repeatedly by the action, which usually means a query is run
+     * in a loop where the entities of all the iterations could have been fetched at once.
+     * The most frequent ones are added to the activity log entry of the action.
+     */
+    private void reportRepeatedQueries(Action c, List<String> repeatedQueries) {
+        String actionName = c.getClass().getSimpleName();
+        if (Config.isDevServer()) {
+            log.warning(actionName + " ran queries repeatedly:" + Const.EOL + StringHelper.toString(repeatedQueries));
+        } else {
+            log.info(actionName + " ran queries repeatedly: " + repeatedQueries);
+        }
+        
+        StringBuilder message = new StringBuilder(c.statusToAdmin == null ? "" : c.statusToAdmin);
+        message.append("<br><span class=\"text-warning\">Repeated queries:</span>");
+        int queriesLogged = Math.min(repeatedQueries.size(), MAX_REPEATED_QUERIES_LOGGED);
+        for (String query : repeatedQueries.subList(0, queriesLogged)) {
+            message.append("<br>").append(Sanitizer.sanitizeForHtml(query));
+        }
+        c.statusToAdmin = message.toString();
+    }
+    
     private void cleanUpStatusMessageInSession(HttpServletRequest req) {
         req.getSession().removeAttribute(Const.ParamsNames.STATUS_MESSAGES_LIST);
     }
@@ -2,6 +2,8 @@ package teammates.ui.controller;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -13,8 +15,17 @@ import teammates.common.util.StatusMessage;
 
 public class FileDownloadResult extends ActionResult {
     
+    /**
+     * Generates the content of a file while it is being sent, so that the whole
+     * content does not have to be held in memory.
+     */
+    public interface FileContentWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
+    
     String fileContent = "";
     String fileName = "";
+    FileContentWriter fileContentWriter;
 
     public FileDownloadResult(String destination, AccountAttributes account,
             List<StatusMessage> status) {
@@ -29,6 +40,15 @@ public class FileDownloadResult extends ActionResult {
         this.fileName = fileName;
         this.fileContent = fileContent;
     }
+    
+    public FileDownloadResult(
+            String destination, AccountAttributes account,
+            List<StatusMessage> status,
+            String fileName, FileContentWriter fileContentWriter) {
+        super(destination, account, status);
+        this.fileName = fileName;
+        this.fileContentWriter = fileContentWriter;
+    }
 
     @Override
     public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -42,7 +62,11 @@ public class FileDownloadResult extends ActionResult {
         resp.setHeader("Content-Disposition", getContentDispositionHeader());
         PrintWriter writer = resp.getWriter();
         writer.write("\uFEFF");
-        writer.append(fileContent);
+        if (fileContentWriter == null) {
+            writer.append(fileContent);
+        } else {
+            fileContentWriter.writeTo(writer);
+        }
     }
     
     /**
@@ -66,8 +90,17 @@ public class FileDownloadResult extends ActionResult {
         return this.fileName;
     }
     
-    public String getFileContent() {
-        return this.fileContent;
+    /**
+     * Note that if the content is generated by a {@link FileContentWriter},
+     * it is generated anew in every call to this method.
+     */
+    public String getFileContent() throws IOException {
+        if (fileContentWriter == null) {
+            return this.fileContent;
+        }
+        StringWriter writer = new StringWriter();
+        fileContentWriter.writeTo(writer);
+        return writer.toString();
     }
 
 }
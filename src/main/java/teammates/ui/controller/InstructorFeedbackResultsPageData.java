@@ -1092,36 +1092,42 @@ public class InstructorFeedbackResultsPageData extends PageData {
             FeedbackQuestionAttributes question, List<FeedbackResponseAttributes> responses) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        List<String> possibleGiversWithoutResponses = bundle.getPossibleGivers(question);
-        List<String> possibleReceiversWithoutResponsesForGiver = new ArrayList<String>();
+        // participants who gave/received responses are tracked in sets, and the possible
+        // participants without responses are only looked up when missing responses are shown
+        Set<String> giversWithResponses = new HashSet<String>();
+        Set<String> receiversWithResponsesForGiver = new HashSet<String>();
+        boolean isMissingGiversHidden = false;
+        boolean isMissingReceiversForGiverHidden = false;
 
         String prevGiver = "";
         
         for (FeedbackResponseAttributes response : responses) {
             if (!bundle.isGiverVisible(response) || !bundle.isRecipientVisible(response)) {
-                possibleGiversWithoutResponses.clear();
-                possibleReceiversWithoutResponsesForGiver.clear();
+                isMissingGiversHidden = true;
+                isMissingReceiversForGiverHidden = true;
             }
             
             // keep track of possible givers who did not give a response
-            removeParticipantIdentifierFromList(possibleGiversWithoutResponses, response.giver);
+            giversWithResponses.add(response.giver);
             
             boolean isNewGiver = !prevGiver.equals(response.giver);
             if (isNewGiver) {
-                if (isMissingResponsesShown) {
+                if (isMissingResponsesShown && !isMissingReceiversForGiverHidden && !prevGiver.isEmpty()) {
                     responseRows.addAll(
                             buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
-                                        question, possibleReceiversWithoutResponsesForGiver, prevGiver,
+                                        question,
+                                        bundle.getPossibleRecipientsWithoutResponses(
+                                                question, prevGiver, receiversWithResponsesForGiver),
+                                        prevGiver,
                                         bundle.getNameForEmail(prevGiver),
                                         bundle.getTeamNameForEmail(prevGiver)));
                 }
-                String giverIdentifier = response.giver;
-                            
-                possibleReceiversWithoutResponsesForGiver = bundle.getPossibleRecipients(question, giverIdentifier);
+                receiversWithResponsesForGiver = new HashSet<String>();
+                isMissingReceiversForGiverHidden = false;
             }
             
             // keep track of possible recipients without a response from the current giver
-            removeParticipantIdentifierFromList(possibleReceiversWithoutResponsesForGiver, response.recipient);
+            receiversWithResponsesForGiver.add(response.recipient);
             prevGiver = response.giver;
             
             InstructorFeedbackResultsModerationButton moderationButton = buildModerationButtonForExistingResponse(
@@ -1137,10 +1143,18 @@ public class InstructorFeedbackResultsPageData extends PageData {
             responseRows.add(responseRow);
         }
         
-        if (!responses.isEmpty()) {
-            responseRows.addAll(getRemainingMissingResponseRows(question, possibleGiversWithoutResponses,
-                                                                possibleReceiversWithoutResponsesForGiver,
-                                                                prevGiver));
+        if (!responses.isEmpty() && isMissingResponsesShown) {
+            List<String> remainingPossibleGivers =
+                    isMissingGiversHidden
+                    ? new ArrayList<String>()
+                    : bundle.getPossibleGiversWithoutResponses(question, giversWithResponses);
+            List<String> possibleReceiversForGiver =
+                    isMissingReceiversForGiverHidden
+                    ? new ArrayList<String>()
+                    : bundle.getPossibleRecipientsWithoutResponses(question, prevGiver,
+                                                                   receiversWithResponsesForGiver);
+            responseRows.addAll(getRemainingMissingResponseRows(question, remainingPossibleGivers,
+                                                                possibleReceiversForGiver, prevGiver));
         }
         
         return responseRows;
@@ -1166,19 +1180,17 @@ public class InstructorFeedbackResultsPageData extends PageData {
                                     String participantIdentifier, boolean isFirstGroupedByGiver) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        List<String> possibleParticipantsWithoutResponses = isFirstGroupedByGiver
-                                                          ? bundle.getPossibleRecipients(question, participantIdentifier)
-                                                          : bundle.getPossibleGivers(question, participantIdentifier);
+        Set<String> participantsWithResponses = new HashSet<String>();
+        boolean isMissingParticipantsHidden = false;
         
         for (FeedbackResponseAttributes response : responses) {
             if (!bundle.isGiverVisible(response) || !bundle.isRecipientVisible(response)) {
-                possibleParticipantsWithoutResponses.clear();
+                isMissingParticipantsHidden = true;
             }
             
             // keep track of possible participant who did not give/receive a response to/from the participantIdentifier
             String participantWithResponse = isFirstGroupedByGiver ? response.recipient : response.giver;
-            removeParticipantIdentifierFromList(possibleParticipantsWithoutResponses,
-                                                participantWithResponse);
+            participantsWithResponses.add(participantWithResponse);
 
             InstructorFeedbackResultsModerationButton moderationButton =
                     buildModerationButtonForExistingResponse(question, response);
@@ -1196,8 +1208,11 @@ public class InstructorFeedbackResultsPageData extends PageData {
             responseRows.add(responseRow);
         }
         
-        if (isMissingResponsesShown) {
+        if (isMissingResponsesShown && !isMissingParticipantsHidden) {
             if (isFirstGroupedByGiver) {
+                List<String> possibleParticipantsWithoutResponses =
+                        bundle.getPossibleRecipientsWithoutResponses(question, participantIdentifier,
+                                                                     participantsWithResponses);
                 responseRows.addAll(
                         buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
                                                 question, possibleParticipantsWithoutResponses,
@@ -1205,6 +1220,9 @@ public class InstructorFeedbackResultsPageData extends PageData {
                                                 bundle.getNameForEmail(participantIdentifier),
                                                 bundle.getTeamNameForEmail(participantIdentifier)));
             } else {
+                List<String> possibleParticipantsWithoutResponses =
+                        bundle.getPossibleGiversWithoutResponses(question, participantIdentifier,
+                                                                 participantsWithResponses);
                 responseRows.addAll(
                         buildMissingResponseRowsBetweenRecipientAndPossibleGivers(
                                                 question, possibleParticipantsWithoutResponses,
@@ -1335,30 +1353,15 @@ public class InstructorFeedbackResultsPageData extends PageData {
         return missingResponses;
     }
 
-    /**
-     * Given a participantIdentifier, remove it from participantIdentifierList.
-     * 
-     * @param participantIdentifierList
-     * @param participantIdentifier
-     */
-    private void removeParticipantIdentifierFromList(
-                    List<String> participantIdentifierList, String participantIdentifier) {
-        participantIdentifierList.remove(participantIdentifier);
-    }
-    
     private List<InstructorFeedbackResultsResponseRow> getRemainingMissingResponseRows(
             FeedbackQuestionAttributes question, List<String> remainingPossibleGivers,
             List<String> possibleRecipientsForGiver, String prevGiver) {
         List<InstructorFeedbackResultsResponseRow> responseRows = new ArrayList<InstructorFeedbackResultsResponseRow>();
         
-        if (possibleRecipientsForGiver != null && isMissingResponsesShown) {
-            responseRows.addAll(buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
-                                            question, possibleRecipientsForGiver,
-                                            prevGiver, bundle.getNameForEmail(prevGiver),
-                                            bundle.getTeamNameForEmail(prevGiver)));
-        }
-        
-        removeParticipantIdentifierFromList(remainingPossibleGivers, prevGiver);
+        responseRows.addAll(buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
+                                        question, possibleRecipientsForGiver,
+                                        prevGiver, bundle.getNameForEmail(prevGiver),
+                                        bundle.getTeamNameForEmail(prevGiver)));
             
         for (String possibleGiverWithNoResponses : remainingPossibleGivers) {
             if (!isAllSectionsSelected()
@@ -1367,15 +1370,13 @@ public class InstructorFeedbackResultsPageData extends PageData {
             }
             List<String> possibleRecipientsForRemainingGiver =
                                             bundle.getPossibleRecipients(question, possibleGiverWithNoResponses);
-            if (isMissingResponsesShown) {
-                responseRows.addAll(
-                        buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
-                                    question,
-                                    possibleRecipientsForRemainingGiver,
-                                    possibleGiverWithNoResponses,
-                                    bundle.getFullNameFromRoster(possibleGiverWithNoResponses),
-                                    bundle.getTeamNameFromRoster(possibleGiverWithNoResponses)));
-            }
+            responseRows.addAll(
+                    buildMissingResponseRowsBetweenGiverAndPossibleRecipients(
+                                question,
+                                possibleRecipientsForRemainingGiver,
+                                possibleGiverWithNoResponses,
+                                bundle.getFullNameFromRoster(possibleGiverWithNoResponses),
+                                bundle.getTeamNameFromRoster(possibleGiverWithNoResponses)));
         }
         
         return responseRows;
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import teammates.common.datatransfer.CourseDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
@@ -14,6 +16,7 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.Const.StatusMessageColor;
 import teammates.common.util.StatusMessage;
+import teammates.logic.api.ConcurrentLookups;
 import teammates.logic.api.GateKeeper;
 
 public class StudentHomePageAction extends Action {
@@ -64,22 +67,39 @@ public class StudentHomePageAction extends Action {
             List<CourseDetailsBundle> courses, String googleId) {
         Map<FeedbackSessionAttributes, Boolean> returnValue = new HashMap<>();
         
-        for (CourseDetailsBundle c : courses) {
-            for (FeedbackSessionDetailsBundle fsb : c.feedbackSessions) {
-                FeedbackSessionAttributes f = fsb.feedbackSession;
-                returnValue.put(f, getStudentStatusForSession(f, googleId));
+        // the sessions are checked concurrently, as the checks do not depend on each other
+        Map<FeedbackSessionAttributes, Future<Boolean>> statusLookups = new HashMap<>();
+        ConcurrentLookups lookups = new ConcurrentLookups();
+        try {
+            for (CourseDetailsBundle c : courses) {
+                if (c.feedbackSessions.isEmpty()) {
+                    continue;
+                }
+                StudentAttributes student = logic.getStudentForGoogleId(c.course.getId(), googleId);
+                Assumption.assertNotNull(student);
+                
+                for (FeedbackSessionDetailsBundle fsb : c.feedbackSessions) {
+                    FeedbackSessionAttributes f = fsb.feedbackSession;
+                    statusLookups.put(f, lookups.submit(getStudentStatusForSession(f, student.email)));
+                }
+            }
+            for (Map.Entry<FeedbackSessionAttributes, Future<Boolean>> statusLookup : statusLookups.entrySet()) {
+                returnValue.put(statusLookup.getKey(), ConcurrentLookups.getResult(statusLookup.getValue()));
             }
+        } finally {
+            lookups.shutdown();
         }
         return returnValue;
     }
 
-    private boolean getStudentStatusForSession(FeedbackSessionAttributes fs, String googleId) {
-        StudentAttributes student = logic.getStudentForGoogleId(fs.getCourseId(), googleId);
-        Assumption.assertNotNull(student);
-
-        String studentEmail = student.email;
-        
-        return logic.hasStudentSubmittedFeedback(fs, studentEmail);
+    private Callable<Boolean> getStudentStatusForSession(final FeedbackSessionAttributes fs,
+                                                         final String studentEmail) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return logic.hasStudentSubmittedFeedback(fs, studentEmail);
+            }
+        };
     }
     
     private boolean isCourseIncluded(String recentlyJoinedCourseId, List<CourseDetailsBundle> courses) {
@@ -0,0 +1,77 @@
+package teammates.ui.template;
+
+public class AdminActionLatencyRow {
+
+    private String actionName;
+    private long requestCount;
+    private String total;
+    private String auth;
+    private String logic;
+    private String datastore;
+    private String search;
+    private String render;
+    private String datastoreCalls;
+    private String queries;
+    private String entitiesLoaded;
+    
+    public AdminActionLatencyRow(String actionName, long requestCount,
+                                 String total, String auth, String logic, String datastore,
+                                 String search, String render, String datastoreCalls,
+                                 String queries, String entitiesLoaded) {
+        this.actionName = actionName;
+        this.requestCount = requestCount;
+        this.total = total;
+        this.auth = auth;
+        this.logic = logic;
+        this.datastore = datastore;
+        this.search = search;
+        this.render = render;
+        this.datastoreCalls = datastoreCalls;
+        this.queries = queries;
+        this.entitiesLoaded = entitiesLoaded;
+    }
+    
+    public String getActionName() {
+        return actionName;
+    }
+    
+    public long getRequestCount() {
+        return requestCount;
+    }
+    
+    public String getTotal() {
+        return total;
+    }
+    
+    public String getAuth() {
+        return auth;
+    }
+    
+    public String getLogic() {
+        return logic;
+    }
+    
+    public String getDatastore() {
+        return datastore;
+    }
+    
+    public String getSearch() {
+        return search;
+    }
+    
+    public String getRender() {
+        return render;
+    }
+    
+    public String getDatastoreCalls() {
+        return datastoreCalls;
+    }
+    
+    public String getQueries() {
+        return queries;
+    }
+    
+    public String getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
@@ -0,0 +1,52 @@
+package teammates.ui.template;
+
+public class AdminEmailThroughputRow {
+
+    private String serviceName;
+    private long batchCount;
+    private long emailCount;
+    private long throttledBatchCount;
+    private long failedBatchCount;
+    private String throughput;
+    private String rate;
+    
+    public AdminEmailThroughputRow(String serviceName, long batchCount, long emailCount,
+                                   long throttledBatchCount, long failedBatchCount,
+                                   String throughput, String rate) {
+        this.serviceName = serviceName;
+        this.batchCount = batchCount;
+        this.emailCount = emailCount;
+        this.throttledBatchCount = throttledBatchCount;
+        this.failedBatchCount = failedBatchCount;
+        this.throughput = throughput;
+        this.rate = rate;
+    }
+    
+    public String getServiceName() {
+        return serviceName;
+    }
+    
+    public long getBatchCount() {
+        return batchCount;
+    }
+    
+    public long getEmailCount() {
+        return emailCount;
+    }
+    
+    public long getThrottledBatchCount() {
+        return throttledBatchCount;
+    }
+    
+    public long getFailedBatchCount() {
+        return failedBatchCount;
+    }
+    
+    public String getThroughput() {
+        return throughput;
+    }
+    
+    public String getRate() {
+        return rate;
+    }
+}
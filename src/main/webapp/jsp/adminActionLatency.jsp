@@ -0,0 +1,88 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib tagdir="/WEB-INF/tags" prefix="t" %>
+<%@ taglib tagdir="/WEB-INF/tags/admin" prefix="ta" %>
+<ta:adminPage bodyTitle="Action Latency" pageTitle="TEAMMATES - Administrator Action Latency">
+    <p class="text-muted">
+        The 50th / 90th / 99th percentiles and the maximum of the last ${data.samplesPerAction} requests
+        of each action served by this instance, slowest first. Times are in milliseconds.
+        The logic time excludes the time spent waiting for the datastore and search.
+        Queries include lookups by key; the queries a request runs repeatedly are listed in its activity log entry.
+    </p>
+    <div class="panel panel-primary">
+        <div class="table-responsive">
+            <table class="table table-striped dataTable" id="actionLatencyTable">
+                <thead>
+                    <tr>
+                        <th>Action</th>
+                        <th>Requests</th>
+                        <th>Total</th>
+                        <th>Auth</th>
+                        <th>Logic</th>
+                        <th>Datastore</th>
+                        <th>Search</th>
+                        <th>Render</th>
+                        <th>Datastore Calls</th>
+                        <th>Queries</th>
+                        <th>Entities Loaded</th>
+                    </tr>
+                </thead>
+                <tbody>
+                    <c:forEach items="${data.rows}" var="row">
+                        <tr>
+                            <td>${row.actionName}</td>
+                            <td>${row.requestCount}</td>
+                            <td>${row.total}</td>
+                            <td>${row.auth}</td>
+                            <td>${row.logic}</td>
+                            <td>${row.datastore}</td>
+                            <td>${row.search}</td>
+                            <td>${row.render}</td>
+                            <td>${row.datastoreCalls}</td>
+                            <td>${row.queries}</td>
+                            <td>${row.entitiesLoaded}</td>
+                        </tr>
+                    </c:forEach>
+                </tbody>
+            </table>
+        </div>
+    </div>
+    <p class="text-muted">
+        The batches of emails sent by this instance through each email service.
+        The throughput is the number of emails sent per second spent waiting for the service.
+        New batches are scheduled at the rate shown, which is halved whenever the service throttles a batch.
+        Every instance keeps its own rate, so the emails of all instances together are only capped
+        by the rate of the email task queue.
+    </p>
+    <div class="panel panel-primary">
+        <div class="table-responsive">
+            <table class="table table-striped dataTable" id="emailThroughputTable">
+                <thead>
+                    <tr>
+                        <th>Email Service</th>
+                        <th>Batches</th>
+                        <th>Emails</th>
+                        <th>Throttled Batches</th>
+                        <th>Failed Batches</th>
+                        <th>Throughput (emails/s)</th>
+                        <th>Rate (emails/s)</th>
+                    </tr>
+                </thead>
+                <tbody>
+                    <c:forEach items="${data.emailThroughputRows}" var="row">
+                        <tr>
+                            <td>${row.serviceName}</td>
+                            <td>${row.batchCount}</td>
+                            <td>${row.emailCount}</td>
+                            <td>${row.throttledBatchCount}</td>
+                            <td>${row.failedBatchCount}</td>
+                            <td>${row.throughput}</td>
+                            <td>${row.rate}</td>
+                        </tr>
+                    </c:forEach>
+                </tbody>
+            </table>
+        </div>
+    </div>
+    <t:statusMessage doNotFocusToStatus="${true}" statusMessagesToUser="${data.statusMessagesToUser}" />
+</ta:adminPage>
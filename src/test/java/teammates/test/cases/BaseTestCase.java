@@ -204,6 +204,10 @@ public class BaseTestCase {
         AssertJUnit.assertEquals(expected, actual);
     }
     
+    protected static void assertSame(Object expected, Object actual) {
+        AssertJUnit.assertSame(expected, actual);
+    }
+    
     protected static void assertNull(Object object) {
         AssertJUnit.assertNull(object);
     }
@@ -58,9 +58,6 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
             assertTrue(paramMap.containsKey(ParamsNames.ENROLLMENT_DETAILS));
             assertNotNull(paramMap.get(ParamsNames.ENROLLMENT_DETAILS));
             
-            assertTrue(paramMap.containsKey(ParamsNames.FEEDBACK_SESSION_NAME));
-            assertNotNull(paramMap.get(ParamsNames.FEEDBACK_SESSION_NAME));
-            
             SubmissionsAdjustmentTaskQueueCallback.taskCount++;
             return Const.StatusCodes.TASK_QUEUE_RESPONSE_OK;
         }
@@ -142,16 +139,14 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
             //Check whether students are present in database
             assertNotNull(studentsLogic.getStudentForEmail(course1.getId(), "s@g"));
 
-            //Verify no tasks sent to the task queue
-            if (SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(
-                    fsLogic.getFeedbackSessionsForCourse(course1.getId()).size())) {
+            //Verify no tasks sent to the task queue, as new students have no responses to adjust
+            if (SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(0)) {
                 break;
             }
             counter++;
         }
         
-        assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount,
-                    fsLogic.getFeedbackSessionsForCourse(course1.getId()).size());
+        assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount, 0);
         
         
         ______TS("change an existing students email and verify update "
@@ -191,16 +186,14 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
             SubmissionsAdjustmentTaskQueueCallback.resetTaskCount();
             studentsInfo = studentsLogic.enrollStudentsWithoutDocument(enrollLines, studentInTeam1.course);
             
-            //Verify scheduling of adjustment of responses
-            if (SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(
-                    fsLogic.getFeedbackSessionsForCourse(studentInTeam1.course).size())) {
+            //Verify scheduling of one adjustment of responses for the whole course
+            if (SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(1)) {
                 break;
             }
             counter++;
         }
         if (counter == 10) {
-            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount,
-                        fsLogic.getFeedbackSessionsForCourse(studentInTeam1.course).size());
+            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount, 1);
         }
        
         
@@ -265,7 +258,6 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
         //Prepare parameter map
         HashMap<String, String> paramMap = new HashMap<String, String>();
         paramMap.put(ParamsNames.COURSE_ID, student.course);
-        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, session.getFeedbackSessionName());
         paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollString);
         
         studentsLogic.updateStudentCascadeWithSubmissionAdjustmentScheduled(student.email, student, false);
@@ -275,6 +267,77 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
         int numberOfNewResponses =
                 getAllResponsesForStudentForSession(student, session.getFeedbackSessionName()).size();
         assertEquals(0, numberOfNewResponses);
+        
+        ______TS("students with no change of team or section are not adjusted");
+        
+        SubmissionsAdjustmentTaskQueueCallback.resetTaskCount();
+        enrollList.clear();
+        enrollList.add(new StudentEnrollDetails(UpdateStatus.UNMODIFIED, student.course, student.email,
+                                                null, newTeam, null, newSection));
+        studentsLogic.scheduleSubmissionAdjustmentForCourse(enrollList, student.course);
+        if (!SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(0)) {
+            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount, 0);
+        }
+    }
+
+    @Test
+    public void testAdjustmentOfResponsesInChunks() throws Exception {
+        removeAndRestoreTypicalDataInDatastore();
+        StudentAttributes student = dataBundle.students.get("student4InCourse1");
+        List<FeedbackResponseAttributes> responses =
+                frLogic.getFeedbackResponsesFromGiverForCourse(student.course, student.email);
+        assertFalse(responses.isEmpty());
+        for (FeedbackResponseAttributes response : responses) {
+            assertEquals("Section 1", response.giverSection);
+        }
+        
+        ______TS("a large enrollment adjusts the first chunk of students and passes on the rest");
+        
+        // the student was moved to Section 3 by the enrollment, then to Section 2 by a later enrollment
+        // whose task ran before the rest of the first enrollment
+        StudentAttributes updatedStudent = studentsLogic.getStudentForEmail(student.course, student.email);
+        updatedStudent.section = "Section 2";
+        studentsLogic.updateStudentCascadeWithSubmissionAdjustmentScheduled(student.email, updatedStudent, false);
+        
+        ArrayList<StudentEnrollDetails> enrollList = new ArrayList<StudentEnrollDetails>();
+        for (int i = 0; i < FeedbackSubmissionAdjustmentAction.ENROLLMENTS_PER_TASK; i++) {
+            enrollList.add(new StudentEnrollDetails(UpdateStatus.MODIFIED, student.course, "student" + i + "@SAT.tmt",
+                                                    null, null, "Section 1", "Section 3"));
+        }
+        enrollList.add(new StudentEnrollDetails(UpdateStatus.MODIFIED, student.course, student.email,
+                                                null, null, "Section 1", "Section 3"));
+        Gson gsonBuilder = Utils.getTeammatesGson();
+        
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, student.course);
+        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, gsonBuilder.toJson(enrollList));
+        
+        SubmissionsAdjustmentTaskQueueCallback.resetTaskCount();
+        assertTrue(new FeedbackSubmissionAdjustmentAction(paramMap).execute());
+        if (!SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(1)) {
+            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount, 1);
+        }
+        for (FeedbackResponseAttributes response
+                : frLogic.getFeedbackResponsesFromGiverForCourse(student.course, student.email)) {
+            assertEquals("Section 1", response.giverSection);
+        }
+        
+        ______TS("the last chunk moves the responses to the current section of the student");
+        
+        paramMap.put(ParamsNames.ENROLLMENT_DETAILS,
+                     gsonBuilder.toJson(enrollList.subList(FeedbackSubmissionAdjustmentAction.ENROLLMENTS_PER_TASK,
+                                                           enrollList.size())));
+        
+        SubmissionsAdjustmentTaskQueueCallback.resetTaskCount();
+        assertTrue(new FeedbackSubmissionAdjustmentAction(paramMap).execute());
+        if (!SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(0)) {
+            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount, 0);
+        }
+        responses = frLogic.getFeedbackResponsesFromGiverForCourse(student.course, student.email);
+        assertFalse(responses.isEmpty());
+        for (FeedbackResponseAttributes response : responses) {
+            assertEquals("Section 2", response.giverSection);
+        }
     }
 
     private List<FeedbackResponseAttributes> getAllTeamResponsesForStudent(StudentAttributes student) {
@@ -0,0 +1,66 @@
+package teammates.test.cases.common;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import teammates.common.util.ActionLatencyStatistics;
+import teammates.common.util.RequestProfile;
+import teammates.common.util.RequestProfile.Measure;
+import teammates.test.cases.BaseTestCase;
+
+public class ActionLatencyStatisticsTest extends BaseTestCase {
+    
+    @AfterMethod
+    public void tearDown() {
+        ActionLatencyStatistics.clearAll();
+        RequestProfile.detach();
+    }
+    
+    @Test
+    public void testPercentiles() {
+        ______TS("no requests");
+        assertTrue(ActionLatencyStatistics.getAll().isEmpty());
+        
+        ______TS("percentiles of the recorded requests");
+        for (int authMillis = 1; authMillis <= 100; authMillis++) {
+            recordRequest("SlowAction", authMillis);
+        }
+        recordRequest("FastAction", 0);
+        
+        assertEquals(2, ActionLatencyStatistics.getAll().size());
+        ActionLatencyStatistics statistics = getStatistics("SlowAction");
+        assertEquals(100, statistics.getRequestCount());
+        assertEquals(100, statistics.getSampleCount());
+        assertEquals(50, statistics.getPercentile(Measure.AUTH, 50));
+        assertEquals(90, statistics.getPercentile(Measure.AUTH, 90));
+        assertEquals(99, statistics.getPercentile(Measure.AUTH, 99));
+        assertEquals(100, statistics.getMax(Measure.AUTH));
+        assertEquals(0, statistics.getMax(Measure.DATASTORE_CALLS));
+        
+        ______TS("only the most recent requests are kept");
+        for (int authMillis = 101; authMillis <= ActionLatencyStatistics.SAMPLES_PER_ACTION + 100; authMillis++) {
+            recordRequest("SlowAction", authMillis);
+        }
+        
+        statistics = getStatistics("SlowAction");
+        assertEquals(ActionLatencyStatistics.SAMPLES_PER_ACTION + 100, statistics.getRequestCount());
+        assertEquals(ActionLatencyStatistics.SAMPLES_PER_ACTION, statistics.getSampleCount());
+        assertEquals(101, statistics.getPercentile(Measure.AUTH, 0));
+        assertEquals(ActionLatencyStatistics.SAMPLES_PER_ACTION + 100, statistics.getMax(Measure.AUTH));
+    }
+    
+    private ActionLatencyStatistics getStatistics(String actionName) {
+        for (ActionLatencyStatistics statistics : ActionLatencyStatistics.getAll()) {
+            if (statistics.getActionName().equals(actionName)) {
+                return statistics;
+            }
+        }
+        return null;
+    }
+    
+    private void recordRequest(String actionName, long authMillis) {
+        RequestProfile profile = RequestProfile.start();
+        profile.setAuthMillis(authMillis);
+        ActionLatencyStatistics.record(actionName, profile);
+    }
+}
@@ -0,0 +1,60 @@
+package teammates.test.cases.common;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import teammates.common.util.EmailSendingStatistics;
+import teammates.test.cases.BaseTestCase;
+
+public class EmailSendingStatisticsTest extends BaseTestCase {
+    
+    @AfterMethod
+    public void tearDown() {
+        EmailSendingStatistics.clearAll();
+    }
+    
+    @Test
+    public void testRate() {
+        ______TS("no batches");
+        assertTrue(EmailSendingStatistics.getAll().isEmpty());
+        EmailSendingStatistics statistics = EmailSendingStatistics.of("SendgridService");
+        assertEquals(EmailSendingStatistics.INITIAL_RATE, statistics.getRate(), 0);
+        assertEquals(0, statistics.getThroughput(), 0);
+        
+        ______TS("rate grows as batches are sent");
+        statistics.recordSent(100, 2000);
+        statistics.recordSent(300, 2000);
+        assertEquals(2, statistics.getBatchCount());
+        assertEquals(400, statistics.getEmailCount());
+        assertEquals(100, statistics.getThroughput(), 0);
+        assertEquals(EmailSendingStatistics.INITIAL_RATE + 2 * EmailSendingStatistics.RATE_INCREASE,
+                     statistics.getRate(), 0);
+        
+        ______TS("rate is halved when the service throttles a batch");
+        double rate = statistics.getRate();
+        statistics.recordThrottled();
+        assertEquals(1, statistics.getThrottledBatchCount());
+        assertEquals(rate / 2, statistics.getRate(), 0);
+        
+        ______TS("rate stays within its limits");
+        for (int i = 0; i < 10; i++) {
+            statistics.recordThrottled();
+        }
+        assertEquals(EmailSendingStatistics.MIN_RATE, statistics.getRate(), 0);
+        for (int i = 0; i < 200; i++) {
+            statistics.recordSent(1, 10);
+        }
+        assertEquals(EmailSendingStatistics.MAX_RATE, statistics.getRate(), 0);
+        
+        ______TS("failures do not change the rate");
+        statistics.recordFailed();
+        assertEquals(1, statistics.getFailedBatchCount());
+        assertEquals(EmailSendingStatistics.MAX_RATE, statistics.getRate(), 0);
+        
+        ______TS("statistics of each service");
+        EmailSendingStatistics.of("MailgunService");
+        assertSame(statistics, EmailSendingStatistics.of("SendgridService"));
+        assertEquals(2, EmailSendingStatistics.getAll().size());
+        assertEquals("MailgunService", EmailSendingStatistics.getAll().get(0).getServiceName());
+    }
+}
@@ -0,0 +1,255 @@
+package teammates.test.cases.common;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackConstantSumQuestionDetails;
+import teammates.common.datatransfer.FeedbackConstantSumQuestionStatistics;
+import teammates.common.datatransfer.FeedbackMcqQuestionDetails;
+import teammates.common.datatransfer.FeedbackMcqQuestionStatistics;
+import teammates.common.datatransfer.FeedbackMcqResponseDetails;
+import teammates.common.datatransfer.FeedbackMsqQuestionDetails;
+import teammates.common.datatransfer.FeedbackMsqQuestionStatistics;
+import teammates.common.datatransfer.FeedbackNumericalScaleQuestionDetails;
+import teammates.common.datatransfer.FeedbackNumericalScaleQuestionStatistics;
+import teammates.common.datatransfer.FeedbackQuestionDetails;
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackRankOptionsQuestionDetails;
+import teammates.common.datatransfer.FeedbackRankOptionsQuestionStatistics;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.FeedbackRubricQuestionDetails;
+import teammates.common.datatransfer.FeedbackRubricQuestionStatistics;
+import teammates.common.util.Const;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.gson.Gson;
+
+public class FeedbackQuestionStatisticsTest extends BaseTestCase {
+
+    @Test
+    public void testMcqStatistics() {
+        FeedbackMcqQuestionDetails questionDetails = new FeedbackMcqQuestionDetails();
+        FeedbackMcqQuestionStatistics statistics =
+                new FeedbackMcqQuestionStatistics(Arrays.asList("A", "B", "C"), true);
+
+        statistics.add(createResponse(FeedbackQuestionType.MCQ, questionDetails, "A", "0"));
+        statistics.add(createResponse(FeedbackQuestionType.MCQ, questionDetails, "A", "0"));
+        statistics.add(createResponse(FeedbackQuestionType.MCQ, questionDetails, "my own answer", "1"));
+        statistics.add(createResponse(FeedbackQuestionType.MCQ, questionDetails, "C", "0"));
+
+        ______TS("choices keep their order, with the other answers last");
+        Map<String, Integer> answerFrequency = statistics.getAnswerFrequency();
+        assertEquals(Arrays.asList("A", "B", "C", FeedbackMcqQuestionStatistics.OTHER_CHOICE),
+                     Arrays.asList(answerFrequency.keySet().toArray()));
+        assertEquals(Arrays.asList(2, 0, 1, 1), Arrays.asList(answerFrequency.values().toArray()));
+
+        ______TS("percentages");
+        assertEquals(4, statistics.getNumOfResponses());
+        assertEquals(50.0, statistics.getPercentage(answerFrequency.get("A")), 0.001);
+        assertEquals(0.0, statistics.getPercentage(answerFrequency.get("B")), 0.001);
+
+        ______TS("removed responses are no longer counted, but the choices are kept");
+        assertTrue(statistics.remove(createResponse(FeedbackQuestionType.MCQ, questionDetails, "A", "0")));
+        assertTrue(statistics.remove(createResponse(FeedbackQuestionType.MCQ, questionDetails, "my own answer", "1")));
+        answerFrequency = statistics.getAnswerFrequency();
+        assertEquals(Arrays.asList("A", "B", "C", FeedbackMcqQuestionStatistics.OTHER_CHOICE),
+                     Arrays.asList(answerFrequency.keySet().toArray()));
+        assertEquals(Arrays.asList(1, 0, 1, 0), Arrays.asList(answerFrequency.values().toArray()));
+        assertEquals(2, statistics.getNumOfResponses());
+
+        ______TS("a response which was not added cannot be removed");
+        assertFalse(statistics.remove(createResponse(FeedbackQuestionType.MCQ, questionDetails, "B", "0")));
+        assertEquals(2, statistics.getNumOfResponses());
+    }
+
+    @Test
+    public void testRubricStatistics() {
+        FeedbackRubricQuestionDetails questionDetails = new FeedbackRubricQuestionDetails("rubric question");
+        questionDetails.setNumOfRubricSubQuestions(2);
+        questionDetails.setNumOfRubricChoices(2);
+        FeedbackRubricQuestionStatistics statistics =
+                new FeedbackRubricQuestionStatistics(2, 2, Arrays.asList(1.0, 3.0));
+
+        statistics.add(createResponse(FeedbackQuestionType.RUBRIC, questionDetails, "0-1,1-0"));
+        statistics.add(createResponse(FeedbackQuestionType.RUBRIC, questionDetails, "0-1,1-1"));
+        statistics.add(createResponse(FeedbackQuestionType.RUBRIC, questionDetails, "0-0"));
+
+        ______TS("frequency of each choice of each sub-question");
+        assertEquals(1, statistics.getResponseFrequency(0, 0));
+        assertEquals(2, statistics.getResponseFrequency(0, 1));
+        assertEquals(1, statistics.getResponseFrequency(1, 0));
+        assertEquals(1, statistics.getResponseFrequency(1, 1));
+
+        ______TS("sub-questions not answered are not counted");
+        assertEquals(2f / 3, statistics.getPercentageFrequency(0, 1), 0.001);
+        assertEquals(0.5f, statistics.getPercentageFrequency(1, 1), 0.001);
+
+        ______TS("average weight");
+        assertEquals(7f / 3, statistics.getAverage(0), 0.001);
+        assertEquals(2f, statistics.getAverage(1), 0.001);
+
+        ______TS("removed responses are no longer counted");
+        assertTrue(statistics.remove(createResponse(FeedbackQuestionType.RUBRIC, questionDetails, "0-1,1-1")));
+        assertEquals(1, statistics.getResponseFrequency(0, 1));
+        assertEquals(0, statistics.getResponseFrequency(1, 1));
+        assertEquals(2f, statistics.getAverage(0), 0.001);
+
+        ______TS("a response which was not added cannot be removed");
+        assertFalse(statistics.remove(createResponse(FeedbackQuestionType.RUBRIC, questionDetails, "1-1")));
+        assertEquals(1, statistics.getResponseFrequency(1, 0));
+    }
+
+    @Test
+    public void testMsqStatistics() {
+        FeedbackMsqQuestionStatistics statistics =
+                new FeedbackMsqQuestionStatistics(Arrays.asList("A", "B", "C"), true);
+
+        statistics.add(createMsqResponse(false, "A", "C"));
+        statistics.add(createMsqResponse(true, "A", "my own answer"));
+
+        ______TS("the answer for the other option is counted as other, after the choices");
+        Map<String, Integer> answerFrequency = statistics.getAnswerFrequency();
+        assertEquals(Arrays.asList("A", "B", "C", FeedbackMsqQuestionStatistics.OTHER_CHOICE),
+                     Arrays.asList(answerFrequency.keySet().toArray()));
+        assertEquals(Arrays.asList(2, 0, 1, 1), Arrays.asList(answerFrequency.values().toArray()));
+        assertEquals(50.0, statistics.getPercentage(answerFrequency.get("A")), 0.001);
+        assertTrue(statistics.hasNonEmptyResponse());
+
+        ______TS("removed responses are no longer counted");
+        assertTrue(statistics.remove(createMsqResponse(true, "A", "my own answer")));
+        answerFrequency = statistics.getAnswerFrequency();
+        assertEquals(Arrays.asList(1, 0, 1, 0), Arrays.asList(answerFrequency.values().toArray()));
+        assertFalse(statistics.remove(createMsqResponse(false, "B")));
+
+        ______TS("responses which only chose the other option are not shown");
+        statistics = new FeedbackMsqQuestionStatistics(Arrays.asList("A", "B"), true);
+        statistics.add(createMsqResponse(true, "my own answer"));
+        assertEquals(1, statistics.getAnswerFrequency().get(FeedbackMsqQuestionStatistics.OTHER_CHOICE).intValue());
+        assertFalse(statistics.hasNonEmptyResponse());
+    }
+
+    @Test
+    public void testNumericalScaleStatistics() {
+        FeedbackNumericalScaleQuestionStatistics statistics = new FeedbackNumericalScaleQuestionStatistics();
+
+        statistics.add(createNumericalScaleResponse("giver1@email.tmt", "recipient1@email.tmt", "3"));
+        statistics.add(createNumericalScaleResponse("recipient1@email.tmt", "recipient1@email.tmt", "5"));
+        statistics.add(createNumericalScaleResponse("giver2@email.tmt", "recipient1@email.tmt", "4"));
+        statistics.add(createNumericalScaleResponse("giver1@email.tmt", "recipient2@email.tmt", "2.5"));
+
+        ______TS("statistics of each recipient");
+        assertEquals(3, statistics.getNumResponses().get("recipient1@email.tmt").intValue());
+        assertEquals(3.0, statistics.getMin().get("recipient1@email.tmt"), 0.001);
+        assertEquals(5.0, statistics.getMax().get("recipient1@email.tmt"), 0.001);
+        assertEquals(4.0, statistics.getAverage().get("recipient1@email.tmt"), 0.001);
+        assertEquals(2.5, statistics.getAverage().get("recipient2@email.tmt"), 0.001);
+
+        ______TS("the recipient's own answer is left out of the average excluding self");
+        assertEquals(3.5, statistics.getAverageExcludingSelf().get("recipient1@email.tmt"), 0.001);
+        assertEquals(2.5, statistics.getAverageExcludingSelf().get("recipient2@email.tmt"), 0.001);
+
+        ______TS("removed responses are no longer counted");
+        assertTrue(statistics.remove(createNumericalScaleResponse("giver2@email.tmt", "recipient1@email.tmt", "4")));
+        assertEquals(2, statistics.getNumResponses().get("recipient1@email.tmt").intValue());
+        assertEquals(4.0, statistics.getAverage().get("recipient1@email.tmt"), 0.001);
+        assertEquals(3.0, statistics.getAverageExcludingSelf().get("recipient1@email.tmt"), 0.001);
+        assertTrue(statistics.remove(createNumericalScaleResponse("giver1@email.tmt", "recipient2@email.tmt", "2.5")));
+        assertFalse(statistics.getNumResponses().containsKey("recipient2@email.tmt"));
+
+        ______TS("the minimum or maximum answer cannot be removed, as the statistics have to be recomputed");
+        assertFalse(statistics.remove(createNumericalScaleResponse("recipient1@email.tmt", "recipient1@email.tmt", "5")));
+        assertEquals(5.0, statistics.getMax().get("recipient1@email.tmt"), 0.001);
+    }
+
+    @Test
+    public void testConstantSumStatistics() {
+        FeedbackConstantSumQuestionDetails questionDetails =
+                new FeedbackConstantSumQuestionDetails("constant sum question", Arrays.asList("A", "B"),
+                                                       false, 100, false);
+
+        ______TS("points received by each option, keyed by the index of the option");
+        FeedbackConstantSumQuestionStatistics statistics = questionDetails.createStatistics();
+        statistics.add(createResponse(FeedbackQuestionType.CONSTSUM, questionDetails, "30", "70"));
+        statistics.add(createResponse(FeedbackQuestionType.CONSTSUM, questionDetails, "50", "50"));
+        Map<String, List<Integer>> expectedPoints = new HashMap<String, List<Integer>>();
+        expectedPoints.put("0", Arrays.asList(30, 50));
+        expectedPoints.put("1", Arrays.asList(70, 50));
+        assertEquals(expectedPoints, statistics.getOptionPoints());
+
+        ______TS("points received by each recipient when the points are distributed among recipients");
+        FeedbackConstantSumQuestionDetails recipientsQuestionDetails = new Gson().fromJson(
+                "{\"distributeToRecipients\": true, \"points\": 100}", FeedbackConstantSumQuestionDetails.class);
+        statistics = recipientsQuestionDetails.createStatistics();
+        FeedbackResponseAttributes response =
+                createResponse(FeedbackQuestionType.CONSTSUM, recipientsQuestionDetails, "40");
+        response.recipient = "recipient1@email.tmt";
+        statistics.add(response);
+        response = createResponse(FeedbackQuestionType.CONSTSUM, recipientsQuestionDetails, "60");
+        response.recipient = "recipient2@email.tmt";
+        statistics.add(response);
+        expectedPoints.clear();
+        expectedPoints.put("recipient1@email.tmt", Arrays.asList(40));
+        expectedPoints.put("recipient2@email.tmt", Arrays.asList(60));
+        assertEquals(expectedPoints, statistics.getOptionPoints());
+    }
+
+    @Test
+    public void testRankOptionsStatistics() {
+        FeedbackRankOptionsQuestionDetails questionDetails = new Gson().fromJson(
+                "{\"options\": [\"A\", \"B\", \"C\"]}", FeedbackRankOptionsQuestionDetails.class);
+        FeedbackRankOptionsQuestionStatistics statistics = questionDetails.createStatistics();
+
+        statistics.add(createResponse(FeedbackQuestionType.RANK_OPTIONS, questionDetails, "1", "2", "3"));
+        // ties are normalised to the best rank, and options not ranked are left out
+        statistics.add(createResponse(FeedbackQuestionType.RANK_OPTIONS, questionDetails, "2", "2", ""));
+
+        Map<String, List<Integer>> expectedRanks = new HashMap<String, List<Integer>>();
+        expectedRanks.put("A", Arrays.asList(1, 1));
+        expectedRanks.put("B", Arrays.asList(2, 1));
+        expectedRanks.put("C", Arrays.asList(3));
+        assertEquals(expectedRanks, statistics.getOptionRanks());
+    }
+
+    private static FeedbackResponseAttributes createMsqResponse(boolean isOtherOptionAnswer, String... answer) {
+        Map<String, String[]> requestParameters = new HashMap<String, String[]>();
+        requestParameters.put(Const.ParamsNames.FEEDBACK_QUESTION_MSQ_ISOTHEROPTIONANSWER + "-0-0",
+                              new String[] {isOtherOptionAnswer ? "1" : "0"});
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes();
+        response.feedbackQuestionType = FeedbackQuestionType.MSQ;
+        response.setResponseDetails(FeedbackQuestionType.MSQ.getFeedbackResponseDetailsInstance(
+                new FeedbackMsqQuestionDetails(), answer, requestParameters, 0, 0));
+        return response;
+    }
+
+    private static FeedbackResponseAttributes createNumericalScaleResponse(String giver, String recipient,
+                                                                           String answer) {
+        FeedbackResponseAttributes response = createResponse(FeedbackQuestionType.NUMSCALE,
+                                                             new FeedbackNumericalScaleQuestionDetails(), answer);
+        response.giver = giver;
+        response.recipient = recipient;
+        return response;
+    }
+
+    private static FeedbackResponseAttributes createResponse(FeedbackQuestionType questionType,
+                                                             FeedbackQuestionDetails questionDetails,
+                                                             String... answer) {
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes();
+        response.feedbackQuestionType = questionType;
+        FeedbackResponseDetails responseDetails;
+        if (questionType == FeedbackQuestionType.MCQ) {
+            // the flag of the other option is given as the second answer
+            responseDetails = new FeedbackMcqResponseDetails();
+            responseDetails.extractResponseDetails(questionType, questionDetails, answer);
+        } else {
+            responseDetails = questionType.getFeedbackResponseDetailsInstance(
+                    questionDetails, answer, new HashMap<String, String[]>(), 0, 0);
+        }
+        response.setResponseDetails(responseDetails);
+        return response;
+    }
+}
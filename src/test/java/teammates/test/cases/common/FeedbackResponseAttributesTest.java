@@ -4,12 +4,17 @@ import java.util.Date;
 
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.FeedbackTextResponseDetails;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.test.cases.BaseTestCase;
 
+import com.google.appengine.api.datastore.Text;
+
 public class FeedbackResponseAttributesTest extends BaseTestCase {
 
     private class FeedbackResponseAttributesWithModifiableTimestamp extends FeedbackResponseAttributes {
@@ -43,4 +48,30 @@ public class FeedbackResponseAttributesTest extends BaseTestCase {
         assertEquals(defaultTimeStamp, fra.getUpdatedAt());
     }
     
+    @Test
+    public void testGetResponseDetails() {
+        FeedbackResponseAttributes fra = new FeedbackResponseAttributes();
+        fra.feedbackQuestionType = FeedbackQuestionType.TEXT;
+        
+        ______TS("missing response");
+        
+        assertNull(fra.getResponseDetails());
+        
+        ______TS("details are parsed once");
+        
+        fra.responseMetaData = new Text("first answer");
+        FeedbackResponseDetails details = fra.getResponseDetails();
+        assertEquals("first answer", details.getAnswerString());
+        assertSame(details, fra.getResponseDetails());
+        assertSame(details, new FeedbackResponseAttributes(fra).getResponseDetails());
+        
+        ______TS("details are parsed again once the response changes");
+        
+        fra.responseMetaData = new Text("second answer");
+        assertEquals("second answer", fra.getResponseDetails().getAnswerString());
+        
+        fra.setResponseDetails(new FeedbackTextResponseDetails("third answer"));
+        assertEquals("third answer", fra.getResponseDetails().getAnswerString());
+    }
+    
 }
@@ -0,0 +1,42 @@
+package teammates.test.cases.common;
+
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.RequestProfile;
+import teammates.common.util.RequestProfile.Measure;
+import teammates.test.cases.BaseTestCase;
+
+public class RequestProfileTest extends BaseTestCase {
+    
+    @Test
+    public void testGetRepeatedQueries() {
+        RequestProfile profile = RequestProfile.start();
+        RequestProfile.detach();
+        
+        ______TS("queries run once each are not repeated");
+        profile.recordQuery("SELECT FROM Course", new Object[] { "course1" });
+        profile.recordQuery("SELECT FROM Student", new Object[] { "course1" });
+        assertTrue(profile.getRepeatedQueries().isEmpty());
+        
+        ______TS("query run twice with the same parameters");
+        profile.recordQuery("SELECT FROM Course", new Object[] { "course1" });
+        assertEquals(Arrays.asList("2 times: SELECT FROM Course with the same 1 parameters"),
+                     profile.getRepeatedQueries());
+        
+        ______TS("queries run with different parameters are not repeated");
+        profile.recordQuery("SELECT FROM Course", new Object[] { "course2" });
+        assertEquals(Arrays.asList("2 times: SELECT FROM Course with the same 1 parameters"),
+                     profile.getRepeatedQueries());
+        
+        ______TS("query run for each item of a list");
+        for (int i = 2; i <= RequestProfile.REPEATED_QUERY_THRESHOLD; i++) {
+            profile.recordQuery("SELECT FROM Student", new Object[] { "course" + i });
+        }
+        assertEquals(Arrays.asList(RequestProfile.REPEATED_QUERY_THRESHOLD + " times: SELECT FROM Student",
+                                   "2 times: SELECT FROM Course with the same 1 parameters"),
+                     profile.getRepeatedQueries());
+        assertEquals(RequestProfile.REPEATED_QUERY_THRESHOLD + 3, profile.get(Measure.QUERIES));
+    }
+}
@@ -0,0 +1,136 @@
+package teammates.test.cases.common;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.common.util.Templates;
+import teammates.common.util.Templates.EmailTemplates;
+import teammates.common.util.Templates.FeedbackQuestion.FormTemplates;
+import teammates.common.util.Templates.FeedbackQuestion.Slots;
+import teammates.test.cases.BaseTestCase;
+
+public class TemplatesTest extends BaseTestCase {
+
+    private static final int NUM_OF_QUESTIONS = 50;
+    private static final int NUM_OF_RUBRIC_SUB_QUESTIONS = 10;
+    private static final int NUM_OF_RUBRIC_CHOICES = 5;
+
+    @Test
+    public void testPopulateTemplate() {
+        ______TS("slots are filled");
+        assertEquals("Question 1 of course1",
+                     Templates.populateTemplate("Question ${questionIndex} of ${courseId}",
+                                                "${questionIndex}", "1", "${courseId}", "course1"));
+
+        ______TS("slots without a value and unclosed slots are left as they are");
+        assertEquals("1 ${responseIndex} ${unclosed 1",
+                     Templates.populateTemplate("${questionIndex} ${responseIndex} ${unclosed ${questionIndex}",
+                                                "${questionIndex}", "1"));
+
+        ______TS("the first value given for a slot is used");
+        assertEquals("1", Templates.populateTemplate("${questionIndex}", "${questionIndex}", "1",
+                                                     "${questionIndex}", "2"));
+
+        ______TS("slots in a value are filled with the values given after it only");
+        assertEquals("join at http://join ${questionIndex}",
+                     Templates.populateTemplate("join at ${joinFragment}",
+                                                "${questionIndex}", "1",
+                                                "${joinFragment}", "${joinUrl} ${questionIndex}",
+                                                "${joinUrl}", "http://join"));
+
+        ______TS("variables which are not slots");
+        assertEquals("{\"email\": \"instr@course1\"}",
+                     Templates.populateTemplate("{\"email\": \"demo@demo.course\"}",
+                                                "demo@demo.course", "instr@demo.course", "demo.course", "course1"));
+
+        ______TS("same result as replacing the slots in turn");
+        String[] values = {
+                "${joinFragment}", EmailTemplates.FRAGMENT_STUDENT_COURSE_JOIN,
+                "${userName}", "Student $1 ${}",
+                "${courseName}", "Course \\ name",
+                "${joinUrl}", "http://join",
+                "${supportEmail}", "support@example.com"
+        };
+        assertEquals(Templates.replaceAll(EmailTemplates.USER_COURSE_JOIN, values),
+                     Templates.populateTemplate(EmailTemplates.USER_COURSE_JOIN, values));
+    }
+
+    /**
+     * Compares the time taken to render the rubric questions of a large submission page
+     * by populating the templates in a single pass and by replacing each slot in turn.
+     */
+    @Test
+    public void testRenderTimeForRubricSubmissionPage() {
+        // warm up both ways before timing them
+        assertEquals(renderRubricSubmissionPage(false), renderRubricSubmissionPage(true));
+
+        long startTime = System.nanoTime();
+        String compiledPage = renderRubricSubmissionPage(true);
+        long compiledNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        String replacedPage = renderRubricSubmissionPage(false);
+        long replacedNanos = System.nanoTime() - startTime;
+
+        assertEquals(replacedPage, compiledPage);
+        print(String.format("Rendered %d rubric questions in %.1f ms in a single pass, %.1f ms replacing each slot",
+                            NUM_OF_QUESTIONS, compiledNanos / 1e6, replacedNanos / 1e6));
+    }
+
+    private static String renderRubricSubmissionPage(boolean isSinglePass) {
+        StringBuilder page = new StringBuilder();
+        for (int q = 1; q <= NUM_OF_QUESTIONS; q++) {
+            String questionIndex = Integer.toString(q);
+
+            StringBuilder header = new StringBuilder();
+            for (int col = 0; col < NUM_OF_RUBRIC_CHOICES; col++) {
+                header.append(populate(isSinglePass, FormTemplates.RUBRIC_SUBMISSION_FORM_HEADER_FRAGMENT,
+                                       Slots.QUESTION_INDEX, questionIndex,
+                                       Slots.RESPONSE_INDEX, "0",
+                                       Slots.COL, Integer.toString(col),
+                                       Slots.RUBRIC_CHOICE_VALUE, "Choice " + col))
+                      .append(Const.EOL);
+            }
+
+            StringBuilder body = new StringBuilder();
+            for (int row = 0; row < NUM_OF_RUBRIC_SUB_QUESTIONS; row++) {
+                StringBuilder rowFragments = new StringBuilder();
+                for (int col = 0; col < NUM_OF_RUBRIC_CHOICES; col++) {
+                    rowFragments.append(populate(isSinglePass, FormTemplates.RUBRIC_SUBMISSION_FORM_BODY_FRAGMENT,
+                                                 Slots.QUESTION_INDEX, questionIndex,
+                                                 Slots.RESPONSE_INDEX, "0",
+                                                 Slots.COL, Integer.toString(col),
+                                                 Slots.ROW, Integer.toString(row),
+                                                 Slots.DISABLED, "",
+                                                 Slots.DESCRIPTION, "Description of choice " + col + " for row " + row,
+                                                 Slots.CHECKED, "",
+                                                 Slots.RUBRIC_PARAM_CHOICE,
+                                                 Const.ParamsNames.FEEDBACK_QUESTION_RUBRIC_CHOICE))
+                                .append(Const.EOL);
+                }
+                body.append(populate(isSinglePass, FormTemplates.RUBRIC_SUBMISSION_FORM_BODY,
+                                     Slots.QUESTION_INDEX, questionIndex,
+                                     Slots.RESPONSE_INDEX, "0",
+                                     Slots.ROW, Integer.toString(row),
+                                     Slots.SUB_QUESTION, "Sub-question " + row,
+                                     Slots.RUBRIC_ROW_BODY_FRAGMENTS, rowFragments.toString()))
+                    .append(Const.EOL);
+            }
+
+            page.append(populate(isSinglePass, FormTemplates.RUBRIC_SUBMISSION_FORM,
+                                 Slots.QUESTION_INDEX, questionIndex,
+                                 Slots.RESPONSE_INDEX, "0",
+                                 Slots.CURRENT_ROWS, Integer.toString(NUM_OF_RUBRIC_SUB_QUESTIONS),
+                                 Slots.CURRENT_COLS, Integer.toString(NUM_OF_RUBRIC_CHOICES),
+                                 Slots.TABLE_HEADER_ROW_FRAGMENT_HTML, header.toString(),
+                                 Slots.TABLE_BODY_HTML, body.toString(),
+                                 Slots.MOBILE_HTML, "",
+                                 Slots.FEEDBACK_RESPONSE_TEXT, Const.ParamsNames.FEEDBACK_RESPONSE_TEXT));
+        }
+        return page.toString();
+    }
+
+    private static String populate(boolean isSinglePass, String template, String... values) {
+        return isSinglePass ? Templates.populateTemplate(template, values) : Templates.replaceAll(template, values);
+    }
+}
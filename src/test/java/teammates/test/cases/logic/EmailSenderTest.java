@@ -1,6 +1,8 @@
 package teammates.test.cases.logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.mail.Message;
 import javax.mail.internet.InternetAddress;
@@ -17,8 +19,12 @@ import com.mailjet.client.resource.Email;
 import com.sendgrid.SendGrid;
 import com.sun.jersey.multipart.FormDataMultiPart;
 
+import teammates.common.exception.EmailSendingException;
+import teammates.common.util.Const;
+import teammates.common.util.EmailSendingStatistics;
 import teammates.common.util.EmailWrapper;
 import teammates.logic.core.EmailSender;
+import teammates.logic.core.EmailSenderService;
 import teammates.logic.core.JavamailService;
 import teammates.logic.core.MailgunService;
 import teammates.logic.core.MailjetService;
@@ -59,6 +65,20 @@ public class EmailSenderTest extends BaseComponentTestCase {
         return wrapper;
     }
     
+    private EmailWrapper getBatchableEmailWrapper(String recipient, String subject) {
+        EmailWrapper wrapper = getTypicalEmailWrapper();
+        wrapper.setRecipient(recipient);
+        wrapper.setBcc(null);
+        wrapper.setSubject(subject);
+        wrapper.setContent("<p>Content for " + recipient + "</p>");
+        return wrapper;
+    }
+    
+    private List<EmailWrapper> getTypicalEmailBatch() {
+        return Arrays.asList(getBatchableEmailWrapper("recipient1@email.com", "Subject 1"),
+                             getBatchableEmailWrapper("recipient2@email.com", "Subject 2"));
+    }
+    
     @Test
     public void testNoExceptionThrownWhenNoMessagesToSend() {
         new EmailSender().sendEmails(new ArrayList<EmailWrapper>());
@@ -123,6 +143,206 @@ public class EmailSenderTest extends BaseComponentTestCase {
         assertEquals(wrapper.getContent(), email.get(Email.HTMLPART));
     }
     
+    @Test
+    public void testGroupIntoBatches() {
+        EmailWrapper first = getBatchableEmailWrapper("recipient1@email.com", "Subject");
+        EmailWrapper otherSender = getBatchableEmailWrapper("recipient2@email.com", "Subject");
+        otherSender.setSenderEmail("othersender@email.com");
+        EmailWrapper second = getBatchableEmailWrapper("recipient3@email.com", "Subject");
+        EmailWrapper sameRecipient = getBatchableEmailWrapper("recipient1@email.com", "Other subject");
+        EmailWrapper withBcc = getTypicalEmailWrapper();
+        EmailWrapper third = getBatchableEmailWrapper("recipient4@email.com", "Subject");
+        List<EmailWrapper> messages = Arrays.asList(first, otherSender, second, sameRecipient, withBcc, third);
+        
+        ______TS("emails with the same sender and different recipients are grouped together");
+        
+        List<List<EmailWrapper>> batches = EmailSender.groupIntoBatches(messages, 100);
+        assertEquals(4, batches.size());
+        assertEquals(Arrays.asList(first, second, third), batches.get(0));
+        assertEquals(Arrays.asList(otherSender), batches.get(1));
+        assertEquals(Arrays.asList(sameRecipient), batches.get(2));
+        assertEquals(Arrays.asList(withBcc), batches.get(3));
+        
+        ______TS("batches are split at the maximum batch size");
+        
+        batches = EmailSender.groupIntoBatches(messages, 2);
+        assertEquals(4, batches.size());
+        assertEquals(Arrays.asList(first, second), batches.get(0));
+        assertEquals(Arrays.asList(sameRecipient, third), batches.get(2));
+        
+        ______TS("batches are split to fit in the payload of a task");
+        
+        StringBuilder longContent = new StringBuilder();
+        for (int i = 0; i < 40 * 1024; i++) {
+            longContent.append('a');
+        }
+        List<EmailWrapper> longMessages = new ArrayList<EmailWrapper>();
+        for (int i = 0; i < 5; i++) {
+            EmailWrapper longMessage = getBatchableEmailWrapper("recipient" + i + "@email.com", "Subject");
+            longMessage.setContent(longContent.toString());
+            longMessages.add(longMessage);
+        }
+        batches = EmailSender.groupIntoBatches(longMessages, 100);
+        assertEquals(3, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(2).size());
+    }
+    
+    @Test
+    public void testConvertToSendgridBatch() {
+        List<EmailWrapper> wrappers = getTypicalEmailBatch();
+        SendGrid.Email email = new SendgridService().parseToBatchEmail(wrappers);
+        JSONObject smtpApi = new JSONObject(email.getSMTPAPI().jsonString());
+        JSONArray recipients = smtpApi.getJSONArray("to");
+        JSONObject substitutions = smtpApi.getJSONObject("sub");
+        
+        assertEquals(wrappers.get(0).getSenderEmail(), email.getFrom());
+        assertEquals(wrappers.get(0).getSenderName(), email.getFromName());
+        assertEquals(wrappers.get(0).getReplyTo(), email.getReplyTo());
+        for (int i = 0; i < wrappers.size(); i++) {
+            assertEquals(wrappers.get(i).getRecipient(), recipients.getString(i));
+            assertEquals(wrappers.get(i).getSubject(), substitutions.getJSONArray(email.getSubject()).getString(i));
+            assertEquals(wrappers.get(i).getContent(), substitutions.getJSONArray(email.getHtml()).getString(i));
+        }
+    }
+    
+    @Test
+    public void testConvertToMailgunBatch() {
+        List<EmailWrapper> wrappers = getTypicalEmailBatch();
+        FormDataMultiPart formData = new MailgunService().parseToBatchEmail(wrappers);
+        JSONObject recipientVariables = new JSONObject(formData.getField("recipient-variables").getValue());
+        
+        assertEquals(wrappers.get(0).getSenderName() + " <" + wrappers.get(0).getSenderEmail() + ">",
+                     formData.getField("from").getValue());
+        assertEquals(wrappers.get(0).getReplyTo(), formData.getField("h:Reply-To").getValue());
+        assertEquals("%recipient.subject%", formData.getField("subject").getValue());
+        assertEquals("%recipient.content%", formData.getField("html").getValue());
+        for (int i = 0; i < wrappers.size(); i++) {
+            EmailWrapper wrapper = wrappers.get(i);
+            assertEquals(wrapper.getRecipient(), formData.getFields("to").get(i).getValue());
+            JSONObject variables = recipientVariables.getJSONObject(wrapper.getRecipient());
+            assertEquals(wrapper.getSubject(), variables.getString("subject"));
+            assertEquals(wrapper.getContent(), variables.getString("content"));
+        }
+    }
+    
+    @Test
+    public void testConvertToMailjetBatch() {
+        List<EmailWrapper> wrappers = getTypicalEmailBatch();
+        MailjetRequest request = new MailjetService().parseToBatchEmail(wrappers);
+        JSONArray messages = new JSONObject(request.getBody()).getJSONArray(Email.MESSAGES);
+        
+        assertEquals(wrappers.size(), messages.length());
+        for (int i = 0; i < wrappers.size(); i++) {
+            EmailWrapper wrapper = wrappers.get(i);
+            JSONObject email = messages.getJSONObject(i);
+            assertEquals(wrapper.getSenderEmail(), email.get(Email.FROMEMAIL));
+            assertEquals(wrapper.getRecipient(),
+                         ((JSONArray) email.get(Email.RECIPIENTS)).getJSONObject(0).get("Email"));
+            assertEquals(wrapper.getSubject(), email.get(Email.SUBJECT));
+            assertEquals(wrapper.getContent(), email.get(Email.HTMLPART));
+        }
+    }
+    
+    @Test
+    public void testSendEmailBatchFailures() throws Exception {
+        StubEmailService service = new StubEmailService();
+        EmailSender emailSender = new EmailSender(service);
+        EmailSendingStatistics statistics = EmailSendingStatistics.of(StubEmailService.class.getSimpleName());
+        
+        ______TS("success: any 2xx status");
+        
+        service.status = 202;
+        emailSender.sendEmailBatch(getTypicalEmailBatch());
+        assertEquals(1, statistics.getBatchCount());
+        
+        ______TS("failure: throttled batch");
+        
+        service.status = 429;
+        try {
+            emailSender.sendEmailBatch(getTypicalEmailBatch());
+            signalFailureToDetectException();
+        } catch (EmailSendingException e) {
+            assertEquals(Const.StatusCodes.EMAIL_SERVICE_THROTTLED, e.errorCode);
+        }
+        assertEquals(1, statistics.getThrottledBatchCount());
+        assertEquals(0, statistics.getFailedBatchCount());
+        
+        ______TS("failure: any other status fails the batch, so that it is retried");
+        
+        service.status = 500;
+        try {
+            emailSender.sendEmailBatch(getTypicalEmailBatch());
+            signalFailureToDetectException();
+        } catch (EmailSendingException e) {
+            assertEquals(Const.StatusCodes.EMAIL_SERVICE_FAILED, e.errorCode);
+        }
+        service.status = 400;
+        try {
+            emailSender.sendEmailBatch(getTypicalEmailBatch());
+            signalFailureToDetectException();
+        } catch (EmailSendingException e) {
+            assertEquals(Const.StatusCodes.EMAIL_SERVICE_FAILED, e.errorCode);
+        }
+        assertEquals(2, statistics.getFailedBatchCount());
+        assertEquals(1, statistics.getBatchCount());
+        
+        ______TS("failure: a batch of one email is sent on its own, but fails like any other batch");
+        
+        List<EmailWrapper> singleEmailBatch = getTypicalEmailBatch().subList(0, 1);
+        service.status = 429;
+        try {
+            emailSender.sendEmailBatch(singleEmailBatch);
+            signalFailureToDetectException();
+        } catch (EmailSendingException e) {
+            assertEquals(Const.StatusCodes.EMAIL_SERVICE_THROTTLED, e.errorCode);
+        }
+        service.status = 500;
+        try {
+            emailSender.sendEmailBatch(singleEmailBatch);
+            signalFailureToDetectException();
+        } catch (EmailSendingException e) {
+            assertEquals(Const.StatusCodes.EMAIL_SERVICE_FAILED, e.errorCode);
+        }
+        assertEquals(2, statistics.getThrottledBatchCount());
+        assertEquals(3, statistics.getFailedBatchCount());
+        assertEquals(1, statistics.getBatchCount());
+        
+        service.status = 200;
+        emailSender.sendEmailBatch(singleEmailBatch);
+        assertEquals(2, statistics.getBatchCount());
+    }
+    
+    /**
+     * Answers every request with the HTTP status {@link #status}.
+     */
+    private static class StubEmailService extends EmailSenderService {
+        
+        int status;
+        
+        @Override
+        public Object parseToEmail(EmailWrapper wrapper) {
+            return wrapper;
+        }
+        
+        @Override
+        public int getMaxBatchSize() {
+            return 100;
+        }
+        
+        @Override
+        protected int sendEmailWithService(EmailWrapper wrapper) {
+            return status;
+        }
+        
+        @Override
+        protected void sendEmailsWithService(List<EmailWrapper> wrappers) throws EmailSendingException {
+            if (!isSuccessfulRequest(status)) {
+                handleFailedRequest(status, "stub status " + status);
+            }
+        }
+    }
+    
     @AfterClass
     public static void classTearDown() {
         printTestClassFooter();
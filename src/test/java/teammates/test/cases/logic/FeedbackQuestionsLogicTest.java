@@ -12,7 +12,9 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackMcqQuestionStatistics;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
+import teammates.common.datatransfer.FeedbackQuestionResultStatisticsAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
@@ -21,6 +23,7 @@ import teammates.common.util.FieldValidator;
 import teammates.logic.core.AccountsLogic;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.storage.api.FeedbackQuestionResultStatisticsDb;
 import teammates.test.cases.BaseComponentTestCase;
 
 import com.google.appengine.api.datastore.Text;
@@ -636,6 +639,55 @@ public class FeedbackQuestionsLogicTest extends BaseComponentTestCase {
         
     }
 
+    @Test
+    public void testStoredStatistics() throws Exception {
+        DataBundle dataBundle = loadDataBundle("/FeedbackSessionQuestionTypeTest.json");
+        removeAndRestoreDatastoreFromJson("/FeedbackSessionQuestionTypeTest.json");
+        FeedbackQuestionResultStatisticsDb fqrsDb = new FeedbackQuestionResultStatisticsDb();
+        FeedbackQuestionAttributes question = dataBundle.feedbackQuestions.get("qn1InSession1InCourse1");
+        question = fqLogic.getFeedbackQuestion(question.feedbackSessionName, question.courseId,
+                                               question.questionNumber);
+        
+        ______TS("repair computes the statistics from all the responses");
+        
+        assertTrue(fqLogic.repairStoredStatistics(question.getId()));
+        FeedbackQuestionResultStatisticsAttributes statistics =
+                fqrsDb.getFeedbackQuestionResultStatistics(question.getId());
+        assertTrue(statistics.isStatisticsKnown());
+        assertEquals(2, statistics.getNumOfResponses());
+        assertEquals(2, statistics.getStatistics(FeedbackMcqQuestionStatistics.class).getNumOfResponses());
+        
+        ______TS("stored statistics match the responses if none are missing or extra");
+        
+        assertTrue(statistics.isMatchingResponses(2, null));
+        assertTrue(statistics.isMatchingResponses(2, 2));
+        assertTrue(statistics.isMatchingResponses(1, null));
+        assertTrue(statistics.isMatchingResponses(0, 2));
+        assertFalse(statistics.isMatchingResponses(3, null));
+        assertFalse(statistics.isMatchingResponses(1, 1));
+        assertFalse(statistics.isMatchingResponses(1, 3));
+        
+        ______TS("repair does not overwrite statistics changed shortly before");
+        
+        fqLogic.clearStoredStatistics(question.getId());
+        statistics = fqrsDb.getFeedbackQuestionResultStatistics(question.getId());
+        assertFalse(statistics.isStatisticsKnown());
+        assertFalse(statistics.isMatchingResponses(0, null));
+        
+        assertFalse(fqLogic.repairStoredStatistics(question.getId()));
+        assertFalse(fqrsDb.getFeedbackQuestionResultStatistics(question.getId()).isStatisticsKnown());
+        
+        ______TS("repair of a question whose statistics are not stored");
+        
+        FeedbackQuestionAttributes constSumQuestion = dataBundle.feedbackQuestions.get("qn1InSession4InCourse1");
+        constSumQuestion = fqLogic.getFeedbackQuestion(constSumQuestion.feedbackSessionName, constSumQuestion.courseId,
+                                                       constSumQuestion.questionNumber);
+        assertFalse(fqLogic.repairStoredStatistics(constSumQuestion.getId()));
+        assertNull(fqrsDb.getFeedbackQuestionResultStatistics(constSumQuestion.getId()));
+        
+        assertFalse(fqLogic.repairStoredStatistics("non-existent-question-id"));
+    }
+    
     private FeedbackQuestionAttributes getQuestionFromDatastore(String questionKey) {
         FeedbackQuestionAttributes question;
         question = typicalBundle.feedbackQuestions.get(questionKey);
@@ -1,12 +1,15 @@
 package teammates.test.cases.logic;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.testng.annotations.AfterClass;
@@ -77,6 +80,9 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         testGetFeedbackSessionQuestionsForInstructor();
         testGetFeedbackSessionResultsForUser();
         testGetFeedbackSessionResultsSummaryAsCsv();
+        testWriteFeedbackSessionResultsSummaryAsCsv();
+        testGetContributionQuestionResultsOfAllViews();
+        testGetPossibleParticipantsWithoutResponses();
         testIsFeedbackSessionViewableToStudents();
         
         testCreateAndDeleteFeedbackSession();
@@ -1782,6 +1788,150 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         }
     }
     
+    public void testWriteFeedbackSessionResultsSummaryAsCsv() throws Exception {
+        
+        // the datastore still contains the data restored in testGetFeedbackSessionResultsSummaryAsCsv()
+        DataBundle newDataBundle = loadDataBundle("/FeedbackSessionQuestionTypeTest.json");
+        InstructorAttributes instructor = newDataBundle.instructors.get("instructor1OfCourse1");
+        
+        ______TS("typical case: same content as the export built in memory, for all question types");
+        
+        for (FeedbackSessionAttributes session : newDataBundle.feedbackSessions.values()) {
+            if (!session.getCourseId().equals(instructor.courseId)) {
+                continue;
+            }
+            String expected = fsLogic.getFeedbackSessionResultsSummaryAsCsv(
+                    session.getFeedbackSessionName(), session.getCourseId(), instructor.email, null, true, true);
+            String actual = writeFeedbackSessionResultsSummaryAsCsv(
+                    session.getFeedbackSessionName(), session.getCourseId(), instructor.email, null, null, true, true);
+            assertEquals(expected, actual);
+        }
+        
+        ______TS("within a section, with filter text and without missing responses or statistics");
+        
+        FeedbackSessionAttributes session = newDataBundle.feedbackSessions.get("mcqSession");
+        String expected = fsLogic.getFeedbackSessionResultsSummaryInSectionAsCsv(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email,
+                "Section 1", "What", false, false);
+        String actual = writeFeedbackSessionResultsSummaryAsCsv(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email,
+                "Section 1", "What", false, false);
+        assertEquals(expected, actual);
+        
+        ______TS("Non-existent Course/Session");
+        
+        try {
+            writeFeedbackSessionResultsSummaryAsCsv("non.existent", "no course", instructor.email, null, null, true, true);
+            signalFailureToDetectException("Failed to detect non-existent feedback session.");
+        } catch (EntityDoesNotExistException e) {
+            assertEquals("Trying to view a non-existent feedback session: "
+                         + "no course" + "/" + "non.existent",
+                         e.getMessage());
+        }
+    }
+    
+    public void testGetContributionQuestionResultsOfAllViews() throws Exception {
+        
+        // the datastore still contains the data restored in testGetFeedbackSessionResultsSummaryAsCsv()
+        DataBundle newDataBundle = loadDataBundle("/FeedbackSessionQuestionTypeTest.json");
+        FeedbackSessionAttributes session = newDataBundle.feedbackSessions.get("contribSession");
+        InstructorAttributes instructor = newDataBundle.instructors.get("instructor1OfCourse1");
+        StudentAttributes student = newDataBundle.students.get("student2InCourse1");
+        
+        ______TS("the views of a bundle show the same results as the views of separate bundles");
+        
+        // each view computes the results of the teams it shows, and later views reuse them
+        FeedbackSessionResultsBundle bundle = fsLogic.getFeedbackSessionResultsForInstructor(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email);
+        Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry =
+                bundle.getQuestionResponseMap().entrySet().iterator().next();
+        FeedbackQuestionAttributes question = entry.getKey();
+        FeedbackQuestionDetails questionDetails = question.getQuestionDetails();
+        List<FeedbackResponseAttributes> responses = entry.getValue();
+        
+        String questionView = questionDetails.getQuestionResultStatisticsHtml(
+                responses, question, instructor.email, bundle, "question");
+        String studentView = questionDetails.getQuestionResultStatisticsHtml(
+                responses, question, student.email, bundle, "student");
+        String csv = questionDetails.getQuestionResultStatisticsCsv(responses, question, bundle);
+        List<String> answersCsv = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : responses) {
+            answersCsv.add(response.getResponseDetails().getAnswerCsv(response, question, bundle));
+        }
+        
+        assertFalse(questionView.isEmpty());
+        assertFalse(studentView.isEmpty());
+        AssertHelper.assertContains("\"75\"", csv);
+        assertEquals(questionView, questionDetails.getQuestionResultStatisticsHtml(
+                responses, question, instructor.email, getContributionResultsBundle(session, instructor), "question"));
+        assertEquals(studentView, questionDetails.getQuestionResultStatisticsHtml(
+                responses, question, student.email, getContributionResultsBundle(session, instructor), "student"));
+        assertEquals(csv, questionDetails.getQuestionResultStatisticsCsv(
+                responses, question, getContributionResultsBundle(session, instructor)));
+        FeedbackSessionResultsBundle answersBundle = getContributionResultsBundle(session, instructor);
+        for (int i = 0; i < responses.size(); i++) {
+            FeedbackResponseAttributes response = responses.get(i);
+            assertEquals(answersCsv.get(i),
+                         response.getResponseDetails().getAnswerCsv(response, question, answersBundle));
+        }
+    }
+    
+    private FeedbackSessionResultsBundle getContributionResultsBundle(FeedbackSessionAttributes session,
+            InstructorAttributes instructor) throws EntityDoesNotExistException {
+        return fsLogic.getFeedbackSessionResultsForInstructor(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email);
+    }
+    
+    public void testGetPossibleParticipantsWithoutResponses() throws Exception {
+        
+        // the datastore still contains the data persisted in testGetFeedbackSessionResultsForUser()
+        DataBundle responseBundle = loadDataBundle("/FeedbackSessionResultsTest.json");
+        FeedbackSessionAttributes session = responseBundle.feedbackSessions.get("standard.session");
+        InstructorAttributes instructor = responseBundle.instructors.get("instructor1OfCourse1");
+        FeedbackSessionResultsBundle results =
+                fsLogic.getFeedbackSessionResultsForInstructor(session.getFeedbackSessionName(),
+                        session.getCourseId(), instructor.email);
+        
+        ______TS("participants with responses are left out, order of the rest is kept");
+        
+        for (FeedbackQuestionAttributes question : results.questions.values()) {
+            List<String> possibleGivers = results.getPossibleGivers(question);
+            assertEquals(possibleGivers,
+                         results.getPossibleGiversWithoutResponses(question, new HashSet<String>()));
+            
+            Set<String> giversWithResponses = new HashSet<String>();
+            for (FeedbackResponseAttributes response : results.responses) {
+                if (response.feedbackQuestionId.equals(question.getId())) {
+                    giversWithResponses.add(response.giver);
+                }
+            }
+            List<String> expectedGivers = new ArrayList<String>(possibleGivers);
+            expectedGivers.removeAll(giversWithResponses);
+            assertEquals(expectedGivers,
+                         results.getPossibleGiversWithoutResponses(question, giversWithResponses));
+            
+            for (String giver : possibleGivers) {
+                List<String> expectedRecipients = new ArrayList<String>(results.getPossibleRecipients(question, giver));
+                Set<String> recipientsWithResponses = new HashSet<String>();
+                if (!expectedRecipients.isEmpty()) {
+                    recipientsWithResponses.add(expectedRecipients.remove(0));
+                }
+                assertEquals(expectedRecipients,
+                             results.getPossibleRecipientsWithoutResponses(question, giver, recipientsWithResponses));
+            }
+        }
+    }
+    
+    private String writeFeedbackSessionResultsSummaryAsCsv(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String filterText, boolean isMissingResponsesShown, boolean isStatsShown) throws Exception {
+        StringWriter writer = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                feedbackSessionName, courseId, userEmail, section, filterText,
+                isMissingResponsesShown, isStatsShown, writer);
+        return writer.toString();
+    }
+    
     private String getStudentAnonEmail(DataBundle dataBundle, String studentKey) {
         return FeedbackSessionResultsBundle.getAnonEmail(FeedbackParticipantType.STUDENTS,
                                                          dataBundle.students.get(studentKey).name);
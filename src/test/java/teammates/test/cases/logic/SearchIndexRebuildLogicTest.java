@@ -0,0 +1,129 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.SearchIndexRebuildAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.logic.core.SearchIndexRebuildLogic;
+import teammates.storage.api.FeedbackResponseCommentsDb;
+import teammates.storage.api.SearchIndexRebuildsDb;
+import teammates.storage.api.StudentsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.datastore.Text;
+
+public class SearchIndexRebuildLogicTest extends BaseComponentTestCase {
+
+    private static final String INDEX_NAME = Const.SearchIndex.STUDENT;
+    private static final String COURSE_ID = "SIRLT.course";
+
+    private static final SearchIndexRebuildLogic rebuildLogic = SearchIndexRebuildLogic.inst();
+    private static final SearchIndexRebuildsDb searchIndexRebuildsDb = new SearchIndexRebuildsDb();
+    private static final StudentsDb studentsDb = new StudentsDb();
+    private static final FeedbackResponseCommentsDb frcDb = new FeedbackResponseCommentsDb();
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+
+        // one more student than fits in a page, so that the rebuild takes more than one page
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (int i = 0; i <= SearchIndexRebuildLogic.ENTITIES_PER_TASK; i++) {
+            students.add(new StudentAttributes("Section 1", "Team 1", "Student " + i,
+                                               "student" + i + "@SIRLT.tmt", "", COURSE_ID));
+        }
+        studentsDb.createStudentsWithoutDocuments(students);
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        studentsDb.deleteStudentsForCourseWithoutDocument(COURSE_ID);
+        printTestClassFooter();
+    }
+
+    @Test
+    public void testRebuildNextPage() throws Exception {
+        int studentCount = studentsDb.getAllStudents().size();
+
+        ______TS("the first page is checkpointed");
+
+        SearchIndexRebuildAttributes rebuild = rebuildLogic.startSearchIndexRebuild(INDEX_NAME);
+        String rebuildId = rebuild.getRebuildId();
+        rebuildLogic.rebuildNextPage(INDEX_NAME, rebuildId);
+
+        rebuild = rebuildLogic.getSearchIndexRebuild(INDEX_NAME);
+        assertFalse(rebuild.isFinished());
+        assertNotNull(rebuild.getCursor());
+        assertEquals(SearchIndexRebuildLogic.ENTITIES_PER_TASK, rebuild.getDocumentsPut());
+
+        ______TS("a task of a superseded rebuild does nothing");
+
+        rebuildLogic.rebuildNextPage(INDEX_NAME, "superseded rebuild");
+        assertEquals(rebuild.getCursor(), rebuildLogic.getSearchIndexRebuild(INDEX_NAME).getCursor());
+
+        ______TS("the rebuild finishes after the last page");
+
+        while (!rebuild.isFinished()) {
+            rebuildLogic.rebuildNextPage(INDEX_NAME, rebuildId);
+            rebuild = rebuildLogic.getSearchIndexRebuild(INDEX_NAME);
+        }
+        assertNull(rebuild.getCursor());
+        assertEquals(studentCount, rebuild.getDocumentsPut());
+
+        ______TS("a task of a finished rebuild does nothing");
+
+        rebuildLogic.rebuildNextPage(INDEX_NAME, rebuildId);
+        assertEquals(studentCount, rebuildLogic.getSearchIndexRebuild(INDEX_NAME).getDocumentsPut());
+    }
+
+    @Test
+    public void testPageWithOrphanedComment() throws Exception {
+        String indexName = Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT;
+        // the response and question of the comment do not exist, so its document cannot be built
+        frcDb.createEntity(new FeedbackResponseCommentAttributes(COURSE_ID, "Deleted Session", "deletedQuestionId",
+                                                                 "instructor@SIRLT.tmt", "deletedResponseId",
+                                                                 new Date(), new Text("orphaned comment")));
+        int commentCount = frcDb.getAllFeedbackResponseComments().size();
+
+        ______TS("a document which cannot be built is skipped instead of failing the page");
+
+        SearchIndexRebuildAttributes rebuild = rebuildLogic.startSearchIndexRebuild(indexName);
+        String rebuildId = rebuild.getRebuildId();
+        while (!rebuild.isFinished()) {
+            rebuildLogic.rebuildNextPage(indexName, rebuildId);
+            rebuild = rebuildLogic.getSearchIndexRebuild(indexName);
+        }
+        assertEquals(commentCount, rebuild.getDocumentsPut());
+
+        frcDb.deleteFeedbackResponseCommentsForCourse(COURSE_ID);
+    }
+
+    @Test
+    public void testFailedPage() throws Exception {
+        SearchIndexRebuildAttributes rebuild = rebuildLogic.startSearchIndexRebuild(INDEX_NAME);
+        String rebuildId = rebuild.getRebuildId();
+        searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, rebuildId, null, "invalid cursor", 5);
+
+        ______TS("failure: the progress is not checkpointed, so the retried task redoes the page");
+
+        try {
+            rebuildLogic.rebuildNextPage(INDEX_NAME, rebuildId);
+            signalFailureToDetectException();
+        } catch (RuntimeException e) {
+            ignoreExpectedException();
+        }
+        rebuild = rebuildLogic.getSearchIndexRebuild(INDEX_NAME);
+        assertEquals("invalid cursor", rebuild.getCursor());
+        assertEquals(5, rebuild.getDocumentsPut());
+        assertFalse(rebuild.isFinished());
+    }
+}
@@ -147,9 +147,9 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         assertEquals(0, studentsLogic.getStudentsForCourse(instructorCourse).size());
 
         // add a new student and verify it is added and treated as a new student
-        StudentEnrollDetails enrollmentResult = enrollStudent(student1);
+        StudentAttributes enrollmentResult = enrollStudent(student1);
         assertEquals(1, studentsLogic.getStudentsForCourse(instructorCourse).size());
-        verifyEnrollmentDetailsForStudent(student1, null, enrollmentResult,
+        verifyEnrollmentResultForStudent(student1, enrollmentResult,
                 StudentAttributes.UpdateStatus.NEW);
         verifyPresentInDatastore(student1);
 
@@ -157,14 +157,14 @@ public class StudentsLogicTest extends BaseComponentTestCase {
 
         // Verify it was not added
         enrollmentResult = enrollStudent(student1);
-        verifyEnrollmentDetailsForStudent(student1, null, enrollmentResult,
+        verifyEnrollmentResultForStudent(student1, enrollmentResult,
                 StudentAttributes.UpdateStatus.UNMODIFIED);
         assertEquals(1, studentsLogic.getStudentsForCourse(instructorCourse).size());
 
         ______TS("add student into non-empty course");
         StudentAttributes student2 = new StudentAttributes("sect 1", "t1", "n2", "e2@g", "c", instructorCourse);
         enrollmentResult = enrollStudent(student2);
-        verifyEnrollmentDetailsForStudent(student2, null, enrollmentResult,
+        verifyEnrollmentResultForStudent(student2, enrollmentResult,
                 StudentAttributes.UpdateStatus.NEW);
         
         //add some more students to the same course (we add more than one
@@ -407,7 +407,7 @@ public class StudentsLogicTest extends BaseComponentTestCase {
                                             feedbackResponse1InBundle.giver,
                                             feedbackResponse1InBundle.recipient);
         
-        studentsLogic.adjustFeedbackResponseForEnrollments(enrollmentList, responseBefore);
+        studentsLogic.adjustFeedbackResponsesForEnrollments(enrollmentList);
         
         FeedbackResponseAttributes responseAfter = frLogic.getFeedbackResponse(feedbackQuestionInDb.getId(),
                 feedbackResponse1InBundle.giver, feedbackResponse1InBundle.recipient);
@@ -431,7 +431,7 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         responseBefore = frLogic.getFeedbackResponse(feedbackQuestionInDb.getId(),
                 feedbackResponse1InBundle.giver, feedbackResponse1InBundle.recipient);
         
-        studentsLogic.adjustFeedbackResponseForEnrollments(enrollmentList, responseBefore);
+        studentsLogic.adjustFeedbackResponsesForEnrollments(enrollmentList);
         
         responseAfter = frLogic.getFeedbackResponse(feedbackQuestionInDb.getId(),
                 feedbackResponse1InBundle.giver, feedbackResponse1InBundle.recipient);
@@ -456,7 +456,7 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         responseBefore = frLogic.getFeedbackResponse(feedbackQuestionInDb.getId(),
                 feedbackResponse1InBundle.giver, feedbackResponse1InBundle.recipient);
         
-        studentsLogic.adjustFeedbackResponseForEnrollments(enrollmentList, responseBefore);
+        studentsLogic.adjustFeedbackResponsesForEnrollments(enrollmentList);
         
         responseAfter = frLogic.getFeedbackResponse(feedbackQuestionInDb.getId(),
                 feedbackResponse1InBundle.giver, feedbackResponse1InBundle.recipient);
@@ -1187,10 +1187,12 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         }
     }
 
-    private static StudentEnrollDetails enrollStudent(StudentAttributes student) throws Exception {
-        return (StudentEnrollDetails) invokeMethod(StudentsLogic.class, "enrollStudent",
-                                                   new Class<?>[] { StudentAttributes.class, Boolean.class },
-                                                   StudentsLogic.inst(), new Object[] { student, false });
+    private static StudentAttributes enrollStudent(StudentAttributes student) throws Exception {
+        String enrollLines = "Section|Team|Name|Email|Comments" + Const.EOL
+                           + student.section + "|" + student.team + "|" + student.name + "|"
+                           + student.email + "|" + student.comments;
+        // the enrolled student comes before the other students of the course in the results
+        return studentsLogic.enrollStudentsWithoutDocument(enrollLines, student.course).get(0);
     }
     
     @SuppressWarnings("unchecked")
@@ -1213,15 +1215,6 @@ public class StudentsLogicTest extends BaseComponentTestCase {
                      email.getSubject());
     }
     
-    private void verifyEnrollmentDetailsForStudent(StudentAttributes expectedStudent, String oldTeam,
-                                                   StudentEnrollDetails enrollmentResult, UpdateStatus status) {
-        assertEquals(expectedStudent.email, enrollmentResult.email);
-        assertEquals(expectedStudent.team, enrollmentResult.newTeam);
-        assertEquals(expectedStudent.course, enrollmentResult.course);
-        assertEquals(oldTeam, enrollmentResult.oldTeam);
-        assertEquals(status, enrollmentResult.updateStatus);
-    }
-    
     private void verifyEnrollmentResultForStudent(StudentAttributes expectedStudent,
                                                   StudentAttributes enrollmentResult, UpdateStatus status) {
         String errorMessage = "mismatch! \n expected:\n"
@@ -0,0 +1,91 @@
+package teammates.test.cases.storage;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.storage.datastore.DatastoreCache;
+import teammates.test.cases.BaseTestCase;
+
+public class DatastoreCacheTest extends BaseTestCase {
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @AfterMethod
+    public void clearCache() {
+        DatastoreCache.clear();
+    }
+
+    @Test
+    public void testGetAndPut() {
+
+        ______TS("miss when there is no entry");
+
+        long missCount = DatastoreCache.getMissCount();
+        assertNull(DatastoreCache.get("Kind|course|key"));
+        assertEquals(missCount + 1, DatastoreCache.getMissCount());
+
+        ______TS("hit in the request tier");
+
+        DatastoreCache.put("Kind|course|key", "value", DatastoreCache.getVersion());
+        long requestHitCount = DatastoreCache.getRequestHitCount();
+        assertEquals("value", DatastoreCache.get("Kind|course|key"));
+        assertEquals(requestHitCount + 1, DatastoreCache.getRequestHitCount());
+
+        ______TS("hit in the shared tier after the request tier is cleared");
+
+        DatastoreCache.clearRequestCache();
+        long sharedHitCount = DatastoreCache.getSharedHitCount();
+        assertEquals("value", DatastoreCache.get("Kind|course|key"));
+        assertEquals(sharedHitCount + 1, DatastoreCache.getSharedHitCount());
+
+        ______TS("null values are not cached");
+
+        DatastoreCache.put("Kind|course|null", null, DatastoreCache.getVersion());
+        assertNull(DatastoreCache.get("Kind|course|null"));
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        DatastoreCache.put("Kind|course1|a", "a", DatastoreCache.getVersion());
+        DatastoreCache.put("Kind|course1|b", "b", DatastoreCache.getVersion());
+        DatastoreCache.put("Kind|course10|a", "c", DatastoreCache.getVersion());
+
+        ______TS("only keys with the prefix are invalidated in both tiers");
+
+        DatastoreCache.invalidate("Kind|course1|");
+        assertNull(DatastoreCache.get("Kind|course1|a"));
+        assertNull(DatastoreCache.get("Kind|course1|b"));
+        assertEquals("c", DatastoreCache.get("Kind|course10|a"));
+
+        DatastoreCache.clearRequestCache();
+        assertNull(DatastoreCache.get("Kind|course1|a"));
+        assertEquals("c", DatastoreCache.get("Kind|course10|a"));
+
+        ______TS("value read before an invalidation is not shared");
+
+        long versionAtRead = DatastoreCache.getVersion();
+        DatastoreCache.invalidate("Kind|course2|");
+        DatastoreCache.put("Kind|course2|a", "stale", versionAtRead);
+        assertEquals("stale", DatastoreCache.get("Kind|course2|a"));
+        DatastoreCache.clearRequestCache();
+        assertNull(DatastoreCache.get("Kind|course2|a"));
+    }
+
+    @Test
+    public void testSharedCacheCapacity() {
+        long evictionCount = DatastoreCache.getEvictionCount();
+        for (int i = 0; i <= DatastoreCache.SHARED_CACHE_CAPACITY; i++) {
+            DatastoreCache.put("Kind|course|" + i, i, DatastoreCache.getVersion());
+        }
+        assertEquals(evictionCount + 1, DatastoreCache.getEvictionCount());
+
+        DatastoreCache.clearRequestCache();
+        assertNull(DatastoreCache.get("Kind|course|0"));
+        assertEquals(1, DatastoreCache.get("Kind|course|1"));
+    }
+}
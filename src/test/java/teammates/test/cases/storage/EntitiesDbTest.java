@@ -6,11 +6,13 @@ import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.storage.api.CoursesDb;
+import teammates.storage.datastore.RecentWrites;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
@@ -68,4 +70,59 @@ public class EntitiesDbTest extends BaseComponentTestCase {
         }
     }
 
+    @Test
+    public void testCreateEntityWithWriteNotVisibleYet() throws Exception {
+        // simulates a Datastore in which the writes of the request are not visible to its reads yet
+        CoursesDb coursesDb = new CoursesDb() {
+            @Override
+            protected Object getEntity(EntityAttributes attributes) {
+                return null;
+            }
+        };
+        CourseAttributes c = new CourseAttributes("Computing101-overlay", "Basic Computing");
+        new CoursesDb().deleteCourse(c.getId());
+        RecentWrites.clear();
+        
+        ______TS("fails: entity already created by the same request");
+        coursesDb.createEntity(c);
+        long hitCount = RecentWrites.getHitCount();
+        try {
+            coursesDb.createEntity(c);
+            signalFailureToDetectException();
+        } catch (EntityAlreadyExistsException e) {
+            AssertHelper.assertContains(c.getIdentificationString(), e.getMessage());
+            assertNotNull(e.existingEntity);
+        }
+        assertEquals(hitCount + 1, RecentWrites.getHitCount());
+        
+        ______TS("success: entity deleted by the same request can be created again");
+        coursesDb.deleteEntity(c);
+        assertEquals(hitCount + 2, RecentWrites.getHitCount());
+        coursesDb.createEntity(c);
+        
+        new CoursesDb().deleteCourse(c.getId());
+        RecentWrites.clear();
+    }
+
+    @Test
+    public void testGetEntityIncludingRecentWrites() throws Exception {
+        CoursesDb coursesDb = new CoursesDb();
+        CourseAttributes c = new CourseAttributes("Computing101-reads", "Basic Computing");
+        coursesDb.deleteCourse(c.getId());
+        coursesDb.createEntity(c);
+        RecentWrites.clear();
+        
+        ______TS("entity read from the Datastore");
+        assertNotNull(coursesDb.getCourse(c.getId()));
+        
+        ______TS("entity deleted by the request is not read even if the Datastore still returns it");
+        long hitCount = RecentWrites.getHitCount();
+        RecentWrites.recordDeletion(c.getEntityTypeAsString() + "|" + c.getIdentificationString());
+        assertNull(coursesDb.getCourse(c.getId()));
+        assertEquals(hitCount + 1, RecentWrites.getHitCount());
+        
+        RecentWrites.clear();
+        coursesDb.deleteCourse(c.getId());
+    }
+
 }
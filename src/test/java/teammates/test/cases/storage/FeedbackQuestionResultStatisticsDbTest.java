@@ -0,0 +1,141 @@
+package teammates.test.cases.storage;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackMcqQuestionDetails;
+import teammates.common.datatransfer.FeedbackMcqQuestionStatistics;
+import teammates.common.datatransfer.FeedbackMcqResponseDetails;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackQuestionResultStatisticsAttributes;
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.storage.api.FeedbackQuestionResultStatisticsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class FeedbackQuestionResultStatisticsDbTest extends BaseComponentTestCase {
+
+    private static final String SESSION_NAME = "First Session";
+    private static final String COURSE_ID = "FQRSDbT.course";
+
+    private FeedbackQuestionResultStatisticsDb fqrsDb = new FeedbackQuestionResultStatisticsDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testStoredStatistics() throws InvalidParametersException {
+        FeedbackQuestionAttributes question = createQuestion("question1");
+
+        ______TS("statistics are unknown before they are computed");
+
+        assertTrue(fqrsDb.updateFeedbackQuestionResultStatistics(FeedbackMcqQuestionStatistics.class,
+                                                                 null, createResponse("question1", "A")));
+        FeedbackQuestionResultStatisticsAttributes storedStatistics =
+                fqrsDb.getFeedbackQuestionResultStatistics(question.getId());
+        assertFalse(storedStatistics.isStatisticsKnown());
+
+        ______TS("computed statistics are not stored if a response changed shortly before");
+
+        FeedbackMcqQuestionStatistics statistics = new FeedbackMcqQuestionStatistics(Arrays.asList("A", "B"), false);
+        statistics.add(createResponse("question1", "A"));
+        FeedbackQuestionResultStatisticsAttributes computedStatistics =
+                new FeedbackQuestionResultStatisticsAttributes(question, statistics, 1);
+        assertFalse(fqrsDb.putFeedbackQuestionResultStatistics(computedStatistics, storedStatistics.getVersion(),
+                                                               new Date()));
+
+        ______TS("computed statistics are not stored if the stored statistics changed since they were read");
+
+        assertFalse(fqrsDb.putFeedbackQuestionResultStatistics(computedStatistics, null, getLateCountStartTime()));
+        assertFalse(fqrsDb.putFeedbackQuestionResultStatistics(computedStatistics, storedStatistics.getVersion() - 1,
+                                                               getLateCountStartTime()));
+        assertFalse(fqrsDb.getFeedbackQuestionResultStatistics(question.getId()).isStatisticsKnown());
+
+        ______TS("computed statistics are stored otherwise");
+
+        assertTrue(fqrsDb.putFeedbackQuestionResultStatistics(computedStatistics, storedStatistics.getVersion(),
+                                                              getLateCountStartTime()));
+        assertTrue(fqrsDb.getFeedbackQuestionResultStatistics(question.getId()).isStatisticsKnown());
+
+        ______TS("statistics are updated once known");
+
+        assertTrue(fqrsDb.updateFeedbackQuestionResultStatistics(FeedbackMcqQuestionStatistics.class,
+                                                                 null, createResponse("question1", "B")));
+        assertTrue(fqrsDb.updateFeedbackQuestionResultStatistics(FeedbackMcqQuestionStatistics.class,
+                                                                 createResponse("question1", "A"),
+                                                                 createResponse("question1", "B")));
+
+        storedStatistics = fqrsDb.getFeedbackQuestionResultStatistics(question.getId());
+        assertEquals(2, storedStatistics.getNumOfResponses());
+        Map<String, Integer> answerFrequency =
+                storedStatistics.getStatistics(FeedbackMcqQuestionStatistics.class).getAnswerFrequency();
+        assertEquals(0, answerFrequency.get("A").intValue());
+        assertEquals(2, answerFrequency.get("B").intValue());
+
+        ______TS("statistics of the session");
+
+        FeedbackQuestionAttributes otherQuestion = createQuestion("question2");
+        assertTrue(fqrsDb.putFeedbackQuestionResultStatistics(new FeedbackQuestionResultStatisticsAttributes(
+                otherQuestion, new FeedbackMcqQuestionStatistics(Arrays.asList("C"), false), 0), null, new Date()));
+        Map<String, FeedbackQuestionResultStatisticsAttributes> statisticsOfSession =
+                fqrsDb.getFeedbackQuestionResultStatisticsForSession(SESSION_NAME, COURSE_ID);
+        assertEquals(2, statisticsOfSession.size());
+        assertEquals(0, statisticsOfSession.get(otherQuestion.getId()).getNumOfResponses());
+
+        ______TS("statistics which cannot be updated become unknown");
+
+        assertFalse(fqrsDb.updateFeedbackQuestionResultStatistics(FeedbackMcqQuestionStatistics.class,
+                                                                  createResponse("question1", "A"), null));
+        assertFalse(fqrsDb.getFeedbackQuestionResultStatistics(question.getId()).isStatisticsKnown());
+
+        ______TS("invalidated statistics are not restored by a computation started before");
+
+        long versionBeforeInvalidation = fqrsDb.getFeedbackQuestionResultStatistics(otherQuestion.getId()).getVersion();
+        fqrsDb.invalidateFeedbackQuestionResultStatistics(Arrays.asList(otherQuestion, createQuestion("question3")));
+        assertFalse(fqrsDb.getFeedbackQuestionResultStatistics(otherQuestion.getId()).isStatisticsKnown());
+        assertFalse(fqrsDb.getFeedbackQuestionResultStatistics("question3").isStatisticsKnown());
+        assertFalse(fqrsDb.putFeedbackQuestionResultStatistics(new FeedbackQuestionResultStatisticsAttributes(
+                otherQuestion, new FeedbackMcqQuestionStatistics(Arrays.asList("C"), false), 0),
+                versionBeforeInvalidation, getLateCountStartTime()));
+
+        ______TS("delete");
+
+        fqrsDb.deleteFeedbackQuestionResultStatisticsForCourse(COURSE_ID);
+        assertNull(fqrsDb.getFeedbackQuestionResultStatistics(otherQuestion.getId()));
+    }
+
+    /**
+     * @return a computation start time long enough after the changes made by the test
+     */
+    private static Date getLateCountStartTime() {
+        return new Date(new Date().getTime() + 2 * FeedbackQuestionResultStatisticsDb.RECOMPUTATION_QUIET_PERIOD_MILLIS);
+    }
+
+    private static FeedbackQuestionAttributes createQuestion(String feedbackQuestionId) {
+        FeedbackQuestionAttributes question = new FeedbackQuestionAttributes();
+        question.setId(feedbackQuestionId);
+        question.feedbackSessionName = SESSION_NAME;
+        question.courseId = COURSE_ID;
+        return question;
+    }
+
+    private static FeedbackResponseAttributes createResponse(String feedbackQuestionId, String answer) {
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes();
+        response.feedbackQuestionId = feedbackQuestionId;
+        response.feedbackSessionName = SESSION_NAME;
+        response.courseId = COURSE_ID;
+        response.feedbackQuestionType = FeedbackQuestionType.MCQ;
+        FeedbackMcqResponseDetails responseDetails = new FeedbackMcqResponseDetails();
+        responseDetails.extractResponseDetails(FeedbackQuestionType.MCQ, new FeedbackMcqQuestionDetails(),
+                                               new String[] { answer, "0" });
+        response.setResponseDetails(responseDetails);
+        return response;
+    }
+}
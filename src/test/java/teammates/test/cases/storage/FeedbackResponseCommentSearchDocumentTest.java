@@ -0,0 +1,62 @@
+package teammates.test.cases.storage;
+
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.storage.api.FeedbackResponseCommentsDb;
+import teammates.storage.search.FeedbackResponseCommentSearchDocument;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+
+public class FeedbackResponseCommentSearchDocumentTest extends BaseComponentTestCase {
+
+    private static final FeedbackResponseCommentsDb frcDb = new FeedbackResponseCommentsDb();
+    private static DataBundle dataBundle = getTypicalDataBundle();
+
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+
+    @Test
+    public void testCreateDocuments() {
+
+        ______TS("documents using a prefetched context are the same as those looking up each comment");
+
+        int commentCount = 0;
+        for (CourseAttributes course : dataBundle.courses.values()) {
+            List<FeedbackResponseCommentAttributes> comments =
+                    frcDb.getFeedbackResponseCommentsForCourse(course.getId());
+            List<FeedbackResponseCommentSearchDocument> documents =
+                    FeedbackResponseCommentSearchDocument.createDocuments(comments);
+            assertEquals(comments.size(), documents.size());
+
+            for (int i = 0; i < comments.size(); i++) {
+                Document expected = new FeedbackResponseCommentSearchDocument(comments.get(i)).build();
+                verifySameDocument(expected, documents.get(i).build());
+            }
+            commentCount += comments.size();
+        }
+        assertTrue(commentCount > 0);
+    }
+
+    private static void verifySameDocument(Document expected, Document actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getFieldNames(), actual.getFieldNames());
+        for (String fieldName : expected.getFieldNames()) {
+            Field expectedField = expected.getOnlyField(fieldName);
+            Field actualField = actual.getOnlyField(fieldName);
+            assertEquals(expectedField.getType(), actualField.getType());
+            assertEquals(fieldName, expectedField.getText(), actualField.getText());
+            assertEquals(expectedField.getDate(), actualField.getDate());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package teammates.test.cases.storage;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -9,6 +11,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.EntitiesPage;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseDetails;
@@ -205,6 +208,16 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         actual = frDb.getFeedbackResponse("non-existent id");
         
         assertNull(actual);
+        
+        ______TS("get several by id, skipping non-existent ones");
+        
+        String existingId = frDb.getFeedbackResponse(expected.feedbackQuestionId, expected.giver,
+                                                     expected.recipient).getId();
+        List<FeedbackResponseAttributes> responses =
+                frDb.getFeedbackResponses(Arrays.asList(existingId, "non-existent id", existingId));
+        
+        assertEquals(1, responses.size());
+        assertEquals(expected.toString(), responses.get(0).toString());
     }
     
     @Test
@@ -620,6 +633,80 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
                 feedbackSessionName, "non-existent courseId", 1).isEmpty());
     }
 
+    @Test
+    public void testGetFeedbackResponsesPages() {
+
+        String courseId = fras.get("response1ForQ1S1C1").courseId;
+        String feedbackSessionName = fras.get("response1ForQ1S1C1").feedbackSessionName;
+
+        ______TS("walk all pages of a session");
+
+        Set<String> pagedResponseIds = new HashSet<String>();
+        EntitiesPage<FeedbackResponseAttributes> page =
+                frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, null, 2);
+        assertEquals(2, page.getEntities().size());
+        addResponseIds(pagedResponseIds, page);
+        while (page.hasNextPage()) {
+            page = frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, page.getNextCursor(), 2);
+            assertTrue(page.getEntities().size() <= 2);
+            addResponseIds(pagedResponseIds, page);
+        }
+        assertEquals(getResponseIds(frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId)),
+                     pagedResponseIds);
+
+        ______TS("walk all pages of a section, without returning any response twice");
+
+        pagedResponseIds.clear();
+        int pagedResponseCount = 0;
+        String cursor = null;
+        do {
+            page = frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, "Section 1",
+                                                                     cursor, 2);
+            pagedResponseCount += page.getEntities().size();
+            addResponseIds(pagedResponseIds, page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(pagedResponseIds.size(), pagedResponseCount);
+        assertEquals(getResponseIds(frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId,
+                                                                                  "Section 1")),
+                     pagedResponseIds);
+
+        ______TS("page larger than the results");
+
+        page = frDb.getFeedbackResponsesForQuestionPage(fras.get("response1ForQ1S1C1").feedbackQuestionId, null, 100);
+        assertFalse(page.hasNextPage());
+        assertEquals(getResponseIds(frDb.getFeedbackResponsesForQuestion(
+                             fras.get("response1ForQ1S1C1").feedbackQuestionId)),
+                     getResponseIds(page.getEntities()));
+
+        ______TS("non-existent feedback session");
+
+        page = frDb.getFeedbackResponsesForSessionPage("non-existent feedback session", courseId, null, 2);
+        assertTrue(page.getEntities().isEmpty());
+        assertFalse(page.hasNextPage());
+
+        ______TS("null params");
+
+        try {
+            frDb.getFeedbackResponsesForSessionPage(null, courseId, null, 2);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+    }
+
+    private static void addResponseIds(Set<String> responseIds, EntitiesPage<FeedbackResponseAttributes> page) {
+        responseIds.addAll(getResponseIds(page.getEntities()));
+    }
+
+    private static Set<String> getResponseIds(List<FeedbackResponseAttributes> responses) {
+        Set<String> responseIds = new HashSet<String>();
+        for (FeedbackResponseAttributes response : responses) {
+            responseIds.add(response.getId());
+        }
+        return responseIds;
+    }
+
     @Test
     public void testGetFeedbackResponsesForSessionInSection() {
 
@@ -0,0 +1,171 @@
+package teammates.test.cases.storage;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionStatisticsAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.storage.api.FeedbackSessionStatisticsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.datastore.Text;
+
+public class FeedbackSessionStatisticsDbTest extends BaseComponentTestCase {
+
+    private static final String SESSION_NAME = "First Session";
+    private static final String COURSE_ID = "FSSDbT.course";
+
+    private FeedbackSessionStatisticsDb fsStatsDb = new FeedbackSessionStatisticsDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testExpectedTotal() throws InvalidParametersException {
+
+        ______TS("unknown until stored");
+
+        FeedbackSessionStatisticsAttributes statistics =
+                fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        assertNull(statistics.getExpectedTotal());
+
+        statistics.setExpectedTotal(3);
+        fsStatsDb.putFeedbackSessionStatistics(statistics, getLateCountStartTime());
+        assertEquals(3, fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getExpectedTotal().intValue());
+
+        ______TS("cleared");
+
+        fsStatsDb.clearExpectedTotal(SESSION_NAME, COURSE_ID);
+        assertNull(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getExpectedTotal());
+
+        ______TS("not stored if cleared since the statistics were read");
+
+        FeedbackSessionStatisticsAttributes statisticsBeforeClear =
+                fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        fsStatsDb.clearExpectedTotal(SESSION_NAME, COURSE_ID);
+        statisticsBeforeClear.setExpectedTotal(4);
+        fsStatsDb.putFeedbackSessionStatistics(statisticsBeforeClear, getLateCountStartTime());
+        assertNull(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getExpectedTotal());
+
+        ______TS("not stored if cleared shortly before the roster was read");
+
+        statistics = fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        statistics.setExpectedTotal(4);
+        fsStatsDb.putFeedbackSessionStatistics(statistics, new Date());
+        assertNull(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getExpectedTotal());
+
+        ______TS("stored once the roster is quiet");
+
+        fsStatsDb.putFeedbackSessionStatistics(statistics, getLateCountStartTime());
+        assertEquals(4, fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getExpectedTotal().intValue());
+
+        ______TS("not stored if the statistics did not exist when read, but were cleared since");
+
+        fsStatsDb.deleteFeedbackSessionStatisticsForCourse(COURSE_ID);
+        statistics = fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        fsStatsDb.clearExpectedTotal(SESSION_NAME, COURSE_ID);
+        statistics.setExpectedTotal(5);
+        fsStatsDb.putFeedbackSessionStatistics(statistics, getLateCountStartTime());
+        assertNull(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getExpectedTotal());
+
+        fsStatsDb.deleteFeedbackSessionStatisticsForCourse(COURSE_ID);
+    }
+
+    @Test
+    public void testResponseCounts() {
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        responses.add(createResponse("question1", "giver1@email.tmt"));
+
+        ______TS("unknown until recounted");
+
+        FeedbackSessionStatisticsAttributes statisticsBeforeChange =
+                fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        assertFalse(statisticsBeforeChange.isResponseCountsKnown());
+        assertTrue(statisticsBeforeChange.getResponseCountsRevisions().isEmpty());
+
+        ______TS("recount is not stored for a shard changed since its revision was read");
+
+        fsStatsDb.addToResponseCounts(SESSION_NAME, COURSE_ID, "question1", "giver1@email.tmt", 1);
+        fsStatsDb.putResponseCounts(SESSION_NAME, COURSE_ID, new ArrayList<FeedbackResponseAttributes>(),
+                                    statisticsBeforeChange.getResponseCountsRevisions(), getLateCountStartTime());
+        assertFalse(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).isResponseCountsKnown());
+
+        ______TS("recount is not stored for a shard changed shortly before the recount");
+
+        fsStatsDb.putResponseCounts(SESSION_NAME, COURSE_ID, new ArrayList<FeedbackResponseAttributes>(),
+                                    getRevisions(), new Date());
+        assertFalse(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).isResponseCountsKnown());
+
+        ______TS("recount is stored once the shards are quiet");
+
+        fsStatsDb.putResponseCounts(SESSION_NAME, COURSE_ID, responses, getRevisions(), getLateCountStartTime());
+        FeedbackSessionStatisticsAttributes statistics =
+                fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        assertTrue(statistics.isResponseCountsKnown());
+        assertEquals(1, statistics.getResponseTotal());
+        assertEquals(FeedbackSessionStatisticsDb.NUM_RESPONSE_COUNTS_SHARDS,
+                     statistics.getResponseCountsRevisions().size());
+
+        ______TS("counts are updated once known");
+
+        fsStatsDb.addToResponseCounts(SESSION_NAME, COURSE_ID, "question1", "giver2@email.tmt", 1);
+        fsStatsDb.addToResponseCounts(SESSION_NAME, COURSE_ID, "question2", "giver1@email.tmt", 1);
+        fsStatsDb.addToResponseCounts(SESSION_NAME, COURSE_ID, "question1", "giver1@email.tmt", -1);
+
+        statistics = fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        Map<String, Integer> expectedCountsPerQuestion = new HashMap<String, Integer>();
+        expectedCountsPerQuestion.put("question1", 1);
+        expectedCountsPerQuestion.put("question2", 1);
+        assertEquals(expectedCountsPerQuestion, statistics.getResponseCountsPerQuestion());
+        assertEquals(2, statistics.getResponseTotal());
+
+        ______TS("known counts are not overwritten by a recount");
+
+        fsStatsDb.putResponseCounts(SESSION_NAME, COURSE_ID, new ArrayList<FeedbackResponseAttributes>(),
+                                    getRevisions(), getLateCountStartTime());
+        assertEquals(2, fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getResponseTotal());
+
+        ______TS("invalidated counts are not restored by a recount started before");
+
+        Map<Integer, String> revisionsBeforeInvalidation = getRevisions();
+        fsStatsDb.invalidateResponseCounts(SESSION_NAME, COURSE_ID);
+        assertFalse(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).isResponseCountsKnown());
+
+        fsStatsDb.putResponseCounts(SESSION_NAME, COURSE_ID, responses,
+                                    revisionsBeforeInvalidation, getLateCountStartTime());
+        assertFalse(fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).isResponseCountsKnown());
+
+        ______TS("delete");
+
+        fsStatsDb.deleteFeedbackSessionStatisticsForCourse(COURSE_ID);
+        statistics = fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID);
+        assertFalse(statistics.isResponseCountsKnown());
+        assertTrue(statistics.getResponseCountsRevisions().isEmpty());
+    }
+
+    private Map<Integer, String> getRevisions() {
+        return fsStatsDb.getFeedbackSessionStatistics(SESSION_NAME, COURSE_ID).getResponseCountsRevisions();
+    }
+
+    /**
+     * @return a recount start time long enough after the changes made by the test
+     */
+    private static Date getLateCountStartTime() {
+        return new Date(new Date().getTime() + 2 * FeedbackSessionStatisticsDb.RECOUNT_QUIET_PERIOD_MILLIS);
+    }
+
+    private static FeedbackResponseAttributes createResponse(String feedbackQuestionId, String giverEmail) {
+        return new FeedbackResponseAttributes(SESSION_NAME, COURSE_ID, feedbackQuestionId, FeedbackQuestionType.TEXT,
+                                              giverEmail, "None", "recipient@email.tmt", "None", new Text("answer"));
+    }
+}
@@ -4,8 +4,11 @@ import static teammates.common.util.FieldValidator.SESSION_END_TIME_FIELD_NAME;
 import static teammates.common.util.FieldValidator.SESSION_START_TIME_FIELD_NAME;
 import static teammates.common.util.FieldValidator.TIME_FRAME_ERROR_MESSAGE;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -264,7 +267,118 @@ public class FeedbackSessionsDbTest extends BaseComponentTestCase {
         fsDb.updateFeedbackSession(modifiedSession);
         verifyPresentInDatastore(modifiedSession);
     }
-    
+
+    @Test
+    public void testRespondants() throws Exception {
+        FeedbackSessionAttributes fsa = getNewFeedbackSession();
+        fsa.setFeedbackSessionName("fsRespondantsTest");
+        fsDb.deleteEntity(fsa);
+        fsDb.createEntity(fsa);
+
+        ______TS("add respondants");
+
+        List<String> studentEmails = new ArrayList<String>();
+        for (int i = 0; i < 25; i++) {
+            studentEmails.add("student" + i + "@email.tmt");
+        }
+        fsDb.addStudentRespondants(studentEmails, fsa);
+        fsDb.addInstructorRespondant("instructor@email.tmt", fsa);
+
+        FeedbackSessionAttributes session = fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+        assertEquals(new HashSet<String>(studentEmails), session.getRespondingStudentList());
+        assertEquals(1, session.getRespondingInstructorList().size());
+        assertTrue(session.getRespondingInstructorList().contains("instructor@email.tmt"));
+
+        List<FeedbackSessionAttributes> sessionsForCourse = fsDb.getFeedbackSessionsForCourse(fsa.getCourseId());
+        for (FeedbackSessionAttributes sessionForCourse : sessionsForCourse) {
+            if (sessionForCourse.getFeedbackSessionName().equals(fsa.getFeedbackSessionName())) {
+                assertEquals(25, sessionForCourse.getRespondingStudentList().size());
+            }
+        }
+
+        ______TS("update and delete respondants");
+
+        fsDb.updateStudentRespondant("student0@email.tmt", "student0.new@email.tmt", fsa);
+        fsDb.updateStudentRespondant("nonrespondant@email.tmt", "nonrespondant.new@email.tmt", fsa);
+        fsDb.deleteStudentRespondent("student1@email.tmt", fsa);
+
+        session = fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+        assertEquals(24, session.getRespondingStudentList().size());
+        assertTrue(session.getRespondingStudentList().contains("student0.new@email.tmt"));
+        assertFalse(session.getRespondingStudentList().contains("student0@email.tmt"));
+        assertFalse(session.getRespondingStudentList().contains("student1@email.tmt"));
+        assertFalse(session.getRespondingStudentList().contains("nonrespondant.new@email.tmt"));
+
+        ______TS("clear respondants");
+
+        fsDb.clearStudentRespondants(fsa);
+        session = fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+        assertTrue(session.getRespondingStudentList().isEmpty());
+        assertEquals(1, session.getRespondingInstructorList().size());
+
+        ______TS("respondants are deleted with the session");
+
+        fsDb.deleteEntity(fsa);
+        fsDb.createEntity(fsa);
+        session = fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+        assertTrue(session.getRespondingInstructorList().isEmpty());
+        fsDb.deleteEntity(fsa);
+    }
+
+    @Test
+    public void testRespondantsNotUpdated() throws Exception {
+        FeedbackSessionAttributes fsa = getNewFeedbackSession();
+        fsa.setFeedbackSessionName("fsRespondantsNotUpdatedTest");
+        fsDb.deleteEntity(fsa);
+        fsDb.createEntity(fsa);
+        fsDb.addStudentRespondant("student@email.tmt", fsa);
+
+        // a database on which every transaction keeps conflicting with concurrent ones
+        FeedbackSessionsDb conflictingFsDb = new FeedbackSessionsDb() {
+            @Override
+            protected <T> boolean updateInTransaction(Class<T> entityClass, String id,
+                                                      TransactionalUpdate<T> update) {
+                return false;
+            }
+        };
+
+        ______TS("failure: respondant is not deleted");
+
+        try {
+            conflictingFsDb.deleteStudentRespondent("student@email.tmt", fsa);
+            signalFailureToDetectException();
+        } catch (ConcurrentModificationException e) {
+            ignoreExpectedException();
+        }
+        FeedbackSessionAttributes session = fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+        assertTrue(session.getRespondingStudentList().contains("student@email.tmt"));
+
+        ______TS("failure: new email is not added when the old one is not deleted");
+
+        try {
+            conflictingFsDb.updateStudentRespondant("student@email.tmt", "student.new@email.tmt", fsa);
+            signalFailureToDetectException();
+        } catch (ConcurrentModificationException e) {
+            ignoreExpectedException();
+        }
+        session = fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+        assertTrue(session.getRespondingStudentList().contains("student@email.tmt"));
+        assertFalse(session.getRespondingStudentList().contains("student.new@email.tmt"));
+
+        ______TS("failure: respondants are not cleared");
+
+        try {
+            conflictingFsDb.clearStudentRespondants(fsa);
+            signalFailureToDetectException();
+        } catch (ConcurrentModificationException e) {
+            ignoreExpectedException();
+        }
+        session = fsDb.getFeedbackSession(fsa.getCourseId(), fsa.getFeedbackSessionName());
+        assertEquals(1, session.getRespondingStudentList().size());
+
+        fsDb.deleteEntity(fsa);
+    }
+
     private FeedbackSessionAttributes getNewFeedbackSession() {
         FeedbackSessionAttributes fsa = new FeedbackSessionAttributes();
         fsa.setFeedbackSessionType(FeedbackSessionType.STANDARD);
@@ -0,0 +1,127 @@
+package teammates.test.cases.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.storage.api.AccountsDb;
+import teammates.storage.datastore.ParallelDatastoreTasks;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class ParallelDatastoreTasksTest extends BaseComponentTestCase {
+
+    private static final int PARALLELISM = 3;
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testRunAll() {
+
+        ______TS("results are in the order of the tasks");
+
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 5; i++) {
+            final int value = i;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return value;
+                }
+            });
+        }
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), ParallelDatastoreTasks.runAll(tasks, 1));
+
+        ______TS("no tasks");
+
+        assertTrue(ParallelDatastoreTasks.runAll(new ArrayList<Callable<Integer>>(), 1).isEmpty());
+
+        ______TS("exception thrown by a task is rethrown");
+
+        tasks.add(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                throw new IllegalStateException("task failed");
+            }
+        });
+        try {
+            ParallelDatastoreTasks.runAll(tasks, 1);
+            signalFailureToDetectException();
+        } catch (IllegalStateException e) {
+            assertEquals("task failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRunAllInParallel() {
+
+        ______TS("tasks run at the same time");
+
+        // each task waits until all the tasks have started, which only happens if they run in parallel
+        final CountDownLatch startedTasks = new CountDownLatch(PARALLELISM);
+        List<Callable<Boolean>> waitingTasks = new ArrayList<Callable<Boolean>>();
+        for (int i = 0; i < PARALLELISM; i++) {
+            waitingTasks.add(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws InterruptedException {
+                    startedTasks.countDown();
+                    return startedTasks.await(10, TimeUnit.SECONDS);
+                }
+            });
+        }
+        assertEquals(Arrays.asList(true, true, true), ParallelDatastoreTasks.runAll(waitingTasks, PARALLELISM));
+
+        ______TS("results are in the order of the tasks, not of their completion");
+
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 5; i++) {
+            final int value = i;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws InterruptedException {
+                    // the earlier tasks finish last
+                    Thread.sleep((5 - value) * 20);
+                    return value;
+                }
+            });
+        }
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), ParallelDatastoreTasks.runAll(tasks, PARALLELISM));
+
+        ______TS("tasks can read from the Datastore in their own threads");
+
+        List<Callable<Boolean>> readingTasks = new ArrayList<Callable<Boolean>>();
+        for (int i = 0; i < PARALLELISM; i++) {
+            final String googleId = "PDTT.nonexistent" + i;
+            readingTasks.add(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return new AccountsDb().getAccount(googleId) == null;
+                }
+            });
+        }
+        assertEquals(Arrays.asList(true, true, true), ParallelDatastoreTasks.runAll(readingTasks, PARALLELISM));
+
+        ______TS("exception thrown by a task is rethrown");
+
+        tasks.add(1, new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                throw new IllegalStateException("task failed");
+            }
+        });
+        try {
+            ParallelDatastoreTasks.runAll(tasks, PARALLELISM);
+            signalFailureToDetectException();
+        } catch (IllegalStateException e) {
+            assertEquals("task failed", e.getMessage());
+        }
+    }
+}
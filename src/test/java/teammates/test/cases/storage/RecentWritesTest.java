@@ -0,0 +1,65 @@
+package teammates.test.cases.storage;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.storage.datastore.RecentWrites;
+import teammates.test.cases.BaseTestCase;
+
+public class RecentWritesTest extends BaseTestCase {
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @AfterMethod
+    public void clearRecentWrites() {
+        RecentWrites.clear();
+    }
+
+    @Test
+    public void testRecordWriteAndDeletion() {
+
+        ______TS("nothing is recorded initially");
+
+        assertNull(RecentWrites.getWrittenEntity("Kind|key"));
+        assertFalse(RecentWrites.isDeleted("Kind|key"));
+
+        ______TS("written entity is seen by later reads");
+
+        RecentWrites.recordWrite("Kind|key", "entity");
+        assertEquals("entity", RecentWrites.getWrittenEntity("Kind|key"));
+        assertFalse(RecentWrites.isDeleted("Kind|key"));
+
+        ______TS("deletion replaces the write");
+
+        RecentWrites.recordDeletion("Kind|key");
+        assertNull(RecentWrites.getWrittenEntity("Kind|key"));
+        assertTrue(RecentWrites.isDeleted("Kind|key"));
+
+        ______TS("writes are forgotten at the end of the request");
+
+        RecentWrites.recordWrite("Kind|key", "entity");
+        RecentWrites.clear();
+        assertNull(RecentWrites.getWrittenEntity("Kind|key"));
+    }
+
+    @Test
+    public void testConsistencyCheckSampling() {
+        int checkCount = 0;
+        for (int i = 0; i < RecentWrites.CONSISTENCY_CHECK_INTERVAL; i++) {
+            if (RecentWrites.recordWrite("Kind|" + i, i)) {
+                checkCount++;
+            }
+        }
+        assertEquals(1, checkCount);
+
+        long inconsistentReadCount = RecentWrites.getInconsistentReadCount();
+        RecentWrites.recordConsistencyCheck(true);
+        assertEquals(inconsistentReadCount, RecentWrites.getInconsistentReadCount());
+        RecentWrites.recordConsistencyCheck(false);
+        assertEquals(inconsistentReadCount + 1, RecentWrites.getInconsistentReadCount());
+    }
+}
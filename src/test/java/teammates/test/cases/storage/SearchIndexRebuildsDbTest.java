@@ -0,0 +1,72 @@
+package teammates.test.cases.storage;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.SearchIndexRebuildAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const;
+import teammates.storage.api.SearchIndexRebuildsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class SearchIndexRebuildsDbTest extends BaseComponentTestCase {
+
+    private static final String INDEX_NAME = Const.SearchIndex.STUDENT;
+
+    private SearchIndexRebuildsDb searchIndexRebuildsDb = new SearchIndexRebuildsDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testCheckpoints() throws InvalidParametersException {
+
+        ______TS("invalid index name");
+
+        try {
+            searchIndexRebuildsDb.putSearchIndexRebuild(new SearchIndexRebuildAttributes("no such index", "1"));
+            signalFailureToDetectException();
+        } catch (InvalidParametersException e) {
+            assertTrue(e.getMessage().contains("no such index"));
+        }
+
+        ______TS("progress is recorded page by page");
+
+        assertFalse(searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, "1", null, "cursor1", 5));
+
+        searchIndexRebuildsDb.putSearchIndexRebuild(new SearchIndexRebuildAttributes(INDEX_NAME, "1"));
+        assertTrue(searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, "1", null, "cursor1", 5));
+
+        SearchIndexRebuildAttributes rebuild = searchIndexRebuildsDb.getSearchIndexRebuild(INDEX_NAME);
+        assertEquals("cursor1", rebuild.getCursor());
+        assertEquals(5, rebuild.getDocumentsPut());
+        assertFalse(rebuild.isFinished());
+
+        ______TS("a page which was already recorded is not recorded again");
+
+        assertFalse(searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, "1", null, "cursor1", 5));
+        assertEquals(5, searchIndexRebuildsDb.getSearchIndexRebuild(INDEX_NAME).getDocumentsPut());
+
+        ______TS("the last page finishes the rebuild");
+
+        assertTrue(searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, "1", "cursor1", null, 3));
+        rebuild = searchIndexRebuildsDb.getSearchIndexRebuild(INDEX_NAME);
+        assertNull(rebuild.getCursor());
+        assertEquals(8, rebuild.getDocumentsPut());
+        assertTrue(rebuild.isFinished());
+        assertFalse(searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, "1", null, "cursor1", 5));
+
+        ______TS("a new rebuild supersedes the earlier one");
+
+        searchIndexRebuildsDb.putSearchIndexRebuild(new SearchIndexRebuildAttributes(INDEX_NAME, "2"));
+        assertFalse(searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, "1", null, "cursor1", 5));
+        assertTrue(searchIndexRebuildsDb.checkpointSearchIndexRebuild(INDEX_NAME, "2", null, "cursor1", 5));
+
+        rebuild = searchIndexRebuildsDb.getSearchIndexRebuild(INDEX_NAME);
+        assertEquals("2", rebuild.getRebuildId());
+        assertEquals(5, rebuild.getDocumentsPut());
+        assertEquals(1, searchIndexRebuildsDb.getAllSearchIndexRebuilds().size());
+    }
+}
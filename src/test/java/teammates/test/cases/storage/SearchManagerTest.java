@@ -0,0 +1,126 @@
+package teammates.test.cases.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.storage.search.SearchManager;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.QueryOptions;
+import com.google.appengine.api.search.SortExpression;
+import com.google.appengine.api.search.SortOptions;
+
+public class SearchManagerTest extends BaseComponentTestCase {
+
+    private static final String INDEX_NAME = "SearchManagerTest";
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testSearchResultsCache() {
+        SearchManager.putDocuments(INDEX_NAME, Arrays.asList(createDocument("1", "alice"),
+                                                             createDocument("2", "bob")));
+
+        ______TS("miss on the first search");
+
+        long hitCount = SearchManager.getSearchResultsCacheHitCount();
+        long missCount = SearchManager.getSearchResultsCacheMissCount();
+        assertEquals(1, SearchManager.searchDocuments(INDEX_NAME, createQuery("text:alice", null))
+                                     .getNumberFound());
+        assertEquals(missCount + 1, SearchManager.getSearchResultsCacheMissCount());
+
+        ______TS("hit on the same search, including one which only differs in whitespace");
+
+        assertEquals(1, SearchManager.searchDocuments(INDEX_NAME, createQuery("text:alice", null))
+                                     .getNumberFound());
+        assertEquals(1, SearchManager.searchDocuments(INDEX_NAME, createQuery("  text:alice ", null))
+                                     .getNumberFound());
+        assertEquals(hitCount + 2, SearchManager.getSearchResultsCacheHitCount());
+
+        ______TS("miss on a search with different sort expressions");
+
+        SortExpression.SortDirection ascending = SortExpression.SortDirection.ASCENDING;
+        SortExpression.SortDirection descending = SortExpression.SortDirection.DESCENDING;
+        SearchManager.searchDocuments(INDEX_NAME, createQuery("text:alice", ascending));
+        SearchManager.searchDocuments(INDEX_NAME, createQuery("text:alice", descending));
+        assertEquals(missCount + 3, SearchManager.getSearchResultsCacheMissCount());
+        SearchManager.searchDocuments(INDEX_NAME, createQuery("text:alice", descending));
+        assertEquals(hitCount + 3, SearchManager.getSearchResultsCacheHitCount());
+
+        ______TS("putting documents invalidates the cached results of the index");
+
+        SearchManager.putDocument(INDEX_NAME, createDocument("3", "alice smith"));
+        assertEquals(2, SearchManager.searchDocuments(INDEX_NAME, createQuery("text:alice", null))
+                                     .getNumberFound());
+        assertEquals(missCount + 4, SearchManager.getSearchResultsCacheMissCount());
+
+        ______TS("deleting documents invalidates the cached results of the index");
+
+        SearchManager.deleteDocument(INDEX_NAME, "3");
+        SearchManager.searchDocuments(INDEX_NAME, createQuery("text:alice", null));
+        assertEquals(missCount + 5, SearchManager.getSearchResultsCacheMissCount());
+        assertEquals(hitCount + 3, SearchManager.getSearchResultsCacheHitCount());
+
+        SearchManager.deleteDocuments(INDEX_NAME, new String[] {"1", "2"});
+    }
+
+    @Test
+    public void testPutDocumentsInBatches() {
+        String indexName = INDEX_NAME + "Batches";
+        int numberOfDocuments = 2 * SearchManager.MAX_DOCUMENTS_PER_PUT + 1;
+        List<Document> documents = new ArrayList<Document>();
+        String[] documentIds = new String[numberOfDocuments];
+        for (int i = 0; i < numberOfDocuments; i++) {
+            documentIds[i] = "document" + i;
+            documents.add(createDocument(documentIds[i], "text " + i));
+        }
+
+        ______TS("documents of all the batches, including the last partial one, are put");
+
+        assertEquals(numberOfDocuments, SearchManager.putDocuments(indexName, documents));
+        assertNotNull(SearchManager.getDocument(indexName, "document0"));
+        assertNotNull(SearchManager.getDocument(indexName, "document" + SearchManager.MAX_DOCUMENTS_PER_PUT));
+        assertNotNull(SearchManager.getDocument(indexName, "document" + (numberOfDocuments - 1)));
+
+        ______TS("no documents");
+
+        assertEquals(0, SearchManager.putDocuments(indexName, new ArrayList<Document>()));
+
+        for (int i = 0; i < numberOfDocuments; i += SearchManager.MAX_DOCUMENTS_PER_PUT) {
+            SearchManager.deleteDocuments(indexName, Arrays.copyOfRange(
+                    documentIds, i, Math.min(i + SearchManager.MAX_DOCUMENTS_PER_PUT, numberOfDocuments)));
+        }
+    }
+
+    private static Document createDocument(String id, String text) {
+        return Document.newBuilder()
+                .setId(id)
+                .addField(Field.newBuilder().setName("text").setText(text))
+                .build();
+    }
+
+    /**
+     * @param sortDirection the direction to sort the results by their text in, or null if they are not sorted
+     */
+    private static Query createQuery(String queryString, SortExpression.SortDirection sortDirection) {
+        QueryOptions.Builder options = QueryOptions.newBuilder().setLimit(20);
+        if (sortDirection != null) {
+            options.setSortOptions(SortOptions.newBuilder()
+                    .addSortExpression(SortExpression.newBuilder()
+                            .setExpression("text")
+                            .setDirection(sortDirection)
+                            .setDefaultValue("")));
+        }
+        return Query.newBuilder().setOptions(options).build(queryString);
+    }
+}
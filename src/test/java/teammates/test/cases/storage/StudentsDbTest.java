@@ -3,9 +3,14 @@ package teammates.test.cases.storage;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -14,6 +19,7 @@ import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.StringHelper;
 import teammates.storage.api.StudentsDb;
+import teammates.storage.datastore.DatastoreCache;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
@@ -289,6 +295,110 @@ public class StudentsDbTest extends BaseComponentTestCase {
       //       Reason: Difficult to reproduce a persistence delay during testing
     }
     
+    @Test
+    public void testGetStudentsForCourseWithCache() throws Exception {
+        StudentAttributes s = createNewStudent();
+        
+        ______TS("success : repeated reads are served from the cache");
+        
+        int numberOfStudents = studentsDb.getStudentsForCourse(s.course).size();
+        long hitCount = DatastoreCache.getRequestHitCount();
+        List<StudentAttributes> students = studentsDb.getStudentsForCourse(s.course);
+        assertEquals(numberOfStudents, students.size());
+        assertEquals(hitCount + 1, DatastoreCache.getRequestHitCount());
+        
+        ______TS("success : changes to returned objects do not affect the cache");
+        
+        students.get(0).name = "modified name";
+        students.clear();
+        students = studentsDb.getStudentsForCourse(s.course);
+        assertEquals(numberOfStudents, students.size());
+        assertFalse("modified name".equals(students.get(0).name));
+        
+        ______TS("success : writes invalidate the cached reads");
+        
+        createNewStudent("cachedStudent@mail.com");
+        assertEquals(numberOfStudents + 1, studentsDb.getStudentsForCourse(s.course).size());
+        
+        studentsDb.updateStudentWithoutSearchability(s.course, s.email, "new name", s.team, s.section,
+                                                     s.email, s.googleId, s.comments);
+        for (StudentAttributes student : studentsDb.getStudentsForCourse(s.course)) {
+            if (student.email.equals(s.email)) {
+                assertEquals("new name", student.name);
+            }
+        }
+        
+        studentsDb.deleteStudentWithoutDocument(s.course, "cachedStudent@mail.com");
+        assertEquals(numberOfStudents, studentsDb.getStudentsForCourse(s.course).size());
+    }
+    
+    @Test
+    public void testGetStudentsForCourses() throws Exception {
+        StudentAttributes s = createNewStudent();
+        StudentAttributes studentInOtherCourse = s.getCopy();
+        studentInOtherCourse.course = "valid-course-3";
+        studentsDb.createEntity(studentInOtherCourse);
+        
+        ______TS("success : students of several courses, including one without students");
+        
+        Map<String, List<StudentAttributes>> studentsForCourses =
+                studentsDb.getStudentsForCourses(Arrays.asList(s.course, studentInOtherCourse.course, "empty-course"));
+        
+        assertEquals(3, studentsForCourses.size());
+        assertEquals(studentsDb.getStudentsForCourse(s.course).size(), studentsForCourses.get(s.course).size());
+        assertEquals(1, studentsForCourses.get(studentInOtherCourse.course).size());
+        assertEquals(studentInOtherCourse.email, studentsForCourses.get(studentInOtherCourse.course).get(0).email);
+        assertTrue(studentsForCourses.get("empty-course").isEmpty());
+        
+        ______TS("success : the students of each course are cached");
+        
+        long hitCount = DatastoreCache.getRequestHitCount();
+        studentsDb.getStudentsForCourse(studentInOtherCourse.course);
+        assertEquals(hitCount + 1, DatastoreCache.getRequestHitCount());
+        
+        studentsDb.deleteStudentWithoutDocument(studentInOtherCourse.course, studentInOtherCourse.email);
+        assertTrue(studentsDb.getStudentsForCourses(Arrays.asList(studentInOtherCourse.course))
+                             .get(studentInOtherCourse.course).isEmpty());
+    }
+    
+    @Test
+    public void testCreateStudentsWithoutSearchability() throws Exception {
+        StudentAttributes existingStudent = createNewStudent();
+        
+        ______TS("success : new students are created and existing students are updated");
+        
+        StudentAttributes updatedStudent = existingStudent.getCopy();
+        updatedStudent.name = "updated student";
+        StudentAttributes newStudent = existingStudent.getCopy();
+        newStudent.email = "bulk.new@email.com";
+        StudentAttributes newStudentInOtherCourse = existingStudent.getCopy();
+        newStudentInOtherCourse.course = "valid-course-2";
+        
+        studentsDb.createStudentsWithoutSearchability(
+                Arrays.asList(updatedStudent, newStudent, newStudentInOtherCourse));
+        
+        assertEquals("updated student",
+                     studentsDb.getStudentForEmail(existingStudent.course, existingStudent.email).name);
+        assertNotNull(studentsDb.getStudentForEmail(newStudent.course, newStudent.email));
+        assertNotNull(studentsDb.getStudentForEmail(newStudentInOtherCourse.course, newStudentInOtherCourse.email));
+        
+        ______TS("success : only the existing students are returned for update, writes in small batches");
+        
+        StudentAttributes anotherNewStudent = existingStudent.getCopy();
+        anotherNewStudent.email = "bulk.another@email.com";
+        List<EntityAttributes> studentsToUpdate =
+                studentsDb.createEntities(Arrays.asList(newStudent, anotherNewStudent, newStudentInOtherCourse), 1);
+        
+        assertEquals(2, studentsToUpdate.size());
+        assertTrue(studentsToUpdate.contains(newStudent));
+        assertTrue(studentsToUpdate.contains(newStudentInOtherCourse));
+        assertNotNull(studentsDb.getStudentForEmail(anotherNewStudent.course, anotherNewStudent.email));
+        
+        studentsDb.deleteStudentWithoutDocument(newStudent.course, newStudent.email);
+        studentsDb.deleteStudentWithoutDocument(anotherNewStudent.course, anotherNewStudent.email);
+        studentsDb.deleteStudentWithoutDocument(newStudentInOtherCourse.course, newStudentInOtherCourse.email);
+    }
+    
     private StudentAttributes createNewStudent() throws InvalidParametersException {
         StudentAttributes s = new StudentAttributes();
         s.name = "valid student";
@@ -13,6 +13,8 @@ import javax.servlet.http.HttpServletRequest;
 import teammates.common.util.Const;
 import teammates.logic.api.Logic;
 import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.DatastoreCache;
+import teammates.storage.datastore.RecentWrites;
 import teammates.ui.controller.Action;
 import teammates.ui.controller.ActionFactory;
 
@@ -63,6 +65,8 @@ public class GaeSimulation {
         helper.setUp();
         
         Datastore.initialize();
+        DatastoreCache.clear();
+        RecentWrites.clear();
         
         sc = new ServletRunner().newClient();
     }
@@ -85,6 +89,8 @@ public class GaeSimulation {
         helper.setUp();
         
         Datastore.initialize();
+        DatastoreCache.clear();
+        RecentWrites.clear();
         
         sc = new ServletRunner().newClient();
     }